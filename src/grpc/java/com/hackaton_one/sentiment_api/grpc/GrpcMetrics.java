@@ -0,0 +1,101 @@
+package com.hackaton_one.sentiment_api.grpc;
+
+import com.hackaton_one.sentiment_api.api.dto.GrpcMethodStatsDTO;
+import com.hackaton_one.sentiment_api.service.LatencyHistogram;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do servidor gRPC por método: chamadas, erros, mensagens e
+ * duração das chamadas. Expostas em GET /grpc/metrics.
+ */
+@Component
+public class GrpcMetrics implements ServerInterceptor {
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        MethodMetrics metrics = methods.computeIfAbsent(call.getMethodDescriptor().getFullMethodName(),
+                k -> new MethodMetrics());
+        long start = System.nanoTime();
+        AtomicBoolean finished = new AtomicBoolean();
+        metrics.calls.increment();
+        metrics.active.incrementAndGet();
+
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) {
+                metrics.active.decrementAndGet();
+                metrics.latency.record(System.nanoTime() - start);
+            }
+        };
+        ServerCall<Q, R> counted = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(R message) {
+                metrics.sent.increment();
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (!status.isOk()) {
+                    metrics.errors.increment();
+                }
+                finish.run();
+                super.close(status, trailers);
+            }
+        };
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(counted, headers)) {
+            @Override
+            public void onMessage(Q message) {
+                metrics.received.increment();
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                if (!finished.get()) {
+                    metrics.errors.increment();
+                }
+                finish.run();
+                super.onCancel();
+            }
+        };
+    }
+
+    public List<GrpcMethodStatsDTO> getStats() {
+        return new TreeMap<>(methods).entrySet().stream()
+                .map(e -> e.getValue().toStats(e.getKey()))
+                .toList();
+    }
+
+    private static final class MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final AtomicLong active = new AtomicLong();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        GrpcMethodStatsDTO toStats(String method) {
+            return new GrpcMethodStatsDTO(method, calls.sum(), active.get(), errors.sum(), received.sum(), sent.sum(),
+                    latency.meanMillis(), latency.percentileMillis(0.50), latency.percentileMillis(0.95),
+                    latency.percentileMillis(0.99));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackaton_one.sentiment_api.grpc;
+
+import com.hackaton_one.sentiment_api.api.dto.GrpcMethodStatsDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller com as métricas do servidor gRPC.
+ *
+ * Endpoints:
+ * - GET /grpc/metrics - Chamadas, erros, mensagens e latência por método
+ */
+@RestController
+@RequestMapping("/grpc")
+public class GrpcMetricsController {
+
+    private final GrpcMetrics metrics;
+
+    public GrpcMetricsController(GrpcMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<List<GrpcMethodStatsDTO>> getMetrics() {
+        return ResponseEntity.ok(metrics.getStats());
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackaton_one.sentiment_api.grpc;
+
+import com.hackaton_one.sentiment_api.config.ModelVariantFilter;
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.Locale;
+
+/**
+ * Equivalente gRPC de TenantFilter e ModelVariantFilter: resolve o tenant
+ * (metadata x-api-key) e a variante de modelo
+ * (x-model-variant) e os disponibiliza no {@link Context} da chamada.
+ */
+public class GrpcRequestContextInterceptor implements ServerInterceptor {
+
+    static final Context.Key<String> TENANT = Context.key("sentiment-tenant");
+    static final Context.Key<String> VARIANT = Context.key("sentiment-model-variant");
+
+    private final TenantProperties properties;
+    private final Metadata.Key<String> apiKeyHeader;
+    private final Metadata.Key<String> variantHeader;
+
+    public GrpcRequestContextInterceptor(TenantProperties properties) {
+        this.properties = properties;
+        this.apiKeyHeader = key(properties.getApiKeyHeader());
+        this.variantHeader = key(ModelVariantFilter.HEADER);
+    }
+
+    private static Metadata.Key<String> key(String header) {
+        return Metadata.Key.of(header.toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        String tenant = properties.resolveTenant(headers.get(apiKeyHeader));
+        String variant = headers.get(variantHeader);
+        Context context = Context.current().withValues(
+                TENANT, tenant,
+                VARIANT, variant != null && !variant.isBlank() ? variant.trim() : null);
+        return Contexts.interceptCall(context, call, headers, next);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hackaton_one.sentiment_api.grpc;
+
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import com.hackaton_one.sentiment_api.service.InferenceBatcher;
+import com.hackaton_one.sentiment_api.service.SentimentService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor gRPC na porta grpc.port, ao lado da API REST.
+ *
+ * Os interceptadores registram as métricas de cada chamada e resolvem
+ * tenant e variante de modelo a partir da metadata.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer {
+
+    private final SentimentService sentimentService;
+    private final InferenceBatcher batcher;
+    private final TenantProperties tenantProperties;
+    private final GrpcMetrics metrics;
+
+    @Value("${grpc.port:9090}")
+    private int port = 9090;
+
+    @Value("${grpc.max-in-flight:32}")
+    private int maxInFlight = 32;
+
+    @Value("${bulk.max-texts:1000}")
+    private int maxBulkTexts = 1000;
+
+    @Value("${grpc.shutdown-grace-ms:5000}")
+    private long shutdownGraceMs = 5000;
+
+    private Server server;
+
+    public GrpcServer(SentimentService sentimentService, InferenceBatcher batcher,
+                      TenantProperties tenantProperties, GrpcMetrics metrics) {
+        this.sentimentService = sentimentService;
+        this.batcher = batcher;
+        this.tenantProperties = tenantProperties;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        SentimentGrpcService service = new SentimentGrpcService(sentimentService, batcher, maxBulkTexts, maxInFlight);
+        server = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                // O último interceptador é o mais externo: métricas envolvem toda a chamada
+                .addService(ServerInterceptors.intercept(service,
+                        new GrpcRequestContextInterceptor(tenantProperties), metrics))
+                .build()
+                .start();
+        log.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        if (!server.awaitTermination(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+            server.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.hackaton_one.sentiment_api.grpc;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
+import com.hackaton_one.sentiment_api.grpc.proto.AnalyzeRequest;
+import com.hackaton_one.sentiment_api.grpc.proto.BulkResponse;
+import com.hackaton_one.sentiment_api.grpc.proto.InferenceStage;
+import com.hackaton_one.sentiment_api.grpc.proto.SentimentAnalyzerGrpc;
+import com.hackaton_one.sentiment_api.grpc.proto.SentimentResponse;
+import com.hackaton_one.sentiment_api.service.InferenceBatcher;
+import com.hackaton_one.sentiment_api.service.SentimentService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Implementação do serviço gRPC SentimentAnalyzer (src/main/proto/sentiment.proto).
+ *
+ * - Analyze: mesmo fluxo de POST /sentiment, inclusive a persistência;
+ * - AnalyzeBulk: os textos do stream seguem juntos para
+ *   {@link SentimentService#analyzeBatch}, como em POST /sentiment/bulk;
+ * - AnalyzeStream: cada texto entra no {@link InferenceBatcher}, compartilhado
+ *   com o WebSocket /sentiment/stream. O controle de fluxo é o do próprio
+ *   gRPC: o servidor só pede novas mensagens ao cliente enquanto houver
+ *   menos de grpc.max-in-flight textos em análise no stream.
+ */
+@Slf4j
+public class SentimentGrpcService extends SentimentAnalyzerGrpc.SentimentAnalyzerImplBase {
+
+    private final SentimentService sentimentService;
+    private final InferenceBatcher batcher;
+    private final int maxBulkTexts;
+    private final int maxInFlight;
+
+    public SentimentGrpcService(SentimentService sentimentService, InferenceBatcher batcher,
+                                int maxBulkTexts, int maxInFlight) {
+        this.sentimentService = sentimentService;
+        this.batcher = batcher;
+        this.maxBulkTexts = maxBulkTexts;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    @Override
+    public void analyze(AnalyzeRequest request, StreamObserver<SentimentResponse> responseObserver) {
+        if (request.getText().isBlank()) {
+            responseObserver.onError(invalid("'text' is required"));
+            return;
+        }
+        try {
+            SentimentResponseDTO response = inRequestContext(() -> sentimentService.analyzeAndSave(request.getText()));
+            responseObserver.onNext(SentimentResponse.newBuilder()
+                    .setId(request.getId())
+                    .setSentiment(response.sentiment())
+                    .setScore(response.score())
+                    .setText(response.text())
+                    .setStage(toProto(response.stage()))
+                    .setDegraded(Boolean.TRUE.equals(response.degraded()))
+                    .build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+        }
+    }
+
+    @Override
+    public StreamObserver<AnalyzeRequest> analyzeBulk(StreamObserver<BulkResponse> responseObserver) {
+        String tenant = GrpcRequestContextInterceptor.TENANT.get();
+        String variant = GrpcRequestContextInterceptor.VARIANT.get();
+        return new StreamObserver<>() {
+            private final List<AnalyzeRequest> requests = new ArrayList<>();
+            private boolean failed;
+
+            @Override
+            public void onNext(AnalyzeRequest request) {
+                if (failed) {
+                    return;
+                }
+                if (requests.size() >= maxBulkTexts) {
+                    fail(invalid("At most " + maxBulkTexts + " texts are accepted per request"));
+                } else if (request.getText().isBlank()) {
+                    fail(invalid("Item " + requests.size() + ": 'text' is required"));
+                } else {
+                    requests.add(request);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("AnalyzeBulk cancelled by the client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                if (requests.isEmpty()) {
+                    responseObserver.onError(invalid("No texts to analyze"));
+                    return;
+                }
+                List<String> texts = new ArrayList<>(requests.size());
+                for (AnalyzeRequest request : requests) {
+                    texts.add(request.getText());
+                }
+                try {
+                    List<SentimentResultDTO> results = inContext(tenant, variant,
+                            () -> sentimentService.analyzeBatch(texts));
+                    BulkResponse.Builder response = BulkResponse.newBuilder().setTotalProcessed(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        response.addResults(toResponse(requests.get(i).getId(), results.get(i)));
+                    }
+                    responseObserver.onNext(response.build());
+                    responseObserver.onCompleted();
+                } catch (RuntimeException e) {
+                    responseObserver.onError(toStatus(e));
+                }
+            }
+
+            private void fail(StatusRuntimeException error) {
+                failed = true;
+                requests.clear();
+                responseObserver.onError(error);
+            }
+        };
+    }
+
+    @Override
+    public StreamObserver<AnalyzeRequest> analyzeStream(StreamObserver<SentimentResponse> responseObserver) {
+        ServerCallStreamObserver<SentimentResponse> call = (ServerCallStreamObserver<SentimentResponse>) responseObserver;
+        call.disableAutoRequest();
+        call.request(maxInFlight);
+
+        String tenant = GrpcRequestContextInterceptor.TENANT.get();
+        String variant = GrpcRequestContextInterceptor.VARIANT.get();
+        AtomicInteger pending = new AtomicInteger();
+        AtomicBoolean halfClosed = new AtomicBoolean();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        Runnable completeIfDone = () -> {
+            if (halfClosed.get() && pending.get() == 0 && completed.compareAndSet(false, true)) {
+                synchronized (call) {
+                    if (!call.isCancelled()) {
+                        call.onCompleted();
+                    }
+                }
+            }
+        };
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(AnalyzeRequest request) {
+                String id = request.getId();
+                if (request.getText().isBlank()) {
+                    send(call, errorResponse(id, "'text' is required"));
+                    call.request(1);
+                    return;
+                }
+                pending.incrementAndGet();
+                batcher.submit(tenant, variant, request.getText()).whenComplete((result, error) -> {
+                    send(call, error == null ? toResponse(id, result) : errorResponse(id, describe(error)));
+                    pending.decrementAndGet();
+                    call.request(1);
+                    completeIfDone.run();
+                });
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("AnalyzeStream cancelled by the client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                halfClosed.set(true);
+                completeIfDone.run();
+            }
+        };
+    }
+
+    private <T> T inRequestContext(Supplier<T> task) {
+        return inContext(GrpcRequestContextInterceptor.TENANT.get(), GrpcRequestContextInterceptor.VARIANT.get(), task);
+    }
+
+    private static <T> T inContext(String tenant, String variant, Supplier<T> task) {
+        TenantContext.set(tenant);
+        ModelVariantContext.set(variant);
+        try {
+            return task.get();
+        } finally {
+            TenantContext.clear();
+            ModelVariantContext.clear();
+        }
+    }
+
+    // O StreamObserver não admite chamadas concorrentes
+    private static void send(ServerCallStreamObserver<SentimentResponse> call, SentimentResponse response) {
+        synchronized (call) {
+            if (!call.isCancelled()) {
+                call.onNext(response);
+            }
+        }
+    }
+
+    static SentimentResponse toResponse(String id, SentimentResultDTO result) {
+        return SentimentResponse.newBuilder()
+                .setId(id)
+                .setSentiment(result.previsao().toUpperCase())
+                .setScore(result.probabilidade())
+                .setStage(toProto(result.estagio()))
+                .setDegraded(result.estagio() == com.hackaton_one.sentiment_api.api.dto.InferenceStage.FALLBACK)
+                .build();
+    }
+
+    private static SentimentResponse errorResponse(String id, String error) {
+        return SentimentResponse.newBuilder().setId(id).setError(error).build();
+    }
+
+    private static InferenceStage toProto(com.hackaton_one.sentiment_api.api.dto.InferenceStage stage) {
+        return stage != null ? InferenceStage.valueOf(stage.name()) : InferenceStage.INFERENCE_STAGE_UNSPECIFIED;
+    }
+
+    private static StatusRuntimeException invalid(String description) {
+        return Status.INVALID_ARGUMENT.withDescription(description).asRuntimeException();
+    }
+
+    /**
+     * Mesmo mapeamento do GlobalExceptionHandler: 429 -> RESOURCE_EXHAUSTED,
+     * 503 -> UNAVAILABLE, 400 -> INVALID_ARGUMENT.
+     */
+    static StatusRuntimeException toStatus(Throwable error) {
+        Throwable cause = unwrap(error);
+        Status status = switch (cause) {
+            case RateLimitExceededException e -> Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage());
+            case InferenceOverloadedException e -> Status.UNAVAILABLE.withDescription(e.getMessage());
+            case ModelAnalysisException e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+            case IllegalArgumentException e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+            default -> {
+                log.error("gRPC analysis failed: {}", cause.getMessage(), cause);
+                yield Status.INTERNAL.withDescription("Internal error while analyzing text");
+            }
+        };
+        return status.asRuntimeException();
+    }
+
+    private static String describe(Throwable error) {
+        return toStatus(error).getStatus().getDescription();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,155 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.ColumnarSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de serialização da resposta em lote em cada formato: JSON por linhas
+ * (formato atual), JSON sem os textos, JSON colunar e CBOR.
+ *
+ * O tamanho do corpo de cada formato é impresso no início de cada trial.
+ * mvn -Pbenchmark -DskipTests package exec:exec -Djmh.args="ResponseEncodingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final String[] TEXTS = {
+            "Produto excelente, chegou antes do prazo e funciona muito bem.",
+            "Péssimo atendimento, o pedido veio errado e ninguém respondeu.",
+            "Gostei bastante, mas a embalagem poderia ser melhor.",
+            "Não recomendo, parou de funcionar depois de uma semana."
+    };
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CborHttpMessageConverter cbor;
+    private BatchSentimentResponseDTO response;
+    private BatchSentimentResponseDTO responseWithoutText;
+    private ColumnarSentimentResponseDTO columnar;
+    private ColumnarSentimentResponseDTO columnarWithoutText;
+    private ReusableBody body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cbor = new CborHttpMessageConverter(objectMapper);
+        List<SentimentResponseDTO> results = new ArrayList<>(rows);
+        List<SentimentResponseDTO> withoutText = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String sentiment = i % 2 == 0 ? "POSITIVO" : "NEGATIVO";
+            double score = 0.5 + (i % 50) / 100.0 + 0.003;
+            InferenceStage stage = i % 5 == 0 ? InferenceStage.LEXICON : InferenceStage.MODEL;
+            results.add(new SentimentResponseDTO(sentiment, score, TEXTS[i % TEXTS.length], stage));
+            withoutText.add(new SentimentResponseDTO(sentiment, score, null, stage));
+        }
+        response = new BatchSentimentResponseDTO(results, rows);
+        responseWithoutText = new BatchSentimentResponseDTO(withoutText, rows);
+        columnar = ColumnarSentimentResponseDTO.from(response, true);
+        columnarWithoutText = ColumnarSentimentResponseDTO.from(response, false);
+        body = new ReusableBody();
+
+        System.out.printf("%n[%d rows] json=%d json-no-text=%d json-columnar=%d json-columnar-no-text=%d "
+                        + "cbor=%d cbor-columnar-no-text=%d bytes%n",
+                rows, jsonRows(), jsonRowsWithoutText(), jsonColumnar(), jsonColumnarWithoutText(),
+                cborRows(), cborColumnarWithoutText());
+    }
+
+    @Benchmark
+    public int jsonRows() throws IOException {
+        return json(response);
+    }
+
+    @Benchmark
+    public int jsonRowsWithoutText() throws IOException {
+        return json(responseWithoutText);
+    }
+
+    @Benchmark
+    public int jsonColumnar() throws IOException {
+        return json(columnar);
+    }
+
+    @Benchmark
+    public int jsonColumnarWithoutText() throws IOException {
+        return json(columnarWithoutText);
+    }
+
+    @Benchmark
+    public int cborRows() throws IOException {
+        return cbor(response);
+    }
+
+    @Benchmark
+    public int cborColumnarWithoutText() throws IOException {
+        return cbor(columnarWithoutText);
+    }
+
+    private int json(Object value) throws IOException {
+        body.reset();
+        objectMapper.writeValue(body.getBody(), value);
+        return body.size();
+    }
+
+    private int cbor(Object value) throws IOException {
+        body.reset();
+        cbor.write(value, CborHttpMessageConverter.APPLICATION_CBOR, body);
+        return body.size();
+    }
+
+    /**
+     * Corpo em memória reaproveitado entre as operações, para medir só a serialização.
+     */
+    private static final class ReusableBody implements HttpOutputMessage {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            bytes.reset();
+            headers.clear();
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return bytes;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
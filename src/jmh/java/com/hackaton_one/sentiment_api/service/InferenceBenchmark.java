@@ -0,0 +1,73 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de inferência de um único texto no motor ONNX.
+ *
+ * Rodar com o profiler de GC (padrão do perfil benchmark) e comparar
+ * gc.alloc.rate.norm (bytes por operação) entre versões:
+ * mvn -Pbenchmark -DskipTests package exec:exec -Djmh.args="InferenceBenchmark -prof gc"
+ *
+ * O modelo é lido de -Djmh.args="... -p modelPath=caminho/do/modelo.onnx";
+ * labels fixa as classes das colunas (modelos sem ZipMap).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InferenceBenchmark {
+
+    @Param("models/sentiment_model.onnx")
+    private String modelPath;
+
+    @Param("")
+    private String labels;
+
+    @Param({"Produto excelente, chegou antes do prazo e funciona muito bem."})
+    private String text;
+
+    private OnnxSentimentEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> columnLabels = labels.isBlank() ? List.of() : Arrays.asList(labels.split(","));
+        engine = new OnnxSentimentEngine(modelPath, columnLabels);
+        engine.init();
+        if (!engine.isAvailable()) {
+            throw new IllegalStateException("Could not load ONNX model from " + modelPath);
+        }
+        // Completa o índice de classes antes da medição
+        engine.analyze("excelente");
+        engine.analyze("péssimo");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.cleanup();
+    }
+
+    @Benchmark
+    public SentimentResultDTO analyzeSingleText() {
+        return engine.analyze(text);
+    }
+}
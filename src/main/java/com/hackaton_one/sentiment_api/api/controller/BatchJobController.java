@@ -0,0 +1,100 @@
+package com.hackaton_one.sentiment_api.api.controller;
+
+import com.hackaton_one.sentiment_api.api.dto.BatchJobDTO;
+import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.ColumnarSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.ResponseLayout;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
+import com.hackaton_one.sentiment_api.service.BatchJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Controller dos lotes de CSV processados em segundo plano pela fila de blocos.
+ *
+ * Endpoints:
+ * - POST /sentiment/batch/jobs - Enfileira um CSV e retorna 202 com o job
+ * - GET /sentiment/batch/jobs/{id} - Andamento do job
+ * - GET /sentiment/batch/jobs/{id}/results - Resultado do job terminado (409 enquanto em andamento)
+ */
+@RestController
+@RequestMapping("/sentiment/batch/jobs")
+public class BatchJobController {
+
+    private final BatchJobService batchJobService;
+
+    public BatchJobController(BatchJobService batchJobService) {
+        this.batchJobService = batchJobService;
+    }
+
+    /**
+     * POST /sentiment/batch/jobs - Enfileira o CSV para análise distribuída entre as réplicas.
+     *
+     * @param file       Arquivo CSV (obrigatório)
+     * @param textColumn Nome da coluna com textos (opcional)
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchJobDTO> submit(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "textColumn", required = false) String textColumn) {
+
+        BatchJobDTO job = batchJobService.submit(file, textColumn);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}").buildAndExpand(job.id()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * GET /sentiment/batch/jobs/{id} - Retorna o andamento do job.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<BatchJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.of(batchJobService.getJob(id));
+    }
+
+    /**
+     * GET /sentiment/batch/jobs/{id}/results - Resultado do job na ordem do CSV.
+     *
+     * @param layout      rows (um objeto por texto) ou columnar (arrays paralelos)
+     * @param includeText Se false, omite os textos da resposta
+     */
+    @GetMapping("/{id}/results")
+    public ResponseEntity<?> getResults(
+            @PathVariable String id,
+            @RequestParam(value = "layout", defaultValue = "rows") String layout,
+            @RequestParam(value = "includeText", defaultValue = "true") boolean includeText) {
+
+        ResponseLayout responseLayout = ResponseLayout.from(layout);
+        Optional<BatchJobDTO> job = batchJobService.getJob(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<BatchSentimentResponseDTO> results = batchJobService.getResults(id);
+        if (results.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.get());
+        }
+
+        BatchSentimentResponseDTO response = results.get();
+        if (responseLayout == ResponseLayout.COLUMNAR) {
+            return ResponseEntity.ok(ColumnarSentimentResponseDTO.from(response, includeText));
+        }
+        if (!includeText) {
+            response = new BatchSentimentResponseDTO(response.results().stream()
+                    .map(r -> new SentimentResponseDTO(r.sentiment(), r.score(), null, r.stage(), r.degraded()))
+                    .toList(), response.totalProcessed());
+        }
+        return ResponseEntity.ok(response);
+    }
+}
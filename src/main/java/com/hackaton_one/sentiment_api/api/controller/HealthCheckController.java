@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
  *
  * Endpoints:
  * - GET /health - Retorna status da aplicação e do modelo ONNX
+ *   (DEGRADED quando os textos estão sendo respondidos pelo motor de contingência)
  */
 @Slf4j
 @RestController
@@ -34,7 +35,8 @@ public class HealthCheckController {
      */
     @GetMapping
     public ResponseEntity<HealthCheckDTO> healthCheck() {
-        String modelStatus = sentimentService.isModelAvailable() ? "AVAILABLE" : "UNAVAILABLE";
+        String modelStatus = sentimentService.isDegraded() ? "DEGRADED"
+                : sentimentService.isModelAvailable() ? "AVAILABLE" : "UNAVAILABLE";
 
         HealthCheckDTO health = new HealthCheckDTO(
                 "UP",
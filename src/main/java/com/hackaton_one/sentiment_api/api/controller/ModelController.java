@@ -0,0 +1,118 @@
+package com.hackaton_one.sentiment_api.api.controller;
+
+import com.hackaton_one.sentiment_api.api.dto.ModelVariantStatsDTO;
+import com.hackaton_one.sentiment_api.api.dto.RescoreStatusDTO;
+import com.hackaton_one.sentiment_api.api.dto.ShadowStatsDTO;
+import com.hackaton_one.sentiment_api.config.AdminKeyVerifier;
+import com.hackaton_one.sentiment_api.service.ModelRescoringService;
+import com.hackaton_one.sentiment_api.service.ModelVariantRegistry;
+import com.hackaton_one.sentiment_api.service.ShadowEvaluator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller com informações das variantes de modelo.
+ *
+ * Endpoints:
+ * - GET /models - Variantes registradas com latência, vazão e memória de cada uma
+ * - GET /models/shadow - Avaliação em sombra do modelo candidato
+ * - GET /models/rescore - Andamento da reavaliação do histórico
+ * - POST /models/rescore - Inicia a reavaliação do histórico pelo modelo atual
+ * - POST /models/rescore/pause e /models/rescore/resume - Pausa e retoma a reavaliação
+ *
+ * Os POST de reavaliação exigem a chave de administração (X-Admin-Key).
+ */
+@RestController
+@RequestMapping("/models")
+public class ModelController {
+
+    private final ModelVariantRegistry modelVariants;
+    private final ShadowEvaluator shadowEvaluator;
+    private final ModelRescoringService rescoringService;
+    private final AdminKeyVerifier adminKeyVerifier;
+
+    public ModelController(ModelVariantRegistry modelVariants, ShadowEvaluator shadowEvaluator,
+                           ModelRescoringService rescoringService, AdminKeyVerifier adminKeyVerifier) {
+        this.modelVariants = modelVariants;
+        this.shadowEvaluator = shadowEvaluator;
+        this.rescoringService = rescoringService;
+        this.adminKeyVerifier = adminKeyVerifier;
+    }
+
+    /**
+     * GET /models - Retorna as métricas de cada variante de modelo.
+     */
+    @GetMapping
+    public ResponseEntity<List<ModelVariantStatsDTO>> getModels() {
+        return ResponseEntity.ok(modelVariants.getStats());
+    }
+
+    /**
+     * GET /models/shadow - Retorna a taxa de desacordo e a diferença de latência
+     * do modelo candidato avaliado em sombra.
+     */
+    @GetMapping("/shadow")
+    public ResponseEntity<ShadowStatsDTO> getShadowStats() {
+        return ResponseEntity.ok(shadowEvaluator.getStats());
+    }
+
+    /**
+     * GET /models/rescore - Retorna o andamento da reavaliação do histórico.
+     */
+    @GetMapping("/rescore")
+    public ResponseEntity<RescoreStatusDTO> getRescoreStatus() {
+        return ResponseEntity.ok(rescoringService.getStatus());
+    }
+
+    /**
+     * POST /models/rescore - Inicia, em segundo plano, a reavaliação das análises
+     * salvas por outra versão de modelo.
+     * Retorna 202 ao iniciar e 409 se já houver uma execução em andamento ou o
+     * modelo não estiver carregado; 403 sem a chave de administração.
+     */
+    @PostMapping("/rescore")
+    public ResponseEntity<RescoreStatusDTO> startRescore(
+            @RequestHeader(value = AdminKeyVerifier.HEADER, required = false) String adminKey) {
+        if (!adminKeyVerifier.isAuthorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        boolean started = rescoringService.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(rescoringService.getStatus());
+    }
+
+    /**
+     * POST /models/rescore/pause - Pausa a reavaliação ao fim da página corrente.
+     * Exige a chave de administração (X-Admin-Key).
+     */
+    @PostMapping("/rescore/pause")
+    public ResponseEntity<RescoreStatusDTO> pauseRescore(
+            @RequestHeader(value = AdminKeyVerifier.HEADER, required = false) String adminKey) {
+        if (!adminKeyVerifier.isAuthorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        rescoringService.pause();
+        return ResponseEntity.ok(rescoringService.getStatus());
+    }
+
+    /**
+     * POST /models/rescore/resume - Retoma uma reavaliação pausada.
+     * Exige a chave de administração (X-Admin-Key).
+     */
+    @PostMapping("/rescore/resume")
+    public ResponseEntity<RescoreStatusDTO> resumeRescore(
+            @RequestHeader(value = AdminKeyVerifier.HEADER, required = false) String adminKey) {
+        if (!adminKeyVerifier.isAuthorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        rescoringService.resume();
+        return ResponseEntity.ok(rescoringService.getStatus());
+    }
+}
@@ -1,23 +1,48 @@
 package com.hackaton_one.sentiment_api.api.controller;
 
 import com.hackaton_one.sentiment_api.api.dto.*;
+import com.hackaton_one.sentiment_api.config.AdminKeyVerifier;
+import com.hackaton_one.sentiment_api.config.CborHttpMessageConverter;
+import com.hackaton_one.sentiment_api.config.WebConfig;
 import com.hackaton_one.sentiment_api.service.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
  * Controller principal da API de análise de sentimento.
  * <p>
  * Endpoints:
- * - POST /sentiment (texto único)
+ * - POST /sentiment (texto único; sentences=true analisa frase a frase)
  * - POST /sentiment/batch (CSV em lote)
+ * - POST /sentiment/bulk (array JSON de textos, inferência em lotes)
  * - GET /sentiment/statistics (estatísticas agregadas)
+ * - GET /sentiment/statistics/timeline (linha do tempo por hora, dia ou semana)
+ * - POST /sentiment/statistics/rollups/rebuild (reconstrói os rollups; exige X-Admin-Key)
+ * - GET /sentiment/statistics/cascade (taxa de escalonamento da cascata de modelos)
  * - GET /sentiment/history (histórico de análises)
+ * - GET /sentiment/export (exportação em massa em NDJSON ou CSV)
+ * <p>
+ * Lote, massa e histórico aceitam layout=columnar (arrays paralelos) e
+ * respondem em CBOR com Accept: application/cbor.
  */
 @Slf4j
 @RestController
@@ -28,25 +53,47 @@ public class SentimentController {
     private final SentimentService sentimentService;
     private final StatisticsService statisticsService;
     private final HistoryService historyService;
+    private final ExportService exportService;
+    private final ModelCascade modelCascade;
+    private final BulkAnalysisService bulkAnalysisService;
+    private final SentenceAnalysisService sentenceAnalysisService;
+    private final AdminKeyVerifier adminKeyVerifier;
 
     public SentimentController(
             BatchService batchService,
             SentimentService sentimentService,
             StatisticsService statisticsService,
-            HistoryService historyService) {
+            HistoryService historyService,
+            ExportService exportService,
+            ModelCascade modelCascade,
+            BulkAnalysisService bulkAnalysisService,
+            SentenceAnalysisService sentenceAnalysisService,
+            AdminKeyVerifier adminKeyVerifier) {
         this.batchService = batchService;
         this.sentimentService = sentimentService;
         this.statisticsService = statisticsService;
         this.historyService = historyService;
+        this.exportService = exportService;
+        this.modelCascade = modelCascade;
+        this.bulkAnalysisService = bulkAnalysisService;
+        this.sentenceAnalysisService = sentenceAnalysisService;
+        this.adminKeyVerifier = adminKeyVerifier;
     }
 
     /**
      * POST /sentiment - Análise de texto único.
+     *
+     * @param sentences Se true, analisa o texto frase a frase e devolve o
+     *                  resultado combinado junto com o de cada frase
      */
     @PostMapping
-    public ResponseEntity<SentimentResponseDTO> analyzeSentiment(
-            @Valid @RequestBody SentimentRequestDTO request) {
+    public ResponseEntity<?> analyzeSentiment(
+            @Valid @RequestBody SentimentRequestDTO request,
+            @RequestParam(value = "sentences", defaultValue = "false") boolean sentences) {
 
+        if (sentences) {
+            return ResponseEntity.ok(sentenceAnalysisService.analyzeAndSave(request.text()));
+        }
         SentimentResponseDTO response = sentimentService.analyzeAndSave(request.text());
         return ResponseEntity.ok(response);
     }
@@ -54,34 +101,244 @@ public class SentimentController {
     /**
      * POST /sentiment/batch - Análise em lote via CSV.
      *
-     * @param file       Arquivo CSV (obrigatório)
-     * @param textColumn Nome da coluna com textos (opcional)
+     * Com Accept: application/cbor a resposta é codificada em CBOR.
+     *
+     * @param file        Arquivo CSV (obrigatório)
+     * @param textColumn  Nome da coluna com textos (opcional)
+     * @param layout      rows (um objeto por texto) ou columnar (arrays paralelos)
+     * @param includeText Se false, omite os textos da resposta
      */
     @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<BatchSentimentResponseDTO> analyzeBatchCSV(
+    public ResponseEntity<?> analyzeBatchCSV(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "textColumn", required = false) String textColumn) {
+            @RequestParam(value = "textColumn", required = false) String textColumn,
+            @RequestParam(value = "layout", defaultValue = "rows") String layout,
+            @RequestParam(value = "includeText", defaultValue = "true") boolean includeText) {
 
+        ResponseLayout responseLayout = ResponseLayout.from(layout);
         BatchSentimentResponseDTO response = batchService.processCSV(file, textColumn);
 
+        if (responseLayout == ResponseLayout.COLUMNAR) {
+            return ResponseEntity.ok(ColumnarSentimentResponseDTO.from(response, includeText));
+        }
+        if (!includeText) {
+            response = new BatchSentimentResponseDTO(response.results().stream()
+                    .map(r -> new SentimentResponseDTO(r.sentiment(), r.score(), null, r.stage(), r.degraded()))
+                    .toList(), response.totalProcessed());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /sentiment/bulk - Análise em massa de um array JSON de textos.
+     *
+     * Corpo: ["texto", ...] ou [{"id": "a1", "text": "texto"}, ...].
+     * Os resultados voltam na ordem do array.
+     *
+     * Com Accept: application/cbor a resposta é codificada em CBOR.
+     *
+     * @param persist Se true, salva as análises no histórico (padrão: false)
+     * @param layout  rows (um objeto por texto) ou columnar (arrays paralelos)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> analyzeBulk(
+            InputStream body,
+            @RequestParam(value = "persist", defaultValue = "false") boolean persist,
+            @RequestParam(value = "layout", defaultValue = "rows") String layout) {
+
+        ResponseLayout responseLayout = ResponseLayout.from(layout);
+        BulkSentimentResponseDTO response = bulkAnalysisService.analyze(body, persist);
+
+        if (responseLayout == ResponseLayout.COLUMNAR) {
+            return ResponseEntity.ok(ColumnarSentimentResponseDTO.from(response));
+        }
         return ResponseEntity.ok(response);
     }
 
     /**
      * GET /sentiment/statistics - Retorna estatísticas agregadas.
+     * Responde 304 Not Modified quando o If-None-Match ou If-Modified-Since ainda é válido.
      */
     @GetMapping("/statistics")
-    public ResponseEntity<StatisticsDTO> getStatistics() {
-        StatisticsDTO statistics = statisticsService.getStatistics();
-        return ResponseEntity.ok(statistics);
+    public ResponseEntity<StatisticsDTO> getStatistics(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return conditional(statisticsService.getStatisticsSnapshot(), accept, ResponseLayout.ROWS);
     }
 
     /**
-     * GET /sentiment/history - Retorna histórico de análises (últimas 100).
+     * GET /sentiment/statistics/timeline - Linha do tempo servida pelos rollups.
+     *
+     * @param from   Início do intervalo (padrão: 7 dias antes de 'to')
+     * @param to     Fim do intervalo, exclusivo (padrão: agora)
+     * @param bucket Granularidade: hour, day ou week
+     */
+    @GetMapping("/statistics/timeline")
+    public ResponseEntity<List<TimelineBucketDTO>> getTimeline(
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "bucket", defaultValue = "day") String bucket) {
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        return ResponseEntity.ok(statisticsService.getTimeline(start, end, TimelineGranularity.from(bucket)));
+    }
+
+    /**
+     * POST /sentiment/statistics/rollups/rebuild - Recalcula os rollups a partir dos dados brutos.
+     * Exige a chave de administração (X-Admin-Key); sem ela, retorna 403.
+     */
+    @PostMapping("/statistics/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups(
+            @RequestHeader(value = AdminKeyVerifier.HEADER, required = false) String adminKey) {
+        if (!adminKeyVerifier.isAuthorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        statisticsService.rebuildRollups();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /sentiment/statistics/cascade - Contadores da cascata de modelos
+     * (textos respondidos pelo primeiro estágio e escalados para o modelo completo).
+     */
+    @GetMapping("/statistics/cascade")
+    public ResponseEntity<CascadeStatsDTO> getCascadeStats() {
+        return ResponseEntity.ok(modelCascade.getStats());
+    }
+
+    /**
+     * GET /sentiment/history - Retorna histórico de análises, paginado por cursor.
+     * Sem parâmetros, serve a primeira página pré-calculada (últimas 100) e responde
+     * 304 Not Modified quando o If-None-Match ou If-Modified-Since ainda é válido.
+     *
+     * @param cursor        Valor de nextCursor da página anterior
+     * @param limit         Tamanho da página (1 a 500, padrão 100)
+     * @param sentiment     Filtro por sentimento
+     * @param textHash      Filtro pelo hash do texto (todas as análises do mesmo texto)
+     * @param minConfidence Confiança mínima (0 a 1)
+     * @param maxConfidence Confiança máxima (0 a 1)
+     * @param from          Início do intervalo
+     * @param to            Fim do intervalo, exclusivo
+     * @param includeText   Se false, omite o texto dos itens
+     * @param layout        rows (um objeto por análise) ou columnar (arrays paralelos)
      */
     @GetMapping("/history")
-    public ResponseEntity<HistoryItemListDTO> getHistory() {
-        HistoryItemListDTO HistoryService = historyService.getHistory();
-        return ResponseEntity.ok(HistoryService);
+    public ResponseEntity<?> getHistory(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "sentiment", required = false) String sentiment,
+            @RequestParam(value = "textHash", required = false) String textHash,
+            @RequestParam(value = "minConfidence", required = false) Double minConfidence,
+            @RequestParam(value = "maxConfidence", required = false) Double maxConfidence,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "includeText", required = false) Boolean includeText,
+            @RequestParam(value = "layout", defaultValue = "rows") String layout,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        ResponseLayout responseLayout = ResponseLayout.from(layout);
+        HistoryFilterDTO filter = new HistoryFilterDTO(
+                cursor, limit, sentiment, textHash, minConfidence, maxConfidence, from, to, includeText);
+        if (filter.isDefault()) {
+            VersionedSnapshot<HistoryItemListDTO> snapshot = historyService.getHistorySnapshot();
+            if (responseLayout == ResponseLayout.COLUMNAR) {
+                return conditional(new VersionedSnapshot<>(HistoryColumnsDTO.from(snapshot.value()),
+                        snapshot.etag(), snapshot.lastModified()), accept, responseLayout);
+            }
+            return conditional(snapshot, accept, responseLayout);
+        }
+        HistoryItemListDTO page = historyService.getHistory(filter);
+        if (responseLayout == ResponseLayout.COLUMNAR) {
+            return ResponseEntity.ok(HistoryColumnsDTO.from(page));
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /sentiment/export - Exporta as análises do intervalo em ordem cronológica.
+     * O corpo é enviado em streaming; com Accept-Encoding: gzip a saída é comprimida.
+     *
+     * @param from   Início do intervalo (opcional)
+     * @param to     Fim do intervalo, exclusivo (opcional)
+     * @param format ndjson ou csv
+     * @param cursor Cursor da última linha recebida, para retomar uma exportação interrompida
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = exportService.export(from, to, cursor, exportFormat, gzip);
+        // Só a exportação precisa de um timeout assíncrono longo
+        request.setAttribute(WebConfig.LONG_ASYNC_REQUEST, Boolean.TRUE);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"sentiments." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Monta a resposta com ETag e Last-Modified; o Spring MVC converte em 304
+     * (sem corpo) quando os validadores enviados pelo cliente ainda conferem.
+     * JSON, CBOR e o layout colunar do mesmo snapshot têm bytes diferentes, então
+     * cada representação recebe sua própria ETag (ex: "v1-json", "v1-columnar-cbor");
+     * Vary: Accept separa essas versões nos caches.
+     */
+    private <T> ResponseEntity<T> conditional(VersionedSnapshot<T> snapshot, String accept, ResponseLayout layout) {
+        String version = snapshot.etag().substring(1, snapshot.etag().length() - 1);
+        String representation = (layout == ResponseLayout.COLUMNAR ? "columnar-" : "")
+                + (prefersCbor(accept) ? "cbor" : "json");
+        return ResponseEntity.ok()
+                .eTag("\"" + version + "-" + representation + "\"")
+                .lastModified(snapshot.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(snapshot.value());
+    }
+
+    /**
+     * Indica se a negociação de conteúdo vai escolher CBOR para o Accept
+     * recebido. Segue a ordem do Spring MVC: tipos aceitos por especificidade
+     * e qualidade, com JSON antes de CBOR no empate (ex: Accept com curinga).
+     */
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        List<MediaType> candidates = new ArrayList<>();
+        for (MediaType requested : acceptable) {
+            for (MediaType producible : List.of(MediaType.APPLICATION_JSON, CborHttpMessageConverter.APPLICATION_CBOR)) {
+                if (requested.isCompatibleWith(producible)) {
+                    candidates.add(producible.copyQualityValue(requested));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(candidates);
+        return !candidates.isEmpty()
+                && candidates.get(0).equalsTypeAndSubtype(CborHttpMessageConverter.APPLICATION_CBOR);
     }
 }
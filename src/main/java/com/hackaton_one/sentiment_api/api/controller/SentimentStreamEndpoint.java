@@ -0,0 +1,193 @@
+package com.hackaton_one.sentiment_api.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.dto.StreamSentimentRequestDTO;
+import com.hackaton_one.sentiment_api.api.dto.StreamSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
+import com.hackaton_one.sentiment_api.service.InferenceBatcher;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket /sentiment/stream - análise contínua de textos.
+ *
+ * O cliente envia {"id": "...", "text": "..."} e recebe o resultado com o
+ * mesmo id, na mesma conexão, assim que a análise termina. Os textos de
+ * todas as conexões seguem para o {@link InferenceBatcher} e são inferidos
+ * juntos. Cada conexão tem no máximo stream.max-in-flight textos em análise;
+ * acima disso, a mensagem é respondida na hora com erro e não é analisada.
+ *
+ * Tenant e variante de modelo são os da requisição de handshake
+ * (X-API-Key, X-Model-Variant ou ?variant=).
+ *
+ * As respostas saem pelo envio assíncrono da sessão, uma de cada vez, a
+ * partir de uma fila da conexão: a thread do lote só enfileira, e um
+ * cliente lento não segura a inferência das demais conexões. Um cliente
+ * que deixa acumular mais de 2 * stream.max-in-flight respostas sem ler
+ * tem a conexão fechada.
+ */
+@Slf4j
+public class SentimentStreamEndpoint extends Endpoint {
+
+    public static final String PATH = "/sentiment/stream";
+    public static final String TENANT_PROPERTY = "sentiment.tenant";
+    public static final String VARIANT_PROPERTY = "sentiment.variant";
+
+    private final InferenceBatcher batcher;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final int maxMessageBytes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<String> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private String tenant;
+    private String variant;
+
+    public SentimentStreamEndpoint(InferenceBatcher batcher, ObjectMapper objectMapper, int maxInFlight,
+                                   int maxMessageBytes) {
+        this.batcher = batcher;
+        this.objectMapper = objectMapper;
+        this.maxInFlight = maxInFlight;
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        tenant = (String) config.getUserProperties().get(TENANT_PROPERTY);
+        variant = (String) config.getUserProperties().get(VARIANT_PROPERTY);
+        session.setMaxTextMessageBufferSize(maxMessageBytes);
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) message -> onMessage(session, message));
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        log.debug("Stream connection {} closed with {} texts in flight", session.getId(), inFlight.get());
+        outbox.clear();
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.warn("Stream connection {} failed: {}", session.getId(), error.getMessage());
+    }
+
+    void onMessage(Session session, String message) {
+        StreamSentimentRequestDTO request;
+        try {
+            request = objectMapper.readValue(message, StreamSentimentRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            send(session, StreamSentimentResponseDTO.error(null, "Invalid message: expected {\"id\": ..., \"text\": ...}"));
+            return;
+        }
+        if (request == null || request.text() == null || request.text().isBlank()) {
+            send(session, StreamSentimentResponseDTO.error(request != null ? request.id() : null, "'text' is required"));
+            return;
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            send(session, StreamSentimentResponseDTO.error(request.id(),
+                    "Too many texts in flight (max " + maxInFlight + "), wait for pending results"));
+            return;
+        }
+
+        String id = request.id();
+        batcher.submit(tenant, variant, request.text()).whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            send(session, error == null
+                    ? StreamSentimentResponseDTO.of(id, result)
+                    : StreamSentimentResponseDTO.error(id, describe(error)));
+        });
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RateLimitExceededException || cause instanceof InferenceOverloadedException
+                || cause instanceof ModelAnalysisException || cause instanceof IllegalArgumentException) {
+            return cause.getMessage();
+        }
+        log.error("Stream analysis failed: {}", cause.getMessage(), cause);
+        return "Internal error while analyzing text";
+    }
+
+    private void send(Session session, StreamSentimentResponseDTO response) {
+        if (!session.isOpen()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize stream result: {}", e.getMessage(), e);
+            return;
+        }
+        // Resultados pendentes são no máximo maxInFlight; o resto são respostas de erro que o cliente não lê
+        if (outbox.size() >= 2 * maxInFlight) {
+            log.debug("Closing stream connection {}: client is not reading results", session.getId());
+            outbox.clear();
+            close(session);
+            return;
+        }
+        outbox.add(json);
+        flush(session);
+    }
+
+    /**
+     * Envia a próxima resposta da fila se não houver envio em andamento; o fim
+     * de cada envio chama de novo, até a fila esvaziar.
+     */
+    private void flush(Session session) {
+        while (sending.compareAndSet(false, true)) {
+            String next = outbox.poll();
+            if (next == null) {
+                sending.set(false);
+                // Outra thread pode ter enfileirado depois do poll e desistido por causa da flag
+                if (outbox.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                session.getAsyncRemote().sendText(next, result -> {
+                    if (!result.isOK()) {
+                        log.debug("Could not send stream result to {}: {}", session.getId(),
+                                result.getException().getMessage());
+                    }
+                    sending.set(false);
+                    flush(session);
+                });
+            } catch (RuntimeException e) {
+                // Sessão fechada no meio do caminho
+                log.debug("Could not send stream result to {}: {}", session.getId(), e.getMessage());
+                outbox.clear();
+                sending.set(false);
+            }
+            return;
+        }
+    }
+
+    private static void close(Session session) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Client is not reading results"));
+        } catch (IOException e) {
+            log.debug("Could not close stream connection {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
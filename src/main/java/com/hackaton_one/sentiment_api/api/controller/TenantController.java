@@ -0,0 +1,35 @@
+package com.hackaton_one.sentiment_api.api.controller;
+
+import com.hackaton_one.sentiment_api.api.dto.TenantUsageDTO;
+import com.hackaton_one.sentiment_api.service.TenantQuotaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller com informações de uso por tenant.
+ *
+ * Endpoints:
+ * - GET /tenants/usage - Contadores de uso e rejeição de cada tenant
+ */
+@RestController
+@RequestMapping("/tenants")
+public class TenantController {
+
+    private final TenantQuotaService tenantQuotaService;
+
+    public TenantController(TenantQuotaService tenantQuotaService) {
+        this.tenantQuotaService = tenantQuotaService;
+    }
+
+    /**
+     * GET /tenants/usage - Retorna os contadores de uso por tenant.
+     */
+    @GetMapping("/usage")
+    public ResponseEntity<List<TenantUsageDTO>> getUsage() {
+        return ResponseEntity.ok(tenantQuotaService.getUsage());
+    }
+}
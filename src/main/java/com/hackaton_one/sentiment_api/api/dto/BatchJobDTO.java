@@ -0,0 +1,28 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o andamento de um lote distribuído entre as réplicas.
+ *
+ * @param id Identificador do job
+ * @param status RUNNING, COMPLETED ou FAILED (algum bloco esgotou as tentativas)
+ * @param totalRows Textos lidos do CSV
+ * @param totalChunks Blocos em que os textos foram divididos
+ * @param doneChunks Blocos processados
+ * @param failedChunks Blocos que esgotaram as tentativas
+ * @param progressPercent Blocos terminados / total (0 a 100)
+ * @param createdAt Criação do job
+ * @param finishedAt Fim do último bloco (null enquanto houver blocos abertos)
+ */
+public record BatchJobDTO(
+        String id,
+        String status,
+        int totalRows,
+        int totalChunks,
+        int doneChunks,
+        int failedChunks,
+        double progressPercent,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {}
@@ -0,0 +1,29 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de um texto da análise em massa.
+ *
+ * O texto não é repetido na resposta: o resultado é correlacionado pela
+ * posição no array ou pelo id enviado pelo cliente.
+ *
+ * @param id Identificador enviado pelo cliente (omitido se ausente)
+ * @param sentiment Sentimento previsto
+ * @param score Probabilidade do sentimento previsto
+ * @param stage Estágio que respondeu o texto
+ * @param degraded true quando o resultado veio do motor de contingência
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkSentimentItemDTO(
+        String id,
+        String sentiment,
+        double score,
+        InferenceStage stage,
+        Boolean degraded
+) {
+    public BulkSentimentItemDTO(String id, SentimentResultDTO result) {
+        this(id, result.previsao().toUpperCase(), result.probabilidade(), result.estagio(),
+                result.estagio() == InferenceStage.FALLBACK ? Boolean.TRUE : null);
+    }
+}
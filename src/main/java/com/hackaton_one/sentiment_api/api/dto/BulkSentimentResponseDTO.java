@@ -0,0 +1,14 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import java.util.List;
+
+/**
+ * Resposta da análise em massa via JSON.
+ *
+ * @param results Um resultado por texto, na ordem do array recebido
+ * @param totalProcessed Quantidade de textos processados
+ */
+public record BulkSentimentResponseDTO(
+        List<BulkSentimentItemDTO> results,
+        int totalProcessed
+) {}
@@ -0,0 +1,18 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * DTO com os contadores da cascata de modelos.
+ *
+ * @param enabled Se o primeiro estágio está ativo
+ * @param confidenceThreshold Confiança mínima para o primeiro estágio responder
+ * @param firstStage Textos respondidos pelo primeiro estágio
+ * @param escalated Textos escalados para o modelo completo
+ * @param escalationRate Fração dos textos escalados (0.0 a 1.0)
+ */
+public record CascadeStatsDTO(
+        boolean enabled,
+        double confidenceThreshold,
+        long firstStage,
+        long escalated,
+        double escalationRate
+) {}
@@ -0,0 +1,66 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultados de uma análise em lote no layout colunar: o i-ésimo elemento de
+ * cada array corresponde ao i-ésimo texto.
+ *
+ * Resultados com stage FALLBACK são os degradados.
+ *
+ * @param ids Identificadores enviados pelo cliente (ausente se nenhum foi enviado)
+ * @param sentiments Sentimento previsto de cada texto
+ * @param scores Probabilidade do sentimento previsto
+ * @param stages Estágio que respondeu cada texto
+ * @param texts Textos analisados (ausente com includeText=false e na análise em massa)
+ * @param totalProcessed Quantidade de textos processados
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ColumnarSentimentResponseDTO(
+        List<String> ids,
+        List<String> sentiments,
+        double[] scores,
+        List<InferenceStage> stages,
+        List<String> texts,
+        int totalProcessed
+) {
+    public static ColumnarSentimentResponseDTO from(BatchSentimentResponseDTO response, boolean includeText) {
+        List<SentimentResponseDTO> results = response.results();
+        List<String> sentiments = new ArrayList<>(results.size());
+        double[] scores = new double[results.size()];
+        List<InferenceStage> stages = new ArrayList<>(results.size());
+        List<String> texts = includeText ? new ArrayList<>(results.size()) : null;
+        for (int i = 0; i < results.size(); i++) {
+            SentimentResponseDTO result = results.get(i);
+            sentiments.add(result.sentiment());
+            scores[i] = result.score();
+            stages.add(result.stage());
+            if (texts != null) {
+                texts.add(result.text());
+            }
+        }
+        return new ColumnarSentimentResponseDTO(null, sentiments, scores, stages, texts, response.totalProcessed());
+    }
+
+    public static ColumnarSentimentResponseDTO from(BulkSentimentResponseDTO response) {
+        List<BulkSentimentItemDTO> results = response.results();
+        List<String> ids = new ArrayList<>(results.size());
+        List<String> sentiments = new ArrayList<>(results.size());
+        double[] scores = new double[results.size()];
+        List<InferenceStage> stages = new ArrayList<>(results.size());
+        boolean anyId = false;
+        for (int i = 0; i < results.size(); i++) {
+            BulkSentimentItemDTO result = results.get(i);
+            ids.add(result.id());
+            anyId |= result.id() != null;
+            sentiments.add(result.sentiment());
+            scores[i] = result.score();
+            stages.add(result.stage());
+        }
+        return new ColumnarSentimentResponseDTO(anyId ? ids : null, sentiments, scores, stages, null,
+                response.totalProcessed());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * DTO com as métricas de um método do servidor gRPC.
+ *
+ * @param method Nome completo do método (ex: sentiment.v1.SentimentAnalyzer/Analyze)
+ * @param calls Chamadas iniciadas
+ * @param activeCalls Chamadas em andamento
+ * @param errors Chamadas encerradas com status diferente de OK
+ * @param messagesReceived Mensagens recebidas dos clientes
+ * @param messagesSent Mensagens enviadas aos clientes
+ * @param meanLatencyMillis Duração média das chamadas
+ * @param p50LatencyMillis Percentil 50 da duração
+ * @param p95LatencyMillis Percentil 95 da duração
+ * @param p99LatencyMillis Percentil 99 da duração
+ */
+public record GrpcMethodStatsDTO(
+        String method,
+        long calls,
+        long activeCalls,
+        long errors,
+        long messagesReceived,
+        long messagesSent,
+        double meanLatencyMillis,
+        double p50LatencyMillis,
+        double p95LatencyMillis,
+        double p99LatencyMillis
+) {}
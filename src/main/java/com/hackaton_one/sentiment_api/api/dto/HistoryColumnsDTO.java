@@ -0,0 +1,54 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página do histórico no layout colunar: o i-ésimo elemento de cada array
+ * corresponde à i-ésima análise, da mais recente para a mais antiga.
+ *
+ * @param ids Identificadores das análises
+ * @param sentimentResults Sentimento de cada análise
+ * @param confidenceScores Confiança de cada análise
+ * @param analyzedAt Momento de cada análise
+ * @param textContents Textos (ausente com includeText=false)
+ * @param textHashes Hashes dos textos (ausente quando a página não os traz)
+ * @param nextCursor Cursor da próxima página (ausente na última)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryColumnsDTO(
+        List<Long> ids,
+        List<String> sentimentResults,
+        List<Double> confidenceScores,
+        List<LocalDateTime> analyzedAt,
+        List<String> textContents,
+        List<String> textHashes,
+        String nextCursor
+) {
+    public static HistoryColumnsDTO from(HistoryItemListDTO page) {
+        List<HistoryItemDTO> items = page.historyItemList();
+        List<Long> ids = new ArrayList<>(items.size());
+        List<String> sentiments = new ArrayList<>(items.size());
+        List<Double> scores = new ArrayList<>(items.size());
+        List<LocalDateTime> analyzedAt = new ArrayList<>(items.size());
+        List<String> texts = new ArrayList<>(items.size());
+        List<String> hashes = new ArrayList<>(items.size());
+        boolean anyText = false;
+        boolean anyHash = false;
+        for (HistoryItemDTO item : items) {
+            ids.add(item.id());
+            sentiments.add(item.sentimentResult());
+            scores.add(item.confidenceScore());
+            analyzedAt.add(item.analyzedAt());
+            texts.add(item.textContent());
+            hashes.add(item.textHash());
+            anyText |= item.textContent() != null;
+            anyHash |= item.textHash() != null;
+        }
+        return new HistoryColumnsDTO(ids, sentiments, scores, analyzedAt,
+                anyText ? texts : null, anyHash ? hashes : null, page.nextCursor());
+    }
+}
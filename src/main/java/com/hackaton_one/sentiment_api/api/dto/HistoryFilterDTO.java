@@ -0,0 +1,37 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parâmetros de consulta do histórico de análises.
+ *
+ * @param cursor Cursor opaco retornado em nextCursor pela página anterior
+ * @param limit Tamanho da página
+ * @param sentiment Filtro por sentimento (POSITIVO/NEGATIVO)
+ * @param textHash Filtro pelo hash do texto (todas as análises do mesmo texto)
+ * @param minConfidence Confiança mínima (0 a 1)
+ * @param maxConfidence Confiança máxima (0 a 1)
+ * @param from Início do intervalo, inclusivo
+ * @param to Fim do intervalo, exclusivo
+ * @param includeText Se false, os itens vêm sem o texto analisado
+ */
+public record HistoryFilterDTO(
+        String cursor,
+        Integer limit,
+        String sentiment,
+        String textHash,
+        Double minConfidence,
+        Double maxConfidence,
+        LocalDateTime from,
+        LocalDateTime to,
+        Boolean includeText
+) {
+    public static final HistoryFilterDTO DEFAULT = new HistoryFilterDTO(null, null, null, null, null, null, null, null, null);
+
+    /**
+     * Indica se nenhum parâmetro foi informado (primeira página padrão).
+     */
+    public boolean isDefault() {
+        return this.equals(DEFAULT);
+    }
+}
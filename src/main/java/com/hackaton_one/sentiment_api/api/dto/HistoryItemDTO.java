@@ -1,15 +1,24 @@
 package com.hackaton_one.sentiment_api.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 /**
  * DTO para item do histórico de análises.
+ * textContent é omitido quando a consulta pede includeText=false; textHash
+ * identifica o texto e pode ser usado como filtro.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record HistoryItemDTO(
         Long id,
         String textContent,
         String sentimentResult,
         Double confidenceScore,
-        LocalDateTime analyzedAt
-) {}
-
+        LocalDateTime analyzedAt,
+        String textHash
+) {
+    public HistoryItemDTO(Long id, String textContent, String sentimentResult, Double confidenceScore, LocalDateTime analyzedAt) {
+        this(id, textContent, sentimentResult, confidenceScore, analyzedAt, null);
+    }
+}
@@ -1,7 +1,19 @@
 package com.hackaton_one.sentiment_api.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
-public record HistoryItemListDTO(List<HistoryItemDTO> historyItemList) {
+/**
+ * Página do histórico de análises.
+ *
+ * @param historyItemList Itens da página, do mais recente para o mais antigo
+ * @param nextCursor Cursor da próxima página (ausente na última)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryItemListDTO(List<HistoryItemDTO> historyItemList, String nextCursor) {
 
+    public HistoryItemListDTO(List<HistoryItemDTO> historyItemList) {
+        this(historyItemList, null);
+    }
 }
@@ -0,0 +1,16 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * Estágio que produziu o resultado de uma análise.
+ *
+ * LEXICON: primeiro estágio da cascata, respondeu com confiança suficiente.
+ * MODEL: modelo ONNX completo (inclui os textos escalados pela cascata).
+ * CACHE: resultado do modelo já conhecido, servido pelo cache de inferência.
+ * FALLBACK: motor de contingência, usado com o modelo indisponível ou sobrecarregado (degradado).
+ */
+public enum InferenceStage {
+    LEXICON,
+    MODEL,
+    CACHE,
+    FALLBACK
+}
@@ -0,0 +1,36 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * DTO com as métricas de uma variante de modelo.
+ *
+ * @param name Nome da variante (usado no header X-Model-Variant ou no parâmetro variant)
+ * @param version Versão do modelo (chave do cache de inferência)
+ * @param isDefault Se é a variante usada quando a requisição não escolhe nenhuma
+ * @param available Se o modelo foi carregado
+ * @param circuitState Estado do circuit breaker da variante
+ * @param modelBytes Tamanho do arquivo do modelo
+ * @param loadedMemoryBytes Memória residente acrescida ao carregar o modelo (-1 se desconhecida)
+ * @param inferences Inferências concluídas
+ * @param failures Inferências que falharam
+ * @param inferencesPerSecond Inferências por segundo desde o carregamento
+ * @param meanLatencyMillis Latência média de inferência
+ * @param p50LatencyMillis Percentil 50 da latência
+ * @param p95LatencyMillis Percentil 95 da latência
+ * @param p99LatencyMillis Percentil 99 da latência
+ */
+public record ModelVariantStatsDTO(
+        String name,
+        String version,
+        boolean isDefault,
+        boolean available,
+        String circuitState,
+        long modelBytes,
+        long loadedMemoryBytes,
+        long inferences,
+        long failures,
+        double inferencesPerSecond,
+        double meanLatencyMillis,
+        double p50LatencyMillis,
+        double p95LatencyMillis,
+        double p99LatencyMillis
+) {}
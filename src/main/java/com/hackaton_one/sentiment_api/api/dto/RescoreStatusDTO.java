@@ -0,0 +1,40 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o andamento da reavaliação do histórico pelo modelo atual.
+ *
+ * @param state IDLE, RUNNING, PAUSED, COMPLETED ou FAILED
+ * @param targetVersion Versão do modelo que está reavaliando o histórico
+ * @param total Análises com outra versão de modelo no início da execução
+ * @param processed Análises lidas até agora
+ * @param updated Análises gravadas com a nova versão
+ * @param changed Análises cujo sentimento mudou
+ * @param skipped Análises mantidas para uma próxima execução (sem texto ou respondidas pela contingência)
+ * @param lastId id da última análise lida (posição do keyset)
+ * @param progressPercent processed / total (0 a 100)
+ * @param textsPerSecond Vazão média da execução
+ * @param cpuBudget Fração do tempo em que o job pode estar trabalhando
+ * @param throttledMillis Tempo em espera pelo orçamento ou pelo tráfego ao vivo
+ * @param startedAt Início da execução
+ * @param finishedAt Fim da execução (null enquanto não termina)
+ * @param error Motivo da falha, se houver
+ */
+public record RescoreStatusDTO(
+        String state,
+        String targetVersion,
+        long total,
+        long processed,
+        long updated,
+        long changed,
+        long skipped,
+        long lastId,
+        double progressPercent,
+        double textsPerSecond,
+        double cpuBudget,
+        long throttledMillis,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {}
@@ -0,0 +1,20 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * Disposição dos resultados nas respostas em lote e no histórico (layout=rows|columnar).
+ *
+ * ROWS é um objeto por resultado; COLUMNAR envia arrays paralelos (um por
+ * campo), sem repetir os nomes dos campos a cada linha.
+ */
+public enum ResponseLayout {
+    ROWS,
+    COLUMNAR;
+
+    public static ResponseLayout from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid layout '" + value + "'. Use rows or columnar");
+        }
+    }
+}
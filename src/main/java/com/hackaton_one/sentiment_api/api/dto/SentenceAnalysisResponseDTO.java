@@ -0,0 +1,26 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Resposta da análise por frases.
+ *
+ * O sentimento do texto combina as frases pela probabilidade de positivo,
+ * ponderada pelo tamanho de cada frase.
+ *
+ * @param sentiment Sentimento do texto inteiro
+ * @param score Probabilidade do sentimento do texto
+ * @param text Texto analisado
+ * @param degraded true quando alguma frase veio do motor de contingência
+ * @param sentences Resultado de cada frase, na ordem do texto
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SentenceAnalysisResponseDTO(
+        String sentiment,
+        double score,
+        String text,
+        Boolean degraded,
+        List<SentenceSentimentDTO> sentences
+) {}
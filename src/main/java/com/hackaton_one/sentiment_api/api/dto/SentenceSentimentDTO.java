@@ -0,0 +1,23 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de uma frase na análise por frases.
+ *
+ * @param start Posição do primeiro caractere da frase no texto original
+ * @param end Posição logo após o último caractere da frase
+ * @param text Frase analisada
+ * @param sentiment Sentimento previsto
+ * @param score Probabilidade do sentimento previsto
+ * @param stage Estágio que respondeu a frase
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SentenceSentimentDTO(
+        int start,
+        int end,
+        String text,
+        String sentiment,
+        double score,
+        InferenceStage stage
+) {}
@@ -1,5 +1,7 @@
 package com.hackaton_one.sentiment_api.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Resposta de saída da análise de sentimento.
  *
@@ -7,12 +9,25 @@ package com.hackaton_one.sentiment_api.api.dto;
  * {
  *   "sentiment": "POSITIVE",
  *   "score": 0.87,
- *   "text": "Este produto é muito bom!"
+ *   "text": "Este produto é muito bom!",
+ *   "stage": "MODEL"
  * }
+ *
+ * degraded só aparece (true) quando o resultado veio do motor de contingência.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record SentimentResponseDTO(
         String sentiment,
         double score,
-        String text
-) {}
+        String text,
+        InferenceStage stage,
+        Boolean degraded
+) {
+    public SentimentResponseDTO(String sentiment, double score, String text) {
+        this(sentiment, score, text, null);
+    }
 
+    public SentimentResponseDTO(String sentiment, double score, String text, InferenceStage stage) {
+        this(sentiment, score, text, stage, stage == InferenceStage.FALLBACK ? Boolean.TRUE : null);
+    }
+}
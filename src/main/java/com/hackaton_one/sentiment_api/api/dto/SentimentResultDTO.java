@@ -5,8 +5,18 @@ package com.hackaton_one.sentiment_api.api.dto;
  *
  * @param previsao Label retornada pelo modelo (ex: "Positivo", "Negativo")
  * @param probabilidade Probabilidade/confiança da previsão (0.0 a 1.0)
+ * @param estagio Estágio que respondeu (null quando desconhecido)
  */
 public record SentimentResultDTO(
         String previsao,
-        double probabilidade
-) {}
+        double probabilidade,
+        InferenceStage estagio
+) {
+    public SentimentResultDTO(String previsao, double probabilidade) {
+        this(previsao, probabilidade, null);
+    }
+
+    public SentimentResultDTO withStage(InferenceStage stage) {
+        return new SentimentResultDTO(previsao, probabilidade, stage);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * DTO com a avaliação em sombra do modelo candidato.
+ *
+ * @param enabled Se o modo sombra está ativo
+ * @param candidateVariant Variante avaliada em sombra
+ * @param sampleRate Fração das requisições reavaliadas pelo candidato
+ * @param sampled Requisições sorteadas para a sombra
+ * @param shed Requisições sorteadas descartadas por carga ou fila cheia
+ * @param compared Requisições reavaliadas pelo candidato
+ * @param failures Reavaliações que falharam
+ * @param queueDepth Reavaliações aguardando na fila de sombra
+ * @param disagreements Reavaliações com sentimento diferente do modelo principal
+ * @param disagreementRate Fração das reavaliações em desacordo (0.0 a 1.0)
+ * @param primaryMeanLatencyMillis Latência média do modelo principal nas requisições comparadas
+ * @param shadowMeanLatencyMillis Latência média do candidato
+ * @param meanLatencyDeltaMillis Diferença média de latência (candidato - principal)
+ * @param shadowP95LatencyMillis Percentil 95 da latência do candidato
+ */
+public record ShadowStatsDTO(
+        boolean enabled,
+        String candidateVariant,
+        double sampleRate,
+        long sampled,
+        long shed,
+        long compared,
+        long failures,
+        int queueDepth,
+        long disagreements,
+        double disagreementRate,
+        double primaryMeanLatencyMillis,
+        double shadowMeanLatencyMillis,
+        double meanLatencyDeltaMillis,
+        double shadowP95LatencyMillis
+) {}
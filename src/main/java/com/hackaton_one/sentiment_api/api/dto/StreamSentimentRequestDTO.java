@@ -0,0 +1,18 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * Mensagem enviada pelo cliente no WebSocket /sentiment/stream.
+ *
+ * Exemplo JSON:
+ * {
+ *   "id": "msg-123",
+ *   "text": "Este produto é muito bom!"
+ * }
+ *
+ * @param id Identificador de correlação, devolvido na resposta
+ * @param text Texto a ser analisado
+ */
+public record StreamSentimentRequestDTO(
+        String id,
+        String text
+) {}
@@ -0,0 +1,43 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resposta enviada ao cliente no WebSocket /sentiment/stream, na ordem em
+ * que as análises terminam (não necessariamente a de envio).
+ *
+ * Exemplo JSON:
+ * {
+ *   "id": "msg-123",
+ *   "sentiment": "POSITIVO",
+ *   "score": 0.87,
+ *   "stage": "MODEL"
+ * }
+ *
+ * Em caso de falha, apenas id e error são enviados.
+ *
+ * @param id Identificador de correlação enviado pelo cliente
+ * @param sentiment Sentimento previsto
+ * @param score Probabilidade do sentimento previsto
+ * @param stage Estágio que respondeu o texto
+ * @param degraded true quando o resultado veio do motor de contingência
+ * @param error Motivo da falha
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StreamSentimentResponseDTO(
+        String id,
+        String sentiment,
+        Double score,
+        InferenceStage stage,
+        Boolean degraded,
+        String error
+) {
+    public static StreamSentimentResponseDTO of(String id, SentimentResultDTO result) {
+        return new StreamSentimentResponseDTO(id, result.previsao().toUpperCase(), result.probabilidade(),
+                result.estagio(), result.estagio() == InferenceStage.FALLBACK ? Boolean.TRUE : null, null);
+    }
+
+    public static StreamSentimentResponseDTO error(String id, String error) {
+        return new StreamSentimentResponseDTO(id, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * DTO com os contadores de uso de um tenant.
+ *
+ * @param tenant Identificador do tenant
+ * @param weight Peso na fila justa de inferência
+ * @param accepted Textos aceitos pela cota
+ * @param rejected Textos rejeitados por excesso de cota
+ * @param inferences Textos efetivamente inferidos
+ * @param inferenceMillis Tempo total de inferência consumido
+ */
+public record TenantUsageDTO(
+        String tenant,
+        int weight,
+        long accepted,
+        long rejected,
+        long inferences,
+        long inferenceMillis
+) {}
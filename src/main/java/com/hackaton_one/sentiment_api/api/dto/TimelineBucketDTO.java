@@ -0,0 +1,20 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para um bucket da linha do tempo de estatísticas.
+ *
+ * @param bucketStart Início do bucket (hora, dia ou segunda-feira da semana)
+ * @param positive Quantidade de análises positivas
+ * @param negative Quantidade de análises negativas
+ * @param total Quantidade total de análises
+ * @param averageConfidence Confiança média (0 a 100)
+ */
+public record TimelineBucketDTO(
+        LocalDateTime bucketStart,
+        long positive,
+        long negative,
+        long total,
+        double averageConfidence
+) {}
@@ -0,0 +1,18 @@
+package com.hackaton_one.sentiment_api.api.dto;
+
+/**
+ * Granularidade aceita pelo endpoint de linha do tempo (bucket=hour|day|week).
+ */
+public enum TimelineGranularity {
+    HOUR,
+    DAY,
+    WEEK;
+
+    public static TimelineGranularity from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid bucket '" + value + "'. Use hour, day or week");
+        }
+    }
+}
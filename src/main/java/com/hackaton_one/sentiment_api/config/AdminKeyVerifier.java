@@ -0,0 +1,32 @@
+package com.hackaton_one.sentiment_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Valida a chave de administração (header X-Admin-Key) exigida pelos
+ * endpoints de manutenção. Sem admin.api-key configurada, esses endpoints
+ * ficam desativados.
+ */
+@Component
+public class AdminKeyVerifier {
+
+    public static final String HEADER = "X-Admin-Key";
+
+    private final byte[] adminKey;
+
+    public AdminKeyVerifier(@Value("${admin.api-key:}") String adminKey) {
+        this.adminKey = adminKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isAuthorized(String key) {
+        if (adminKey.length == 0 || key == null) {
+            return false;
+        }
+        // Comparação em tempo constante
+        return MessageDigest.isEqual(adminKey, key.getBytes(StandardCharsets.UTF_8));
+    }
+}
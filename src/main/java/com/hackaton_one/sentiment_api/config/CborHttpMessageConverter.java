@@ -0,0 +1,186 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve respostas em CBOR (RFC 8949) quando o cliente envia Accept: application/cbor.
+ *
+ * O objeto passa pelo mesmo ObjectMapper das respostas JSON (mesmos nomes de
+ * campos, datas e @JsonInclude), gravado em um TokenBuffer; cada token é então
+ * codificado em CBOR. Objetos e arrays usam tamanho indefinido, de modo que a
+ * saída é escrita em uma única passada; números reais que cabem sem perda em
+ * float32 ocupam 5 bytes em vez de 9. Somente escrita: o corpo das requisições
+ * continua sendo JSON.
+ */
+public class CborHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_CBOR = MediaType.parseMediaType("application/cbor");
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_TAG = 6;
+    private static final int START_ARRAY = 0x9F;
+    private static final int START_MAP = 0xBF;
+    private static final int BREAK = 0xFF;
+    private static final int FALSE = 0xF4;
+    private static final int TRUE = 0xF5;
+    private static final int NULL = 0xF6;
+    private static final int FLOAT32 = 0xFA;
+    private static final int FLOAT64 = 0xFB;
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+
+    private final ObjectMapper objectMapper;
+
+    public CborHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_CBOR);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("CBOR request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+        objectMapper.writeValue(tokens, value);
+        OutputStream out = new BufferedOutputStream(outputMessage.getBody(), 8192);
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            encode(parser, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Codifica em CBOR todos os tokens restantes do parser.
+     */
+    static void encode(JsonParser parser, OutputStream out) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            switch (token) {
+                case START_OBJECT -> out.write(START_MAP);
+                case START_ARRAY -> out.write(START_ARRAY);
+                case END_OBJECT, END_ARRAY -> out.write(BREAK);
+                case FIELD_NAME -> writeText(out, parser.currentName());
+                case VALUE_STRING -> writeText(out, parser.getText());
+                case VALUE_NUMBER_INT -> writeInteger(out, parser);
+                case VALUE_NUMBER_FLOAT -> writeFloat(out, parser.getDoubleValue());
+                case VALUE_TRUE -> out.write(TRUE);
+                case VALUE_FALSE -> out.write(FALSE);
+                case VALUE_NULL -> out.write(NULL);
+                case VALUE_EMBEDDED_OBJECT -> writeEmbedded(out, parser);
+                default -> throw new IOException("Unsupported token for CBOR: " + token);
+            }
+        }
+    }
+
+    private static void writeInteger(OutputStream out, JsonParser parser) throws IOException {
+        if (parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            long value = parser.getLongValue();
+            if (value >= 0) {
+                writeHead(out, MAJOR_UNSIGNED, value);
+            } else {
+                writeHead(out, MAJOR_NEGATIVE, -1 - value);
+            }
+            return;
+        }
+        BigInteger value = parser.getBigIntegerValue();
+        if (value.bitLength() < Long.SIZE) {
+            long small = value.longValue();
+            writeHead(out, small >= 0 ? MAJOR_UNSIGNED : MAJOR_NEGATIVE, small >= 0 ? small : -1 - small);
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? BigInteger.ONE.negate().subtract(value) : value).toByteArray();
+        int skip = magnitude[0] == 0 ? 1 : 0;
+        writeHead(out, MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        writeHead(out, MAJOR_BYTES, magnitude.length - skip);
+        out.write(magnitude, skip, magnitude.length - skip);
+    }
+
+    private static void writeFloat(OutputStream out, double value) throws IOException {
+        float narrow = (float) value;
+        if (narrow == value) {
+            out.write(FLOAT32);
+            writeBytes(out, Float.floatToIntBits(narrow), 4);
+        } else {
+            out.write(FLOAT64);
+            writeBytes(out, Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    private static void writeEmbedded(OutputStream out, JsonParser parser) throws IOException {
+        Object embedded = parser.getEmbeddedObject();
+        if (embedded instanceof byte[] bytes) {
+            writeHead(out, MAJOR_BYTES, bytes.length);
+            out.write(bytes);
+        } else if (embedded == null) {
+            out.write(NULL);
+        } else {
+            writeText(out, embedded.toString());
+        }
+    }
+
+    private static void writeText(OutputStream out, String text) throws IOException {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        writeHead(out, MAJOR_TEXT, utf8.length);
+        out.write(utf8);
+    }
+
+    /**
+     * Cabeçalho de um item: tipo maior nos 3 bits altos e o argumento no menor
+     * tamanho que o comporta (RFC 8949, seção 3).
+     */
+    private static void writeHead(OutputStream out, int major, long argument) throws IOException {
+        int type = major << 5;
+        if (argument < 24) {
+            out.write(type | (int) argument);
+        } else if (argument <= 0xFFL) {
+            out.write(type | 24);
+            out.write((int) argument);
+        } else if (argument <= 0xFFFFL) {
+            out.write(type | 25);
+            writeBytes(out, argument, 2);
+        } else if (argument <= 0xFFFFFFFFL) {
+            out.write(type | 26);
+            writeBytes(out, argument, 4);
+        } else {
+            out.write(type | 27);
+            writeBytes(out, argument, 8);
+        }
+    }
+
+    private static void writeBytes(OutputStream out, long value, int count) throws IOException {
+        for (int shift = (count - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift) & 0xFF);
+        }
+    }
+}
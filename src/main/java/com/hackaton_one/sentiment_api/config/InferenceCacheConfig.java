@@ -0,0 +1,26 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.hackaton_one.sentiment_api.service.MappedResultCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Registra o cache de inferência em arquivo mapeado quando habilitado
+ * (inference-cache.file.enabled=true).
+ */
+@Configuration
+public class InferenceCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "inference-cache.file.enabled", havingValue = "true")
+    public MappedResultCache mappedResultCache(
+            @Value("${inference-cache.file.path:cache/inference-cache.bin}") String path,
+            @Value("${inference-cache.file.max-size-mb:256}") long maxSizeMb) throws IOException {
+        return new MappedResultCache(Path.of(path), maxSizeMb * 1024 * 1024);
+    }
+}
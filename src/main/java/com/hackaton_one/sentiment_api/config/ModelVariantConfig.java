@@ -0,0 +1,16 @@
+package com.hackaton_one.sentiment_api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra o filtro que identifica a variante de modelo pedida por cada requisição.
+ */
+@Configuration
+public class ModelVariantConfig {
+
+    @Bean
+    public ModelVariantFilter modelVariantFilter() {
+        return new ModelVariantFilter();
+    }
+}
@@ -0,0 +1,26 @@
+package com.hackaton_one.sentiment_api.config;
+
+/**
+ * Guarda a variante de modelo pedida pela requisição corrente na thread que a processa.
+ *
+ * null significa a variante padrão (sentiment.model.default-variant).
+ */
+public final class ModelVariantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ModelVariantContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String variant) {
+        CURRENT.set(variant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.hackaton_one.sentiment_api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lê a variante de modelo pedida (header X-Model-Variant ou parâmetro
+ * variant) e a disponibiliza via {@link ModelVariantContext}.
+ */
+public class ModelVariantFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Model-Variant";
+    public static final String PARAMETER = "variant";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ModelVariantContext.set(resolveVariant(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ModelVariantContext.clear();
+        }
+    }
+
+    String resolveVariant(HttpServletRequest request) {
+        String variant = request.getHeader(HEADER);
+        if (variant == null || variant.isBlank()) {
+            variant = request.getParameter(PARAMETER);
+        }
+        return variant != null && !variant.isBlank() ? variant.trim() : null;
+    }
+}
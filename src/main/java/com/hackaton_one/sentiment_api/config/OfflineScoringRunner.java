@@ -0,0 +1,85 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.hackaton_one.sentiment_api.service.OfflineScoringService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Ponto de entrada do perfil cli: pontua um arquivo local e encerra o processo.
+ *
+ * Sem servidor web (application-cli.properties), por exemplo:
+ * java -jar sentiment-api.jar --spring.profiles.active=prod,cli \
+ *   --cli.input=reviews.csv --cli.text-column=review --cli.output=scores.ndjson --cli.persist=true
+ *
+ * O código de saída é 0 em caso de sucesso e 1 se algum lote falhar ou a
+ * execução for interrompida por erro.
+ */
+@Slf4j
+@Component
+@Profile("cli")
+public class OfflineScoringRunner implements ApplicationRunner {
+
+    private final OfflineScoringService scoringService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${cli.input:}")
+    private String input = "";
+
+    @Value("${cli.format:}")
+    private String format = "";
+
+    @Value("${cli.text-column:}")
+    private String textColumn = "";
+
+    @Value("${cli.id-column:}")
+    private String idColumn = "";
+
+    @Value("${cli.output:}")
+    private String output = "";
+
+    @Value("${cli.persist:false}")
+    private boolean persist = false;
+
+    // 0 = um worker por núcleo
+    @Value("${cli.threads:0}")
+    private int threads = 0;
+
+    public OfflineScoringRunner(OfflineScoringService scoringService, ConfigurableApplicationContext context) {
+        this.scoringService = scoringService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode;
+        try {
+            if (input.isBlank()) {
+                throw new IllegalArgumentException("cli.input is required");
+            }
+            Path inputPath = Path.of(input);
+            OfflineScoringService.Options options = new OfflineScoringService.Options(
+                    inputPath,
+                    OfflineScoringService.InputFormat.from(format, inputPath),
+                    textColumn,
+                    idColumn,
+                    output.isBlank() ? null : Path.of(output),
+                    persist,
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            OfflineScoringService.Summary summary = scoringService.score(options);
+            exitCode = summary.failed() > 0 ? 1 : 0;
+        } catch (Exception e) {
+            log.error("Offline scoring failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,12 @@
+package com.hackaton_one.sentiment_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas da aplicação (@Scheduled).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
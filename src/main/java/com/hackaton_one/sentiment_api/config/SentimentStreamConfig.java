@@ -0,0 +1,83 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.controller.SentimentStreamEndpoint;
+import com.hackaton_one.sentiment_api.service.InferenceBatcher;
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+
+/**
+ * Registra o WebSocket /sentiment/stream no container do servidor embarcado.
+ *
+ * A requisição de handshake passa pelos filtros de tenant e de variante de
+ * modelo; os valores resolvidos ficam na conexão e valem para todas as
+ * mensagens dela.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "stream.enabled", havingValue = "true", matchIfMissing = true)
+public class SentimentStreamConfig implements ServletContextAware {
+
+    private final InferenceBatcher batcher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${stream.max-in-flight:32}")
+    private int maxInFlight = 32;
+
+    @Value("${stream.max-message-bytes:65536}")
+    private int maxMessageBytes = 65536;
+
+    public SentimentStreamConfig(InferenceBatcher batcher, ObjectMapper objectMapper) {
+        this.batcher = batcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            log.warn("No WebSocket container available, {} is disabled", SentimentStreamEndpoint.PATH);
+            return;
+        }
+        ServerEndpointConfig config = ServerEndpointConfig.Builder
+                .create(SentimentStreamEndpoint.class, SentimentStreamEndpoint.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request,
+                                                HandshakeResponse response) {
+                        // Executado na thread do handshake, depois de TenantFilter e ModelVariantFilter
+                        putIfPresent(sec, SentimentStreamEndpoint.TENANT_PROPERTY, TenantContext.current());
+                        putIfPresent(sec, SentimentStreamEndpoint.VARIANT_PROPERTY, ModelVariantContext.current());
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return (T) new SentimentStreamEndpoint(batcher, objectMapper, maxInFlight, maxMessageBytes);
+                    }
+                })
+                .build();
+        try {
+            container.addEndpoint(config);
+            log.info("WebSocket endpoint {} registered (max {} texts in flight per connection)",
+                    SentimentStreamEndpoint.PATH, maxInFlight);
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Could not register " + SentimentStreamEndpoint.PATH, e);
+        }
+    }
+
+    private static void putIfPresent(ServerEndpointConfig config, String key, String value) {
+        if (value != null) {
+            config.getUserProperties().put(key, value);
+        }
+    }
+}
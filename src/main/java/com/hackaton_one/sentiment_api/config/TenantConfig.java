@@ -0,0 +1,19 @@
+package com.hackaton_one.sentiment_api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração multi-tenant: registra as propriedades de cota e o filtro
+ * que identifica o tenant de cada requisição.
+ */
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantConfig {
+
+    @Bean
+    public TenantFilter tenantFilter(TenantProperties properties) {
+        return new TenantFilter(properties);
+    }
+}
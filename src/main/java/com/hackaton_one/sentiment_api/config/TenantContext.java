@@ -0,0 +1,27 @@
+package com.hackaton_one.sentiment_api.config;
+
+/**
+ * Guarda o tenant da requisição corrente na thread que a processa.
+ *
+ * Fora de uma requisição HTTP (jobs internos) o tenant é null e
+ * nenhuma cota é aplicada.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
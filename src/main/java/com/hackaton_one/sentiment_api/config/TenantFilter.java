@@ -0,0 +1,37 @@
+package com.hackaton_one.sentiment_api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifica o tenant de cada requisição pela API key e o
+ * disponibiliza via {@link TenantContext} durante o processamento.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final TenantProperties properties;
+
+    public TenantFilter(TenantProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TenantContext.set(resolveTenant(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    String resolveTenant(HttpServletRequest request) {
+        return properties.resolveTenant(request.getHeader(properties.getApiKeyHeader()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.hackaton_one.sentiment_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuração multi-tenant: identificação do tenant, limites de taxa
+ * (token bucket) e pesos do escalonamento justo da inferência.
+ *
+ * Exemplo:
+ * tenant.api-keys.chave-secreta=time-marketing
+ * tenant.quotas.time-marketing.requests-per-second=200
+ * tenant.quotas.time-marketing.weight=3
+ */
+@Data
+@ConfigurationProperties(prefix = "tenant")
+public class TenantProperties {
+
+    /** Header com a API key que identifica o tenant. */
+    private String apiKeyHeader = "X-API-Key";
+
+    /** Tenant usado quando a requisição não traz uma API key conhecida. */
+    private String defaultTenant = "anonymous";
+
+    /** Mapeamento API key -> tenant. */
+    private Map<String, String> apiKeys = new HashMap<>();
+
+    /** Cota aplicada a tenants sem configuração própria. */
+    private Quota defaults = new Quota();
+
+    /** Cotas por tenant. */
+    private Map<String, Quota> quotas = new HashMap<>();
+
+    /** Quantidade de inferências executadas em paralelo. */
+    private int inferenceConcurrency = Runtime.getRuntime().availableProcessors();
+
+    /** Tempo máximo que uma requisição aguarda na fila de inferência. */
+    private long maxQueueWaitMs = 30000;
+
+    /** Limite de tenants distintos rastreados; excedentes usam o tenant padrão. */
+    private int maxTrackedTenants = 1000;
+
+    /**
+     * Resolve o tenant pela API key. O tenant nunca vem de um valor informado
+     * pelo cliente: sem API key, ou com uma desconhecida, vale o tenant padrão.
+     *
+     * @param apiKey Valor do header de API key (pode ser null)
+     */
+    public String resolveTenant(String apiKey) {
+        if (apiKey != null) {
+            String mapped = apiKeys.get(apiKey);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        return defaultTenant;
+    }
+
+    public Quota quotaFor(String tenant) {
+        return quotas.getOrDefault(tenant, defaults);
+    }
+
+    @Data
+    public static class Quota {
+        /** Taxa sustentada de textos analisados por segundo (0 ou menos = ilimitado). */
+        private double requestsPerSecond = 50;
+
+        /** Rajada máxima aceita acima da taxa sustentada. */
+        private int burst = 100;
+
+        /** Peso relativo na fila justa de inferência. */
+        private int weight = 1;
+    }
+}
@@ -0,0 +1,59 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Formatos de resposta adicionais do Spring MVC.
+ *
+ * O conversor CBOR entra no fim da lista: JSON continua sendo o padrão e CBOR
+ * só é escolhido quando o cliente pede application/cbor no Accept.
+ *
+ * Requisições marcadas com {@link #LONG_ASYNC_REQUEST} (a exportação em massa)
+ * ganham o timeout assíncrono de export.async-timeout-ms; as demais mantêm o
+ * spring.mvc.async.request-timeout padrão.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    public static final String LONG_ASYNC_REQUEST = WebConfig.class.getName() + ".LONG_ASYNC_REQUEST";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.async-timeout-ms:3600000}")
+    private long longAsyncTimeoutMs = 3_600_000;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CborHttpMessageConverter(objectMapper));
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // Chamado antes do startAsync: o timeout ainda pode ser trocado
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(LONG_ASYNC_REQUEST, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(longAsyncTimeoutMs);
+                }
+            }
+        });
+    }
+}
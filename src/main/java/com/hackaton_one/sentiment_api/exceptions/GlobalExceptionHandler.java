@@ -2,6 +2,7 @@ package com.hackaton_one.sentiment_api.exceptions;
 
 import com.hackaton_one.sentiment_api.api.dto.ApiErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -62,6 +63,52 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    /**
+     * Trata exceções de cota excedida por tenant.
+     * Retorna HTTP 429 com o header Retry-After.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleRateLimitExceededException(
+            RateLimitExceededException e) {
+
+        ApiErrorResponse response = new ApiErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        log.info("Rate limit exceeded: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Trata exceções de falta de capacidade de inferência.
+     * Retorna HTTP 503 pois a condição é temporária.
+     */
+    @ExceptionHandler(InferenceOverloadedException.class)
+    public ResponseEntity<ApiErrorResponse> handleInferenceOverloadedException(
+            InferenceOverloadedException e) {
+
+        ApiErrorResponse response = new ApiErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        log.warn("Inference overloaded: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     /**
      * Trata erros de validação de entrada (@NotNull, @Size, etc).
      * Retorna HTTP 400 com mensagem clara sobre o campo inválido.
@@ -0,0 +1,15 @@
+package com.hackaton_one.sentiment_api.exceptions;
+
+/**
+ * Exceção lançada quando não há capacidade de inferência disponível
+ * dentro do tempo máximo de espera na fila.
+ */
+public class InferenceOverloadedException extends RuntimeException {
+    public InferenceOverloadedException(String message) {
+        super(message);
+    }
+
+    public InferenceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hackaton_one.sentiment_api.exceptions;
+
+/**
+ * Exceção lançada quando um tenant excede sua cota de requisições.
+ * Carrega o tempo sugerido de espera antes de uma nova tentativa.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
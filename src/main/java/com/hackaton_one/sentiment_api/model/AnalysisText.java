@@ -0,0 +1,110 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Texto analisado, armazenado uma única vez e endereçado pelo SHA-256 do conteúdo.
+ *
+ * Textos a partir de um limite de tamanho são gravados comprimidos (deflate)
+ * em compressedContent; os demais ficam legíveis em textContent.
+ */
+@Entity
+@Table(name = "tb_analysis_texts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisText {
+
+    // SHA-256 do texto em UTF-8, em hexadecimal
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "text_content", length = 5000)
+    private String textContent;
+
+    @Column(name = "compressed_content", length = 20000)
+    private byte[] compressedContent;
+
+    @Column(name = "text_length", nullable = false)
+    private Integer textLength;
+
+    // Em UTC, como Sentiment.analyzedAt
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Cria o registro do texto, comprimindo-o quando tiver pelo menos
+     * compressThreshold caracteres e a compressão de fato reduzir o tamanho.
+     */
+    public static AnalysisText of(String hash, String text, int compressThreshold) {
+        byte[] compressed = null;
+        if (compressThreshold > 0 && text.length() >= compressThreshold) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                compressed = deflated;
+            }
+        }
+        return new AnalysisText(hash, compressed == null ? text : null, compressed, text.length(),
+                LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Retorna o texto original, descomprimindo se necessário.
+     */
+    public String getContent() {
+        if (compressedContent == null) {
+            return textContent;
+        }
+        return new String(inflate(compressedContent), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bloco de textos de um {@link BatchJob} na fila de trabalho compartilhada.
+ *
+ * Os textos (payload) e os resultados (result) são arrays JSON em UTF-8.
+ * Um bloco reservado (CLAIMED) volta a ser visível para outros workers
+ * quando visible_at passa sem que o worker o conclua.
+ */
+@Entity
+@Table(name = "tb_batch_chunks", indexes = {
+        // Busca do próximo bloco disponível
+        @Index(name = "idx_batch_chunks_status_visible_at", columnList = "status, visible_at, id"),
+        // Montagem do resultado de um job, na ordem dos blocos
+        @Index(name = "idx_batch_chunks_job_index", columnList = "job_id, chunk_index", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BatchChunkStatus status;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(nullable = false, length = 16 * 1024 * 1024)
+    @ToString.Exclude
+    private byte[] payload;
+
+    @Column(length = 16 * 1024 * 1024)
+    @ToString.Exclude
+    private byte[] result;
+
+    // Reservas feitas até agora (incluindo a atual)
+    @Column(nullable = false)
+    private int attempts;
+
+    // Worker que detém a reserva
+    @Column(name = "claimed_by", length = 128)
+    private String claimedBy;
+
+    @Column(name = "visible_at")
+    private LocalDateTime visibleAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,14 @@
+package com.hackaton_one.sentiment_api.model;
+
+/**
+ * Situação de um {@link BatchChunk} na fila.
+ */
+public enum BatchChunkStatus {
+    // Aguardando um worker (a partir de visible_at, se preenchido)
+    PENDING,
+    // Reservado por um worker até visible_at; depois disso pode ser reservado de novo
+    CLAIMED,
+    DONE,
+    // Esgotou as tentativas
+    FAILED
+}
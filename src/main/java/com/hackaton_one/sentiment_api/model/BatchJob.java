@@ -0,0 +1,50 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lote de CSV processado de forma distribuída: os textos são divididos em
+ * {@link BatchChunk}s que qualquer réplica pode reservar e processar.
+ */
+@Entity
+@Table(name = "tb_batch_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BatchJobStatus status;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    @Column(name = "done_chunks", nullable = false)
+    private int doneChunks;
+
+    @Column(name = "failed_chunks", nullable = false)
+    private int failedChunks;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Variante pedida no envio; os workers pontuam todos os blocos com ela
+    @Column(name = "model_variant", length = 64)
+    private String modelVariant;
+}
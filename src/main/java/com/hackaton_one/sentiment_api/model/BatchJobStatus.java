@@ -0,0 +1,13 @@
+package com.hackaton_one.sentiment_api.model;
+
+/**
+ * Situação de um {@link BatchJob}.
+ */
+public enum BatchJobStatus {
+    // Ainda há blocos pendentes ou em processamento
+    RUNNING,
+    // Todos os blocos foram processados
+    COMPLETED,
+    // Todos os blocos terminaram, mas algum falhou em todas as tentativas
+    FAILED
+}
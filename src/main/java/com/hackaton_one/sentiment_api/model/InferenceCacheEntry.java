@@ -0,0 +1,47 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de inferência compartilhado entre as réplicas.
+ * As entradas são só inseridas, nunca atualizadas.
+ */
+@Entity
+@Table(name = "tb_inference_cache", indexes = {
+        // Expiração por TTL (InferenceCache.purgeExpired)
+        @Index(name = "idx_inference_cache_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InferenceCacheEntry implements Persistable<InferenceCacheKey> {
+
+    @EmbeddedId
+    private InferenceCacheKey key;
+
+    @Column(nullable = false, length = 16)
+    private String label;
+
+    @Column(nullable = false)
+    private Double probability;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public InferenceCacheKey getId() {
+        return key;
+    }
+
+    // Evita o SELECT do merge: a existência já é verificada antes da inserção
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
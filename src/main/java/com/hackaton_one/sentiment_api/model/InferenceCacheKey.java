@@ -0,0 +1,25 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Chave do cache de inferência: hash do texto normalizado e versão do modelo.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InferenceCacheKey implements Serializable {
+
+    @Column(name = "text_hash", length = 64)
+    private String textHash;
+
+    @Column(name = "model_version", length = 64)
+    private String modelVersion;
+}
@@ -0,0 +1,9 @@
+package com.hackaton_one.sentiment_api.model;
+
+/**
+ * Granularidade dos buckets materializados em {@link SentimentRollup}.
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY
+}
@@ -3,27 +3,43 @@ package com.hackaton_one.sentiment_api.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Entity
-@Table(name = "tb_sentiments")
+@Table(name = "tb_sentiments", indexes = {
+        // Paginação keyset por (analyzed_at, id); inclui as colunas da listagem sem texto
+        @Index(name = "idx_sentiments_analyzed_at_id", columnList = "analyzed_at, id, sentiment_result, confidence_score"),
+        // Filtro por sentimento mantendo a ordenação por tempo
+        @Index(name = "idx_sentiments_result_analyzed_at_id", columnList = "sentiment_result, analyzed_at, id, confidence_score"),
+        // Todas as análises de um mesmo texto
+        @Index(name = "idx_sentiments_text_hash", columnList = "text_hash, analyzed_at")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Sentiment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotBlank(message = "O texto para análise não pode estar vazio")
-    @Size(min = 5, max = 5000, message = "O texto deve ter entre 5 e 5000 caracteres")
-    @Column(nullable = false, length = 5000)
+    // O texto fica em tb_analysis_texts, referenciado pelo hash do conteúdo
+    @Transient
     private String textContent;
 
+    @Column(name = "text_hash", nullable = false, length = 64)
+    private String textHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "text_hash", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private AnalysisText text;
+
     // Ex: "POSITIVO", "NEGATIVO"
     @NotBlank(message = "O resultado da análise é obrigatório")
     private String sentimentResult;
@@ -36,9 +52,33 @@ public class Sentiment {
     @Column(name = "analyzed_at")
     private LocalDateTime analyzedAt;
 
-    // Método executado automaticamente antes de salvar no banco
+    // Versão do modelo que produziu o resultado (null = desconhecida, anterior à coluna)
+    @Column(name = "model_version", length = 64)
+    private String modelVersion;
+
+    public Sentiment(Long id, String textContent, String sentimentResult, Double confidenceScore, LocalDateTime analyzedAt) {
+        this.id = id;
+        this.textContent = textContent;
+        this.sentimentResult = sentimentResult;
+        this.confidenceScore = confidenceScore;
+        this.analyzedAt = analyzedAt;
+    }
+
+    /**
+     * Retorna o texto analisado, carregando-o de tb_analysis_texts se necessário.
+     */
+    @NotBlank(message = "O texto para análise não pode estar vazio")
+    @Size(min = 5, max = 5000, message = "O texto deve ter entre 5 e 5000 caracteres")
+    public String getTextContent() {
+        if (textContent == null && text != null) {
+            textContent = text.getContent();
+        }
+        return textContent;
+    }
+
+    // Método executado automaticamente antes de salvar no banco (horário em UTC)
     @PrePersist
     public void prePersist() {
-        this.analyzedAt = LocalDateTime.now();
+        this.analyzedAt = LocalDateTime.now(ZoneOffset.UTC);
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.hackaton_one.sentiment_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregado materializado de análises por hora ou por dia.
+ * Mantido incrementalmente a partir das gravações em tb_sentiments
+ * e reconstruível a partir dos dados brutos.
+ */
+@Entity
+@Table(name = "tb_sentiment_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_rollup_granularity_bucket",
+                columnNames = {"granularity", "bucket_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SentimentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    // Início do bucket (hora cheia ou meia-noite)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    private long positiveCount;
+
+    private long negativeCount;
+
+    private long totalCount;
+
+    private double positiveConfidenceSum;
+
+    private double negativeConfidenceSum;
+
+    private double confidenceSum;
+}
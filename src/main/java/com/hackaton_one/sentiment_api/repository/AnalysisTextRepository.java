@@ -0,0 +1,36 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.AnalysisText;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalysisTextRepository extends JpaRepository<AnalysisText, String> {
+
+    /**
+     * Trava em modo compartilhado, até o fim da transação corrente, os textos
+     * que existirem entre os hashes, e retorna seus hashes.
+     * Enquanto a trava durar, a limpeza de textos órfãos não consegue removê-los.
+     */
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t.hash FROM AnalysisText t WHERE t.hash IN :hashes")
+    List<String> lockExisting(Collection<String> hashes);
+
+    /**
+     * Remove textos criados antes de um instante que não são mais referenciados por nenhuma análise.
+     */
+    @Modifying
+    @Query("DELETE FROM AnalysisText t WHERE t.createdAt < :createdBefore " +
+           "AND NOT EXISTS (SELECT 1 FROM Sentiment s WHERE s.textHash = t.hash)")
+    int deleteUnreferenced(LocalDateTime createdBefore);
+}
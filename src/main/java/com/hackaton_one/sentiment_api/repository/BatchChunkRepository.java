@@ -0,0 +1,67 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.BatchChunk;
+import com.hackaton_one.sentiment_api.model.BatchChunkStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fila de blocos de lote compartilhada entre as réplicas.
+ *
+ * As atualizações de um bloco reservado só valem para o worker e a tentativa
+ * que o reservaram (claimedBy + attempts): um worker que perdeu a reserva
+ * por tempo não sobrescreve o trabalho de quem a assumiu.
+ */
+@Repository
+public interface BatchChunkRepository extends JpaRepository<BatchChunk, Long> {
+
+    /**
+     * Bloqueia até limit blocos disponíveis: pendentes já visíveis ou reservados
+     * cuja reserva expirou. SKIP LOCKED pula os bloqueados por outras réplicas
+     * em vez de esperar por eles (PostgreSQL e H2).
+     */
+    @Query(value = "SELECT id FROM tb_batch_chunks " +
+                   "WHERE (status = 'PENDING' AND (visible_at IS NULL OR visible_at <= :now)) " +
+                   "OR (status = 'CLAIMED' AND visible_at <= :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockAvailable(LocalDateTime now, int limit);
+
+    /**
+     * Reserva um bloco já bloqueado por {@link #lockAvailable} até visibleUntil.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BatchChunk c SET c.status = :claimed, c.claimedBy = :worker, c.visibleAt = :visibleUntil, " +
+           "c.attempts = c.attempts + 1 WHERE c.id = :id")
+    int claim(long id, String worker, LocalDateTime visibleUntil, BatchChunkStatus claimed);
+
+    /**
+     * Encerra a reserva de um bloco com o novo estado.
+     *
+     * @return 0 se a reserva não pertence mais a este worker e tentativa
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BatchChunk c SET c.status = :status, c.result = :result, c.lastError = :error, " +
+           "c.visibleAt = :visibleAt, c.claimedBy = NULL " +
+           "WHERE c.id = :id AND c.status = :claimed AND c.claimedBy = :worker AND c.attempts = :attempts")
+    int finish(long id, String worker, int attempts, BatchChunkStatus claimed,
+               BatchChunkStatus status, byte[] result, String error, LocalDateTime visibleAt);
+
+    /**
+     * Blocos de um job, na ordem do arquivo
+     */
+    List<BatchChunk> findByJobIdOrderByChunkIndexAsc(String jobId);
+
+    /**
+     * Remove os blocos de jobs terminados antes do instante informado
+     */
+    @Modifying
+    @Query("DELETE FROM BatchChunk c WHERE c.jobId IN " +
+           "(SELECT j.id FROM BatchJob j WHERE j.finishedAt < :before)")
+    int deleteOfJobsFinishedBefore(LocalDateTime before);
+}
@@ -0,0 +1,30 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.BatchJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, String> {
+
+    /**
+     * Soma blocos concluídos e falhos ao job. A linha do job fica bloqueada
+     * até o fim da transação, de modo que só o último bloco a terminar vê
+     * todos os blocos contados.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BatchJob j SET j.doneChunks = j.doneChunks + :done, j.failedChunks = j.failedChunks + :failed " +
+           "WHERE j.id = :id")
+    int addFinishedChunks(String id, int done, int failed);
+
+    /**
+     * Remove jobs terminados antes do instante informado
+     */
+    @Modifying
+    @Query("DELETE FROM BatchJob j WHERE j.finishedAt < :before")
+    int deleteFinishedBefore(LocalDateTime before);
+}
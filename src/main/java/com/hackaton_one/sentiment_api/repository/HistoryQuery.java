@@ -0,0 +1,30 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critérios de uma página do histórico, ordenada por (analyzedAt, id) decrescente.
+ *
+ * @param sentiment Sentimento exato (null = todos)
+ * @param textHash Hash do texto analisado (null = todos)
+ * @param minConfidence Confiança mínima, inclusiva (null = sem limite)
+ * @param maxConfidence Confiança máxima, inclusiva (null = sem limite)
+ * @param from Início do intervalo, inclusivo (null = sem limite)
+ * @param to Fim do intervalo, exclusivo (null = sem limite)
+ * @param afterAnalyzedAt analyzedAt do último item da página anterior (null = primeira página)
+ * @param afterId id do último item da página anterior
+ * @param limit Quantidade máxima de linhas
+ * @param includeText Se false, o texto não é lido do banco
+ */
+public record HistoryQuery(
+        String sentiment,
+        String textHash,
+        Double minConfidence,
+        Double maxConfidence,
+        LocalDateTime from,
+        LocalDateTime to,
+        LocalDateTime afterAnalyzedAt,
+        Long afterId,
+        int limit,
+        boolean includeText
+) {}
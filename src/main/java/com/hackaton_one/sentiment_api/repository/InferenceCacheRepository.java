@@ -0,0 +1,23 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.InferenceCacheEntry;
+import com.hackaton_one.sentiment_api.model.InferenceCacheKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InferenceCacheRepository extends JpaRepository<InferenceCacheEntry, InferenceCacheKey> {
+
+    /**
+     * Remove as entradas gravadas antes de um instante
+     *
+     * @return quantidade de entradas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM InferenceCacheEntry e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
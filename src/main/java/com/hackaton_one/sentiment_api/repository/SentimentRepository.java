@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface SentimentRepository extends JpaRepository<Sentiment, Long> {
+public interface SentimentRepository extends JpaRepository<Sentiment, Long>, SentimentRepositoryCustom {
     
     /**
      * Conta análises por sentimento
@@ -21,11 +21,6 @@ public interface SentimentRepository extends JpaRepository<Sentiment, Long> {
      */
     List<Sentiment> findByAnalyzedAtBetween(LocalDateTime start, LocalDateTime end);
     
-    /**
-     * Busca análises recentes ordenadas por data
-     */
-    List<Sentiment> findTop100ByOrderByAnalyzedAtDesc();
-    
     /**
      * Calcula a média de confiança por sentimento
      */
@@ -39,17 +34,29 @@ public interface SentimentRepository extends JpaRepository<Sentiment, Long> {
     Double averageConfidence();
     
     /**
-     * Busca análises agrupadas por dia
-     * Usa CAST para compatibilidade com H2 e PostgreSQL
+     * Agrega quantidade e soma de confiança por sentimento em uma única consulta
+     */
+    @Query("SELECT s.sentimentResult, COUNT(s), SUM(s.confidenceScore) FROM Sentiment s GROUP BY s.sentimentResult")
+    List<Object[]> aggregateBySentiment();
+
+    /**
+     * Agrega análises por hora e sentimento (usado para reconstruir os rollups)
+     * Usa funções de data do HQL para compatibilidade com H2 e PostgreSQL
      */
-    @Query("SELECT CAST(s.analyzedAt AS DATE) as date, " +
-           "COUNT(CASE WHEN s.sentimentResult = 'POSITIVO' THEN 1 END) as positive, " +
-           "COUNT(CASE WHEN s.sentimentResult = 'NEGATIVO' THEN 1 END) as negative, " +
-           "COUNT(s) as total " +
+    @Query("SELECT YEAR(s.analyzedAt), MONTH(s.analyzedAt), DAY(s.analyzedAt), HOUR(s.analyzedAt), " +
+           "s.sentimentResult, COUNT(s), SUM(s.confidenceScore) " +
            "FROM Sentiment s " +
-           "WHERE s.analyzedAt >= :startDate " +
-           "GROUP BY CAST(s.analyzedAt AS DATE) " +
-           "ORDER BY date DESC")
-    List<Object[]> findDailyStatistics(LocalDateTime startDate);
-}
+           "WHERE s.analyzedAt IS NOT NULL " +
+           "GROUP BY YEAR(s.analyzedAt), MONTH(s.analyzedAt), DAY(s.analyzedAt), HOUR(s.analyzedAt), s.sentimentResult")
+    List<Object[]> aggregateByHour();
 
+    /**
+     * Conta análises sem versão de modelo ou com versão diferente da informada
+     */
+    long countByModelVersionIsNullOrModelVersionNot(String modelVersion);
+
+    /**
+     * Verifica se existe alguma análise salva
+     */
+    boolean existsByIdIsNotNull();
+}
\ No newline at end of file
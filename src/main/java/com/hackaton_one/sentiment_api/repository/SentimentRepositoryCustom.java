@@ -0,0 +1,41 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.Sentiment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas do histórico e da exportação, montadas dinamicamente.
+ */
+public interface SentimentRepositoryCustom {
+
+    /**
+     * Busca uma página do histórico por keyset.
+     * As entidades retornadas não são gerenciadas; sem includeText, textContent vem nulo.
+     */
+    List<Sentiment> findHistoryPage(HistoryQuery query);
+
+    /**
+     * Percorre as análises em ordem crescente de (analyzedAt, id) com um cursor
+     * somente-leitura, buscando fetchSize linhas por vez. Cada entidade é
+     * desanexada do contexto de persistência ao ser entregue.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param from Início do intervalo, inclusivo (null = sem limite)
+     * @param to Fim do intervalo, exclusivo (null = sem limite)
+     * @param afterAnalyzedAt Retoma após esta posição (null = do início)
+     * @param afterId id da última análise já exportada
+     */
+    Stream<Sentiment> streamForExport(LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime afterAnalyzedAt, Long afterId, int fetchSize);
+
+    /**
+     * Busca, em ordem crescente de id, até limit análises com id maior que
+     * afterId cuja versão de modelo é nula ou diferente de modelVersion.
+     * Keyset pela chave primária: cada página custa o mesmo, qualquer que seja
+     * a posição. As entidades retornadas não são gerenciadas e trazem o texto.
+     */
+    List<Sentiment> findStaleModelVersion(String modelVersion, long afterId, int limit);
+}
@@ -0,0 +1,195 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.AnalysisText;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementação das consultas dinâmicas do histórico e da exportação.
+ *
+ * Só os filtros informados entram no SQL, para que o banco escolha o índice
+ * adequado. A condição de keyset é escrita como
+ * analyzed_at <= :t AND (analyzed_at < :t OR id < :id), cuja primeira parte
+ * delimita a varredura no índice (analyzed_at, id): páginas profundas custam
+ * o mesmo que a primeira.
+ *
+ * O texto fica em tb_analysis_texts: só é lido (por join) quando pedido.
+ */
+public class SentimentRepositoryImpl implements SentimentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Sentiment> findHistoryPage(HistoryQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Sentiment> s = cq.from(Sentiment.class);
+        Path<LocalDateTime> analyzedAt = s.get("analyzedAt");
+        Path<Long> id = s.get("id");
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(id.alias("id"));
+        columns.add(s.get("textHash").alias("textHash"));
+        if (query.includeText()) {
+            Join<Sentiment, AnalysisText> text = s.join("text", JoinType.LEFT);
+            columns.add(text.get("textContent").alias("textContent"));
+            columns.add(text.get("compressedContent").alias("compressedContent"));
+        }
+        columns.add(s.get("sentimentResult").alias("sentimentResult"));
+        columns.add(s.get("confidenceScore").alias("confidenceScore"));
+        columns.add(analyzedAt.alias("analyzedAt"));
+        cq.multiselect(columns);
+
+        List<Predicate> where = new ArrayList<>();
+        if (query.sentiment() != null) {
+            where.add(cb.equal(s.get("sentimentResult"), query.sentiment()));
+        }
+        if (query.textHash() != null) {
+            where.add(cb.equal(s.get("textHash"), query.textHash()));
+        }
+        if (query.minConfidence() != null) {
+            where.add(cb.greaterThanOrEqualTo(s.get("confidenceScore"), query.minConfidence()));
+        }
+        if (query.maxConfidence() != null) {
+            where.add(cb.lessThanOrEqualTo(s.get("confidenceScore"), query.maxConfidence()));
+        }
+        if (query.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(analyzedAt, query.from()));
+        }
+        if (query.to() != null) {
+            where.add(cb.lessThan(analyzedAt, query.to()));
+        }
+        if (query.afterAnalyzedAt() != null) {
+            where.add(cb.lessThanOrEqualTo(analyzedAt, query.afterAnalyzedAt()));
+            where.add(cb.or(
+                    cb.lessThan(analyzedAt, query.afterAnalyzedAt()),
+                    cb.lessThan(id, query.afterId())));
+        }
+
+        cq.where(where.toArray(new Predicate[0]));
+        cq.orderBy(cb.desc(analyzedAt), cb.desc(id));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.limit())
+                .getResultList()
+                .stream()
+                .map(row -> {
+                    Sentiment sentiment = new Sentiment(
+                            row.get("id", Long.class),
+                            query.includeText() ? content(row) : null,
+                            row.get("sentimentResult", String.class),
+                            row.get("confidenceScore", Double.class),
+                            row.get("analyzedAt", LocalDateTime.class));
+                    sentiment.setTextHash(row.get("textHash", String.class));
+                    return sentiment;
+                })
+                .toList();
+    }
+
+    @Override
+    public Stream<Sentiment> streamForExport(LocalDateTime from, LocalDateTime to,
+                                             LocalDateTime afterAnalyzedAt, Long afterId, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Sentiment> cq = cb.createQuery(Sentiment.class);
+        Root<Sentiment> s = cq.from(Sentiment.class);
+        Path<LocalDateTime> analyzedAt = s.get("analyzedAt");
+        Path<Long> id = s.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(analyzedAt, from));
+        }
+        if (to != null) {
+            where.add(cb.lessThan(analyzedAt, to));
+        }
+        if (afterAnalyzedAt != null) {
+            where.add(cb.greaterThanOrEqualTo(analyzedAt, afterAnalyzedAt));
+            where.add(cb.or(
+                    cb.greaterThan(analyzedAt, afterAnalyzedAt),
+                    cb.greaterThan(id, afterId)));
+        }
+        s.fetch("text", JoinType.LEFT);
+        cq.select(s).where(where.toArray(new Predicate[0]));
+        cq.orderBy(cb.asc(analyzedAt), cb.asc(id));
+
+        return entityManager.createQuery(cq)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream()
+                .map(sentiment -> {
+                    // Resolve o texto antes de desanexar; o texto também sai do contexto
+                    sentiment.getTextContent();
+                    if (sentiment.getText() != null) {
+                        entityManager.detach(sentiment.getText());
+                    }
+                    entityManager.detach(sentiment);
+                    return sentiment;
+                });
+    }
+
+    @Override
+    public List<Sentiment> findStaleModelVersion(String modelVersion, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Sentiment> s = cq.from(Sentiment.class);
+        Join<Sentiment, AnalysisText> text = s.join("text", JoinType.LEFT);
+        Path<Long> id = s.get("id");
+        Path<String> version = s.get("modelVersion");
+
+        cq.multiselect(
+                id.alias("id"),
+                s.get("textHash").alias("textHash"),
+                text.get("textContent").alias("textContent"),
+                text.get("compressedContent").alias("compressedContent"),
+                s.get("sentimentResult").alias("sentimentResult"),
+                s.get("confidenceScore").alias("confidenceScore"),
+                s.get("analyzedAt").alias("analyzedAt"),
+                version.alias("modelVersion"));
+        cq.where(
+                cb.greaterThan(id, afterId),
+                cb.or(cb.isNull(version), cb.notEqual(version, modelVersion)));
+        cq.orderBy(cb.asc(id));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(row -> {
+                    Sentiment sentiment = new Sentiment(
+                            row.get("id", Long.class),
+                            content(row),
+                            row.get("sentimentResult", String.class),
+                            row.get("confidenceScore", Double.class),
+                            row.get("analyzedAt", LocalDateTime.class));
+                    sentiment.setTextHash(row.get("textHash", String.class));
+                    sentiment.setModelVersion(row.get("modelVersion", String.class));
+                    return sentiment;
+                })
+                .toList();
+    }
+
+    private static String content(Tuple row) {
+        AnalysisText text = new AnalysisText();
+        text.setTextContent(row.get("textContent", String.class));
+        text.setCompressedContent(row.get("compressedContent", byte[].class));
+        return text.getContent();
+    }
+}
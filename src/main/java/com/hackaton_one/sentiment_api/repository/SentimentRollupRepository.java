@@ -0,0 +1,48 @@
+package com.hackaton_one.sentiment_api.repository;
+
+import com.hackaton_one.sentiment_api.model.RollupGranularity;
+import com.hackaton_one.sentiment_api.model.SentimentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SentimentRollupRepository extends JpaRepository<SentimentRollup, Long> {
+
+    /**
+     * Busca os buckets de uma granularidade no intervalo [from, to)
+     */
+    List<SentimentRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Soma os deltas a um bucket existente
+     *
+     * @return quantidade de linhas atualizadas (0 se o bucket ainda não existe)
+     */
+    @Modifying
+    @Query("UPDATE SentimentRollup r SET " +
+           "r.positiveCount = r.positiveCount + :positive, " +
+           "r.negativeCount = r.negativeCount + :negative, " +
+           "r.totalCount = r.totalCount + :total, " +
+           "r.positiveConfidenceSum = r.positiveConfidenceSum + :positiveSum, " +
+           "r.negativeConfidenceSum = r.negativeConfidenceSum + :negativeSum, " +
+           "r.confidenceSum = r.confidenceSum + :confidenceSum " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart")
+    int increment(RollupGranularity granularity, LocalDateTime bucketStart,
+                  long positive, long negative, long total,
+                  double positiveSum, double negativeSum, double confidenceSum);
+
+    /**
+     * Apaga os buckets de todas as granularidades que começam antes de um instante
+     *
+     * @return quantidade de buckets apagados
+     */
+    @Modifying
+    @Query("DELETE FROM SentimentRollup r WHERE r.bucketStart < :before")
+    int deleteByBucketStartBefore(LocalDateTime before);
+}
@@ -0,0 +1,67 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versão monotônica dos dados de análises gravados por este nó.
+ *
+ * Os snapshots de estatísticas e histórico comparam essa versão para saber
+ * se precisam ser reconstruídos. Gravações de outras réplicas são captadas
+ * pelo intervalo de atualização (snapshot.refresh-interval-ms).
+ */
+@Component
+public class AnalysisChangeTracker {
+
+    private final AtomicLong version = new AtomicLong();
+    private final ObjectMapper objectMapper;
+
+    @Value("${snapshot.refresh-interval-ms:30000}")
+    private long refreshIntervalMs;
+
+    public AnalysisChangeTracker(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Executa depois dos listeners que atualizam os agregados, para que a
+    // nova versão só seja vista quando os dados já refletem a gravação
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSentimentSaved(SentimentSavedEvent event) {
+        markChanged();
+    }
+
+    public void markChanged() {
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Cria um cache de snapshot atrelado à versão dos dados, com o ETag
+     * derivado do JSON do conteúdo.
+     */
+    public <T> SnapshotCache<T> newSnapshotCache(String name, Supplier<T> loader) {
+        return new SnapshotCache<>(name, loader, this::version, refreshIntervalMs, this::toJson);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de uma análise na ordem (analyzedAt, id), usada como cursor opaco
+ * pelo histórico e pela exportação.
+ */
+public record AnalysisCursor(LocalDateTime analyzedAt, Long id) {
+
+    public String encode() {
+        String position = analyzedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o cursor não tiver sido gerado por {@link #encode()}
+     */
+    public static AnalysisCursor decode(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new AnalysisCursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.model.AnalysisText;
+import com.hackaton_one.sentiment_api.repository.AnalysisTextRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Armazenamento dos textos analisados endereçado por conteúdo.
+ *
+ * Cada texto distinto é gravado uma única vez em tb_analysis_texts, com o
+ * SHA-256 como chave; as análises guardam apenas o hash. Textos repetidos
+ * custam só a leitura da chave primária.
+ *
+ * A limpeza de textos órfãos não pode apagar um texto entre {@link #store} e
+ * a gravação da análise que o referencia: textos existentes ficam travados em
+ * modo compartilhado na transação de quem chamou, e textos recém-criados só
+ * são removidos depois de text-storage.purge-grace-minutes.
+ */
+@Slf4j
+@Service
+public class AnalysisTextService {
+
+    private static final String COLUMNS = "(hash, text_content, compressed_content, text_length, created_at)";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    // 5 parâmetros por texto, bem abaixo do limite de parâmetros por comando
+    private static final int INSERT_CHUNK = 1000;
+
+    private final AnalysisTextRepository textRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${text-storage.compress-threshold:1024}")
+    private int compressThreshold = 1024;
+
+    @Value("${text-storage.purge-grace-minutes:60}")
+    private long purgeGraceMinutes = 60;
+
+    private volatile Boolean postgres;
+
+    public AnalysisTextService(AnalysisTextRepository textRepository, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.textRepository = textRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Garante que o texto está armazenado e retorna seu hash. Deve ser chamado
+     * na mesma transação que grava a análise.
+     *
+     * @see #storeAll
+     */
+    public String store(String text) {
+        return storeAll(List.of(text)).get(0);
+    }
+
+    /**
+     * Garante que os textos estão armazenados e retorna seus hashes, na ordem
+     * recebida. Deve ser chamado na mesma transação que grava as análises.
+     *
+     * Textos já existentes ficam travados até o fim da transação de quem chamou.
+     * Os novos são inseridos nessa mesma transação, em um único comando que
+     * ignora hashes gravados ao mesmo tempo por outra requisição (ON CONFLICT
+     * no PostgreSQL, MERGE nos demais bancos), sem abrir outra conexão.
+     */
+    public List<String> storeAll(List<String> texts) {
+        List<String> hashes = new ArrayList<>(texts.size());
+        // Ordenados por hash: transações com textos em comum inserem na mesma ordem e não se travam
+        Map<String, String> distinct = new TreeMap<>();
+        for (String text : texts) {
+            String hash = hash(text);
+            hashes.add(hash);
+            distinct.putIfAbsent(hash, text);
+        }
+        if (distinct.isEmpty()) {
+            return hashes;
+        }
+        Set<String> existing = new HashSet<>(textRepository.lockExisting(distinct.keySet()));
+        List<AnalysisText> missing = new ArrayList<>(distinct.size() - existing.size());
+        distinct.forEach((hash, text) -> {
+            if (!existing.contains(hash)) {
+                missing.add(AnalysisText.of(hash, text, compressThreshold));
+            }
+        });
+        for (int from = 0; from < missing.size(); from += INSERT_CHUNK) {
+            insertIgnoringDuplicates(missing.subList(from, Math.min(from + INSERT_CHUNK, missing.size())));
+        }
+        return hashes;
+    }
+
+    private void insertIgnoringDuplicates(List<AnalysisText> rows) {
+        String values = String.join(", ", Collections.nCopies(rows.size(), ROW));
+        String sql = isPostgres()
+                ? "INSERT INTO tb_analysis_texts " + COLUMNS + " VALUES " + values + " ON CONFLICT (hash) DO NOTHING"
+                : "MERGE INTO tb_analysis_texts " + COLUMNS + " KEY (hash) VALUES " + values;
+        Object[] args = new Object[rows.size() * 5];
+        int i = 0;
+        for (AnalysisText row : rows) {
+            args[i++] = new SqlParameterValue(Types.VARCHAR, row.getHash());
+            args[i++] = new SqlParameterValue(Types.VARCHAR, row.getTextContent());
+            args[i++] = new SqlParameterValue(Types.BINARY, row.getCompressedContent());
+            args[i++] = new SqlParameterValue(Types.INTEGER, row.getTextLength());
+            args[i++] = new SqlParameterValue(Types.TIMESTAMP, row.getCreatedAt());
+        }
+        int inserted = jdbcTemplate.update(sql, args);
+        if (inserted < rows.size()) {
+            log.debug("{} texts stored concurrently by another request", rows.size() - inserted);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+
+    /**
+     * Remove textos que ficaram sem análises (ex: após a retenção de partições).
+     *
+     * Se uma análise passar a referenciar um dos textos durante a limpeza, o
+     * banco recusa a remoção; a limpeza é desfeita e fica para a próxima execução.
+     */
+    public int purgeUnreferenced() {
+        LocalDateTime createdBefore = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(purgeGraceMinutes);
+        try {
+            Integer removed = newTransaction.execute(status -> textRepository.deleteUnreferenced(createdBefore));
+            log.info("Removed {} unreferenced analysis texts", removed);
+            return removed != null ? removed : 0;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Unreferenced text purge conflicted with new analyses, retrying on the next run: {}",
+                    e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * SHA-256 do texto em UTF-8, em hexadecimal minúsculo.
+     */
+    public static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.dto.BatchJobDTO;
+import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
+import com.hackaton_one.sentiment_api.model.BatchChunk;
+import com.hackaton_one.sentiment_api.model.BatchChunkStatus;
+import com.hackaton_one.sentiment_api.model.BatchJob;
+import com.hackaton_one.sentiment_api.model.BatchJobStatus;
+import com.hackaton_one.sentiment_api.repository.BatchChunkRepository;
+import com.hackaton_one.sentiment_api.repository.BatchJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lotes de CSV distribuídos entre as réplicas por uma fila no banco.
+ *
+ * O envio só lê o CSV e grava o job com seus textos divididos em blocos de
+ * batch.queue.chunk-size; os {@link BatchJobWorker}s de todas as réplicas
+ * reservam blocos com SELECT ... FOR UPDATE SKIP LOCKED, de modo que um lote
+ * grande termina em tempo proporcional a linhas / núcleos do cluster.
+ *
+ * Cada reserva vale por batch.queue.visibility-timeout-ms: se o worker cair,
+ * o bloco volta a ficar disponível e é reprocessado, até
+ * batch.queue.max-attempts tentativas. O resultado de um bloco, as análises
+ * salvas no histórico e a contagem do job são gravados na mesma transação,
+ * só se a reserva ainda for do worker. O resultado do job é montado na ordem
+ * do arquivo a partir dos blocos.
+ *
+ * A variante de modelo pedida no envio (X-Model-Variant) é gravada no job e
+ * usada pelos workers em todos os blocos.
+ *
+ * Prazos de reserva e datas da fila são gravados em UTC, como as análises:
+ * réplicas em fusos diferentes comparam os mesmos instantes.
+ */
+@Slf4j
+@Service
+public class BatchJobService {
+
+    private static final TypeReference<List<String>> TEXTS = new TypeReference<>() {};
+    private static final TypeReference<List<SentimentResultDTO>> RESULTS = new TypeReference<>() {};
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final BatchJobRepository jobRepository;
+    private final BatchChunkRepository chunkRepository;
+    private final BatchService batchService;
+    private final SentimentPersistenceService persistenceService;
+    private final TenantQuotaService tenantQuotaService;
+    private final ModelVariantRegistry modelVariants;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${batch.queue.max-lines:100000}")
+    private int maxLines = 100000;
+
+    @Value("${batch.queue.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${batch.queue.visibility-timeout-ms:120000}")
+    private long visibilityTimeoutMs = 120000;
+
+    @Value("${batch.queue.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${batch.queue.retry-delay-ms:5000}")
+    private long retryDelayMs = 5000;
+
+    @Value("${batch.queue.retention-hours:24}")
+    private long retentionHours = 24;
+
+    // Substituível nos testes
+    private Clock clock = Clock.systemUTC();
+
+    public BatchJobService(
+            BatchJobRepository jobRepository,
+            BatchChunkRepository chunkRepository,
+            BatchService batchService,
+            SentimentPersistenceService persistenceService,
+            TenantQuotaService tenantQuotaService,
+            ModelVariantRegistry modelVariants,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper) {
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.batchService = batchService;
+        this.persistenceService = persistenceService;
+        this.tenantQuotaService = tenantQuotaService;
+        this.modelVariants = modelVariants;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Bloco reservado por um worker.
+     *
+     * @param attempts Número desta tentativa (1 na primeira reserva)
+     * @param variant  Variante de modelo do job
+     */
+    public record ClaimedChunk(long id, String jobId, int attempts, List<String> texts, String variant) {}
+
+    /**
+     * Lê o CSV e enfileira seus textos em blocos. A cota do tenant é consumida
+     * aqui, de uma vez; os workers processam os blocos fora da cota.
+     *
+     * @throws IllegalArgumentException se o arquivo for inválido, não tiver textos
+     *                                  ou a variante de modelo pedida não existir
+     */
+    public BatchJobDTO submit(MultipartFile file, String textColumn) {
+        // Resolvida antes de enfileirar: variante desconhecida não vira blocos falhos
+        String variant = modelVariants.resolve(ModelVariantContext.current()).name();
+        List<String> texts = batchService.readCSVTexts(file, textColumn, maxLines);
+        if (texts.isEmpty()) {
+            throw new IllegalArgumentException("No valid text found in CSV");
+        }
+        String tenant = TenantContext.current();
+        if (tenant != null) {
+            tenantQuotaService.consume(tenant, texts.size());
+        }
+
+        int size = Math.max(1, chunkSize);
+        int chunks = (texts.size() + size - 1) / size;
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), BatchJobStatus.RUNNING, texts.size(), chunks,
+                0, 0, now(), null, variant);
+        List<BatchChunk> entities = new ArrayList<>(chunks);
+        for (int index = 0; index < chunks; index++) {
+            List<String> slice = texts.subList(index * size, Math.min(texts.size(), (index + 1) * size));
+            entities.add(new BatchChunk(null, job.getId(), index, BatchChunkStatus.PENDING, slice.size(),
+                    toJson(slice), null, 0, null, null, null));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jobRepository.save(job);
+            chunkRepository.saveAll(entities);
+        });
+        log.info("Batch job {} queued: {} texts in {} chunks", job.getId(), texts.size(), chunks);
+        return toDto(job);
+    }
+
+    public Optional<BatchJobDTO> getJob(String id) {
+        return jobRepository.findById(id).map(BatchJobService::toDto);
+    }
+
+    /**
+     * Resultado de um job terminado, na ordem do CSV. Textos de blocos que
+     * esgotaram as tentativas ficam de fora.
+     *
+     * @return vazio se o job não existir ou ainda estiver em andamento
+     */
+    @Transactional(readOnly = true)
+    public Optional<BatchSentimentResponseDTO> getResults(String id) {
+        Optional<BatchJob> job = jobRepository.findById(id);
+        if (job.isEmpty() || job.get().getStatus() == BatchJobStatus.RUNNING) {
+            return Optional.empty();
+        }
+        List<SentimentResponseDTO> results = new ArrayList<>(job.get().getTotalRows());
+        for (BatchChunk chunk : chunkRepository.findByJobIdOrderByChunkIndexAsc(id)) {
+            if (chunk.getStatus() != BatchChunkStatus.DONE) {
+                continue;
+            }
+            List<String> texts = fromJson(chunk.getPayload(), TEXTS);
+            List<SentimentResultDTO> chunkResults = fromJson(chunk.getResult(), RESULTS);
+            for (int i = 0; i < texts.size(); i++) {
+                SentimentResultDTO result = chunkResults.get(i);
+                results.add(new SentimentResponseDTO(result.previsao().toUpperCase(), result.probabilidade(),
+                        texts.get(i), result.estagio()));
+            }
+        }
+        return Optional.of(new BatchSentimentResponseDTO(results, results.size()));
+    }
+
+    /**
+     * Reserva o próximo bloco disponível para o worker.
+     */
+    @Transactional
+    public Optional<ClaimedChunk> claim(String worker) {
+        LocalDateTime now = now();
+        List<Long> ids = chunkRepository.lockAvailable(now, 1);
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        long id = ids.get(0);
+        chunkRepository.claim(id, worker, now.plus(Duration.ofMillis(visibilityTimeoutMs)), BatchChunkStatus.CLAIMED);
+        BatchChunk chunk = chunkRepository.findById(id).orElseThrow();
+        String variant = jobRepository.findById(chunk.getJobId()).map(BatchJob::getModelVariant).orElse(null);
+        return Optional.of(new ClaimedChunk(id, chunk.getJobId(), chunk.getAttempts(),
+                fromJson(chunk.getPayload(), TEXTS), variant));
+    }
+
+    /**
+     * Se o bloco já passou do limite de tentativas (o worker anterior caiu na última).
+     */
+    public boolean isExhausted(ClaimedChunk chunk) {
+        return chunk.attempts() > maxAttempts;
+    }
+
+    /**
+     * Grava o resultado do bloco, salva as análises no histórico e conta o
+     * bloco no job, tudo na mesma transação.
+     *
+     * @return false se a reserva expirou e foi assumida por outro worker (nada é gravado)
+     */
+    @Transactional
+    public boolean complete(ClaimedChunk chunk, String worker, List<SentimentResultDTO> results) {
+        int updated = chunkRepository.finish(chunk.id(), worker, chunk.attempts(), BatchChunkStatus.CLAIMED,
+                BatchChunkStatus.DONE, toJson(results), null, null);
+        if (updated == 0) {
+            return false;
+        }
+        persistenceService.saveSentiments(chunk.texts(), results);
+        countFinished(chunk.jobId(), 1, 0);
+        return true;
+    }
+
+    /**
+     * Devolve o bloco à fila após uma falha, para nova tentativa depois de
+     * batch.queue.retry-delay-ms, ou o marca como falho se esgotou as tentativas.
+     */
+    @Transactional
+    public void release(ClaimedChunk chunk, String worker, String error) {
+        String reason = error == null ? "unknown error"
+                : error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (chunk.attempts() >= maxAttempts) {
+            int updated = chunkRepository.finish(chunk.id(), worker, chunk.attempts(), BatchChunkStatus.CLAIMED,
+                    BatchChunkStatus.FAILED, null, reason, null);
+            if (updated > 0) {
+                log.warn("Batch job {} chunk {} failed after {} attempts: {}",
+                        chunk.jobId(), chunk.id(), chunk.attempts(), reason);
+                countFinished(chunk.jobId(), 0, 1);
+            }
+            return;
+        }
+        chunkRepository.finish(chunk.id(), worker, chunk.attempts(), BatchChunkStatus.CLAIMED,
+                BatchChunkStatus.PENDING, null, reason, now().plus(Duration.ofMillis(retryDelayMs)));
+    }
+
+    /**
+     * Remove jobs terminados há mais de batch.queue.retention-hours, com seus blocos.
+     */
+    @Scheduled(fixedDelayString = "${batch.queue.cleanup-interval-ms:3600000}")
+    public void purgeFinished() {
+        LocalDateTime before = now().minusHours(retentionHours);
+        Integer removed = transactionTemplate.execute(status -> {
+            chunkRepository.deleteOfJobsFinishedBefore(before);
+            return jobRepository.deleteFinishedBefore(before);
+        });
+        if (removed != null && removed > 0) {
+            log.info("Purged {} finished batch jobs", removed);
+        }
+    }
+
+    private void countFinished(String jobId, int done, int failed) {
+        jobRepository.addFinishedChunks(jobId, done, failed);
+        BatchJob job = jobRepository.findById(jobId).orElseThrow();
+        if (job.getStatus() == BatchJobStatus.RUNNING
+                && job.getDoneChunks() + job.getFailedChunks() >= job.getTotalChunks()) {
+            job.setStatus(job.getFailedChunks() == 0 ? BatchJobStatus.COMPLETED : BatchJobStatus.FAILED);
+            job.setFinishedAt(now());
+            log.info("Batch job {} {}: {} rows in {} chunks ({} failed)", jobId, job.getStatus(),
+                    job.getTotalRows(), job.getTotalChunks(), job.getFailedChunks());
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static BatchJobDTO toDto(BatchJob job) {
+        int finished = job.getDoneChunks() + job.getFailedChunks();
+        return new BatchJobDTO(job.getId(), job.getStatus().name(), job.getTotalRows(), job.getTotalChunks(),
+                job.getDoneChunks(), job.getFailedChunks(),
+                job.getTotalChunks() > 0 ? finished * 100.0 / job.getTotalChunks() : 100.0,
+                job.getCreatedAt(), job.getFinishedAt());
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T fromJson(byte[] json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
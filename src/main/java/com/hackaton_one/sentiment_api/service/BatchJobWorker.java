@@ -0,0 +1,134 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Workers desta réplica na fila de lotes do {@link BatchJobService}.
+ *
+ * Cada thread reserva um bloco por vez, analisa seus textos com
+ * {@link SentimentService#analyzeBatch}, na variante de modelo do job, e grava
+ * o resultado; sem blocos disponíveis, espera batch.queue.poll-interval-ms.
+ * Um bloco cujo worker parou no meio (réplica derrubada) volta à fila quando
+ * a reserva expira.
+ *
+ * batch.queue.enabled=false desliga os workers; o perfil cli faz isso, já que
+ * o processo encerra ao fim da pontuação offline e deixaria blocos reservados
+ * até expirar a reserva, gastando uma das tentativas.
+ */
+@Slf4j
+@Component
+public class BatchJobWorker {
+
+    private final BatchJobService jobService;
+    private final SentimentService sentimentService;
+
+    @Value("${batch.queue.enabled:true}")
+    private boolean enabled = true;
+
+    // 0 = um worker por núcleo
+    @Value("${batch.queue.workers:0}")
+    private int workers = 0;
+
+    @Value("${batch.queue.poll-interval-ms:500}")
+    private long pollIntervalMs = 500;
+
+    // pid@host: identifica as reservas desta réplica
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public BatchJobWorker(BatchJobService jobService, SentimentService sentimentService) {
+        this.jobService = jobService;
+        this.sentimentService = sentimentService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        int count = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < count; i++) {
+            String workerId = instanceId + "-" + i;
+            Thread thread = new Thread(() -> loop(workerId), "batch-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        log.info("Started {} batch queue workers ({})", count, instanceId);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    private void loop(String workerId) {
+        while (running) {
+            try {
+                if (!processNext(workerId)) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Banco indisponível, por exemplo: tenta de novo na próxima volta
+                log.warn("Batch queue worker {} failed to poll: {}", workerId, e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva e processa um bloco.
+     *
+     * @return false se não havia bloco disponível
+     */
+    public boolean processNext(String workerId) {
+        Optional<BatchJobService.ClaimedChunk> claimed = jobService.claim(workerId);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        BatchJobService.ClaimedChunk chunk = claimed.get();
+        if (jobService.isExhausted(chunk)) {
+            jobService.release(chunk, workerId, "Worker stopped during the last attempt");
+            return true;
+        }
+        ModelVariantContext.set(chunk.variant());
+        try {
+            List<SentimentResultDTO> results = sentimentService.analyzeBatch(chunk.texts());
+            if (!jobService.complete(chunk, workerId, results)) {
+                log.warn("Batch job {} chunk {} was taken over by another worker after its claim expired",
+                        chunk.jobId(), chunk.id());
+            }
+        } catch (Exception e) {
+            log.warn("Batch job {} chunk {} attempt {} failed: {}",
+                    chunk.jobId(), chunk.id(), chunk.attempts(), e.getMessage());
+            jobService.release(chunk, workerId, e.getMessage());
+        } finally {
+            ModelVariantContext.clear();
+        }
+        return true;
+    }
+}
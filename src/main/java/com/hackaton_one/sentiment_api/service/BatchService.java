@@ -4,12 +4,15 @@ import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
 import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
 import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
 import com.hackaton_one.sentiment_api.exceptions.CsvProcessingException;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -52,6 +55,10 @@ public class BatchService {
     /**
      * Processa um arquivo CSV contendo textos para análise de sentimento.
      *
+     * O arquivo é lido inteiro antes da análise e a cota do tenant é consumida
+     * de uma vez por todas as linhas: um 429 chega antes de qualquer análise
+     * ser salva, e uma nova tentativa do cliente não duplica linhas.
+     *
      * @param file       Arquivo CSV com os textos
      * @param textColumn Nome da coluna com textos (opcional, usa primeira coluna se null)
      * @return BatchSentimentResponseDTO com resultados
@@ -60,7 +67,74 @@ public class BatchService {
     public BatchSentimentResponseDTO processCSV(MultipartFile file, String textColumn) {
         validateCSVFile(file);
 
-        List<SentimentResponseDTO> results = new ArrayList<>();
+        List<String> texts;
+        try {
+            texts = readTexts(file, textColumn, maxLines);
+        } catch (Exception e) {
+            log.error("Error processing CSV file: {}", e.getMessage(), e);
+            throw new CsvProcessingException("Error processing CSV file: " + e.getMessage(), e);
+        }
+
+        // Valida se algum texto foi lido
+        if (texts.isEmpty()) {
+            throw new IllegalArgumentException("No valid text found in CSV");
+        }
+
+        List<SentimentResponseDTO> results = new ArrayList<>(texts.size());
+
+        try {
+            // Analisa todos os textos (consome a cota do arquivo inteiro)
+            List<SentimentResultDTO> analyzed = sentimentService.analyzeBatch(texts);
+
+            for (int i = 0; i < texts.size(); i++) {
+                String text = texts.get(i);
+                SentimentResultDTO result = analyzed.get(i);
+
+                String sentiment = result.previsao().toUpperCase();
+                double score = result.probabilidade();
+
+                // Salva a análise no banco de dados
+                try {
+                    persistenceService.saveSentiment(text, sentiment, score, result.estagio());
+                } catch (Exception e) {
+                    log.warn("Erro ao salvar análise no banco (continuando): {}", e.getMessage());
+                }
+
+                results.add(new SentimentResponseDTO(sentiment, score, text, result.estagio()));
+            }
+        } catch (RateLimitExceededException | InferenceOverloadedException e) {
+            // Cota do tenant ou capacidade esgotada: mantém o status HTTP próprio (429/503)
+            throw e;
+        } catch (Exception e) {
+            log.error("Error processing CSV file: {}", e.getMessage(), e);
+            throw new CsvProcessingException("Error processing CSV file: " + e.getMessage(), e);
+        }
+
+        return new BatchSentimentResponseDTO(results, results.size());
+    }
+
+    /**
+     * Lê os textos de um arquivo CSV, sem analisá-los.
+     *
+     * @param file       Arquivo CSV com os textos
+     * @param textColumn Nome da coluna com textos (opcional, usa primeira coluna se null)
+     * @param limit      Máximo de textos lidos
+     * @return Textos não vazios, na ordem do arquivo
+     * @throws CsvProcessingException em caso de erro de leitura
+     * @throws IllegalArgumentException se a coluna não existir
+     */
+    public List<String> readCSVTexts(MultipartFile file, String textColumn, int limit) {
+        validateCSVFile(file);
+        try {
+            return readTexts(file, textColumn, limit);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", e.getMessage(), e);
+            throw new CsvProcessingException("Error reading CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> readTexts(MultipartFile file, String textColumn, int limit) throws IOException {
+        List<String> texts = new ArrayList<>();
 
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
@@ -68,7 +142,6 @@ public class BatchService {
             String line;
             int textColumnIndex = 0;
             boolean isFirstLine = true;
-            int lineCount = 0;
 
             while ((line = reader.readLine()) != null) {
                 if (line.trim().isEmpty()) {
@@ -92,7 +165,7 @@ public class BatchService {
                 }
 
                 // Limite de linhas
-                if (lineCount >= maxLines) {
+                if (texts.size() >= limit) {
                     break;
                 }
 
@@ -101,44 +174,18 @@ public class BatchService {
                 }
 
                 String text = cleanText(columns[textColumnIndex]);
-                if (text.isEmpty()) {
-                    continue;
+                if (!text.isEmpty()) {
+                    texts.add(text);
                 }
-
-                // Analisa sentimento
-                SentimentResultDTO result = sentimentService.analyze(text);
-
-                String sentiment = result.previsao().toUpperCase();
-                double score = result.probabilidade();
-
-                // Salva a análise no banco de dados
-                try {
-                    persistenceService.saveSentiment(text, sentiment, score);
-                } catch (Exception e) {
-                    log.warn("Erro ao salvar análise no banco (continuando): {}", e.getMessage());
-                }
-
-                // Garante que o sentimento está em maiúsculas (já vem normalizado do SentimentService)
-                results.add(new SentimentResponseDTO(sentiment, score, text));
-                lineCount++;
             }
-        } catch (Exception e) {
-            log.error("Error processing CSV file: {}", e.getMessage(), e);
-            throw new CsvProcessingException("Error processing CSV file: " + e.getMessage(), e);
         }
-
-        // Valida se algum texto foi processado
-        if (results.isEmpty()) {
-            throw new IllegalArgumentException("No valid text found in CSV");
-        }
-
-        return new BatchSentimentResponseDTO(results, results.size());
+        return texts;
     }
 
     /**
      * Parse de linha CSV respeitando aspas.
      */
-    private String[] parseCSVLine(String line) {
+    static String[] parseCSVLine(String line) {
         List<String> result = new ArrayList<>();
         StringBuilder current = new StringBuilder();
         boolean inQuotes = false;
@@ -163,7 +210,7 @@ public class BatchService {
     /**
      * Encontra índice da coluna pelo nome (case-insensitive).
      */
-    private int findColumnIndex(String[] headers, String columnName) {
+    static int findColumnIndex(String[] headers, String columnName) {
         for (int i = 0; i < headers.length; i++) {
             String header = cleanText(headers[i]);
             if (header.equalsIgnoreCase(columnName)) {
@@ -176,7 +223,7 @@ public class BatchService {
     /**
      * Remove aspas e espaços em branco do texto.
      */
-    private String cleanText(String text) {
+    static String cleanText(String text) {
         text = text.trim();
         if (text.startsWith("\"") && text.endsWith("\"") && text.length() > 1) {
             text = text.substring(1, text.length() - 1);
@@ -0,0 +1,137 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.hackaton_one.sentiment_api.api.dto.BulkSentimentItemDTO;
+import com.hackaton_one.sentiment_api.api.dto.BulkSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Análise em massa de textos recebidos como array JSON.
+ *
+ * O corpo é lido token a token por um parser de streaming, sem montar a
+ * árvore JSON nem DTOs intermediários, e o limite de textos é verificado
+ * durante a leitura. Cada elemento é um texto ou um objeto
+ * {"id": "...", "text": "..."}; os textos seguem juntos para
+ * {@link SentimentService#analyzeBatch}, que os infere em lotes. Com persist,
+ * o tamanho de todos os textos é validado antes da análise e os resultados
+ * são salvos em uma única transação.
+ */
+@Slf4j
+@Service
+public class BulkAnalysisService {
+
+    private final SentimentService sentimentService;
+    private final SentimentPersistenceService persistenceService;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${bulk.max-texts:1000}")
+    private int maxTexts = 1000;
+
+    public BulkAnalysisService(SentimentService sentimentService, SentimentPersistenceService persistenceService) {
+        this.sentimentService = sentimentService;
+        this.persistenceService = persistenceService;
+    }
+
+    /**
+     * Lê o array do corpo da requisição e analisa todos os textos.
+     *
+     * @param body    Corpo JSON da requisição
+     * @param persist Se true, cada análise é salva no histórico
+     * @throws IllegalArgumentException se o JSON for inválido, vazio, exceder bulk.max-texts
+     *                                  ou, com persist, tiver texto fora do tamanho aceito pelo histórico
+     */
+    public BulkSentimentResponseDTO analyze(InputStream body, boolean persist) {
+        List<BulkText> items = parse(body);
+        List<String> texts = new ArrayList<>(items.size());
+        for (BulkText item : items) {
+            if (persist && !SentimentPersistenceService.isStorable(item.text())) {
+                throw new IllegalArgumentException("Item " + texts.size() + ": 'text' must have between "
+                        + SentimentPersistenceService.MIN_TEXT_LENGTH + " and "
+                        + SentimentPersistenceService.MAX_TEXT_LENGTH + " characters to be saved");
+            }
+            texts.add(item.text());
+        }
+
+        List<SentimentResultDTO> results = sentimentService.analyzeBatch(texts);
+
+        if (persist) {
+            try {
+                persistenceService.saveSentiments(texts, results);
+            } catch (Exception e) {
+                log.warn("Erro ao salvar análises no banco (continuando): {}", e.getMessage());
+            }
+        }
+        List<BulkSentimentItemDTO> response = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            response.add(new BulkSentimentItemDTO(items.get(i).id(), results.get(i)));
+        }
+        return new BulkSentimentResponseDTO(response, response.size());
+    }
+
+    List<BulkText> parse(InputStream body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of texts");
+            }
+            List<BulkText> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (items.size() >= maxTexts) {
+                    throw new IllegalArgumentException("At most " + maxTexts + " texts are accepted per request");
+                }
+                BulkText item = switch (token) {
+                    case VALUE_STRING -> new BulkText(null, parser.getText());
+                    case START_OBJECT -> readObject(parser);
+                    default -> throw new IllegalArgumentException(
+                            "Item " + items.size() + " must be a string or an object with 'text'");
+                };
+                if (item.text() == null || item.text().isBlank()) {
+                    throw new IllegalArgumentException("Item " + items.size() + ": 'text' is required");
+                }
+                items.add(item);
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON array");
+            }
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("No texts to analyze");
+            }
+            return items;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BulkText readObject(JsonParser parser) throws IOException {
+        String id = null;
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("text".equals(field) && value == JsonToken.VALUE_STRING) {
+                text = parser.getText();
+            } else if ("id".equals(field) && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                id = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new BulkText(id, text);
+    }
+
+    record BulkText(String id, String text) {}
+}
@@ -0,0 +1,96 @@
+package com.hackaton_one.sentiment_api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker do motor de inferência principal.
+ *
+ * Fechado, todas as chamadas vão ao motor principal. Após
+ * circuit-breaker.failure-threshold falhas seguidas o circuito abre e as
+ * chamadas vão para o motor de contingência durante
+ * circuit-breaker.open-duration-ms; depois disso uma única chamada de teste
+ * é liberada (meio aberto): se ela funcionar o circuito fecha, senão reabre.
+ */
+@Slf4j
+@Component
+public class EngineCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    @Autowired
+    public EngineCircuitBreaker(
+            @Value("${circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::nanoTime);
+    }
+
+    EngineCircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Indica se a chamada pode ir ao motor principal. Uma chamada liberada
+     * deve sempre terminar em {@link #recordSuccess()} ou {@link #recordFailure()}.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                log.info("Inference circuit half-open, probing the primary engine");
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Inference circuit closed, primary engine recovered");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            log.warn("Inference circuit opened after {} consecutive failures, serving degraded results for {} ms",
+                    consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(openDurationNanos));
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
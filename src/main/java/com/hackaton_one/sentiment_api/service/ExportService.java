@@ -0,0 +1,223 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.hackaton_one.sentiment_api.api.dto.ExportFormat;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação em massa de tb_sentiments como NDJSON ou CSV.
+ *
+ * As linhas são lidas por um cursor somente-leitura (fetch size configurável
+ * em export.fetch-size) e escritas direto na resposta, uma a uma; cada
+ * entidade é desanexada logo após a leitura. O consumo de memória não depende
+ * da quantidade de linhas exportadas.
+ *
+ * Cada linha carrega o cursor da sua posição: para retomar uma exportação
+ * interrompida, basta repetir a chamada com o cursor da última linha recebida.
+ * Os dois formatos usam os mesmos nomes de campo ({@link #FIELDS}).
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    static final String[] FIELDS = {"id", "analyzed_at", "sentiment", "confidence", "text", "cursor"};
+
+    private final SentimentRepository sentimentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    public ExportService(SentimentRepository sentimentRepository, PlatformTransactionManager transactionManager) {
+        this.sentimentRepository = sentimentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Valida os parâmetros e retorna o corpo que fará o streaming da exportação.
+     *
+     * @param from   Início do intervalo, inclusivo (null = sem limite)
+     * @param to     Fim do intervalo, exclusivo (null = sem limite)
+     * @param cursor Cursor da última linha já recebida (null = do início)
+     * @param format Formato de saída
+     * @param gzip   Se true, a saída é comprimida com gzip
+     * @throws IllegalArgumentException se o intervalo ou o cursor forem inválidos
+     */
+    public StreamingResponseBody export(LocalDateTime from, LocalDateTime to, String cursor,
+                                        ExportFormat format, boolean gzip) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        AnalysisCursor after = cursor != null && !cursor.isBlank() ? AnalysisCursor.decode(cursor) : null;
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try (RowWriter writer = format == ExportFormat.CSV
+                    ? new CsvRowWriter(target)
+                    : new NdjsonRowWriter(jsonFactory, target)) {
+                long rows = write(from, to, after, writer);
+                log.info("Export finished: {} rows ({}, gzip={})", rows, format, gzip);
+            }
+        };
+    }
+
+    private long write(LocalDateTime from, LocalDateTime to, AnalysisCursor after, RowWriter writer) throws IOException {
+        writer.begin();
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Sentiment> sentiments = sentimentRepository.streamForExport(from, to,
+                        after != null ? after.analyzedAt() : null,
+                        after != null ? after.id() : null,
+                        fetchSize)) {
+                    for (Sentiment sentiment : (Iterable<Sentiment>) sentiments::iterator) {
+                        writer.write(sentiment, new AnalysisCursor(sentiment.getAnalyzedAt(), sentiment.getId()).encode());
+                        if (++count % fetchSize == 0) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            // Normalmente o cliente fechou a conexão; a exportação pode ser retomada pelo cursor
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void begin() throws IOException;
+
+        void write(Sentiment sentiment, String cursor) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(JsonFactory factory, OutputStream out) throws IOException {
+            this.generator = factory.createGenerator(new BufferedOutputStream(out, 64 * 1024), JsonEncoding.UTF8);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(Sentiment sentiment, String cursor) throws IOException {
+            empty = false;
+            generator.writeStartObject();
+            generator.writeNumberField(FIELDS[0], sentiment.getId());
+            generator.writeStringField(FIELDS[1], String.valueOf(sentiment.getAnalyzedAt()));
+            generator.writeStringField(FIELDS[2], sentiment.getSentimentResult());
+            if (sentiment.getConfidenceScore() != null) {
+                generator.writeNumberField(FIELDS[3], sentiment.getConfidenceScore());
+            } else {
+                generator.writeNullField(FIELDS[3]);
+            }
+            generator.writeStringField(FIELDS[4], sentiment.getTextContent());
+            generator.writeStringField(FIELDS[5], cursor);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // O separador só é escrito entre objetos; termina a última linha
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new OutputStreamWriter(new BufferedOutputStream(out, 64 * 1024), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", FIELDS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Sentiment sentiment, String cursor) throws IOException {
+            writer.write(String.valueOf(sentiment.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(sentiment.getAnalyzedAt()));
+            writer.write(',');
+            writer.write(escape(sentiment.getSentimentResult()));
+            writer.write(',');
+            writer.write(sentiment.getConfidenceScore() != null ? sentiment.getConfidenceScore().toString() : "");
+            writer.write(',');
+            writer.write(escape(sentiment.getTextContent()));
+            writer.write(',');
+            writer.write(cursor);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            // Planilhas avaliam células que começam com =, +, - ou @ como fórmula
+            if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Divide a capacidade de inferência entre tenants por weighted fair queuing.
+ *
+ * Existe um número fixo de vagas de inferência simultânea. Quando todas estão
+ * ocupadas, cada requisição recebe uma etiqueta de término virtual
+ * (início + custo / peso do tenant) e as vagas liberadas são entregues na
+ * ordem dessas etiquetas. Um tenant com um backfill enorme só avança sua
+ * própria etiqueta, e as requisições dos demais passam à frente.
+ *
+ * Uma requisição que desiste da fila (tempo esgotado ou interrupção) devolve
+ * o custo que havia somado à etiqueta do tenant: rajadas que só geram 503 não
+ * atrasam as próximas requisições dele.
+ */
+@Component
+public class FairInferenceScheduler {
+
+    /** Tenant usado para chamadas internas, fora de requisições HTTP. */
+    static final String INTERNAL_TENANT = "internal";
+
+    private final TenantProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparingDouble((Ticket t) -> t.finish).thenComparingLong(t -> t.sequence));
+    private final Map<String, Double> lastFinish = new HashMap<>();
+
+    private double virtualTime;
+    private long sequence;
+    private int available;
+
+    public FairInferenceScheduler(TenantProperties properties) {
+        this.properties = properties;
+        this.available = Math.max(1, properties.getInferenceConcurrency());
+    }
+
+    /**
+     * Executa a tarefa assim que o tenant receber uma vaga de inferência.
+     *
+     * @param tenant Tenant da requisição (null para chamadas internas)
+     * @param cost   Custo relativo da tarefa (ex: quantidade de textos)
+     * @throws InferenceOverloadedException se a espera exceder o limite configurado
+     */
+    public <T> T execute(String tenant, double cost, Supplier<T> task) {
+        acquire(tenant != null ? tenant : INTERNAL_TENANT, cost);
+        try {
+            return task.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Executa a tarefa com prioridade mínima: só se houver vaga livre e ninguém
+     * aguardando. Nunca espera e não entra na contabilidade de justiça entre tenants.
+     *
+     * @return false se não havia vaga (a tarefa não foi executada)
+     */
+    public boolean tryExecute(Runnable task) {
+        lock.lock();
+        try {
+            if (available == 0 || !waiting.isEmpty()) {
+                return false;
+            }
+            available--;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Quantidade de requisições aguardando vaga.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(String tenant, double cost) {
+        lock.lock();
+        try {
+            double weight = Math.max(1, properties.quotaFor(tenant).getWeight());
+            double start = Math.max(virtualTime, lastFinish.getOrDefault(tenant, 0.0));
+            double finish = start + cost / weight;
+            if (lastFinish.size() >= properties.getMaxTrackedTenants()) {
+                // Etiquetas já alcançadas pelo tempo virtual equivalem a nenhuma etiqueta
+                lastFinish.values().removeIf(f -> f <= virtualTime);
+            }
+            lastFinish.put(tenant, finish);
+
+            if (available > 0 && waiting.isEmpty()) {
+                available--;
+                virtualTime = Math.max(virtualTime, start);
+                return;
+            }
+
+            Ticket ticket = new Ticket(start, finish, sequence++, lock.newCondition());
+            waiting.add(ticket);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(properties.getMaxQueueWaitMs());
+            try {
+                while (!ticket.granted) {
+                    if (remaining <= 0) {
+                        abandon(tenant, ticket);
+                        throw new InferenceOverloadedException(
+                                "Timed out waiting for inference capacity (tenant '" + tenant + "')");
+                    }
+                    remaining = ticket.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (ticket.granted) {
+                    releaseLocked();
+                } else {
+                    abandon(tenant, ticket);
+                }
+                throw new InferenceOverloadedException("Interrupted while waiting for inference capacity", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tira da fila um ticket que não chegou a receber vaga e desconta seu custo
+     * da etiqueta do tenant. Chamado com o lock adquirido.
+     */
+    private void abandon(String tenant, Ticket ticket) {
+        waiting.remove(ticket);
+        // Tickets posteriores do tenant já têm suas etiquetas; só as futuras recuam
+        lastFinish.computeIfPresent(tenant, (t, f) -> f - (ticket.finish - ticket.start));
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        Ticket next = waiting.poll();
+        if (next == null) {
+            available++;
+            return;
+        }
+        virtualTime = Math.max(virtualTime, next.start);
+        next.granted = true;
+        next.condition.signal();
+    }
+
+    private static final class Ticket {
+        private final double start;
+        private final double finish;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        private Ticket(double start, double finish, long sequence, Condition condition) {
+            this.start = start;
+            this.finish = finish;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+    }
+}
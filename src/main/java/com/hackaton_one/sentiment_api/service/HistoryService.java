@@ -1,39 +1,149 @@
 package com.hackaton_one.sentiment_api.service;
 
+import com.hackaton_one.sentiment_api.api.dto.HistoryFilterDTO;
 import com.hackaton_one.sentiment_api.api.dto.HistoryItemDTO;
 import com.hackaton_one.sentiment_api.api.dto.HistoryItemListDTO;
 import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.HistoryQuery;
 import com.hackaton_one.sentiment_api.repository.SentimentRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
+/**
+ * Serviço de consulta do histórico de análises.
+ *
+ * A paginação é por keyset sobre (analyzedAt, id): o cursor carrega a
+ * posição do último item entregue, e a próxima página começa logo depois dele
+ * no índice, sem OFFSET.
+ */
 @Service
 public class HistoryService {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 500;
+
     private final SentimentRepository sentimentRepository;
+    private final SnapshotCache<HistoryItemListDTO> historySnapshot;
 
-    public HistoryService(SentimentRepository sentimentRepository) {
+    public HistoryService(SentimentRepository sentimentRepository, AnalysisChangeTracker changeTracker) {
         this.sentimentRepository = sentimentRepository;
+        this.historySnapshot = changeTracker.newSnapshotCache("history", this::getHistory);
+    }
+
+    /**
+     * Retorna o histórico pré-calculado com ETag e Last-Modified.
+     * Só consulta o banco quando novas análises foram gravadas ou o intervalo de atualização expirou.
+     */
+    public VersionedSnapshot<HistoryItemListDTO> getHistorySnapshot() {
+        return historySnapshot.get();
     }
 
+    /**
+     * Retorna a primeira página do histórico (últimas 100 análises, com texto).
+     */
     public HistoryItemListDTO getHistory() {
+        return getHistory(HistoryFilterDTO.DEFAULT);
+    }
+
+    /**
+     * Retorna uma página do histórico com os filtros informados.
+     *
+     * @throws IllegalArgumentException se algum parâmetro ou o cursor for inválido
+     */
+    public HistoryItemListDTO getHistory(HistoryFilterDTO filter) {
+        HistoryQuery query = toQuery(filter);
+        int pageSize = query.limit() - 1;
+
+        List<Sentiment> sentiments;
         try {
-            List<Sentiment> sentiments = sentimentRepository.findTop100ByOrderByAnalyzedAtDesc();
-
-            List<HistoryItemDTO> items = sentiments.stream()
-                    .map(s -> new HistoryItemDTO(
-                            s.getId(),
-                            s.getTextContent(),
-                            s.getSentimentResult(),
-                            s.getConfidenceScore(),
-                            s.getAnalyzedAt()
-                    ))
-                    .collect(Collectors.toList());
-
-            return new HistoryItemListDTO(items);
+            sentiments = sentimentRepository.findHistoryPage(query);
         } catch (Exception e) {
             throw new RuntimeException("Error retrieving sentiment history", e);
         }
+
+        // Uma linha a mais que a página indica que existe próxima página
+        String nextCursor = null;
+        if (sentiments.size() > pageSize) {
+            sentiments = sentiments.subList(0, pageSize);
+            Sentiment last = sentiments.getLast();
+            nextCursor = new AnalysisCursor(last.getAnalyzedAt(), last.getId()).encode();
+        }
+
+        List<HistoryItemDTO> items = sentiments.stream()
+                .map(s -> new HistoryItemDTO(
+                        s.getId(),
+                        s.getTextContent(),
+                        s.getSentimentResult(),
+                        s.getConfidenceScore(),
+                        s.getAnalyzedAt(),
+                        s.getTextHash()
+                ))
+                .collect(Collectors.toList());
+
+        return new HistoryItemListDTO(items, nextCursor);
+    }
+
+    private HistoryQuery toQuery(HistoryFilterDTO filter) {
+        int limit = filter.limit() != null ? filter.limit() : DEFAULT_LIMIT;
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        checkConfidence("minConfidence", filter.minConfidence());
+        checkConfidence("maxConfidence", filter.maxConfidence());
+        if (filter.minConfidence() != null && filter.maxConfidence() != null
+                && filter.minConfidence() > filter.maxConfidence()) {
+            throw new IllegalArgumentException("'minConfidence' must not be greater than 'maxConfidence'");
+        }
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        AnalysisCursor after = filter.cursor() != null && !filter.cursor().isBlank()
+                ? AnalysisCursor.decode(filter.cursor())
+                : null;
+
+        return new HistoryQuery(
+                normalizeSentiment(filter.sentiment()),
+                normalizeHash(filter.textHash()),
+                filter.minConfidence(),
+                filter.maxConfidence(),
+                filter.from(),
+                filter.to(),
+                after != null ? after.analyzedAt() : null,
+                after != null ? after.id() : null,
+                limit + 1,
+                filter.includeText() == null || filter.includeText()
+        );
+    }
+
+    private void checkConfidence(String name, Double value) {
+        if (value != null && (value < 0 || value > 1)) {
+            throw new IllegalArgumentException("'" + name + "' must be between 0 and 1");
+        }
+    }
+
+    private String normalizeSentiment(String sentiment) {
+        if (sentiment == null || sentiment.isBlank()) {
+            return null;
+        }
+        return switch (sentiment.trim().toUpperCase(Locale.ROOT)) {
+            case "POSITIVO", "POSITIVE" -> StatisticsCounters.POSITIVE;
+            case "NEGATIVO", "NEGATIVE" -> StatisticsCounters.NEGATIVE;
+            default -> throw new IllegalArgumentException("Invalid sentiment filter: '" + sentiment + "'");
+        };
+    }
+
+    private String normalizeHash(String textHash) {
+        if (textHash == null || textHash.isBlank()) {
+            return null;
+        }
+        String hash = textHash.trim().toLowerCase(Locale.ROOT);
+        if (!hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid textHash: expected a SHA-256 hex digest");
+        }
+        return hash;
     }
 }
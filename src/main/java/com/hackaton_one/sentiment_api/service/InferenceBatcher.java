@@ -0,0 +1,204 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa textos avulsos, vindos de várias conexões, em lotes de inferência.
+ *
+ * Um despachante junta os textos que chegam em até stream.batch.max-wait-ms
+ * (ou até stream.batch.max-size textos), separa-os por tenant e variante de
+ * modelo e entrega cada grupo a {@link SentimentService#analyzeBatch} em um
+ * pool de stream.batch.workers threads. Com o pool ocupado, o próprio
+ * despachante executa o grupo, o que segura a formação de novos lotes.
+ * A fila de espera guarda no máximo stream.batch.max-queued textos, somando
+ * todas as conexões; acima disso o texto falha na hora com
+ * {@link InferenceOverloadedException}.
+ */
+@Slf4j
+@Service
+public class InferenceBatcher {
+
+    private final SentimentService sentimentService;
+    // Substituída pela fila limitada em start()
+    private LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    @Value("${stream.batch.max-size:64}")
+    private int maxBatchSize = 64;
+
+    @Value("${stream.batch.max-wait-ms:5}")
+    private long maxWaitMs = 5;
+
+    @Value("${stream.batch.workers:2}")
+    private int workers = 2;
+
+    @Value("${stream.batch.max-queued:4096}")
+    private int maxQueued = 4096;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ThreadPoolExecutor executor;
+
+    public InferenceBatcher(SentimentService sentimentService) {
+        this.sentimentService = sentimentService;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, workers);
+        queue = new LinkedBlockingQueue<>(Math.max(1, maxQueued));
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                task -> {
+                    Thread thread = new Thread(task, "inference-batch");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    // Pool ocupado: o despachante executa; encerrado: o grupo falha em dispatch()
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Inference batcher is shutting down");
+                    }
+                    task.run();
+                });
+        running = true;
+        dispatcher = new Thread(this::dispatch, "inference-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Enfileira um texto para o próximo lote.
+     *
+     * @param tenant  Tenant dono do texto (null para chamadas internas)
+     * @param variant Variante de modelo pedida (null = padrão)
+     * @return Resultado, concluído com a exceção da análise em caso de falha
+     *         ou com {@link InferenceOverloadedException} se a fila estiver cheia
+     */
+    public CompletableFuture<SentimentResultDTO> submit(String tenant, String variant, String text) {
+        Pending pending = new Pending(tenant, variant, text, new CompletableFuture<>());
+        if (!running) {
+            pending.result().completeExceptionally(new IllegalStateException("Inference batcher is not running"));
+            return pending.result();
+        }
+        if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(new InferenceOverloadedException(
+                    "Inference queue is full (" + maxQueued + " texts), try again later"));
+            return pending.result();
+        }
+        // stop() pode ter esvaziado a fila entre a checagem acima e o offer
+        if (!running && queue.remove(pending)) {
+            fail(List.of(pending));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Textos aguardando a formação de um lote.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void dispatch() {
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        int batchSize = Math.max(1, maxBatchSize);
+        while (running) {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - batch.size());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                fail(batch);
+                break;
+            }
+
+            Map<GroupKey, List<Pending>> groups = new LinkedHashMap<>();
+            for (Pending pending : batch) {
+                groups.computeIfAbsent(new GroupKey(pending.tenant(), pending.variant()), k -> new ArrayList<>())
+                        .add(pending);
+            }
+            groups.forEach((key, group) -> {
+                try {
+                    executor.execute(() -> analyze(key, group));
+                } catch (RejectedExecutionException e) {
+                    fail(group);
+                }
+            });
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining);
+    }
+
+    private void analyze(GroupKey key, List<Pending> group) {
+        List<String> texts = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            texts.add(pending.text());
+        }
+        TenantContext.set(key.tenant());
+        ModelVariantContext.set(key.variant());
+        try {
+            List<SentimentResultDTO> results = sentimentService.analyzeBatch(texts);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} texts failed: {}", group.size(), e.getMessage());
+            group.forEach(pending -> pending.result().completeExceptionally(e));
+        } finally {
+            TenantContext.clear();
+            ModelVariantContext.clear();
+        }
+    }
+
+    private void fail(List<Pending> pending) {
+        IllegalStateException shutdown = new IllegalStateException("Inference batcher is shutting down");
+        pending.forEach(p -> p.result().completeExceptionally(shutdown));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining);
+    }
+
+    private record Pending(String tenant, String variant, String text, CompletableFuture<SentimentResultDTO> result) {}
+
+    private record GroupKey(String tenant, String variant) {}
+}
@@ -0,0 +1,239 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.model.InferenceCacheEntry;
+import com.hackaton_one.sentiment_api.model.InferenceCacheKey;
+import com.hackaton_one.sentiment_api.repository.InferenceCacheRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados de inferência em níveis.
+ *
+ * O primeiro nível é um LRU em memória dividido em faixas
+ * ({@link StripedLruCache}), local a cada réplica. Nas faltas,
+ * consulta-se o arquivo mapeado local ({@link MappedResultCache}, se
+ * habilitado) e depois a tabela tb_inference_cache, compartilhada por todas as
+ * réplicas e preservada entre deploys (desligável com inference-cache.shared.enabled).
+ * Novos resultados entram no LRU e no arquivo na hora e são gravados na tabela
+ * em lote (write-behind) a cada inference-cache.flush-interval-ms; se a fila
+ * de gravação estiver cheia, o resultado não vai para a tabela e o descarte é
+ * contado e registrado no flush seguinte. Entradas mais antigas que
+ * inference-cache.shared.ttl-days são removidas da tabela diariamente.
+ *
+ * A chave é o SHA-256 do texto normalizado junto com a versão do modelo, de
+ * modo que um modelo novo nunca reaproveita resultados do anterior.
+ * Falhas no banco são tratadas como falta de cache e nunca chegam à requisição.
+ */
+@Slf4j
+@Component
+public class InferenceCache {
+
+    private final InferenceCacheRepository cacheRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<InferenceCacheKey, InferenceCacheEntry> pending = new ConcurrentHashMap<>();
+    private final StripedLruCache<InferenceCacheKey, SentimentResultDTO> memory;
+    private final AtomicLong droppedWrites = new AtomicLong();
+    // Descartes já registrados no log; só é alterado dentro de flush()
+    private long reportedDrops;
+    private final MappedResultCache fileCache;
+
+    @Value("${inference-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${inference-cache.shared.enabled:true}")
+    private boolean sharedEnabled = true;
+
+    static final int WRITE_CHUNK = 500;
+
+    @Value("${inference-cache.max-pending:10000}")
+    private int maxPending = 10000;
+
+    // 0 = sem expiração
+    @Value("${inference-cache.shared.ttl-days:30}")
+    private int ttlDays = 30;
+
+    public InferenceCache(
+            InferenceCacheRepository cacheRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${inference-cache.memory-entries:10000}") int memoryEntries,
+            Optional<MappedResultCache> fileCache) {
+        this.cacheRepository = cacheRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.fileCache = fileCache.orElse(null);
+        this.memory = new StripedLruCache<>(memoryEntries);
+    }
+
+    /**
+     * Busca o resultado no LRU local e, se faltar, no arquivo local e na tabela compartilhada.
+     */
+    public Optional<SentimentResultDTO> get(String text, String modelVersion) {
+        if (!enabled || modelVersion == null) {
+            return Optional.empty();
+        }
+        InferenceCacheKey key = key(text, modelVersion);
+        SentimentResultDTO cached = memory.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        if (fileCache != null) {
+            cached = fileCache.get(key.getTextHash(), modelVersion);
+            if (cached != null) {
+                remember(key, cached);
+                return Optional.of(cached);
+            }
+        }
+        if (!sharedEnabled) {
+            return Optional.empty();
+        }
+
+        InferenceCacheEntry entry = pending.get(key);
+        if (entry == null) {
+            try {
+                entry = cacheRepository.findById(key).orElse(null);
+            } catch (Exception e) {
+                log.debug("Inference cache lookup failed, treating as miss: {}", e.getMessage());
+            }
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        SentimentResultDTO result = new SentimentResultDTO(entry.getLabel(), entry.getProbability());
+        remember(key, result);
+        if (fileCache != null) {
+            fileCache.put(key.getTextHash(), modelVersion, result);
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Registra um resultado: no LRU e no arquivo imediatamente e na tabela no próximo flush.
+     */
+    public void put(String text, String modelVersion, SentimentResultDTO result) {
+        if (!enabled || modelVersion == null) {
+            return;
+        }
+        InferenceCacheKey key = key(text, modelVersion);
+        remember(key, result);
+        if (fileCache != null) {
+            fileCache.put(key.getTextHash(), modelVersion, result);
+        }
+        if (!sharedEnabled) {
+            return;
+        }
+        if (pending.size() < maxPending) {
+            pending.putIfAbsent(key, new InferenceCacheEntry(
+                    key, result.previsao(), result.probabilidade(), LocalDateTime.now()));
+        } else if (!pending.containsKey(key)) {
+            droppedWrites.incrementAndGet();
+        }
+    }
+
+    /**
+     * Total de resultados que não foram para a tabela porque a fila de gravação estava cheia.
+     */
+    public long getDroppedWrites() {
+        return droppedWrites.get();
+    }
+
+    /**
+     * Grava em lote os resultados pendentes que ainda não estão na tabela.
+     */
+    @Scheduled(fixedDelayString = "${inference-cache.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        long dropped = droppedWrites.get() - reportedDrops;
+        if (dropped > 0) {
+            reportedDrops += dropped;
+            log.warn("Inference cache write-behind queue full ({} entries): {} results were not written "
+                    + "to the shared table", maxPending, dropped);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<InferenceCacheEntry> entries = new ArrayList<>(pending.values());
+        entries.forEach(entry -> pending.remove(entry.getKey(), entry));
+
+        for (int i = 0; i < entries.size(); i += WRITE_CHUNK) {
+            List<InferenceCacheEntry> chunk = entries.subList(i, Math.min(entries.size(), i + WRITE_CHUNK));
+            try {
+                insertMissing(chunk);
+            } catch (DataIntegrityViolationException e) {
+                // Outra réplica gravou parte do lote ao mesmo tempo: a nova verificação as exclui
+                try {
+                    insertMissing(chunk);
+                } catch (Exception retry) {
+                    log.debug("Dropping {} inference cache entries after conflict: {}", chunk.size(), retry.getMessage());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to write {} inference cache entries: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove da tabela compartilhada as entradas mais antigas que o TTL, incluindo
+     * as de versões de modelo que não estão mais em uso.
+     */
+    @Scheduled(cron = "${inference-cache.shared.purge-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        if (!enabled || !sharedEnabled || ttlDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ttlDays);
+        try {
+            Integer removed = transactionTemplate.execute(status -> cacheRepository.deleteCreatedBefore(cutoff));
+            log.info("Inference cache: removed {} entries older than {} days", removed, ttlDays);
+        } catch (Exception e) {
+            log.warn("Failed to purge expired inference cache entries: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Normaliza espaços em branco (irrelevantes para o modelo) antes do hash.
+     * Os textos já chegam pelo {@link TextNormalizer}; o colapso aqui mantém as
+     * chaves gravadas compatíveis quando a normalização está desligada.
+     */
+    static InferenceCacheKey key(String text, String modelVersion) {
+        String normalized = TextNormalizer.collapseWhitespace(text);
+        return new InferenceCacheKey(AnalysisTextService.hash(normalized), modelVersion);
+    }
+
+    private void insertMissing(List<InferenceCacheEntry> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<InferenceCacheKey> existing = new HashSet<>();
+            cacheRepository.findAllById(batch.stream().map(InferenceCacheEntry::getKey).toList())
+                    .forEach(entry -> existing.add(entry.getKey()));
+            List<InferenceCacheEntry> missing = batch.stream()
+                    .filter(entry -> !existing.contains(entry.getKey()))
+                    .toList();
+            if (!missing.isEmpty()) {
+                cacheRepository.saveAllAndFlush(missing);
+                log.debug("Inference cache: {} entries written", missing.size());
+            }
+        });
+    }
+
+    private void remember(InferenceCacheKey key, SentimentResultDTO result) {
+        memory.put(key, result);
+    }
+}
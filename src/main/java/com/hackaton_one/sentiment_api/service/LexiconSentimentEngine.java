@@ -0,0 +1,64 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Motor de contingência em Java puro, baseado no léxico de {@link LexiconSentimentModel}.
+ *
+ * Responde qualquer texto a uma fração do custo do modelo ONNX, com acurácia
+ * menor; seus resultados são marcados como degradados.
+ */
+@Slf4j
+@Component("lexiconEngine")
+public class LexiconSentimentEngine implements SentimentEngine {
+
+    static final String VERSION = "lexicon-1";
+
+    private final LexiconSentimentModel lexicon;
+
+    public LexiconSentimentEngine(
+            @Value("${fallback.enabled:true}") boolean enabled,
+            @Value("${fallback.lexicon.path:classpath:lexicon/sentiment-lexicon.txt}") Resource lexiconResource) {
+        this.lexicon = enabled ? load(lexiconResource) : null;
+    }
+
+    private static LexiconSentimentModel load(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return LexiconSentimentModel.load(in);
+        } catch (Exception e) {
+            log.error("Could not load fallback lexicon from {} (degraded mode disabled): {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "lexicon";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return lexicon != null;
+    }
+
+    @Override
+    public String version() {
+        return VERSION;
+    }
+
+    @Override
+    public SentimentResultDTO analyze(String text) {
+        if (lexicon == null) {
+            throw new ModelAnalysisException("Fallback engine is not available");
+        }
+        return lexicon.classify(text).withStage(InferenceStage.FALLBACK);
+    }
+}
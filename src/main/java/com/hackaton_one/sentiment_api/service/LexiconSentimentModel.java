@@ -0,0 +1,130 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classificador por léxico, usado como primeiro estágio da cascata de modelos.
+ *
+ * Soma os pesos das palavras conhecidas do texto, invertendo o sinal das que
+ * aparecem logo após uma negação e reforçando as que seguem um intensificador.
+ * A confiança é a logística da soma: textos sem palavras conhecidas ou com
+ * evidências opostas ficam perto de 0.5 e acabam escalados para o modelo.
+ *
+ * Formato do arquivo: uma entrada por linha, "palavra peso", "palavra NEG"
+ * (negação) ou "palavra INT" (intensificador); linhas com # são comentários.
+ * As palavras são comparadas sem acentos e em minúsculas.
+ */
+final class LexiconSentimentModel {
+
+    /** Quantidade de palavras seguintes afetadas por uma negação. */
+    static final int NEGATION_SCOPE = 3;
+    static final double INTENSIFIER_FACTOR = 1.5;
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<String, Double> weights;
+    private final Set<String> negations;
+    private final Set<String> intensifiers;
+
+    private LexiconSentimentModel(Map<String, Double> weights, Set<String> negations, Set<String> intensifiers) {
+        this.weights = weights;
+        this.negations = negations;
+        this.intensifiers = intensifiers;
+    }
+
+    static LexiconSentimentModel load(InputStream in) throws IOException {
+        Map<String, Double> weights = new HashMap<>();
+        Set<String> negations = new HashSet<>();
+        Set<String> intensifiers = new HashSet<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) {
+                throw new IOException("Invalid lexicon entry at line " + lineNumber + ": " + line);
+            }
+            String word = normalize(parts[0]);
+            switch (parts[1].toUpperCase(Locale.ROOT)) {
+                case "NEG" -> negations.add(word);
+                case "INT" -> intensifiers.add(word);
+                default -> {
+                    try {
+                        weights.put(word, Double.parseDouble(parts[1]));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid lexicon weight at line " + lineNumber + ": " + line, e);
+                    }
+                }
+            }
+        }
+        return new LexiconSentimentModel(weights, negations, intensifiers);
+    }
+
+    /**
+     * Classifica o texto; a probabilidade fica em [0.5, 1.0).
+     */
+    SentimentResultDTO classify(String text) {
+        double score = score(text);
+        String label = score >= 0 ? StatisticsCounters.POSITIVE : StatisticsCounters.NEGATIVE;
+        double confidence = 1.0 / (1.0 + Math.exp(-Math.abs(score)));
+        return new SentimentResultDTO(label, confidence, InferenceStage.LEXICON);
+    }
+
+    double score(String text) {
+        double score = 0;
+        int negated = 0;
+        double boost = 1.0;
+        for (String token : NON_LETTERS.split(normalize(text))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (negations.contains(token)) {
+                negated = NEGATION_SCOPE;
+                continue;
+            }
+            if (intensifiers.contains(token)) {
+                boost = INTENSIFIER_FACTOR;
+                continue;
+            }
+            Double weight = weights.get(token);
+            if (weight != null) {
+                score += (negated > 0 ? -weight : weight) * boost;
+                negated = 0;
+            } else if (negated > 0) {
+                negated--;
+            }
+            boost = 1.0;
+        }
+        return score;
+    }
+
+    int size() {
+        return weights.size();
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
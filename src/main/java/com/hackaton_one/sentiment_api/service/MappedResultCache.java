@@ -0,0 +1,281 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Tabela hash de resultados de inferência em um arquivo mapeado em memória.
+ *
+ * O arquivo tem um cabeçalho e um número fixo (potência de dois) de slots de
+ * 64 bytes, com endereçamento aberto e sondagem linear curta. Quando os slots
+ * sondados estão todos ocupados, o primeiro é sobrescrito: o tamanho do
+ * arquivo nunca muda. Os dados ficam fora do heap e sobrevivem a reinícios.
+ *
+ * Leituras não usam locks: cada slot tem um contador de versão (seqlock) que
+ * o escritor deixa ímpar durante a escrita; o leitor descarta o slot se a
+ * versão mudou ou estava ímpar. Escritores disputando o mesmo slot desistem
+ * em vez de esperar, já que perder uma escrita de cache é inofensivo.
+ *
+ * Layout do slot: versão (8) | hash do texto (32) | versão do modelo (8) |
+ * probabilidade (8) | rótulo (1) | preenchimento.
+ */
+@Slf4j
+public final class MappedResultCache implements Closeable {
+
+    static final int SLOT_SIZE = 64;
+    static final int HEADER_SIZE = 64;
+    static final int PROBE_LIMIT = 8;
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final int SLOTS_PER_SEGMENT = (int) (SEGMENT_SIZE / SLOT_SIZE);
+
+    private static final int MAGIC = 0x534E5443; // "SNTC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int VERSION_OFFSET = 0;
+    private static final int HASH_OFFSET = 8;
+    private static final int MODEL_OFFSET = 40;
+    private static final int PROBABILITY_OFFSET = 48;
+    private static final int LABEL_OFFSET = 56;
+
+    private static final byte EMPTY = 0;
+    private static final byte POSITIVE = 1;
+    private static final byte NEGATIVE = 2;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final long slotCount;
+    private final long mask;
+    private volatile ModelFingerprint lastModel;
+
+    /**
+     * Abre (ou cria) o arquivo de cache.
+     *
+     * @param path    Caminho do arquivo
+     * @param maxSize Tamanho máximo em bytes; o número de slots é a maior potência de dois que cabe
+     */
+    public MappedResultCache(Path path, long maxSize) throws IOException {
+        this.path = path;
+        this.slotCount = Long.highestOneBit(Math.max(PROBE_LIMIT, (maxSize - HEADER_SIZE) / SLOT_SIZE));
+        this.mask = slotCount - 1;
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long fileSize = HEADER_SIZE + slotCount * SLOT_SIZE;
+        boolean compatible = channel.size() == fileSize && headerMatches();
+        if (!compatible) {
+            if (channel.size() > 0) {
+                log.info("Inference cache file {} has a different layout, recreating it", path);
+            }
+            channel.truncate(0);
+            channel.write(ByteBuffer.allocate(1), fileSize - 1);
+        }
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        int segmentCount = (int) ((slotCount + SLOTS_PER_SEGMENT - 1) / SLOTS_PER_SEGMENT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i * SLOTS_PER_SEGMENT;
+            long size = Math.min(SLOTS_PER_SEGMENT, slotCount - first) * SLOT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + first * SLOT_SIZE, size);
+            segments[i].order(ByteOrder.nativeOrder());
+        }
+
+        if (compatible) {
+            int repaired = repairInterruptedWrites();
+            log.info("Inference cache file {} opened with {} slots{}", path, slotCount,
+                    repaired > 0 ? " (" + repaired + " interrupted writes discarded)" : "");
+        } else {
+            writeHeader();
+            log.info("Inference cache file {} created with {} slots", path, slotCount);
+        }
+    }
+
+    /**
+     * Busca o resultado de um texto para a versão do modelo.
+     *
+     * @param textHash Hash SHA-256 do texto normalizado, em hexadecimal
+     */
+    public SentimentResultDTO get(String textHash, String modelVersion) {
+        byte[] hash = HexFormat.of().parseHex(textHash);
+        long model = fingerprint(modelVersion);
+        long start = startSlot(hash);
+        byte[] stored = new byte[32];
+
+        for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+            long slot = (start + probe) & mask;
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+
+            long before = (long) LONGS.getAcquire(segment, offset + VERSION_OFFSET);
+            if ((before & 1) != 0) {
+                continue;
+            }
+            byte label = segment.get(offset + LABEL_OFFSET);
+            if (label == EMPTY) {
+                return null;
+            }
+            segment.get(offset + HASH_OFFSET, stored);
+            long storedModel = segment.getLong(offset + MODEL_OFFSET);
+            double probability = segment.getDouble(offset + PROBABILITY_OFFSET);
+            VarHandle.loadLoadFence();
+            long after = (long) LONGS.getAcquire(segment, offset + VERSION_OFFSET);
+
+            if (before == after && storedModel == model && Arrays.equals(stored, hash)) {
+                return new SentimentResultDTO(label == POSITIVE ? StatisticsCounters.POSITIVE : StatisticsCounters.NEGATIVE,
+                        probability);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Grava o resultado, sobrescrevendo a entrada do mesmo texto ou, com os
+     * slots sondados cheios, a primeira posição da sequência de sondagem.
+     */
+    public void put(String textHash, String modelVersion, SentimentResultDTO result) {
+        byte label = StatisticsCounters.POSITIVE.equals(result.previsao()) ? POSITIVE
+                : StatisticsCounters.NEGATIVE.equals(result.previsao()) ? NEGATIVE
+                : EMPTY;
+        if (label == EMPTY) {
+            return;
+        }
+        byte[] hash = HexFormat.of().parseHex(textHash);
+        long model = fingerprint(modelVersion);
+        long start = startSlot(hash);
+        byte[] stored = new byte[32];
+
+        long target = start;
+        for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+            long slot = (start + probe) & mask;
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            if (segment.get(offset + LABEL_OFFSET) == EMPTY) {
+                target = slot;
+                break;
+            }
+            segment.get(offset + HASH_OFFSET, stored);
+            if (Arrays.equals(stored, hash) && segment.getLong(offset + MODEL_OFFSET) == model) {
+                target = slot;
+                break;
+            }
+        }
+        write(target, hash, model, result.probabilidade(), label);
+    }
+
+    /**
+     * Quantidade total de slots (limite de entradas do cache).
+     */
+    public long capacity() {
+        return slotCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+        channel.close();
+        log.info("Inference cache file {} closed", path);
+    }
+
+    private void write(long slot, byte[] hash, long model, double probability, byte label) {
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        long version = (long) LONGS.getAcquire(segment, offset + VERSION_OFFSET);
+        if ((version & 1) != 0 || !LONGS.compareAndSet(segment, offset + VERSION_OFFSET, version, version + 1)) {
+            // Outro escritor está usando o slot
+            return;
+        }
+        segment.put(offset + HASH_OFFSET, hash);
+        segment.putLong(offset + MODEL_OFFSET, model);
+        segment.putDouble(offset + PROBABILITY_OFFSET, probability);
+        segment.put(offset + LABEL_OFFSET, label);
+        LONGS.setRelease(segment, offset + VERSION_OFFSET, version + 2);
+    }
+
+    /**
+     * Um processo interrompido no meio de uma escrita deixa a versão ímpar;
+     * esses slots são esvaziados para voltarem a ser utilizáveis.
+     */
+    private int repairInterruptedWrites() {
+        int repaired = 0;
+        for (long slot = 0; slot < slotCount; slot++) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            long version = segment.getLong(offset + VERSION_OFFSET);
+            if ((version & 1) != 0) {
+                segment.put(offset + LABEL_OFFSET, EMPTY);
+                segment.putLong(offset + VERSION_OFFSET, version + 1);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private boolean headerMatches() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(buffer, 0);
+        buffer.flip();
+        return buffer.remaining() >= 20
+                && buffer.getInt() == MAGIC
+                && buffer.getInt() == FORMAT_VERSION
+                && buffer.getInt() == SLOT_SIZE
+                && buffer.getLong() == slotCount;
+    }
+
+    private void writeHeader() {
+        header.putInt(0, MAGIC);
+        header.putInt(4, FORMAT_VERSION);
+        header.putInt(8, SLOT_SIZE);
+        header.putLong(12, slotCount);
+        header.force();
+    }
+
+    private ByteBuffer segment(long slot) {
+        return segments[(int) (slot / SLOTS_PER_SEGMENT)];
+    }
+
+    private static int offset(long slot) {
+        return (int) (slot % SLOTS_PER_SEGMENT) * SLOT_SIZE;
+    }
+
+    private long startSlot(byte[] hash) {
+        return ByteBuffer.wrap(hash).getLong() & mask;
+    }
+
+    private long fingerprint(String modelVersion) {
+        ModelFingerprint last = lastModel;
+        if (last == null || !last.version().equals(modelVersion)) {
+            last = new ModelFingerprint(modelVersion,
+                    HexFormat.fromHexDigitsToLong(AnalysisTextService.hash(modelVersion), 0, 16));
+            lastModel = last;
+        }
+        return last.fingerprint();
+    }
+
+    private record ModelFingerprint(String version, long fingerprint) {}
+}
@@ -0,0 +1,91 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.CascadeStatsDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cascata de modelos: um primeiro estágio barato (léxico) responde os textos
+ * óbvios e só os demais seguem para o modelo ONNX completo.
+ *
+ * O primeiro estágio só responde quando sua confiança atinge
+ * cascade.confidence-threshold; quanto menor o limiar, mais textos deixam de
+ * passar pelo modelo, ao custo de alguma acurácia. Os contadores expõem a
+ * taxa de escalonamento para calibrar esse limiar.
+ */
+@Slf4j
+@Service
+public class ModelCascade {
+
+    private final double confidenceThreshold;
+    private final LexiconSentimentModel lexicon;
+    private final LongAdder firstStage = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+
+    public ModelCascade(
+            @Value("${cascade.enabled:false}") boolean enabled,
+            @Value("${cascade.confidence-threshold:0.9}") double confidenceThreshold,
+            @Value("${cascade.lexicon.path:classpath:lexicon/sentiment-lexicon.txt}") Resource lexiconResource) {
+        if (confidenceThreshold <= 0.5 || confidenceThreshold > 1.0) {
+            throw new IllegalArgumentException("cascade.confidence-threshold must be in (0.5, 1.0]");
+        }
+        this.confidenceThreshold = confidenceThreshold;
+        this.lexicon = enabled ? loadLexicon(lexiconResource) : null;
+    }
+
+    private static LexiconSentimentModel loadLexicon(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            LexiconSentimentModel model = LexiconSentimentModel.load(in);
+            log.info("Model cascade enabled: lexicon first stage with {} words", model.size());
+            return model;
+        } catch (Exception e) {
+            log.error("Could not load cascade lexicon from {} (cascade disabled): {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return lexicon != null;
+    }
+
+    /**
+     * Tenta classificar o texto no primeiro estágio.
+     *
+     * @return o resultado do léxico, ou vazio quando o texto deve ser escalado
+     *         (ou a cascata está desativada)
+     */
+    public Optional<SentimentResultDTO> firstStage(String text) {
+        if (lexicon == null) {
+            return Optional.empty();
+        }
+        SentimentResultDTO result = lexicon.classify(text);
+        if (result.probabilidade() >= confidenceThreshold) {
+            firstStage.increment();
+            return Optional.of(result);
+        }
+        escalated.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Retorna os contadores da cascata desde a inicialização.
+     */
+    public CascadeStatsDTO getStats() {
+        long answered = firstStage.sum();
+        long escalatedCount = escalated.sum();
+        long total = answered + escalatedCount;
+        return new CascadeStatsDTO(
+                isEnabled(),
+                confidenceThreshold,
+                answered,
+                escalatedCount,
+                total > 0 ? (double) escalatedCount / total : 0.0);
+    }
+}
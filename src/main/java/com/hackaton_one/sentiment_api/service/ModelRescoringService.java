@@ -0,0 +1,372 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.RescoreStatusDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reavaliação do histórico salvo depois de uma troca de modelo.
+ *
+ * Cada análise guarda a versão do modelo que a produziu (model_version). O
+ * job percorre, por keyset na chave primária, as análises com versão nula ou
+ * diferente da do modelo atual, em páginas de rescore.batch-size, e as envia
+ * para {@link SentimentService#analyzeBatch} (cache, cascata e fila justa
+ * inclusos). Os resultados são gravados com um UPDATE em lote por página,
+ * em uma transação; ao final, os rollups e os contadores de estatísticas são
+ * recalculados. Como cada página gravada já leva a nova versão, uma execução
+ * interrompida continua de onde parou ao ser iniciada de novo.
+ *
+ * Para não disputar com o tráfego ao vivo, o job:
+ * - trabalha no máximo rescore.cpu-budget do tempo, dormindo o restante
+ *   proporcionalmente ao tempo gasto em cada página;
+ * - espera enquanto houver requisições aguardando vaga de inferência ou o
+ *   modelo estiver respondendo pela contingência;
+ * - pode ser pausado e retomado (a pausa vale ao fim da página corrente).
+ * Respostas da contingência não são gravadas: ficam para a próxima execução.
+ *
+ * Análises feitas frase a frase ({@link SentenceAnalysisService}) são
+ * reavaliadas como um texto único: a média ponderada das frases dá lugar ao
+ * resultado do texto inteiro.
+ */
+@Slf4j
+@Service
+public class ModelRescoringService {
+
+    public enum State { IDLE, RUNNING, PAUSED, COMPLETED, FAILED }
+
+    // analyzed_at permite ao PostgreSQL ir direto à partição mensal da linha
+    static final String UPDATE_SQL = "UPDATE tb_sentiments "
+            + "SET sentiment_result = ?, confidence_score = ?, model_version = ? WHERE id = ? AND analyzed_at = ?";
+
+    private final SentimentRepository sentimentRepository;
+    private final SentimentService sentimentService;
+    private final ModelVariantRegistry modelVariants;
+    private final FairInferenceScheduler inferenceScheduler;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SentimentRollupService rollupService;
+    private final StatisticsCounters statisticsCounters;
+    private final AnalysisChangeTracker changeTracker;
+
+    // Inicia o job na subida da aplicação se houver análises de outro modelo (ligar em uma única réplica)
+    @Value("${rescore.auto-start:false}")
+    private boolean autoStart;
+
+    @Value("${rescore.batch-size:256}")
+    private int batchSize = 256;
+
+    // Fração do tempo em que o job pode estar trabalhando (0 a 1]
+    @Value("${rescore.cpu-budget:0.25}")
+    private double cpuBudget = 0.25;
+
+    // Requisições aguardando inferência a partir das quais o job espera (0 = nunca)
+    @Value("${rescore.shed-inference-queue-depth:1}")
+    private int shedQueueDepth = 1;
+
+    @Value("${rescore.idle-wait-ms:200}")
+    private long idleWaitMs = 200;
+
+    private final Object lock = new Object();
+    private ExecutorService executor;
+
+    // Escritos pela thread do job, lidos por getStatus()
+    private volatile State state = State.IDLE;
+    private volatile String targetVersion;
+    private volatile long total;
+    private volatile long processed;
+    private volatile long updated;
+    private volatile long changed;
+    private volatile long skipped;
+    private volatile long lastId;
+    private volatile long throttledNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    // Protegido por lock
+    private boolean pauseRequested;
+
+    public ModelRescoringService(
+            SentimentRepository sentimentRepository,
+            SentimentService sentimentService,
+            ModelVariantRegistry modelVariants,
+            FairInferenceScheduler inferenceScheduler,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            SentimentRollupService rollupService,
+            StatisticsCounters statisticsCounters,
+            AnalysisChangeTracker changeTracker) {
+        this.sentimentRepository = sentimentRepository;
+        this.sentimentService = sentimentService;
+        this.modelVariants = modelVariants;
+        this.inferenceScheduler = inferenceScheduler;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupService = rollupService;
+        this.statisticsCounters = statisticsCounters;
+        this.changeTracker = changeTracker;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (cpuBudget <= 0 || cpuBudget > 1) {
+            throw new IllegalArgumentException("rescore.cpu-budget must be in (0, 1], got " + cpuBudget);
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-rescore");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void autoStart() {
+        if (!autoStart) {
+            return;
+        }
+        try {
+            String version = currentModelVersion();
+            if (version != null && sentimentRepository.countByModelVersionIsNullOrModelVersionNot(version) > 0) {
+                start();
+            }
+        } catch (Exception e) {
+            log.warn("Could not auto-start history re-scoring: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Inicia a reavaliação com a versão atual do modelo padrão.
+     *
+     * @return false se já houver uma execução em andamento ou o modelo não estiver carregado
+     */
+    public boolean start() {
+        synchronized (lock) {
+            if (state == State.RUNNING || state == State.PAUSED) {
+                return false;
+            }
+            String version = currentModelVersion();
+            reset(version);
+            if (version == null) {
+                state = State.FAILED;
+                error = "Model is not loaded";
+                finishedAt = startedAt;
+                return false;
+            }
+            state = State.RUNNING;
+            executor.submit(() -> run(version));
+            return true;
+        }
+    }
+
+    /**
+     * Pausa a execução ao fim da página corrente.
+     */
+    public void pause() {
+        synchronized (lock) {
+            if (state == State.RUNNING) {
+                pauseRequested = true;
+                state = State.PAUSED;
+            }
+        }
+    }
+
+    public void resume() {
+        synchronized (lock) {
+            if (state == State.PAUSED) {
+                pauseRequested = false;
+                state = State.RUNNING;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    public RescoreStatusDTO getStatus() {
+        long done = processed;
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        double seconds = startedAt != null ? Duration.between(startedAt, end).toMillis() / 1000.0 : 0.0;
+        return new RescoreStatusDTO(
+                state.name(),
+                targetVersion,
+                total,
+                done,
+                updated,
+                changed,
+                skipped,
+                lastId,
+                total > 0 ? Math.min(100.0, done * 100.0 / total) : (state == State.COMPLETED ? 100.0 : 0.0),
+                seconds > 0 ? done / seconds : 0.0,
+                cpuBudget,
+                TimeUnit.NANOSECONDS.toMillis(throttledNanos),
+                startedAt,
+                finishedAt,
+                error);
+    }
+
+    /**
+     * Corpo do job; roda na thread model-rescore.
+     */
+    void run(String version) {
+        try {
+            total = sentimentRepository.countByModelVersionIsNullOrModelVersionNot(version);
+            log.info("Re-scoring {} stored analyses with model version {}", total, version);
+
+            long afterId = 0;
+            while (true) {
+                awaitTurn();
+                long begin = System.nanoTime();
+                List<Sentiment> page = sentimentRepository.findStaleModelVersion(version, afterId, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+                rescore(page, version);
+                lastId = afterId;
+                long elapsed = System.nanoTime() - begin;
+                applyBudget(elapsed);
+            }
+
+            if (updated > 0) {
+                rollupService.rebuild();
+                statisticsCounters.reconcile();
+                changeTracker.markChanged();
+            }
+            finish(State.COMPLETED, null);
+            log.info("Re-scoring finished: {} analyses read, {} updated, {} changed sentiment, {} skipped",
+                    processed, updated, changed, skipped);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(State.FAILED, "Interrupted");
+        } catch (Exception e) {
+            log.error("Re-scoring failed after id {}: {}", lastId, e.getMessage(), e);
+            finish(State.FAILED, e.getMessage());
+        }
+    }
+
+    private void rescore(List<Sentiment> page, String version) {
+        List<Sentiment> rows = new ArrayList<>(page.size());
+        List<String> texts = new ArrayList<>(page.size());
+        for (Sentiment sentiment : page) {
+            String text = sentiment.getTextContent();
+            if (text == null || text.isBlank()) {
+                skipped++;
+                continue;
+            }
+            rows.add(sentiment);
+            texts.add(text);
+        }
+
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        long pageChanged = 0;
+        if (!texts.isEmpty()) {
+            List<SentimentResultDTO> results = sentimentService.analyzeBatch(texts);
+            for (int i = 0; i < rows.size(); i++) {
+                SentimentResultDTO result = results.get(i);
+                if (result.estagio() == InferenceStage.FALLBACK) {
+                    skipped++;
+                    continue;
+                }
+                String sentiment = result.previsao().toUpperCase();
+                if (!sentiment.equals(rows.get(i).getSentimentResult())) {
+                    pageChanged++;
+                }
+                updates.add(new Object[]{sentiment, result.probabilidade(), version, rows.get(i).getId(),
+                        rows.get(i).getAnalyzedAt()});
+            }
+        }
+        if (!updates.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+        }
+        updated += updates.size();
+        changed += pageChanged;
+        processed += page.size();
+    }
+
+    /**
+     * Bloqueia enquanto o job estiver pausado, houver requisições aguardando
+     * inferência ou o modelo estiver em contingência.
+     */
+    private void awaitTurn() throws InterruptedException {
+        while (true) {
+            synchronized (lock) {
+                while (pauseRequested) {
+                    lock.wait();
+                }
+            }
+            boolean busy = (shedQueueDepth > 0 && inferenceScheduler.getQueueDepth() >= shedQueueDepth)
+                    || sentimentService.isDegraded();
+            if (!busy) {
+                return;
+            }
+            long begin = System.nanoTime();
+            Thread.sleep(idleWaitMs);
+            throttledNanos += System.nanoTime() - begin;
+        }
+    }
+
+    /**
+     * Dorme o suficiente para que o tempo de trabalho fique em cpuBudget do total.
+     */
+    private void applyBudget(long elapsedNanos) throws InterruptedException {
+        if (cpuBudget >= 1.0) {
+            return;
+        }
+        long sleepNanos = (long) (elapsedNanos * (1.0 - cpuBudget) / cpuBudget);
+        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        throttledNanos += sleepNanos;
+    }
+
+    private String currentModelVersion() {
+        SentimentEngine engine = modelVariants.resolve(null).engine();
+        return engine.isAvailable() ? engine.version() : null;
+    }
+
+    private void reset(String version) {
+        targetVersion = version;
+        total = 0;
+        processed = 0;
+        updated = 0;
+        changed = 0;
+        skipped = 0;
+        lastId = 0;
+        throttledNanos = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        pauseRequested = false;
+    }
+
+    private void finish(State finalState, String reason) {
+        synchronized (lock) {
+            error = reason;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+            pauseRequested = false;
+        }
+    }
+}
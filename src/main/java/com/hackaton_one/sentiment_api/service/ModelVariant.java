@@ -0,0 +1,55 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Variante de modelo registrada: motor próprio, circuit breaker próprio e
+ * métricas de inferência.
+ */
+public final class ModelVariant {
+
+    private final String name;
+    private final SentimentEngine engine;
+    private final EngineCircuitBreaker circuitBreaker;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final long registeredAtNanos = System.nanoTime();
+
+    public ModelVariant(String name, SentimentEngine engine, EngineCircuitBreaker circuitBreaker) {
+        this.name = name;
+        this.engine = engine;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public SentimentEngine engine() {
+        return engine;
+    }
+
+    public EngineCircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void recordInference(long elapsedNanos) {
+        latency.record(elapsedNanos);
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long registeredAtNanos() {
+        return registeredAtNanos;
+    }
+}
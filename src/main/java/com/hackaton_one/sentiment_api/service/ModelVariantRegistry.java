@@ -0,0 +1,167 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.ModelVariantStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Registro das variantes de modelo disponíveis (ex: quantizada, destilada).
+ *
+ * O modelo de sentiment.model.path é sempre a variante "default"; cada
+ * arquivo .onnx de sentiment.model.variants-dir vira uma variante com o nome
+ * do arquivo (sem extensão), com sessão ONNX, circuit breaker e métricas
+ * próprias. A requisição escolhe a variante pelo header X-Model-Variant ou
+ * pelo parâmetro variant; sem escolha, vale sentiment.model.default-variant.
+ */
+@Slf4j
+@Component
+public class ModelVariantRegistry {
+
+    public static final String DEFAULT_VARIANT = "default";
+
+    private final ModelVariant defaultModel;
+    private final Map<String, ModelVariant> variants = new ConcurrentHashMap<>();
+    private final List<OnnxSentimentEngine> ownedEngines = new ArrayList<>();
+
+    @Value("${sentiment.model.variants-dir:}")
+    private String variantsDir = "";
+
+    @Value("${sentiment.model.default-variant:" + DEFAULT_VARIANT + "}")
+    private String defaultVariant = DEFAULT_VARIANT;
+
+    @Value("${sentiment.model.labels:}")
+    private List<String> labels = List.of();
+
+    @Value("${circuit-breaker.failure-threshold:5}")
+    private int failureThreshold = 5;
+
+    @Value("${circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs = 30000;
+
+    public ModelVariantRegistry(
+            @Qualifier("onnxEngine") SentimentEngine defaultEngine,
+            EngineCircuitBreaker defaultCircuitBreaker) {
+        this.defaultModel = new ModelVariant(DEFAULT_VARIANT, defaultEngine, defaultCircuitBreaker);
+        variants.put(DEFAULT_VARIANT, defaultModel);
+    }
+
+    @PostConstruct
+    public void loadVariants() {
+        if (variantsDir == null || variantsDir.isBlank()) {
+            return;
+        }
+        Path dir = Path.of(variantsDir);
+        if (!Files.isDirectory(dir)) {
+            log.warn("Model variants directory not found: {}", dir.toAbsolutePath());
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(f -> f.getFileName().toString().endsWith(".onnx"))
+                    .sorted()
+                    .forEach(this::loadVariant);
+        } catch (IOException e) {
+            log.error("Could not list model variants in {}: {}", dir, e.getMessage());
+        }
+        if (!variants.containsKey(defaultVariant)) {
+            log.warn("Default model variant '{}' not found, using '{}'", defaultVariant, DEFAULT_VARIANT);
+            defaultVariant = DEFAULT_VARIANT;
+        }
+    }
+
+    private void loadVariant(Path file) {
+        String fileName = file.getFileName().toString();
+        String name = fileName.substring(0, fileName.length() - ".onnx".length());
+        if (variants.containsKey(name)) {
+            log.warn("Skipping model variant {}: name '{}' is already registered", file, name);
+            return;
+        }
+        OnnxSentimentEngine engine = new OnnxSentimentEngine(file.toString(), labels);
+        engine.init();
+        if (!engine.isAvailable()) {
+            log.warn("Skipping model variant '{}': model could not be loaded", name);
+            return;
+        }
+        ownedEngines.add(engine);
+        register(name, engine);
+        log.info("Model variant '{}' registered (version {})", name, engine.version());
+    }
+
+    void register(String name, SentimentEngine engine) {
+        variants.put(name, new ModelVariant(name, engine, new EngineCircuitBreaker(failureThreshold, openDurationMs)));
+    }
+
+    /**
+     * Resolve a variante pedida pela requisição.
+     *
+     * @param requested Nome da variante (null = variante padrão)
+     * @throws IllegalArgumentException se a variante não existir
+     */
+    public ModelVariant resolve(String requested) {
+        ModelVariant variant = variants.get(requested != null ? requested : defaultVariant);
+        if (variant == null) {
+            throw new IllegalArgumentException("Unknown model variant '" + requested
+                    + "'. Available: " + String.join(", ", new TreeMap<>(variants).keySet()));
+        }
+        return variant;
+    }
+
+    /**
+     * A variante "default", carregada de sentiment.model.path.
+     */
+    public ModelVariant getDefaultModel() {
+        return defaultModel;
+    }
+
+    /**
+     * Retorna as métricas de todas as variantes, em ordem de nome.
+     */
+    public List<ModelVariantStatsDTO> getStats() {
+        long now = System.nanoTime();
+        return new TreeMap<>(variants).values().stream()
+                .map(v -> toStats(v, now))
+                .toList();
+    }
+
+    private ModelVariantStatsDTO toStats(ModelVariant variant, long now) {
+        SentimentEngine engine = variant.engine();
+        LatencyHistogram latency = variant.latency();
+        long inferences = latency.count();
+        double seconds = Math.max(1e-9, (now - variant.registeredAtNanos()) / (double) TimeUnit.SECONDS.toNanos(1));
+        OnnxSentimentEngine onnx = engine instanceof OnnxSentimentEngine o ? o : null;
+        return new ModelVariantStatsDTO(
+                variant.name(),
+                engine.version(),
+                variant.name().equals(defaultVariant),
+                engine.isAvailable(),
+                variant.circuitBreaker().getState().name(),
+                onnx != null ? onnx.getModelBytes() : 0,
+                onnx != null ? onnx.getLoadedMemoryBytes() : -1,
+                inferences,
+                variant.failures(),
+                inferences / seconds,
+                latency.meanMillis(),
+                latency.percentileMillis(0.50),
+                latency.percentileMillis(0.95),
+                latency.percentileMillis(0.99));
+    }
+
+    @PreDestroy
+    public void close() {
+        ownedEngines.forEach(OnnxSentimentEngine::cleanup);
+    }
+}
@@ -0,0 +1,395 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pontuação offline de arquivos CSV ou NDJSON locais, sem passar pelo HTTP.
+ *
+ * O arquivo é dividido em blocos de cli.chunk-bytes terminados em quebra de
+ * linha; cada worker mapeia um bloco em memória, lê as linhas direto do
+ * mapeamento e envia os textos em lotes de cli.batch-size para
+ * {@link SentimentService#analyzeBatch}. Os resultados vão para um arquivo
+ * NDJSON e/ou para o banco, em uma transação por lote. Cada registro ocupa
+ * uma linha (CSV com quebras de linha dentro de aspas não é suportado, como
+ * em /sentiment/batch).
+ */
+@Slf4j
+@Service
+public class OfflineScoringService {
+
+    private final SentimentService sentimentService;
+    private final SentimentPersistenceService persistenceService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cli.batch-size:256}")
+    private int batchSize = 256;
+
+    @Value("${cli.chunk-bytes:67108864}")
+    private long chunkBytes = 64L * 1024 * 1024;
+
+    @Value("${cli.progress-interval-ms:10000}")
+    private long progressIntervalMs = 10000;
+
+    public OfflineScoringService(SentimentService sentimentService, SentimentPersistenceService persistenceService,
+                                 ObjectMapper objectMapper) {
+        this.sentimentService = sentimentService;
+        this.persistenceService = persistenceService;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum InputFormat {
+        CSV,
+        NDJSON;
+
+        /**
+         * Formato pelo nome informado ou, se vazio, pela extensão do arquivo.
+         */
+        public static InputFormat from(String value, Path input) {
+            String name = value == null || value.isBlank() ? extension(input) : value.trim();
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl" -> NDJSON;
+                default -> throw new IllegalArgumentException(
+                        "Unknown input format '" + name + "'. Use csv or ndjson");
+            };
+        }
+
+        private static String extension(Path input) {
+            String fileName = input.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            return dot >= 0 ? fileName.substring(dot + 1) : "";
+        }
+    }
+
+    /**
+     * Parâmetros de uma execução.
+     *
+     * @param input      Arquivo de entrada
+     * @param format     Formato da entrada
+     * @param textColumn Coluna do texto no CSV (vazio: primeira coluna)
+     * @param idColumn   Coluna do identificador no CSV (opcional)
+     * @param output     Arquivo NDJSON de saída (opcional)
+     * @param persist    Se true, salva as análises no histórico
+     * @param threads    Workers em paralelo
+     */
+    public record Options(Path input, InputFormat format, String textColumn, String idColumn,
+                          Path output, boolean persist, int threads) {}
+
+    /**
+     * Resumo de uma execução.
+     */
+    public record Summary(long scored, long skipped, long failed, long elapsedMillis) {
+        public double textsPerSecond() {
+            return elapsedMillis > 0 ? scored * 1000.0 / elapsedMillis : scored;
+        }
+    }
+
+    /**
+     * Uma linha da saída. offset é a posição em bytes da linha no arquivo de
+     * entrada (a saída não segue a ordem da entrada).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record ScoredLine(long offset, String id, String sentiment, double score, InferenceStage stage) {}
+
+    private record Chunk(long from, long to) {}
+
+    private record Input(long offset, String id, String text) {}
+
+    /**
+     * Colunas do CSV resolvidas a partir do cabeçalho.
+     */
+    private record Columns(int text, int id) {}
+
+    public Summary score(Options options) throws IOException {
+        if (options.output() == null && !options.persist()) {
+            throw new IllegalArgumentException("Nothing to do: set an output file and/or enable persistence");
+        }
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (FileChannel channel = FileChannel.open(options.input(), StandardOpenOption.READ);
+             BufferedWriter writer = options.output() != null
+                     ? Files.newBufferedWriter(options.output(), StandardCharsets.UTF_8) : null) {
+            long size = channel.size();
+            long firstLine = 0;
+            Columns columns = null;
+            if (options.format() == InputFormat.CSV) {
+                firstLine = nextLineStart(channel, 0, size);
+                columns = resolveColumns(readHeader(channel, firstLine), options);
+            }
+            List<Chunk> chunks = split(channel, firstLine, size);
+            log.info("Scoring {} ({} bytes, {} chunks) with {} threads", options.input(), size, chunks.size(),
+                    options.threads());
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemon("cli-progress"));
+            reporter.scheduleAtFixedRate(() -> progress.report(start, size),
+                    progressIntervalMs, progressIntervalMs, TimeUnit.MILLISECONDS);
+            int threads = Math.max(1, options.threads());
+            ExecutorService workers = Executors.newFixedThreadPool(threads, daemon("cli-worker"));
+            try {
+                AtomicInteger nextChunk = new AtomicInteger();
+                Columns resolved = columns;
+                List<Future<?>> futures = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    futures.add(workers.submit(() -> {
+                        int index;
+                        while ((index = nextChunk.getAndIncrement()) < chunks.size()) {
+                            processChunk(channel, chunks.get(index), options, resolved, writer, progress);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while scoring " + options.input(), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Scoring failed: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                workers.shutdownNow();
+                reporter.shutdownNow();
+            }
+        }
+
+        Summary summary = new Summary(progress.scored.sum(), progress.skipped.sum(), progress.failed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Scored {} texts in {} ms ({} texts/s), {} skipped, {} failed", summary.scored(),
+                summary.elapsedMillis(), String.format(Locale.ROOT, "%.1f", summary.textsPerSecond()),
+                summary.skipped(), summary.failed());
+        return summary;
+    }
+
+    private void processChunk(FileChannel channel, Chunk chunk, Options options, Columns columns,
+                              Writer writer, Progress progress) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.from(), chunk.to() - chunk.from());
+        int limit = buffer.limit();
+        byte[] line = new byte[256];
+        List<Input> batch = new ArrayList<>(batchSize);
+
+        int pos = 0;
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            int length = end - pos;
+            if (length > 0 && buffer.get(end - 1) == '\r') {
+                length--;
+            }
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(pos, line, 0, length);
+            Input input = parse(chunk.from() + pos, new String(line, 0, length, StandardCharsets.UTF_8),
+                    options.format(), columns);
+            if (input == null) {
+                progress.skipped.increment();
+            } else {
+                batch.add(input);
+                if (batch.size() >= batchSize) {
+                    flush(batch, options, writer, progress);
+                }
+            }
+            progress.bytes.add(end + 1 - pos);
+            pos = end + 1;
+        }
+        flush(batch, options, writer, progress);
+    }
+
+    private void flush(List<Input> batch, Options options, Writer writer, Progress progress) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> texts = new ArrayList<>(batch.size());
+        for (Input input : batch) {
+            texts.add(input.text());
+        }
+        try {
+            List<SentimentResultDTO> results = sentimentService.analyzeBatch(texts);
+            if (options.persist()) {
+                persistenceService.saveSentiments(texts, results);
+            }
+            if (writer != null) {
+                StringBuilder lines = new StringBuilder(batch.size() * 64);
+                for (int i = 0; i < batch.size(); i++) {
+                    SentimentResultDTO result = results.get(i);
+                    lines.append(objectMapper.writeValueAsString(new ScoredLine(batch.get(i).offset(),
+                            batch.get(i).id(), result.previsao().toUpperCase(), result.probabilidade(),
+                            result.estagio()))).append('\n');
+                }
+                synchronized (writer) {
+                    writer.write(lines.toString());
+                }
+            }
+            progress.scored.add(batch.size());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Failed to score a batch of {} texts starting at offset {}: {}",
+                    batch.size(), batch.get(0).offset(), e.getMessage());
+            progress.failed.add(batch.size());
+        }
+        batch.clear();
+    }
+
+    private Input parse(long offset, String line, InputFormat format, Columns columns) {
+        if (line.isBlank()) {
+            return null;
+        }
+        if (format == InputFormat.CSV) {
+            String[] values = BatchService.parseCSVLine(line);
+            if (columns.text() >= values.length) {
+                return null;
+            }
+            String text = BatchService.cleanText(values[columns.text()]);
+            String id = columns.id() >= 0 && columns.id() < values.length
+                    ? BatchService.cleanText(values[columns.id()]) : null;
+            return text.isEmpty() ? null : new Input(offset, id, text);
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.isTextual()) {
+                return node.asText().isBlank() ? null : new Input(offset, null, node.asText());
+            }
+            JsonNode text = node.path("text");
+            if (!text.isTextual() || text.asText().isBlank()) {
+                return null;
+            }
+            JsonNode id = node.path("id");
+            return new Input(offset, id.isValueNode() && !id.isNull() ? id.asText() : null, text.asText());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Columns resolveColumns(String header, Options options) {
+        String[] names = BatchService.parseCSVLine(header);
+        int text = 0;
+        if (options.textColumn() != null && !options.textColumn().isBlank()) {
+            text = BatchService.findColumnIndex(names, options.textColumn());
+            if (text < 0) {
+                throw new IllegalArgumentException("Column '" + options.textColumn() + "' not found. Available: "
+                        + String.join(", ", names));
+            }
+        }
+        int id = -1;
+        if (options.idColumn() != null && !options.idColumn().isBlank()) {
+            id = BatchService.findColumnIndex(names, options.idColumn());
+            if (id < 0) {
+                throw new IllegalArgumentException("Column '" + options.idColumn() + "' not found. Available: "
+                        + String.join(", ", names));
+            }
+        }
+        return new Columns(text, id);
+    }
+
+    private static String readHeader(FileChannel channel, long end) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) end);
+        channel.read(header, 0);
+        String line = new String(header.array(), 0, header.position(), StandardCharsets.UTF_8);
+        return line.replace("\uFEFF", "").strip();
+    }
+
+    /**
+     * Divide [from, size) em blocos de cerca de cli.chunk-bytes, cada um
+     * terminando logo após uma quebra de linha.
+     */
+    private List<Chunk> split(FileChannel channel, long from, long size) throws IOException {
+        // Um MappedByteBuffer tem no máximo 2 GB, incluída a última linha do bloco
+        long target = Math.max(1, Math.min(chunkBytes, Integer.MAX_VALUE / 2));
+        List<Chunk> chunks = new ArrayList<>();
+        while (from < size) {
+            long to = Math.min(size, from + target);
+            if (to < size) {
+                to = nextLineStart(channel, to - 1, size);
+            }
+            chunks.add(new Chunk(from, to));
+            from = to;
+        }
+        return chunks;
+    }
+
+    /**
+     * Posição logo após a primeira quebra de linha em [from, size), ou size.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Contadores de andamento, lidos pelo relatório periódico.
+     */
+    private static final class Progress {
+        private final LongAdder scored = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void report(long start, long size) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long done = scored.sum();
+            log.info("Progress: {} texts scored ({} texts/s), {}% of input read, {} skipped, {} failed",
+                    done, String.format(Locale.ROOT, "%.1f", seconds > 0 ? done / seconds : 0.0),
+                    size > 0 ? bytes.sum() * 100 / size : 100, skipped.sum(), failed.sum());
+        }
+    }
+}
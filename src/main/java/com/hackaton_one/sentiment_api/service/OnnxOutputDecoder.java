@@ -0,0 +1,270 @@
+package com.hackaton_one.sentiment_api.service;
+
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OnnxMap;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.SequenceInfo;
+import ai.onnxruntime.TensorInfo;
+import ai.onnxruntime.ValueInfo;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import com.hackaton_one.sentiment_api.exceptions.ModelInitializationException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converte as saídas do modelo ONNX em resultados de sentimento.
+ *
+ * A forma de leitura é escolhida uma única vez, pela assinatura das saídas do
+ * modelo ({@link #detect}):
+ * - tensor float [N, classes] (modelos exportados sem ZipMap): as probabilidades
+ *   são lidas direto do buffer do tensor, e a classe de cada coluna vem de um
+ *   índice em cache, sem mapas nem boxing por linha;
+ * - sequência de mapas (ZipMap, padrão do skl2onnx): caminho antigo, que
+ *   converte cada linha em um java.util.Map.
+ */
+@Slf4j
+abstract class OnnxOutputDecoder {
+
+    // Classes brutas já padronizadas: só existem tantas quantas o modelo tiver
+    private final Map<String, String> normalizedLabels = new ConcurrentHashMap<>();
+
+    /**
+     * Saídas que a sessão precisa calcular para este decoder.
+     */
+    abstract Set<String> requestedOutputs();
+
+    /**
+     * Lê o resultado das primeiras {@code rows} linhas da saída.
+     */
+    abstract List<SentimentResultDTO> decode(OrtSession.Result result, int rows) throws OrtException;
+
+    /**
+     * Lê o resultado de uma saída com uma única linha.
+     */
+    SentimentResultDTO decodeSingle(OrtSession.Result result) throws OrtException {
+        return decode(result, 1).get(0);
+    }
+
+    /**
+     * Escolhe o decoder pela assinatura de saída do modelo: a primeira saída é
+     * a classe prevista e a segunda, as probabilidades.
+     *
+     * @param labels Classes de cada coluna de probabilidade, na ordem do modelo
+     *               (vazio: aprendidas das primeiras inferências)
+     */
+    static OnnxOutputDecoder detect(Map<String, NodeInfo> outputs, List<String> labels) {
+        if (outputs.size() < 2) {
+            throw new ModelInitializationException("Expected label and probability outputs, model has " + outputs.keySet());
+        }
+        Iterator<NodeInfo> it = outputs.values().iterator();
+        String labelOutput = it.next().getName();
+        NodeInfo probabilities = it.next();
+        ValueInfo info = probabilities.getInfo();
+
+        if (info instanceof TensorInfo tensor && tensor.type == OnnxJavaType.FLOAT
+                && tensor.getShape().length == 2 && tensor.getShape()[1] > 0) {
+            int classes = (int) tensor.getShape()[1];
+            log.info("Model outputs a probability tensor with {} classes, using direct tensor decoding", classes);
+            return new TensorDecoder(labelOutput, probabilities.getName(), classes, labels);
+        }
+        if (info instanceof SequenceInfo sequence && sequence.isSequenceOfMaps()) {
+            log.info("Model outputs ZipMap probabilities, using map decoding");
+            return new ZipMapDecoder(labelOutput, probabilities.getName());
+        }
+        throw new ModelInitializationException("Unsupported probability output: " + info);
+    }
+
+    /**
+     * Padroniza a classe do modelo para POSITIVO/NEGATIVO.
+     *
+     * @throws ModelAnalysisException se a classe não for de sentimento
+     */
+    static String normalizeLabel(String label) {
+        String upper = label.toUpperCase(Locale.ROOT).trim();
+        return switch (upper) {
+            case "POSITIVE", "POSITIVO" -> StatisticsCounters.POSITIVE;
+            case "NEGATIVE", "NEGATIVO" -> StatisticsCounters.NEGATIVE;
+            default -> {
+                log.warn("Sentimento inesperado retornado pelo modelo: {}", upper);
+                throw new ModelAnalysisException("Modelo retornou sentimento não suportado: " + upper);
+            }
+        };
+    }
+
+    /**
+     * {@link #normalizeLabel} com o resultado guardado por classe bruta.
+     */
+    String normalizeCached(String label) {
+        String normalized = normalizedLabels.get(label);
+        return normalized != null ? normalized : normalizedLabels.computeIfAbsent(label, OnnxOutputDecoder::normalizeLabel);
+    }
+
+    private static OnnxTensor tensor(OrtSession.Result result, String name) {
+        OnnxValue value = result.get(name)
+                .orElseThrow(() -> new ModelAnalysisException("Model output '" + name + "' is missing"));
+        return (OnnxTensor) value;
+    }
+
+    /**
+     * Leitura direta do tensor de probabilidades.
+     *
+     * A classe de cada coluna é aprendida comparando a saída de classe com a
+     * coluna de maior probabilidade; depois que todas as colunas são
+     * conhecidas (ou quando vêm da configuração), a saída de classe deixa de
+     * ser calculada e cada linha custa só a varredura das probabilidades.
+     */
+    static final class TensorDecoder extends OnnxOutputDecoder {
+        private final String labelOutput;
+        private final String probabilityOutput;
+        private final int classes;
+        private final String[] columnLabels;
+        private final Set<String> bothOutputs;
+        private final Set<String> probabilityOnly;
+        private volatile boolean indexComplete;
+
+        TensorDecoder(String labelOutput, String probabilityOutput, int classes, List<String> labels) {
+            this.labelOutput = labelOutput;
+            this.probabilityOutput = probabilityOutput;
+            this.classes = classes;
+            this.columnLabels = new String[classes];
+            this.bothOutputs = Set.of(labelOutput, probabilityOutput);
+            this.probabilityOnly = Set.of(probabilityOutput);
+            if (!labels.isEmpty()) {
+                if (labels.size() != classes) {
+                    throw new ModelInitializationException("sentiment.model.labels has " + labels.size()
+                            + " entries but the model outputs " + classes + " classes");
+                }
+                for (int i = 0; i < classes; i++) {
+                    columnLabels[i] = normalizeLabel(labels.get(i));
+                }
+                indexComplete = true;
+            }
+        }
+
+        @Override
+        Set<String> requestedOutputs() {
+            return indexComplete ? probabilityOnly : bothOutputs;
+        }
+
+        boolean isIndexComplete() {
+            return indexComplete;
+        }
+
+        @Override
+        List<SentimentResultDTO> decode(OrtSession.Result result, int rows) throws OrtException {
+            FloatBuffer probabilities = tensor(result, probabilityOutput).getFloatBuffer();
+            Object rawLabels = indexComplete ? null : tensor(result, labelOutput).getValue();
+
+            List<SentimentResultDTO> decoded = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                decoded.add(decodeRow(probabilities, rawLabels, row));
+            }
+            return decoded;
+        }
+
+        @Override
+        SentimentResultDTO decodeSingle(OrtSession.Result result) throws OrtException {
+            FloatBuffer probabilities = tensor(result, probabilityOutput).getFloatBuffer();
+            Object rawLabels = indexComplete ? null : tensor(result, labelOutput).getValue();
+            return decodeRow(probabilities, rawLabels, 0);
+        }
+
+        private SentimentResultDTO decodeRow(FloatBuffer probabilities, Object rawLabels, int row) {
+            int offset = row * classes;
+            int best = 0;
+            float bestValue = probabilities.get(offset);
+            boolean tie = false;
+            for (int c = 1; c < classes; c++) {
+                float value = probabilities.get(offset + c);
+                if (value > bestValue) {
+                    best = c;
+                    bestValue = value;
+                    tie = false;
+                } else if (value == bestValue) {
+                    tie = true;
+                }
+            }
+
+            String label = rawLabels == null ? columnLabels[best] : learn(rawLabels, row, best, tie);
+            return new SentimentResultDTO(label, bestValue, InferenceStage.MODEL);
+        }
+
+        private String learn(Object rawLabels, int row, int column, boolean tie) {
+            String raw = switch (rawLabels) {
+                case String[] strings -> strings[row];
+                case long[] longs -> Long.toString(longs[row]);
+                default -> throw new ModelAnalysisException("Unsupported label output type: " + rawLabels.getClass());
+            };
+            String label = normalizeCached(raw);
+            if (!tie) {
+                synchronized (columnLabels) {
+                    if (columnLabels[column] == null) {
+                        columnLabels[column] = label;
+                        boolean complete = true;
+                        for (String known : columnLabels) {
+                            complete &= known != null;
+                        }
+                        if (complete) {
+                            log.info("Model label index learned: {}", String.join(", ", columnLabels));
+                            indexComplete = true;
+                        }
+                    }
+                }
+            }
+            return label;
+        }
+    }
+
+    /**
+     * Leitura da sequência de mapas produzida pelo ZipMap.
+     */
+    static final class ZipMapDecoder extends OnnxOutputDecoder {
+        private final String labelOutput;
+        private final String probabilityOutput;
+        private final Set<String> outputs;
+
+        ZipMapDecoder(String labelOutput, String probabilityOutput) {
+            this.labelOutput = labelOutput;
+            this.probabilityOutput = probabilityOutput;
+            this.outputs = Set.of(labelOutput, probabilityOutput);
+        }
+
+        @Override
+        Set<String> requestedOutputs() {
+            return outputs;
+        }
+
+        @Override
+        List<SentimentResultDTO> decode(OrtSession.Result result, int rows) throws OrtException {
+            String[] labels = (String[]) tensor(result, labelOutput).getValue();
+
+            OnnxValue probabilities = result.get(probabilityOutput)
+                    .orElseThrow(() -> new ModelAnalysisException("Model output '" + probabilityOutput + "' is missing"));
+            @SuppressWarnings("unchecked")
+            List<OnnxMap> maps = (List<OnnxMap>) probabilities.getValue();
+
+            List<SentimentResultDTO> decoded = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                @SuppressWarnings("unchecked")
+                Map<String, Float> probability = (Map<String, Float>) maps.get(row).getValue();
+                float value = probability.get(labels[row]);
+                decoded.add(new SentimentResultDTO(normalizeCached(labels[row]), value, InferenceStage.MODEL));
+            }
+            return decoded;
+        }
+    }
+}
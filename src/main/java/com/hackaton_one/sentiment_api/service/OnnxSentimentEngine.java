@@ -0,0 +1,233 @@
+package com.hackaton_one.sentiment_api.service;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor de inferência principal, baseado em um modelo ONNX executado pelo ONNX Runtime.
+ *
+ * Responsável por carregar o modelo ONNX, preparar os dados de entrada,
+ * executar a inferência e retornar os resultados.
+ */
+@Slf4j
+@Component("onnxEngine")
+public class OnnxSentimentEngine implements SentimentEngine {
+
+    // Um texto por chamada: [batch=1, features=1]. O ORT copia o shape, então pode ser compartilhado
+    private static final long[] SINGLE_TEXT_SHAPE = { 1, 1 };
+
+    private OrtEnvironment env;
+    private OrtSession session;
+
+    @Value("${sentiment.model.path:models/sentiment_model.onnx}")
+    private String modelPath;
+
+    // Vazio: a versão é derivada do conteúdo do arquivo do modelo
+    @Value("${sentiment.model.version:}")
+    private String configuredModelVersion;
+
+    // Classes das colunas de probabilidade (modelos sem ZipMap); vazio: aprendidas do modelo
+    @Value("${sentiment.model.labels:}")
+    private List<String> configuredLabels = List.of();
+
+    private String inputName;
+    private OnnxOutputDecoder outputDecoder;
+
+    /** Tamanho do arquivo do modelo. */
+    @Getter
+    private long modelBytes;
+
+    /** Memória residente acrescida pela criação da sessão (-1 se desconhecida). */
+    @Getter
+    private long loadedMemoryBytes = -1;
+
+    public OnnxSentimentEngine() {
+    }
+
+    /**
+     * Cria o motor fora do contexto Spring (ex: benchmarks); chame {@link #init()} em seguida.
+     */
+    OnnxSentimentEngine(String modelPath, List<String> labels) {
+        this.modelPath = modelPath;
+        this.configuredLabels = labels;
+    }
+
+    @Getter
+    private boolean modelAvailable = false;
+
+    /**
+     * Versão do modelo carregado, usada como parte da chave do cache de inferência.
+     */
+    @Getter
+    private String modelVersion;
+
+    @PostConstruct
+    public void init() {
+        try {
+            log.info("Initializing ONNX Runtime...");
+
+            // 1. Validate file existence on disk
+            File modelFile = new File(modelPath);
+            if (!modelFile.exists()) {
+                log.error("CRITICAL: ONNX model file NOT found at: " + modelFile.getAbsolutePath());
+                log.error("The application requires the model file at this specific path to run efficiently.");
+                this.modelAvailable = false;
+                return;
+            }
+
+            // 2. Initialize Environment
+            this.env = OrtEnvironment.getEnvironment();
+
+            // 3. Set Session Options
+            OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
+            opts.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.BASIC_OPT);
+
+            // 4. Load Model directly from Disk (Zero-Copy / Memory Mapped)
+            // This is crucial for low-RAM environments. It avoids loading a huge byte[] into Java Heap.
+            long rssBefore = residentSetBytes();
+            this.session = env.createSession(modelPath, opts);
+            long rssAfter = residentSetBytes();
+            this.modelBytes = modelFile.length();
+            this.loadedMemoryBytes = rssBefore >= 0 && rssAfter >= 0 ? Math.max(0, rssAfter - rssBefore) : -1;
+
+            // 5. Resolve input name and output decoding once, from the model signature
+            this.inputName = session.getInputNames().iterator().next();
+            this.outputDecoder = OnnxOutputDecoder.detect(session.getOutputInfo(), configuredLabels);
+
+            this.modelVersion = configuredModelVersion != null && !configuredModelVersion.isBlank()
+                    ? configuredModelVersion
+                    : fingerprint(modelFile.toPath());
+            this.modelAvailable = true;
+            log.info("ONNX model loaded successfully from disk: " + modelPath + " (version " + modelVersion + ")");
+
+        } catch (Exception e) {
+            if (e.getMessage() != null && e.getMessage().contains("Unsupported model IR version")) {
+                log.error("Version mismatch: The ONNX model requires a newer ONNX Runtime or needs to be converted.");
+            }
+            log.error("Fatal error loading ONNX model: {}", e.getMessage(), e);
+            this.modelAvailable = false;
+            this.env = null;
+            this.session = null;
+        }
+    }
+
+    /**
+     * Identifica o modelo pelo início do SHA-256 do arquivo: trocar o arquivo
+     * invalida automaticamente o cache de inferência.
+     */
+    private static String fingerprint(Path file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return "sha256-" + HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
+    /**
+     * Memória residente do processo (VmRSS do Linux), ou -1 em outros sistemas.
+     */
+    static long residentSetBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", "")) * 1024;
+                }
+            }
+        } catch (Exception e) {
+            // Sem /proc: memória desconhecida
+        }
+        return -1;
+    }
+
+    @Override
+    public String name() {
+        return "onnx";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return modelAvailable;
+    }
+
+    @Override
+    public String version() {
+        return modelVersion;
+    }
+
+    @Override
+    public SentimentResultDTO analyze(String text) {
+        if (!modelAvailable) {
+            throw new ModelAnalysisException("ONNX model is not available");
+        }
+        return runInference(text);
+    }
+
+    /**
+     * Os textos viram um único tensor [N, 1], executado em uma só chamada ao ORT.
+     */
+    @Override
+    public List<SentimentResultDTO> analyzeBatch(List<String> texts) {
+        if (!modelAvailable) {
+            throw new ModelAnalysisException("ONNX model is not available");
+        }
+        if (texts.size() == 1) {
+            return List.of(runInference(texts.get(0)));
+        }
+        long[] shape = { texts.size(), 1 };
+        try (OnnxTensor tensor = OnnxTensor.createTensor(env, texts.toArray(new String[0]), shape);
+             OrtSession.Result results = session.run(Map.of(inputName, tensor), outputDecoder.requestedOutputs())) {
+            return outputDecoder.decode(results, texts.size());
+        } catch (OrtException e) {
+            log.error("Failed to run batch inference: {}", e.getMessage(), e);
+            throw new ModelAnalysisException("Failed to run inference: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Caminho por requisição: tudo que não depende do texto (nome da entrada,
+     * saídas pedidas, índice de classes) já foi resolvido no carregamento, e
+     * só são alocados o array de entrada, o mapa e os objetos exigidos pelo ORT.
+     */
+    private SentimentResultDTO runInference(String text) {
+        try (OnnxTensor tensor = OnnxTensor.createTensor(env, new String[]{ text }, SINGLE_TEXT_SHAPE);
+             OrtSession.Result results = session.run(Map.of(inputName, tensor), outputDecoder.requestedOutputs())) {
+            return outputDecoder.decodeSingle(results);
+        } catch (OrtException e) {
+            log.error("Failed to run inference: {}", e.getMessage(), e);
+            throw new ModelAnalysisException("Failed to run inference: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup(){
+        try {
+            if (session != null) session.close();
+            if (env != null) env.close();
+        } catch (Exception e){
+            log.error("Error during ONNX Runtime cleanup: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.hackaton_one.sentiment_api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Manutenção das partições mensais de tb_sentiments no PostgreSQL.
+ *
+ * A tabela é convertida uma única vez pelo script
+ * db/postgresql/partition_tb_sentiments.sql. A partir daí este job cria as
+ * partições dos próximos meses antes de serem necessárias e, com retenção
+ * configurada, remove partições antigas inteiras (DETACH + DROP) em vez de
+ * apagar linha a linha; os textos que ficam sem análises e os rollups dos
+ * meses removidos são apagados em seguida, para que estatísticas e histórico
+ * cubram o mesmo período.
+ *
+ * Linhas que caíram na partição DEFAULT (job atrasado, datas fora das
+ * partições existentes) são movidas para a partição mensal quando ela é
+ * criada: o PostgreSQL não anexa uma partição cujo intervalo já tenha linhas
+ * na DEFAULT.
+ *
+ * Em bancos sem particionamento (H2 no perfil dev) o job não faz nada.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    static final String TABLE = "tb_sentiments";
+    static final String PARTITION_PREFIX = TABLE + "_p";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatisticsCounters statisticsCounters;
+    private final AnalysisChangeTracker changeTracker;
+    private final AnalysisTextService textService;
+    private final SentimentRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${partitioning.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            StatisticsCounters statisticsCounters,
+            AnalysisChangeTracker changeTracker,
+            AnalysisTextService textService,
+            SentimentRollupService rollupService,
+            TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statisticsCounters = statisticsCounters;
+        this.changeTracker = changeTracker;
+        this.textService = textService;
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.warn("Partition maintenance failed at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cria as partições que faltam e aplica a retenção.
+     */
+    @Scheduled(cron = "${partitioning.cron:0 0 3 * * *}")
+    public synchronized void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (!isPartitioned()) {
+            log.warn("partitioning.enabled is set but {} is not a partitioned PostgreSQL table; "
+                    + "run db/postgresql/partition_tb_sentiments.sql first", TABLE);
+            return;
+        }
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<String> names = listPartitionNames();
+        boolean hasDefault = names.contains(DEFAULT_PARTITION);
+        List<YearMonth> existing = new ArrayList<>();
+        for (String name : names) {
+            YearMonth month = parsePartitionName(name);
+            if (month != null) {
+                existing.add(month);
+            }
+        }
+
+        TreeSet<YearMonth> missing = new TreeSet<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            missing.add(current.plusMonths(i));
+        }
+        if (hasDefault) {
+            missing.addAll(monthsInDefaultPartition());
+        }
+        missing.removeAll(existing);
+        for (YearMonth month : missing) {
+            createPartition(month, hasDefault);
+            existing.add(month);
+        }
+
+        if (retentionMonths > 0) {
+            List<YearMonth> expired = expiredPartitions(existing, current, retentionMonths);
+            for (YearMonth month : expired) {
+                dropPartition(month);
+            }
+            if (!expired.isEmpty()) {
+                rollupService.purgeBefore(current.minusMonths(retentionMonths - 1L).atDay(1).atStartOfDay());
+                textService.purgeUnreferenced();
+                statisticsCounters.reconcile();
+                changeTracker.markChanged();
+            }
+        }
+    }
+
+    /**
+     * Partições cujo mês inteiro ficou fora da janela de retenção.
+     * Com retenção de N meses, são mantidos o mês corrente e os N - 1 anteriores.
+     */
+    static List<YearMonth> expiredPartitions(List<YearMonth> partitions, YearMonth current, int retentionMonths) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        return partitions.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .sorted()
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    static YearMonth parsePartitionName(String name) {
+        if (name == null || !name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private List<String> listPartitionNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND pg_table_is_visible(p.oid)",
+                String.class, TABLE);
+    }
+
+    private List<YearMonth> monthsInDefaultPartition() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String suffix : jdbcTemplate.queryForList(
+                "SELECT DISTINCT to_char(analyzed_at, 'YYYY_MM') FROM " + DEFAULT_PARTITION, String.class)) {
+            YearMonth month = parsePartitionName(PARTITION_PREFIX + suffix);
+            if (month != null) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    private void createPartition(YearMonth month, boolean hasDefault) {
+        String name = partitionName(month);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        String bounds = " FOR VALUES FROM ('" + start + "') TO ('" + end + "')";
+        if (!hasDefault) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE + bounds);
+            log.info("Created partition {} [{}, {})", name, start, end);
+            return;
+        }
+        // Cria fora da tabela, traz as linhas do mês que estão na DEFAULT e só então anexa
+        String range = " WHERE analyzed_at >= '" + start + "' AND analyzed_at < '" + end + "'";
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name
+                    + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION + range);
+            if (rows > 0) {
+                jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + range);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + bounds);
+            return rows;
+        });
+        log.info("Created partition {} [{}, {}), moved {} rows from {}", name, start, end,
+                moved != null ? moved : 0, DEFAULT_PARTITION);
+    }
+
+    private void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+        log.info("Dropped partition {} (retention: {} months)", name, retentionMonths);
+    }
+}
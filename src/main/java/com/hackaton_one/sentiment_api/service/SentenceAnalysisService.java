@@ -0,0 +1,103 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentenceAnalysisResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentenceSentimentDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Análise de textos longos frase a frase.
+ *
+ * O texto é dividido pelo {@link SentenceSplitter} em até
+ * sentences.max-segments frases, e todas seguem juntas para
+ * {@link SentimentService#analyzeBatch}: uma única passagem pela fila e pelo
+ * modelo por grupo de bulk.inference-batch-size frases, em vez de uma
+ * inferência por frase. Cada frase consome uma unidade da cota do tenant.
+ *
+ * O histórico guarda só o resultado combinado, com o estágio mais fraco usado
+ * pelas frases. A reavaliação após troca de modelo ({@link ModelRescoringService})
+ * não sabe que a análise veio frase a frase: pontua o texto inteiro de uma vez,
+ * substituindo a média ponderada das frases.
+ */
+@Slf4j
+@Service
+public class SentenceAnalysisService {
+
+    private final SentimentService sentimentService;
+    private final SentimentPersistenceService persistenceService;
+
+    // Máximo de frases por texto; o restante do texto entra inteiro na última
+    @Value("${sentences.max-segments:32}")
+    private int maxSegments = 32;
+
+    public SentenceAnalysisService(SentimentService sentimentService, SentimentPersistenceService persistenceService) {
+        this.sentimentService = sentimentService;
+        this.persistenceService = persistenceService;
+    }
+
+    /**
+     * Analisa cada frase do texto e o resultado combinado, salvando o
+     * resultado combinado no histórico como uma análise comum.
+     */
+    public SentenceAnalysisResponseDTO analyzeAndSave(String text) {
+        List<SentenceSplitter.Segment> segments = SentenceSplitter.split(text, maxSegments);
+        List<String> sentences = new ArrayList<>(segments.size());
+        for (SentenceSplitter.Segment segment : segments) {
+            sentences.add(segment.of(text));
+        }
+
+        List<SentimentResultDTO> results = sentimentService.analyzeBatch(sentences);
+
+        List<SentenceSentimentDTO> items = new ArrayList<>(segments.size());
+        double positiveSum = 0.0;
+        long weight = 0;
+        InferenceStage weakest = InferenceStage.MODEL;
+        for (int i = 0; i < segments.size(); i++) {
+            SentenceSplitter.Segment segment = segments.get(i);
+            SentimentResultDTO result = results.get(i);
+            String sentiment = result.previsao().toUpperCase();
+            items.add(new SentenceSentimentDTO(segment.start(), segment.end(), sentences.get(i),
+                    sentiment, result.probabilidade(), result.estagio()));
+
+            double positive = StatisticsCounters.POSITIVE.equals(sentiment)
+                    ? result.probabilidade() : 1.0 - result.probabilidade();
+            int length = segment.end() - segment.start();
+            positiveSum += positive * length;
+            weight += length;
+            if (strength(result.estagio()) < strength(weakest)) {
+                weakest = result.estagio();
+            }
+        }
+
+        double positive = weight > 0 ? positiveSum / weight : 0.5;
+        String sentiment = positive >= 0.5 ? StatisticsCounters.POSITIVE : StatisticsCounters.NEGATIVE;
+        double score = Math.max(positive, 1.0 - positive);
+
+        try {
+            persistenceService.saveSentiment(text, sentiment, score, weakest);
+        } catch (Exception e) {
+            log.warn("Erro ao salvar análise no banco (continuando): {}", e.getMessage());
+        }
+
+        boolean degraded = weakest == InferenceStage.FALLBACK;
+        return new SentenceAnalysisResponseDTO(sentiment, score, text, degraded ? Boolean.TRUE : null, items);
+    }
+
+    /**
+     * Ordem dos estágios do mais fraco (contingência) ao mais forte (modelo completo).
+     */
+    private static int strength(InferenceStage stage) {
+        return switch (stage) {
+            case FALLBACK -> 0;
+            case LEXICON -> 1;
+            case CACHE -> 2;
+            case MODEL -> 3;
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Divide textos em frases em uma única passada, sem expressões regulares.
+ *
+ * Uma frase termina em quebra de linha ou em ! ? … (e . com as ressalvas
+ * abaixo) seguidos de espaço ou do fim do texto; aspas e parênteses de
+ * fechamento ficam com a frase. O ponto não encerra a frase quando:
+ * - vem colado no caractere seguinte (3.5, www.exemplo.com);
+ * - fecha uma abreviação conhecida em português ou inglês (Sr., Dra., etc.,
+ *   Mr., vs.) ou uma inicial (J., e.g.);
+ * - o texto continua em minúscula.
+ * Trechos sem letras nem dígitos ("...", "!!!") não viram frases.
+ */
+final class SentenceSplitter {
+
+    private static final Set<String> ABBREVIATIONS = Set.of(
+            // português
+            "sr", "sra", "srs", "sras", "srta", "dr", "dra", "drs", "prof", "profa", "exmo", "exma",
+            "av", "ex", "pág", "pag", "págs", "vol", "obs", "aprox", "tel", "cia", "ltda", "máx", "mín",
+            "etc", "núm", "num", "jr", "séc", "cap",
+            // inglês
+            "mr", "mrs", "ms", "st", "vs", "approx", "inc", "ltd", "co", "dept", "est", "fig");
+
+    private SentenceSplitter() {
+    }
+
+    /**
+     * Trecho [start, end) do texto original.
+     */
+    record Segment(int start, int end) {
+        String of(String text) {
+            return text.substring(start, end);
+        }
+    }
+
+    /**
+     * Divide o texto em no máximo maxSegments frases; o que passar do limite
+     * fica inteiro na última. Textos sem nenhuma frase válida voltam como um
+     * único trecho.
+     */
+    static List<Segment> split(String text, int maxSegments) {
+        int limit = Math.max(1, maxSegments);
+        int length = text.length();
+        List<Segment> segments = new ArrayList<>();
+        int start = skipSpaces(text, 0);
+
+        int i = start;
+        while (i < length && segments.size() < limit - 1) {
+            char c = text.charAt(i);
+            int end = -1;
+            if (c == '\n' || c == '\r') {
+                end = i;
+            } else if (c == '!' || c == '?' || c == '…' || c == '.') {
+                int j = i + 1;
+                while (j < length && isTerminal(text.charAt(j))) {
+                    j++;
+                }
+                while (j < length && isClosing(text.charAt(j))) {
+                    j++;
+                }
+                if (j == length || Character.isWhitespace(text.charAt(j))) {
+                    boolean singleDot = c == '.' && (i + 1 == length || !isTerminal(text.charAt(i + 1)));
+                    if (!singleDot || endsSentence(text, i, j)) {
+                        end = j;
+                    }
+                }
+                i = j - 1;
+            }
+            if (end >= 0) {
+                add(text, segments, start, end);
+                start = skipSpaces(text, end);
+                i = start;
+            } else {
+                i++;
+            }
+        }
+        add(text, segments, start, length);
+
+        if (segments.isEmpty()) {
+            int from = skipSpaces(text, 0);
+            segments.add(new Segment(from, trimEnd(text, from, length)));
+        }
+        return segments;
+    }
+
+    /**
+     * Decide se um ponto simples em dot encerra a frase; next é a posição
+     * logo após a pontuação e os fechamentos.
+     */
+    private static boolean endsSentence(String text, int dot, int next) {
+        int wordStart = dot;
+        while (wordStart > 0 && Character.isLetter(text.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        int wordLength = dot - wordStart;
+        if (wordLength == 1 && wordStart > 0 && text.charAt(wordStart - 1) == '.') {
+            return false; // e.g. / i.e. / p.ex.
+        }
+        if (wordLength == 1 && Character.isUpperCase(text.charAt(wordStart))) {
+            return false; // inicial de nome
+        }
+        if (wordLength > 0 && ABBREVIATIONS.contains(text.substring(wordStart, dot).toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        int following = skipSpaces(text, next);
+        return following == text.length() || !Character.isLowerCase(text.charAt(following));
+    }
+
+    private static void add(String text, List<Segment> segments, int start, int end) {
+        int trimmed = trimEnd(text, start, end);
+        for (int k = start; k < trimmed; k++) {
+            if (Character.isLetterOrDigit(text.charAt(k))) {
+                segments.add(new Segment(start, trimmed));
+                return;
+            }
+        }
+    }
+
+    private static int skipSpaces(String text, int from) {
+        while (from < text.length() && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(String text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isTerminal(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '…';
+    }
+
+    private static boolean isClosing(char c) {
+        return c == '"' || c == '\'' || c == ')' || c == ']' || c == '»' || c == '”' || c == '’';
+    }
+}
@@ -0,0 +1,52 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de inferência de sentimento.
+ *
+ * O {@link SentimentService} usa um motor principal (ONNX) e, quando ele está
+ * indisponível, sobrecarregado ou falhando, um motor de contingência mais
+ * barato, escolhido por um circuit breaker.
+ */
+public interface SentimentEngine {
+
+    /**
+     * Nome do motor, usado em logs.
+     */
+    String name();
+
+    /**
+     * Se o motor foi carregado e pode receber textos.
+     */
+    boolean isAvailable();
+
+    /**
+     * Versão do modelo do motor, usada como parte da chave do cache de inferência.
+     */
+    String version();
+
+    /**
+     * Classifica um texto.
+     *
+     * @throws com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException se a inferência falhar
+     */
+    SentimentResultDTO analyze(String text);
+
+    /**
+     * Classifica vários textos, com os resultados na mesma ordem.
+     * Motores que suportam lotes (ex: ONNX) fazem uma única chamada ao modelo.
+     *
+     * @throws com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException se a inferência falhar
+     */
+    default List<SentimentResultDTO> analyzeBatch(List<String> texts) {
+        List<SentimentResultDTO> results = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            results.add(analyze(text));
+        }
+        return results;
+    }
+}
@@ -1,37 +1,121 @@
 package com.hackaton_one.sentiment_api.service;
 
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
 import com.hackaton_one.sentiment_api.model.Sentiment;
 import com.hackaton_one.sentiment_api.repository.SentimentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SentimentPersistenceService {
 
+    // Limites do @Size de Sentiment.textContent
+    public static final int MIN_TEXT_LENGTH = 5;
+    public static final int MAX_TEXT_LENGTH = 5000;
+
     private final SentimentRepository sentimentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnalysisTextService textService;
+    private final ModelVariantRegistry modelVariants;
 
     /**
-     * Salva uma análise de sentimento no banco de dados.
+     * Salva uma análise de sentimento no banco de dados e publica um
+     * {@link SentimentSavedEvent} para os agregados mantidos em memória.
+     * O texto é armazenado uma única vez e referenciado pelo hash do conteúdo.
+     * A análise registra a versão do modelo da variante da requisição corrente,
+     * exceto respostas da contingência, que ficam sem versão.
+     *
+     * @param stage Estágio que produziu o resultado
      */
     @Transactional
-    public Sentiment saveSentiment(String text, String sentiment, double score) {
+    public Sentiment saveSentiment(String text, String sentiment, double score, InferenceStage stage) {
         try {
             Sentiment sentimentEntity = new Sentiment();
             sentimentEntity.setTextContent(text);
+            sentimentEntity.setTextHash(textService.store(text));
             sentimentEntity.setSentimentResult(sentiment.toUpperCase());
             sentimentEntity.setConfidenceScore(score);
-            
+            sentimentEntity.setModelVersion(versionFor(stage, currentModelVersion()));
+
             Sentiment saved = sentimentRepository.save(sentimentEntity);
             log.debug("Análise salva com sucesso: ID={}, Sentiment={}", saved.getId(), saved.getSentimentResult());
+            eventPublisher.publishEvent(new SentimentSavedEvent(saved));
             return saved;
         } catch (Exception e) {
             log.error("Erro ao salvar análise no banco: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao salvar análise", e);
         }
     }
-}
 
+    /**
+     * Salva várias análises em uma única transação, publicando um
+     * {@link SentimentSavedEvent} por análise. Textos fora do tamanho aceito
+     * pela entidade (5 a 5000 caracteres) são ignorados.
+     *
+     * @return Quantidade de análises salvas
+     */
+    @Transactional
+    public int saveSentiments(List<String> texts, List<SentimentResultDTO> results) {
+        String modelVersion = currentModelVersion();
+        List<Integer> storable = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            if (isStorable(texts.get(i))) {
+                storable.add(i);
+            }
+        }
+        // Textos novos do lote entram em um único comando
+        List<String> hashes = textService.storeAll(storable.stream().map(texts::get).toList());
+        List<Sentiment> entities = new ArrayList<>(storable.size());
+        for (int k = 0; k < storable.size(); k++) {
+            int i = storable.get(k);
+            String text = texts.get(i);
+            Sentiment sentimentEntity = new Sentiment();
+            sentimentEntity.setTextContent(text);
+            sentimentEntity.setTextHash(hashes.get(k));
+            sentimentEntity.setSentimentResult(results.get(i).previsao().toUpperCase());
+            sentimentEntity.setConfidenceScore(results.get(i).probabilidade());
+            sentimentEntity.setModelVersion(versionFor(results.get(i).estagio(), modelVersion));
+            entities.add(sentimentEntity);
+        }
+        if (entities.size() < texts.size()) {
+            log.debug("{} texts outside {}..{} characters were not saved",
+                    texts.size() - entities.size(), MIN_TEXT_LENGTH, MAX_TEXT_LENGTH);
+        }
+        for (Sentiment saved : sentimentRepository.saveAll(entities)) {
+            eventPublisher.publishEvent(new SentimentSavedEvent(saved));
+        }
+        return entities.size();
+    }
+
+    /**
+     * Indica se o texto tem o tamanho aceito pela entidade e pode ser salvo.
+     */
+    public static boolean isStorable(String text) {
+        return text != null && text.length() >= MIN_TEXT_LENGTH && text.length() <= MAX_TEXT_LENGTH;
+    }
+
+    /**
+     * Respostas da contingência ficam sem versão, para serem reavaliadas pelo modelo.
+     */
+    private static String versionFor(InferenceStage stage, String modelVersion) {
+        return stage == InferenceStage.FALLBACK ? null : modelVersion;
+    }
+
+    /**
+     * Versão do modelo da variante pedida pela requisição corrente; null se o
+     * modelo não estiver carregado (a análise será reavaliada depois).
+     */
+    private String currentModelVersion() {
+        return modelVariants.resolve(ModelVariantContext.current()).engine().version();
+    }
+}
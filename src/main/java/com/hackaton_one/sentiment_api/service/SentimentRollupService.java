@@ -0,0 +1,330 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.TimelineBucketDTO;
+import com.hackaton_one.sentiment_api.api.dto.TimelineGranularity;
+import com.hackaton_one.sentiment_api.model.RollupGranularity;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.model.SentimentRollup;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import com.hackaton_one.sentiment_api.repository.SentimentRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mantém a tabela de rollups por hora e por dia e serve a linha do tempo a partir dela.
+ *
+ * Cada análise salva acumula deltas em memória, gravados em lote a cada
+ * flush (statistics.rollup.flush-interval-ms). As consultas somam os deltas
+ * ainda pendentes, de modo que a linha do tempo do próprio nó é imediata.
+ * Se o processo cair antes de um flush, {@link #rebuild()} recalcula tudo
+ * a partir de tb_sentiments.
+ */
+@Slf4j
+@Service
+public class SentimentRollupService {
+
+    private final SentimentRollupRepository rollupRepository;
+    private final SentimentRepository sentimentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<BucketKey, Delta> pending = new ConcurrentHashMap<>();
+
+    public SentimentRollupService(
+            SentimentRollupRepository rollupRepository,
+            SentimentRepository sentimentRepository,
+            TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.sentimentRepository = sentimentRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Na primeira execução com dados pré-existentes, materializa os rollups.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (rollupRepository.count() == 0 && sentimentRepository.existsByIdIsNotNull()) {
+                log.info("Rollup table is empty, rebuilding from raw analyses...");
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Could not initialize statistics rollups: {}", e.getMessage());
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSentimentSaved(SentimentSavedEvent event) {
+        Sentiment sentiment = event.sentiment();
+        LocalDateTime analyzedAt = sentiment.getAnalyzedAt() != null ? sentiment.getAnalyzedAt() : LocalDateTime.now(ZoneOffset.UTC);
+        record(analyzedAt, sentiment.getSentimentResult(),
+                sentiment.getConfidenceScore() != null ? sentiment.getConfidenceScore() : 0.0);
+    }
+
+    /**
+     * Acumula uma análise nos buckets de hora e de dia correspondentes.
+     */
+    public void record(LocalDateTime analyzedAt, String sentiment, double confidence) {
+        pendingLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(BucketKey.hour(analyzedAt), k -> new Delta()).add(sentiment, confidence);
+            pending.computeIfAbsent(BucketKey.day(analyzedAt), k -> new Delta()).add(sentiment, confidence);
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grava os deltas pendentes na tabela de rollups.
+     */
+    @Scheduled(fixedDelayString = "${statistics.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<BucketKey, Delta> batch = drainPending();
+        for (Map.Entry<BucketKey, Delta> entry : batch.entrySet()) {
+            try {
+                apply(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                log.warn("Failed to flush rollup bucket {} (retrying on next flush): {}",
+                        entry.getKey(), e.getMessage());
+                requeue(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Recalcula todos os rollups a partir de tb_sentiments.
+     *
+     * Deltas pendentes são descartados, pois já estão nos dados brutos.
+     * Gravações concluídas durante a reconstrução podem ser contadas duas vezes.
+     */
+    public synchronized void rebuild() {
+        drainPending();
+
+        Map<BucketKey, Delta> buckets = new HashMap<>();
+        for (Object[] row : sentimentRepository.aggregateByHour()) {
+            LocalDateTime hour = LocalDateTime.of(
+                    ((Number) row[0]).intValue(),
+                    ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue(), 0);
+            String sentiment = (String) row[4];
+            long count = ((Number) row[5]).longValue();
+            double sum = row[6] != null ? ((Number) row[6]).doubleValue() : 0.0;
+
+            buckets.computeIfAbsent(BucketKey.hour(hour), k -> new Delta()).add(sentiment, count, sum);
+            buckets.computeIfAbsent(BucketKey.day(hour), k -> new Delta()).add(sentiment, count, sum);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteAllInBatch();
+            rollupRepository.saveAll(buckets.entrySet().stream()
+                    .map(e -> e.getValue().toEntity(e.getKey()))
+                    .toList());
+        });
+        log.info("Statistics rollups rebuilt: {} buckets", buckets.size());
+    }
+
+    /**
+     * Apaga os buckets anteriores a um instante, inclusive os deltas pendentes.
+     * Usado pela retenção de partições, para que os rollups não guardem
+     * períodos cujas análises brutas já foram removidas.
+     */
+    public synchronized void purgeBefore(LocalDateTime before) {
+        pendingLock.writeLock().lock();
+        try {
+            pending.keySet().removeIf(key -> key.bucketStart().isBefore(before));
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+        Integer deleted = transactionTemplate.execute(status -> rollupRepository.deleteByBucketStartBefore(before));
+        log.info("Purged {} rollup buckets before {}", deleted != null ? deleted : 0, before);
+    }
+
+    /**
+     * Retorna a linha do tempo no intervalo [from, to) com a granularidade pedida.
+     * Os horários das análises estão em UTC. Semanas são ISO (começam na
+     * segunda-feira, 00:00 UTC) e são somadas a partir dos buckets diários; o
+     * início do intervalo é recuado até a segunda-feira, para que a primeira
+     * semana venha completa.
+     */
+    public List<TimelineBucketDTO> getTimeline(LocalDateTime from, LocalDateTime to, TimelineGranularity granularity) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        RollupGranularity source = granularity == TimelineGranularity.HOUR ? RollupGranularity.HOUR : RollupGranularity.DAY;
+        LocalDateTime alignedFrom = granularity == TimelineGranularity.WEEK
+                ? weekStart(from)
+                : BucketKey.truncate(source, from);
+
+        TreeMap<LocalDateTime, Delta> timeline = new TreeMap<>();
+        for (SentimentRollup rollup : rollupRepository
+                .findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        source, alignedFrom, to)) {
+            timeline.computeIfAbsent(bucketStart(granularity, rollup.getBucketStart()), k -> new Delta())
+                    .add(rollup);
+        }
+        pendingLock.readLock().lock();
+        try {
+            pending.forEach((key, delta) -> {
+                if (key.granularity() == source && !key.bucketStart().isBefore(alignedFrom) && key.bucketStart().isBefore(to)) {
+                    timeline.computeIfAbsent(bucketStart(granularity, key.bucketStart()), k -> new Delta()).add(delta);
+                }
+            });
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+
+        List<TimelineBucketDTO> result = new ArrayList<>(timeline.size());
+        timeline.forEach((start, delta) -> result.add(delta.toDto(start)));
+        return result;
+    }
+
+    private LocalDateTime bucketStart(TimelineGranularity granularity, LocalDateTime start) {
+        return granularity == TimelineGranularity.WEEK ? weekStart(start) : start;
+    }
+
+    private static LocalDateTime weekStart(LocalDateTime at) {
+        return at.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+    }
+
+    private Map<BucketKey, Delta> drainPending() {
+        pendingLock.writeLock().lock();
+        try {
+            Map<BucketKey, Delta> batch = pending;
+            pending = new ConcurrentHashMap<>();
+            return batch;
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private void requeue(BucketKey key, Delta delta) {
+        pendingLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(key, k -> new Delta()).add(delta);
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private void apply(BucketKey key, Delta delta) {
+        try {
+            applyOnce(key, delta);
+        } catch (DataIntegrityViolationException e) {
+            // Outra réplica criou o bucket ao mesmo tempo: agora o UPDATE encontra a linha
+            applyOnce(key, delta);
+        }
+    }
+
+    private void applyOnce(BucketKey key, Delta delta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = rollupRepository.increment(key.granularity(), key.bucketStart(),
+                    delta.positive, delta.negative, delta.total,
+                    delta.positiveSum, delta.negativeSum, delta.confidenceSum);
+            if (updated == 0) {
+                rollupRepository.saveAndFlush(delta.toEntity(key));
+            }
+        });
+    }
+
+    record BucketKey(RollupGranularity granularity, LocalDateTime bucketStart) {
+        static BucketKey hour(LocalDateTime at) {
+            return new BucketKey(RollupGranularity.HOUR, truncate(RollupGranularity.HOUR, at));
+        }
+
+        static BucketKey day(LocalDateTime at) {
+            return new BucketKey(RollupGranularity.DAY, truncate(RollupGranularity.DAY, at));
+        }
+
+        static LocalDateTime truncate(RollupGranularity granularity, LocalDateTime at) {
+            return at.truncatedTo(granularity == RollupGranularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+        }
+    }
+
+    /**
+     * Acumulador de contagens e somas de confiança de um bucket.
+     */
+    private static final class Delta {
+        private long positive;
+        private long negative;
+        private long total;
+        private double positiveSum;
+        private double negativeSum;
+        private double confidenceSum;
+
+        synchronized void add(String sentiment, double confidence) {
+            add(sentiment, 1, confidence);
+        }
+
+        synchronized void add(String sentiment, long count, double sum) {
+            if (StatisticsCounters.POSITIVE.equals(sentiment)) {
+                positive += count;
+                positiveSum += sum;
+            } else if (StatisticsCounters.NEGATIVE.equals(sentiment)) {
+                negative += count;
+                negativeSum += sum;
+            }
+            total += count;
+            confidenceSum += sum;
+        }
+
+        synchronized void add(Delta other) {
+            synchronized (other) {
+                positive += other.positive;
+                negative += other.negative;
+                total += other.total;
+                positiveSum += other.positiveSum;
+                negativeSum += other.negativeSum;
+                confidenceSum += other.confidenceSum;
+            }
+        }
+
+        void add(SentimentRollup rollup) {
+            positive += rollup.getPositiveCount();
+            negative += rollup.getNegativeCount();
+            total += rollup.getTotalCount();
+            positiveSum += rollup.getPositiveConfidenceSum();
+            negativeSum += rollup.getNegativeConfidenceSum();
+            confidenceSum += rollup.getConfidenceSum();
+        }
+
+        SentimentRollup toEntity(BucketKey key) {
+            return new SentimentRollup(null, key.granularity(), key.bucketStart(),
+                    positive, negative, total, positiveSum, negativeSum, confidenceSum);
+        }
+
+        TimelineBucketDTO toDto(LocalDateTime start) {
+            return new TimelineBucketDTO(start, positive, negative, total,
+                    total > 0 ? confidenceSum / total * 100 : 0.0);
+        }
+    }
+}
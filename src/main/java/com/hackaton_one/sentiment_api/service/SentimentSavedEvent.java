@@ -0,0 +1,10 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.model.Sentiment;
+
+/**
+ * Evento publicado quando uma análise é salva no banco de dados.
+ *
+ * @param sentiment Entidade persistida
+ */
+public record SentimentSavedEvent(Sentiment sentiment) {}
@@ -1,156 +1,283 @@
 package com.hackaton_one.sentiment_api.service;
-import ai.onnxruntime.OnnxTensor;
-import ai.onnxruntime.OrtEnvironment;
-import ai.onnxruntime.OrtSession;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
 import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
 import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
-import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
-import lombok.Getter;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
- * Serviço para realizar inferência de análise de sentimento
- * utilizando um modelo ONNX com ONNX Runtime.
+ * Serviço para realizar inferência de análise de sentimento.
  *
- * Responsável por carregar o modelo ONNX, preparar os dados de entrada,
- * executar a inferência e retornar os resultados.
+ * A inferência é delegada ao {@link SentimentEngine} da variante de modelo
+ * pedida pela requisição ({@link ModelVariantRegistry}). Quando ele está
+ * indisponível, com a fila de inferência acima do limite ou com o circuit
+ * breaker da variante aberto por falhas seguidas, os textos são respondidos
+ * pelo motor de contingência e marcados como degradados, em vez de falharem.
+ * Respostas do modelo podem ainda ser reavaliadas em sombra por um modelo
+ * candidato ({@link ShadowEvaluator}), sem afetar a resposta.
+ *
+ * Todo texto passa antes pelo {@link TextNormalizer}, que limita o custo da
+ * inferência; cascata, cache e modelos recebem só o texto normalizado.
  */
 @Slf4j
 @Service
 public class SentimentService {
-    private OrtEnvironment env;
-    private OrtSession session;
-
-    @Value("${sentiment.model.path:models/sentiment_model.onnx}")
-    private String modelPath;
-
-    @Getter
-    private boolean modelAvailable = false;
 
     private final SentimentPersistenceService persistenceService;
-
-    public SentimentService(SentimentPersistenceService persistenceService) {
+    private final TenantQuotaService tenantQuotaService;
+    private final FairInferenceScheduler inferenceScheduler;
+    private final InferenceCache inferenceCache;
+    private final ModelCascade modelCascade;
+    private final ModelVariantRegistry modelVariants;
+    private final SentimentEngine fallbackEngine;
+    private final ShadowEvaluator shadowEvaluator;
+    private final TextNormalizer textNormalizer;
+
+    // Fila de inferência a partir da qual os textos vão direto para a contingência (0 = desativado)
+    @Value("${fallback.max-queue-depth:64}")
+    private int fallbackQueueDepth = 64;
+
+    // Máximo de textos por tensor nas análises em lote
+    @Value("${bulk.inference-batch-size:64}")
+    private int inferenceBatchSize = 64;
+
+    public SentimentService(
+            SentimentPersistenceService persistenceService,
+            TenantQuotaService tenantQuotaService,
+            FairInferenceScheduler inferenceScheduler,
+            InferenceCache inferenceCache,
+            ModelCascade modelCascade,
+            ModelVariantRegistry modelVariants,
+            @Qualifier("lexiconEngine") SentimentEngine fallbackEngine,
+            ShadowEvaluator shadowEvaluator,
+            TextNormalizer textNormalizer) {
         this.persistenceService = persistenceService;
+        this.tenantQuotaService = tenantQuotaService;
+        this.inferenceScheduler = inferenceScheduler;
+        this.inferenceCache = inferenceCache;
+        this.modelCascade = modelCascade;
+        this.modelVariants = modelVariants;
+        this.fallbackEngine = fallbackEngine;
+        this.shadowEvaluator = shadowEvaluator;
+        this.textNormalizer = textNormalizer;
     }
 
-    @PostConstruct
-    public void init() {
-        try {
-            log.info("Initializing ONNX Runtime...");
-
-            // 1. Validate file existence on disk
-            File modelFile = new File(modelPath);
-            if (!modelFile.exists()) {
-                log.error("CRITICAL: ONNX model file NOT found at: " + modelFile.getAbsolutePath());
-                log.error("The application requires the model file at this specific path to run efficiently.");
-                this.modelAvailable = false;
-                return;
-            }
-
-            // 2. Initialize Environment
-            this.env = OrtEnvironment.getEnvironment();
-
-            // 3. Set Session Options
-            OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
-            opts.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.BASIC_OPT);
-
-            // 4. Load Model directly from Disk (Zero-Copy / Memory Mapped)
-            // This is crucial for low-RAM environments. It avoids loading a huge byte[] into Java Heap.
-            this.session = env.createSession(modelPath, opts);
+    public boolean isModelAvailable() {
+        return modelVariants.getDefaultModel().engine().isAvailable();
+    }
 
-            this.modelAvailable = true;
-            log.info("ONNX model loaded successfully from disk: " + modelPath);
+    /**
+     * Versão do modelo padrão, usada como parte da chave do cache de inferência.
+     */
+    public String getModelVersion() {
+        return modelVariants.getDefaultModel().engine().version();
+    }
 
-        } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("Unsupported model IR version")) {
-                log.error("Version mismatch: The ONNX model requires a newer ONNX Runtime or needs to be converted.");
-            }
-            log.error("Fatal error loading ONNX model: {}", e.getMessage(), e);
-            this.modelAvailable = false;
-            this.env = null;
-            this.session = null;
-        }
+    /**
+     * Se os textos da variante padrão estão sendo respondidos pelo motor de contingência.
+     */
+    public boolean isDegraded() {
+        ModelVariant model = modelVariants.getDefaultModel();
+        return fallbackEngine.isAvailable()
+                && (!model.engine().isAvailable()
+                || model.circuitBreaker().getState() != EngineCircuitBreaker.State.CLOSED);
     }
 
     /**
      * Analisa o sentimento de um texto.
-     * 
-     * @param text Texto a ser analisado
-     * @return SentimentResultDTO com previsao e probabilidade
+     * A variante de modelo vem da requisição (padrão: sentiment.model.default-variant).
+     * A cota do tenant corrente é consumida. Com a cascata ativa, textos que o
+     * primeiro estágio classifica com confiança suficiente não chegam ao modelo;
+     * dos demais, resultados já conhecidos vêm do cache de inferência e o resto
+     * aguarda sua vez na fila justa entre tenants.
+     *
+     * @param rawText Texto a ser analisado
+     * @return SentimentResultDTO com previsao, probabilidade e o estágio que respondeu
      */
-    public SentimentResultDTO analyze(String text) {
-        String[] inputData = new String[]{ text };
-        long[] shape = new long[]{ 1, 1 };
-
-        String inputName = session.getInputNames().iterator().next();
+    public SentimentResultDTO analyze(String rawText) {
+        String text = textNormalizer.normalize(rawText);
+        ModelVariant variant = modelVariants.resolve(ModelVariantContext.current());
+        SentimentEngine engine = variant.engine();
+        EngineCircuitBreaker circuitBreaker = variant.circuitBreaker();
+
+        String tenant = TenantContext.current();
+        if (tenant != null) {
+            tenantQuotaService.consume(tenant, 1);
+        }
 
-        try (OnnxTensor tensor = OnnxTensor.createTensor(env, inputData, shape)) {
-            Map<String, OnnxTensor> inputs = Collections.singletonMap(inputName, tensor);
+        Optional<SentimentResultDTO> firstStage = modelCascade.firstStage(text);
+        if (firstStage.isPresent()) {
+            return firstStage.get();
+        }
 
-            // 5. Run inference
-            try (OrtSession.Result results = session.run(inputs)) {
-                // 6. Extract output
-                String[] labels = (String[]) results.get(0).getValue();
-                String previsao = labels[0];
+        String modelVersion = engine.version();
+        Optional<SentimentResultDTO> cached = inferenceCache.get(text, modelVersion);
+        if (cached.isPresent()) {
+            shadowEvaluator.offer(text, variant, cached.get(), -1);
+            return cached.get().withStage(InferenceStage.CACHE);
+        }
 
-                // Get the probability map - ONNX Runtime returns OnnxSequence containing OnnxMaps
-                Object probsObj = results.get(1).getValue();
+        if (!fallbackEngine.isAvailable()) {
+            Timed<SentimentResultDTO> timed = runPrimary(tenant, text, variant);
+            inferenceCache.put(text, modelVersion, timed.value());
+            shadowEvaluator.offer(text, variant, timed.value(), timed.elapsedNanos());
+            return timed.value();
+        }
+        if (!engine.isAvailable() || isQueueSaturated() || !circuitBreaker.allowRequest()) {
+            return fallbackEngine.analyze(text);
+        }
 
-                // Convert to List of OnnxMap
-                @SuppressWarnings("unchecked")
-                List<ai.onnxruntime.OnnxMap> probsList = (List<ai.onnxruntime.OnnxMap>) probsObj;
+        Timed<SentimentResultDTO> timed;
+        try {
+            timed = runPrimary(tenant, text, variant);
+        } catch (RuntimeException e) {
+            // Qualquer falha conta para o circuito, inclusive as inesperadas (ex: NPE
+            // no decodificador); senão a chamada de teste do meio aberto ficaria presa
+            circuitBreaker.recordFailure();
+            log.warn("Primary engine failed, answering with the fallback engine: {}", e.toString());
+            return fallbackEngine.analyze(text);
+        }
+        circuitBreaker.recordSuccess();
+        inferenceCache.put(text, modelVersion, timed.value());
+        shadowEvaluator.offer(text, variant, timed.value(), timed.elapsedNanos());
+        return timed.value();
+    }
 
-                // Get the first map
-                ai.onnxruntime.OnnxMap onnxMap = probsList.get(0);
+    /**
+     * Analisa vários textos, com os resultados na ordem de entrada.
+     *
+     * Mesmo fluxo de {@link #analyze}, mas a cota é consumida de uma vez, textos
+     * repetidos (após a normalização) passam uma única vez pelo modelo e os que chegam a ele são
+     * agrupados em tensores de até bulk.inference-batch-size linhas: cada grupo
+     * é uma única chamada ao modelo, com uma única vaga da fila justa.
+     *
+     * @param texts Textos a serem analisados
+     * @return Um resultado por texto, na mesma ordem
+     */
+    public List<SentimentResultDTO> analyzeBatch(List<String> texts) {
+        ModelVariant variant = modelVariants.resolve(ModelVariantContext.current());
+        String modelVersion = variant.engine().version();
 
-                // Convert OnnxMap to java.util.Map using the getValue method
-                @SuppressWarnings("unchecked")
-                Map<String, Float> mapProbability = (Map<String, Float>) onnxMap.getValue();
+        String tenant = TenantContext.current();
+        if (tenant != null) {
+            tenantQuotaService.consume(tenant, texts.size());
+        }
 
-                float probabilidade = mapProbability.get(previsao);
+        SentimentResultDTO[] results = new SentimentResultDTO[texts.size()];
+        // Texto ainda sem resultado -> posições em que aparece no lote
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = textNormalizer.normalize(texts.get(i));
+            List<Integer> positions = pending.get(text);
+            if (positions != null) {
+                positions.add(i);
+                continue;
+            }
+            Optional<SentimentResultDTO> firstStage = modelCascade.firstStage(text);
+            if (firstStage.isPresent()) {
+                results[i] = firstStage.get();
+                continue;
+            }
+            Optional<SentimentResultDTO> cached = inferenceCache.get(text, modelVersion);
+            if (cached.isPresent()) {
+                results[i] = cached.get().withStage(InferenceStage.CACHE);
+                continue;
+            }
+            pending.computeIfAbsent(text, k -> new ArrayList<>()).add(i);
+        }
 
-                // Valida o sentimento retornado pelo modelo
-                String previsaoUpper = previsao.toUpperCase().trim();
+        List<String> misses = new ArrayList<>(pending.keySet());
+        int batchSize = Math.max(1, inferenceBatchSize);
+        for (int from = 0; from < misses.size(); from += batchSize) {
+            List<String> chunk = misses.subList(from, Math.min(misses.size(), from + batchSize));
+            List<SentimentResultDTO> chunkResults = analyzeChunk(tenant, chunk, variant, modelVersion);
+            for (int j = 0; j < chunk.size(); j++) {
+                for (int position : pending.get(chunk.get(j))) {
+                    results[position] = chunkResults.get(j);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
 
-                // Aceita apenas POSITIVE / NEGATIVE ou POSITIVO / NEGATIVO
-                if (!previsaoUpper.equals("POSITIVE")
-                        && !previsaoUpper.equals("NEGATIVE")
-                        && !previsaoUpper.equals("POSITIVO")
-                        && !previsaoUpper.equals("NEGATIVO")) {
+    private List<SentimentResultDTO> analyzeChunk(String tenant, List<String> texts, ModelVariant variant,
+                                                  String modelVersion) {
+        EngineCircuitBreaker circuitBreaker = variant.circuitBreaker();
+        List<SentimentResultDTO> results;
+        if (!fallbackEngine.isAvailable()) {
+            results = runPrimary(tenant, texts, variant).value();
+        } else if (!variant.engine().isAvailable() || isQueueSaturated() || !circuitBreaker.allowRequest()) {
+            return fallbackEngine.analyzeBatch(texts);
+        } else {
+            try {
+                results = runPrimary(tenant, texts, variant).value();
+            } catch (RuntimeException e) {
+                circuitBreaker.recordFailure();
+                log.warn("Primary engine failed on a batch of {} texts, answering with the fallback engine: {}",
+                        texts.size(), e.toString());
+                return fallbackEngine.analyzeBatch(texts);
+            }
+            circuitBreaker.recordSuccess();
+        }
+        for (int i = 0; i < texts.size(); i++) {
+            inferenceCache.put(texts.get(i), modelVersion, results.get(i));
+            shadowEvaluator.offer(texts.get(i), variant, results.get(i), -1);
+        }
+        return results;
+    }
 
-                    log.warn("Sentimento inesperado retornado pelo modelo: {}", previsaoUpper);
-                    throw new ModelAnalysisException(
-                            "Modelo retornou sentimento não suportado: " + previsaoUpper
-                    );
-                }
+    private boolean isQueueSaturated() {
+        return fallbackQueueDepth > 0 && inferenceScheduler.getQueueDepth() >= fallbackQueueDepth;
+    }
 
-                // Padroniza o sentimento para português
-                String sentimentoFinal =
-                        (previsaoUpper.equals("POSITIVE") || previsaoUpper.equals("POSITIVO"))
-                                ? "POSITIVO"
-                                : "NEGATIVO";
+    private Timed<SentimentResultDTO> runPrimary(String tenant, String text, ModelVariant variant) {
+        return runOnModel(tenant, 1, variant, () -> variant.engine().analyze(text));
+    }
 
-                return new SentimentResultDTO(sentimentoFinal, probabilidade);
+    private Timed<List<SentimentResultDTO>> runPrimary(String tenant, List<String> texts, ModelVariant variant) {
+        return runOnModel(tenant, texts.size(), variant, () -> variant.engine().analyzeBatch(texts));
+    }
 
-            } catch (Exception e){
-                log.error("Failed to run inference: {}", e.getMessage(), e);
-                throw new ModelAnalysisException("Failed to run inference: " + e.getMessage(), e);
+    /**
+     * Executa a inferência quando o tenant receber uma vaga, medindo a latência
+     * da variante e o uso do tenant.
+     */
+    private <T> Timed<T> runOnModel(String tenant, int texts, ModelVariant variant, Supplier<T> inference) {
+        return inferenceScheduler.execute(tenant, texts, () -> {
+            long start = System.nanoTime();
+            T result = null;
+            long elapsed;
+            try {
+                result = inference.get();
+            } finally {
+                elapsed = System.nanoTime() - start;
+                if (result != null) {
+                    variant.recordInference(elapsed);
+                } else {
+                    variant.recordFailure();
+                }
+                if (tenant != null) {
+                    tenantQuotaService.recordInference(tenant, texts, elapsed);
+                }
             }
-        } catch (Exception e){
-            log.error("Failed to prepare tensor for inference: {}", e.getMessage(), e);
-            throw new ModelAnalysisException("Failed to prepare tensor for inference: " + e.getMessage(), e);
-        }
+            return new Timed<>(result, elapsed);
+        });
     }
 
+    private record Timed<T>(T value, long elapsedNanos) {}
+
     /**
      * Analisa o sentimento de um texto e persiste o resultado no banco de dados.
      * Este método encapsula toda a lógica de negócio, incluindo:
@@ -168,21 +295,11 @@ public class SentimentService {
         double score = result.probabilidade();
 
         try {
-            persistenceService.saveSentiment(text, sentiment, score);
+            persistenceService.saveSentiment(text, sentiment, score, result.estagio());
         } catch (Exception e) {
             log.warn("Erro ao salvar análise no banco (continuando): {}", e.getMessage());
         }
 
-        return new SentimentResponseDTO(sentiment, score, text);
-    }
-
-    @PreDestroy
-    public void cleanup(){
-        try {
-            if (session != null) session.close();
-            if (env != null) env.close();
-        } catch (Exception e){
-            log.error("Error during ONNX Runtime cleanup: {}", e.getMessage(), e);
-        }
+        return new SentimentResponseDTO(sentiment, score, text, result.estagio());
     }
 }
@@ -0,0 +1,209 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.api.dto.ShadowStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Avaliação em sombra de um modelo candidato com tráfego real.
+ *
+ * Uma amostra das requisições respondidas pelo modelo principal é
+ * reavaliada pela variante candidata (shadow.candidate-variant) em uma
+ * thread de baixa prioridade, fora do caminho da resposta. São medidas a
+ * taxa de desacordo e a diferença de latência entre os dois modelos.
+ *
+ * A sombra é a primeira carga descartada: nada é enfileirado enquanto houver
+ * requisições aguardando vaga de inferência, a fila própria é limitada e
+ * cheia descarta novas amostras, e cada reavaliação só roda se pegar uma vaga
+ * livre do {@link FairInferenceScheduler} sem esperar.
+ *
+ * A sombra tem circuit breaker e métricas próprios: falhas do candidato aqui
+ * não abrem o circuito nem alteram as métricas da variante no tráfego real.
+ */
+@Slf4j
+@Service
+public class ShadowEvaluator {
+
+    private final ModelVariantRegistry modelVariants;
+    private final FairInferenceScheduler inferenceScheduler;
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder disagreements = new LongAdder();
+    private final LatencyHistogram shadowLatency = new LatencyHistogram();
+    private final LatencyHistogram primaryLatency = new LatencyHistogram();
+    // Soma das diferenças (candidato - principal) nas requisições em que o principal rodou o modelo
+    private final LongAdder latencyDeltaNanos = new LongAdder();
+
+    @Value("${shadow.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shadow.candidate-variant:}")
+    private String candidateVariant = "";
+
+    @Value("${shadow.sample-rate:0.05}")
+    private double sampleRate = 0.05;
+
+    @Value("${shadow.max-queue-depth:100}")
+    private int maxQueueDepth = 100;
+
+    // Requisições aguardando inferência a partir das quais a sombra é descartada
+    @Value("${shadow.shed-inference-queue-depth:1}")
+    private int shedQueueDepth = 1;
+
+    @Value("${circuit-breaker.failure-threshold:5}")
+    private int failureThreshold = 5;
+
+    @Value("${circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs = 30000;
+
+    private ModelVariant candidate;
+    private EngineCircuitBreaker circuitBreaker;
+    private ThreadPoolExecutor executor;
+
+    public ShadowEvaluator(ModelVariantRegistry modelVariants, FairInferenceScheduler inferenceScheduler) {
+        this.modelVariants = modelVariants;
+        this.inferenceScheduler = inferenceScheduler;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("shadow.sample-rate must be in (0, 1], got " + sampleRate);
+        }
+        if (candidateVariant == null || candidateVariant.isBlank()) {
+            log.warn("Shadow mode enabled without shadow.candidate-variant, disabling it");
+            enabled = false;
+            return;
+        }
+        try {
+            candidate = modelVariants.resolve(candidateVariant);
+        } catch (IllegalArgumentException e) {
+            log.warn("Shadow mode disabled: {}", e.getMessage());
+            enabled = false;
+            return;
+        }
+        circuitBreaker = new EngineCircuitBreaker(failureThreshold, openDurationMs);
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueueDepth)),
+                task -> {
+                    Thread thread = new Thread(task, "shadow-inference");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                (task, pool) -> shed.increment());
+        log.info("Shadow mode enabled: {} of the traffic is re-scored by variant '{}'", sampleRate, candidateVariant);
+    }
+
+    /**
+     * Sorteia a requisição para reavaliação em sombra. Nunca bloqueia nem falha.
+     *
+     * @param primary       Variante que respondeu a requisição
+     * @param primaryResult Resposta do modelo principal
+     * @param primaryNanos  Latência de inferência do principal (-1 se veio do cache)
+     */
+    public void offer(String text, ModelVariant primary, SentimentResultDTO primaryResult, long primaryNanos) {
+        if (!enabled || primary == candidate || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        sampled.increment();
+        if (isUnderLoad()) {
+            shed.increment();
+            return;
+        }
+        // Com a fila cheia, o rejection handler conta o descarte
+        executor.execute(() -> evaluate(text, primaryResult, primaryNanos));
+    }
+
+    private boolean isUnderLoad() {
+        return shedQueueDepth > 0 && inferenceScheduler.getQueueDepth() >= shedQueueDepth;
+    }
+
+    private void evaluate(String text, SentimentResultDTO primaryResult, long primaryNanos) {
+        // A carga pode ter subido enquanto a amostra estava na fila
+        if (isUnderLoad() || !candidate.engine().isAvailable()
+                || !inferenceScheduler.tryExecute(() -> runCandidate(text, primaryResult, primaryNanos))) {
+            shed.increment();
+        }
+    }
+
+    private void runCandidate(String text, SentimentResultDTO primaryResult, long primaryNanos) {
+        if (!circuitBreaker.allowRequest()) {
+            shed.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        SentimentResultDTO shadowResult;
+        try {
+            shadowResult = candidate.engine().analyze(text);
+        } catch (RuntimeException e) {
+            failures.increment();
+            circuitBreaker.recordFailure();
+            log.debug("Shadow inference failed on variant '{}': {}", candidate.name(), e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        circuitBreaker.recordSuccess();
+
+        if (!shadowResult.previsao().equals(primaryResult.previsao())) {
+            disagreements.increment();
+        }
+        shadowLatency.record(elapsed);
+        if (primaryNanos >= 0) {
+            primaryLatency.record(primaryNanos);
+            latencyDeltaNanos.add(elapsed - primaryNanos);
+        }
+    }
+
+    public ShadowStatsDTO getStats() {
+        long compared = shadowLatency.count();
+        long disagreed = disagreements.sum();
+        long paired = primaryLatency.count();
+        return new ShadowStatsDTO(
+                enabled,
+                candidateVariant,
+                sampleRate,
+                sampled.sum(),
+                shed.sum(),
+                compared,
+                failures.sum(),
+                executor != null ? executor.getQueue().size() : 0,
+                disagreed,
+                compared > 0 ? (double) disagreed / compared : 0.0,
+                primaryLatency.meanMillis(),
+                shadowLatency.meanMillis(),
+                paired > 0 ? latencyDeltaNanos.sum() / (double) paired / 1_000_000 : 0.0,
+                shadowLatency.percentileMillis(0.95));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache de um único valor pré-calculado, reconstruído apenas quando a versão
+ * dos dados muda ou o intervalo de atualização expira.
+ *
+ * O ETag é um resumo (SHA-256) do conteúdo serializado: réplicas e reinícios
+ * com os mesmos dados produzem o mesmo ETag, e um cliente em polling atrás de
+ * um balanceador continua recebendo 304 em qualquer réplica. Se a
+ * reconstrução produz o mesmo conteúdo, o ETag e o Last-Modified são mantidos.
+ */
+public class SnapshotCache<T> {
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final LongSupplier versionSource;
+    private final long refreshIntervalNanos;
+    private final Function<T, byte[]> serializer;
+
+    private volatile Entry<T> current;
+
+    /**
+     * @param serializer Forma canônica do conteúdo, da qual o ETag é derivado
+     */
+    public SnapshotCache(String name, Supplier<T> loader, LongSupplier versionSource, long refreshIntervalMs,
+                         Function<T, byte[]> serializer) {
+        this.name = name;
+        this.loader = loader;
+        this.versionSource = versionSource;
+        this.refreshIntervalNanos = refreshIntervalMs * 1_000_000L;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Retorna o snapshot atual, reconstruindo-o se estiver desatualizado.
+     * Apenas uma thread reconstrói por vez; as demais aguardam o resultado.
+     */
+    public VersionedSnapshot<T> get() {
+        Entry<T> entry = current;
+        if (isFresh(entry, versionSource.getAsLong())) {
+            return entry.snapshot;
+        }
+
+        synchronized (this) {
+            entry = current;
+            long version = versionSource.getAsLong();
+            if (isFresh(entry, version)) {
+                return entry.snapshot;
+            }
+
+            T value = loader.get();
+            VersionedSnapshot<T> snapshot;
+            if (entry != null && Objects.equals(entry.snapshot.value(), value)) {
+                snapshot = entry.snapshot;
+            } else {
+                snapshot = new VersionedSnapshot<>(value, "\"" + name + "-" + digest(value) + "\"", Instant.now());
+            }
+            current = new Entry<>(snapshot, version, System.nanoTime());
+            return snapshot;
+        }
+    }
+
+    /**
+     * Força a reconstrução na próxima leitura.
+     */
+    public void invalidate() {
+        Entry<T> entry = current;
+        if (entry != null) {
+            current = new Entry<>(entry.snapshot, Long.MIN_VALUE, entry.builtAtNanos);
+        }
+    }
+
+    private String digest(T value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(serializer.apply(value));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean isFresh(Entry<T> entry, long version) {
+        return entry != null
+                && entry.sourceVersion == version
+                && System.nanoTime() - entry.builtAtNanos < refreshIntervalNanos;
+    }
+
+    private record Entry<T>(VersionedSnapshot<T> snapshot, long sourceVersion, long builtAtNanos) {}
+}
@@ -0,0 +1,159 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de estatísticas mantidos em memória.
+ *
+ * Os totais são semeados por uma única consulta agregada na inicialização e
+ * incrementados a cada análise salva (após o commit). Os incrementos usam
+ * LongAdder/DoubleAdder, que distribuem a contenção entre células por thread.
+ *
+ * Em implantações com várias réplicas, cada nó só enxerga as próprias
+ * gravações; a reconciliação periódica recarrega os totais do banco.
+ */
+@Slf4j
+@Component
+public class StatisticsCounters {
+
+    public static final String POSITIVE = "POSITIVO";
+    public static final String NEGATIVE = "NEGATIVO";
+
+    private final SentimentRepository sentimentRepository;
+
+    private volatile Window window = new Window(Snapshot.EMPTY);
+
+    public StatisticsCounters(SentimentRepository sentimentRepository) {
+        this.sentimentRepository = sentimentRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Could not seed statistics counters (retrying on next reconciliation): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega os totais a partir do banco de dados.
+     *
+     * Gravações que terminarem durante a consulta podem ficar de fora até a
+     * próxima reconciliação.
+     */
+    @Scheduled(
+            initialDelayString = "${statistics.reconcile-interval-ms:60000}",
+            fixedDelayString = "${statistics.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        Snapshot base = load(sentimentRepository.aggregateBySentiment());
+        this.window = new Window(base);
+        log.debug("Statistics counters reconciled: total={}", base.total());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSentimentSaved(SentimentSavedEvent event) {
+        Sentiment sentiment = event.sentiment();
+        record(sentiment.getSentimentResult(),
+                sentiment.getConfidenceScore() != null ? sentiment.getConfidenceScore() : 0.0);
+    }
+
+    /**
+     * Registra uma análise nos contadores.
+     */
+    public void record(String sentiment, double confidence) {
+        Window current = window;
+        Bucket bucket = POSITIVE.equals(sentiment) ? current.positive
+                : NEGATIVE.equals(sentiment) ? current.negative
+                : current.other;
+        bucket.count.increment();
+        bucket.confidenceSum.add(confidence);
+    }
+
+    /**
+     * Retorna uma fotografia consistente o suficiente para exibição dos totais.
+     */
+    public Snapshot snapshot() {
+        Window current = window;
+        Snapshot base = current.base;
+        return new Snapshot(
+                base.positive() + current.positive.count.sum(),
+                base.negative() + current.negative.count.sum(),
+                base.other() + current.other.count.sum(),
+                base.positiveConfidenceSum() + current.positive.confidenceSum.sum(),
+                base.negativeConfidenceSum() + current.negative.confidenceSum.sum(),
+                base.otherConfidenceSum() + current.other.confidenceSum.sum()
+        );
+    }
+
+    private Snapshot load(List<Object[]> rows) {
+        long positive = 0, negative = 0, other = 0;
+        double positiveSum = 0, negativeSum = 0, otherSum = 0;
+        for (Object[] row : rows) {
+            long count = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+            double sum = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+            if (POSITIVE.equals(row[0])) {
+                positive += count;
+                positiveSum += sum;
+            } else if (NEGATIVE.equals(row[0])) {
+                negative += count;
+                negativeSum += sum;
+            } else {
+                other += count;
+                otherSum += sum;
+            }
+        }
+        return new Snapshot(positive, negative, other, positiveSum, negativeSum, otherSum);
+    }
+
+    /**
+     * Totais de análises e somas de confiança por sentimento.
+     */
+    public record Snapshot(
+            long positive,
+            long negative,
+            long other,
+            double positiveConfidenceSum,
+            double negativeConfidenceSum,
+            double otherConfidenceSum
+    ) {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0);
+
+        public long total() {
+            return positive + negative + other;
+        }
+
+        public double confidenceSum() {
+            return positiveConfidenceSum + negativeConfidenceSum + otherConfidenceSum;
+        }
+    }
+
+    private static final class Window {
+        private final Snapshot base;
+        private final Bucket positive = new Bucket();
+        private final Bucket negative = new Bucket();
+        private final Bucket other = new Bucket();
+
+        private Window(Snapshot base) {
+            this.base = base;
+        }
+    }
+
+    private static final class Bucket {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder confidenceSum = new DoubleAdder();
+    }
+}
@@ -2,71 +2,66 @@ package com.hackaton_one.sentiment_api.service;
 
 import com.hackaton_one.sentiment_api.api.dto.DailyStatisticsDTO;
 import com.hackaton_one.sentiment_api.api.dto.StatisticsDTO;
-import com.hackaton_one.sentiment_api.repository.SentimentRepository;
-import lombok.RequiredArgsConstructor;
+import com.hackaton_one.sentiment_api.api.dto.TimelineBucketDTO;
+import com.hackaton_one.sentiment_api.api.dto.TimelineGranularity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class StatisticsService {
 
-    private final SentimentRepository sentimentRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final SentimentRollupService rollupService;
+    private final AnalysisChangeTracker changeTracker;
+    private final SnapshotCache<StatisticsDTO> statisticsSnapshot;
+
+    public StatisticsService(
+            StatisticsCounters statisticsCounters,
+            SentimentRollupService rollupService,
+            AnalysisChangeTracker changeTracker) {
+        this.statisticsCounters = statisticsCounters;
+        this.rollupService = rollupService;
+        this.changeTracker = changeTracker;
+        this.statisticsSnapshot = changeTracker.newSnapshotCache("stats", this::getStatistics);
+    }
+
+    /**
+     * Retorna as estatísticas pré-calculadas com ETag e Last-Modified.
+     * Só recalcula quando novas análises foram gravadas ou o intervalo de atualização expirou.
+     */
+    public VersionedSnapshot<StatisticsDTO> getStatisticsSnapshot() {
+        return statisticsSnapshot.get();
+    }
 
     /**
      * Calcula estatísticas agregadas de todos os sentimentos.
+     * Os totais e médias vêm dos contadores em memória, sem consultar a tabela.
      */
     public StatisticsDTO getStatistics() {
-        long total = sentimentRepository.count();
-        long positive = sentimentRepository.countBySentimentResult("POSITIVO");
-        long negative = sentimentRepository.countBySentimentResult("NEGATIVO");
+        StatisticsCounters.Snapshot snapshot = statisticsCounters.snapshot();
+        long total = snapshot.total();
+        long positive = snapshot.positive();
+        long negative = snapshot.negative();
 
         double positivePercentage = total > 0 ? (positive * 100.0 / total) : 0.0;
         double negativePercentage = total > 0 ? (negative * 100.0 / total) : 0.0;
 
-        Double avgConfidence = sentimentRepository.averageConfidence();
-        Double positiveAvgConfidence = sentimentRepository.averageConfidenceBySentiment("POSITIVO");
-        Double negativeAvgConfidence = sentimentRepository.averageConfidenceBySentiment("NEGATIVO");
-
-        double averageConfidence = (avgConfidence != null ? avgConfidence : 0.0) * 100;
-        double positiveAverageConfidence = (positiveAvgConfidence != null ? positiveAvgConfidence : 0.0) * 100;
-        double negativeAverageConfidence = (negativeAvgConfidence != null ? negativeAvgConfidence : 0.0) * 100;
+        double averageConfidence = average(snapshot.confidenceSum(), total) * 100;
+        double positiveAverageConfidence = average(snapshot.positiveConfidenceSum(), positive) * 100;
+        double negativeAverageConfidence = average(snapshot.negativeConfidenceSum(), negative) * 100;
 
-        // Busca dados dos últimos 7 dias para timeline
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        List<Object[]> dailyStats = sentimentRepository.findDailyStatistics(sevenDaysAgo);
-        
+        // Linha do tempo dos últimos 7 dias, servida pelos rollups diários (mais recente primeiro)
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         List<DailyStatisticsDTO> timeline = new ArrayList<>();
-        for (Object[] row : dailyStats) {
-            try {
-                LocalDate date;
-                // H2 retorna java.sql.Date, PostgreSQL pode retornar LocalDate diretamente
-                Object dateObj = row[0];
-                if (dateObj instanceof java.sql.Date) {
-                    date = ((java.sql.Date) dateObj).toLocalDate();
-                } else if (dateObj instanceof LocalDate) {
-                    date = (LocalDate) dateObj;
-                } else if (dateObj instanceof java.sql.Timestamp) {
-                    date = ((java.sql.Timestamp) dateObj).toLocalDateTime().toLocalDate();
-                } else {
-                    // Tenta converter de String se necessário
-                    date = LocalDate.parse(dateObj.toString());
-                }
-                
-                Long positiveCount = row[1] != null ? ((Number) row[1]).longValue() : 0L;
-                Long negativeCount = row[2] != null ? ((Number) row[2]).longValue() : 0L;
-                Long totalCount = row[3] != null ? ((Number) row[3]).longValue() : 0L;
-                
-                timeline.add(new DailyStatisticsDTO(date, positiveCount, negativeCount, totalCount));
-            } catch (Exception e) {
-                log.warn("Erro ao processar estatística diária: {}", e.getMessage());
-            }
+        for (TimelineBucketDTO bucket : rollupService.getTimeline(now.minusDays(7), now.plusDays(1), TimelineGranularity.DAY)) {
+            timeline.addFirst(new DailyStatisticsDTO(
+                    bucket.bucketStart().toLocalDate(), bucket.positive(), bucket.negative(), bucket.total()));
         }
 
         return new StatisticsDTO(
@@ -81,5 +76,23 @@ public class StatisticsService {
                 timeline
         );
     }
-}
 
+    /**
+     * Retorna a linha do tempo no intervalo [from, to) agrupada por hora, dia ou semana.
+     */
+    public List<TimelineBucketDTO> getTimeline(LocalDateTime from, LocalDateTime to, TimelineGranularity granularity) {
+        return rollupService.getTimeline(from, to, granularity);
+    }
+
+    /**
+     * Reconstrói os rollups de estatísticas a partir dos dados brutos.
+     */
+    public void rebuildRollups() {
+        rollupService.rebuild();
+        changeTracker.markChanged();
+    }
+
+    private double average(double sum, long count) {
+        return count > 0 ? sum / count : 0.0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU de tamanho fixo dividido em faixas independentes, cada uma com seu lock.
+ *
+ * A faixa é escolhida pelo hash da chave, então threads que consultam chaves
+ * diferentes raramente disputam o mesmo lock. A ordem de remoção é LRU dentro
+ * de cada faixa (aproximada no conjunto). Capacidades pequenas usam uma faixa
+ * só, com LRU exato.
+ */
+final class StripedLruCache<K, V> {
+
+    private static final int MAX_STRIPES = 64;
+    private static final int MIN_ENTRIES_PER_STRIPE = 256;
+
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    StripedLruCache(int capacity) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, capacity / MIN_ENTRIES_PER_STRIPE)));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        int perStripe = Math.max(1, capacity / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+    }
+
+    V get(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    void put(K key, V value) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe<K, V> extends LinkedHashMap<K, V> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.TenantUsageDTO;
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serviço de cotas por tenant.
+ *
+ * Cada tenant possui um token bucket (implementado como GCRA sobre um único
+ * AtomicLong, sem locks) e contadores de uso próprios.
+ */
+@Slf4j
+@Service
+public class TenantQuotaService {
+
+    private final TenantProperties properties;
+    private final ConcurrentHashMap<String, TenantState> tenants = new ConcurrentHashMap<>();
+
+    public TenantQuotaService(TenantProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Consome permissões do bucket do tenant.
+     *
+     * @throws RateLimitExceededException se a cota do tenant estiver esgotada
+     */
+    public void consume(String tenant, int permits) {
+        TenantState state = state(tenant);
+        long waitNanos = state.bucket.tryAcquire(permits, System.nanoTime());
+        if (waitNanos > 0) {
+            state.rejected.add(permits);
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException(
+                    "Rate limit exceeded for tenant '" + state.name + "'", retryAfter);
+        }
+        state.accepted.add(permits);
+    }
+
+    /**
+     * Registra uma inferência concluída e o tempo gasto nela.
+     */
+    public void recordInference(String tenant, int texts, long elapsedNanos) {
+        TenantState state = state(tenant);
+        state.inferences.add(texts);
+        state.inferenceNanos.add(elapsedNanos);
+    }
+
+    /**
+     * Retorna os contadores de uso de todos os tenants conhecidos.
+     */
+    public List<TenantUsageDTO> getUsage() {
+        return tenants.values().stream()
+                .map(s -> new TenantUsageDTO(
+                        s.name,
+                        properties.quotaFor(s.name).getWeight(),
+                        s.accepted.sum(),
+                        s.rejected.sum(),
+                        s.inferences.sum(),
+                        TimeUnit.NANOSECONDS.toMillis(s.inferenceNanos.sum())
+                ))
+                .sorted(Comparator.comparing(TenantUsageDTO::tenant))
+                .toList();
+    }
+
+    private TenantState state(String tenant) {
+        TenantState state = tenants.get(tenant);
+        if (state != null) {
+            return state;
+        }
+        // Evita crescimento ilimitado com identificadores arbitrários vindos do header
+        if (tenants.size() >= properties.getMaxTrackedTenants() && !properties.getQuotas().containsKey(tenant)) {
+            log.debug("Tenant limit reached, accounting '{}' as default tenant", tenant);
+            tenant = properties.getDefaultTenant();
+        }
+        return tenants.computeIfAbsent(tenant, t -> new TenantState(t, properties.quotaFor(t)));
+    }
+
+    private static final class TenantState {
+        private final String name;
+        private final TokenBucket bucket;
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder inferences = new LongAdder();
+        private final LongAdder inferenceNanos = new LongAdder();
+
+        private TenantState(String name, TenantProperties.Quota quota) {
+            this.name = name;
+            this.bucket = new TokenBucket(quota.getRequestsPerSecond(), quota.getBurst());
+        }
+    }
+
+    /**
+     * Token bucket no formato GCRA: o estado é apenas o "theoretical arrival time".
+     * Uma única operação CAS decide cada aquisição, mantendo a contagem exata
+     * mesmo com muitas threads concorrentes.
+     *
+     * Um pedido maior que a rajada nunca caberia no bucket; ele é aceito quando o
+     * bucket está cheio e o tenant fica devendo o excedente, que atrasa os
+     * pedidos seguintes. Assim o tempo de espera devolvido é sempre suficiente.
+     */
+    static final class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long capacityNanos;
+        private final AtomicLong theoreticalArrival;
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.emissionIntervalNanos = permitsPerSecond > 0
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond)
+                    : 0;
+            this.capacityNanos = emissionIntervalNanos * Math.max(1, burst);
+            this.theoreticalArrival = new AtomicLong(System.nanoTime() - capacityNanos);
+        }
+
+        /**
+         * @return 0 se as permissões foram concedidas, ou o tempo de espera em nanos
+         */
+        long tryAcquire(int permits, long now) {
+            if (emissionIntervalNanos == 0) {
+                return 0;
+            }
+            long cost = emissionIntervalNanos * permits;
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long base = tat - now > 0 ? tat : now;
+                long newTat = base + cost;
+                long excess = newTat - now - capacityNanos;
+                if (excess > 0) {
+                    if (cost <= capacityNanos) {
+                        return excess;
+                    }
+                    if (tat - now > 0) {
+                        // Espera o bucket encher
+                        return tat - now;
+                    }
+                }
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+
+/**
+ * Pré-processamento aplicado a todo texto antes da inferência.
+ *
+ * Limita o custo de cada texto, qualquer que seja a entrada: a entrada bruta é
+ * cortada em max-chars * 8 caracteres antes de qualquer outro trabalho, passa
+ * por NFKC e depois por uma única varredura linear, sem expressões regulares,
+ * que:
+ * - remove tags HTML/XML e decodifica as entidades mais comuns;
+ * - remove URLs (http://, https://, www.);
+ * - descarta palavras maiores que max-token-chars (base64, hashes, lixo);
+ * - reduz repetições de um mesmo caractere a max-repeat ("ótimooooo", emojis);
+ * - remove caracteres de controle e de formatação e colapsa espaços;
+ * - para ao atingir max-tokens palavras ou max-chars caracteres.
+ * O texto normalizado é o que chega à cascata, ao cache de inferência (e à
+ * sua chave) e ao modelo; o histórico guarda o texto original.
+ */
+@Component
+public class TextNormalizer {
+
+    // Maior distância procurada pelo fim de uma tag ou entidade
+    private static final int MAX_TAG_LENGTH = 256;
+    private static final int MAX_ENTITY_LENGTH = 8;
+
+    @Value("${text-normalizer.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${text-normalizer.max-chars:2000}")
+    private int maxChars = 2000;
+
+    @Value("${text-normalizer.max-tokens:400}")
+    private int maxTokens = 400;
+
+    @Value("${text-normalizer.max-token-chars:64}")
+    private int maxTokenChars = 64;
+
+    @Value("${text-normalizer.max-repeat:3}")
+    private int maxRepeat = 3;
+
+    /**
+     * Normaliza o texto para a inferência. Se nada restar (um texto só com
+     * URL ou markup, por exemplo), volta o texto original com os espaços
+     * colapsados e truncado, para que ainda possa ser analisado.
+     */
+    public String normalize(String text) {
+        if (!enabled) {
+            return text;
+        }
+        String input = cut(text, (long) maxChars * 8);
+        if (!Normalizer.isNormalized(input, Normalizer.Form.NFKC)) {
+            input = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        }
+        String normalized = scan(input);
+        if (normalized.isEmpty()) {
+            String collapsed = collapseWhitespace(input);
+            return cut(collapsed, maxChars).strip();
+        }
+        return normalized;
+    }
+
+    private String scan(String text) {
+        int length = text.length();
+        StringBuilder out = new StringBuilder(Math.min(length, maxChars));
+        int tokens = 0;
+        int tokenStart = -1;      // posição em out da palavra corrente (-1: entre palavras)
+        boolean skipping = false; // descartando o resto de uma palavra longa demais ou URL
+        int lastCodePoint = -1;
+        int repeat = 0;
+
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            int next = i + Character.charCount(cp);
+
+            if (cp == '<' && next < length && isTagStart(text.charAt(next))) {
+                int close = indexOf(text, '>', next, i + MAX_TAG_LENGTH);
+                if (close >= 0) {
+                    // A tag separa palavras: <br>, <p>, </div>...
+                    cp = ' ';
+                    next = close + 1;
+                }
+            } else if (cp == '&') {
+                int semicolon = indexOf(text, ';', next, i + MAX_ENTITY_LENGTH);
+                int decoded = semicolon > next ? decodeEntity(text, next, semicolon) : -1;
+                if (decoded >= 0) {
+                    cp = decoded;
+                    next = semicolon + 1;
+                }
+            } else if (tokenStart < 0 && !skipping && isUrlStart(text, i)) {
+                skipping = true;
+            }
+            i = next;
+
+            if (Character.isWhitespace(cp) || Character.isSpaceChar(cp)) {
+                skipping = false;
+                if (tokenStart >= 0) {
+                    tokenStart = -1;
+                    if (++tokens >= maxTokens) {
+                        break;
+                    }
+                }
+                lastCodePoint = ' ';
+                continue;
+            }
+            if (skipping) {
+                continue;
+            }
+            int type = Character.getType(cp);
+            if (type == Character.CONTROL || type == Character.FORMAT || type == Character.UNASSIGNED) {
+                continue;
+            }
+            if (cp == lastCodePoint) {
+                if (++repeat >= maxRepeat) {
+                    continue;
+                }
+            } else {
+                repeat = 0;
+            }
+            if (tokenStart < 0) {
+                if (!out.isEmpty()) {
+                    out.append(' ');
+                }
+                tokenStart = out.length();
+            }
+            if (out.length() - tokenStart >= maxTokenChars) {
+                // Palavra longa demais: sai inteira, inclusive o que ainda vier dela
+                out.setLength(tokenStart);
+                trimTrailingSpace(out);
+                tokenStart = -1;
+                skipping = true;
+                continue;
+            }
+            if (out.length() + Character.charCount(cp) > maxChars) {
+                // Palavra cortada pelo limite: fica só até a última palavra inteira
+                out.setLength(tokenStart);
+                tokenStart = -1;
+                break;
+            }
+            out.appendCodePoint(cp);
+            lastCodePoint = cp;
+        }
+        trimTrailingSpace(out);
+        return out.toString();
+    }
+
+    /**
+     * indexOf limitado: procura ch em [from, min(limit, fim do texto)).
+     */
+    private static int indexOf(String text, char ch, int from, int limit) {
+        int end = Math.min(limit, text.length());
+        for (int k = from; k < end; k++) {
+            if (text.charAt(k) == ch) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTagStart(char c) {
+        return Character.isLetter(c) || c == '/' || c == '!' || c == '?';
+    }
+
+    private static boolean isUrlStart(String text, int i) {
+        return text.regionMatches(true, i, "http://", 0, 7)
+                || text.regionMatches(true, i, "https://", 0, 8)
+                || text.regionMatches(true, i, "www.", 0, 4);
+    }
+
+    /**
+     * Decodifica a entidade entre & e ; ou retorna -1 se não for conhecida.
+     */
+    private static int decodeEntity(String text, int from, int to) {
+        String name = text.substring(from, to);
+        return switch (name) {
+            case "amp" -> '&';
+            case "lt" -> '<';
+            case "gt" -> '>';
+            case "quot" -> '"';
+            case "apos" -> '\'';
+            case "nbsp" -> ' ';
+            default -> decodeNumericEntity(name);
+        };
+    }
+
+    private static int decodeNumericEntity(String name) {
+        if (name.length() < 2 || name.charAt(0) != '#') {
+            return -1;
+        }
+        try {
+            int cp = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                    ? Integer.parseInt(name.substring(2), 16)
+                    : Integer.parseInt(name.substring(1));
+            return Character.isValidCodePoint(cp) ? cp : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void trimTrailingSpace(StringBuilder out) {
+        while (!out.isEmpty() && out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    /**
+     * Corta o texto em no máximo limit caracteres, sem separar pares substitutos.
+     */
+    private static String cut(String text, long limit) {
+        if (text.length() <= limit) {
+            return text;
+        }
+        int end = (int) limit;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Remove espaços nas pontas e troca cada sequência de espaços por um único
+     * espaço: o mesmo resultado de strip().replaceAll("\\s+", " "), em uma passada.
+     */
+    static String collapseWhitespace(String text) {
+        String stripped = text.strip();
+        StringBuilder out = new StringBuilder(stripped.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.hackaton_one.sentiment_api.service;
+
+import java.time.Instant;
+
+/**
+ * Resultado pré-calculado acompanhado dos validadores HTTP (ETag e Last-Modified).
+ *
+ * @param value Conteúdo do snapshot
+ * @param etag ETag forte, entre aspas, que muda sempre que o conteúdo muda
+ * @param lastModified Momento em que o conteúdo mudou pela última vez
+ */
+public record VersionedSnapshot<T>(T value, String etag, Instant lastModified) {}
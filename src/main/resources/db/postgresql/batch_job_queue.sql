@@ -0,0 +1,41 @@
+-- Durable chunk queue for distributed CSV batches (POST /sentiment/batch/jobs).
+--
+-- Run once before deploying the version with the batch job queue (the prod profile
+-- validates the schema). Workers on every replica claim chunks with
+--   SELECT id FROM tb_batch_chunks WHERE <available> ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED
+-- so the (status, visible_at, id) index keeps claiming cheap while large jobs are queued.
+-- Finished jobs and their chunks are purged by the application after
+-- batch.queue.retention-hours.
+--
+-- Databases created before jobs kept their model variant need:
+--   ALTER TABLE tb_batch_jobs ADD COLUMN model_variant VARCHAR(64);
+-- Jobs without a variant are scored with the default one.
+
+CREATE TABLE tb_batch_jobs (
+    id            VARCHAR(36) PRIMARY KEY,
+    status        VARCHAR(16) NOT NULL,
+    total_rows    INTEGER     NOT NULL,
+    total_chunks  INTEGER     NOT NULL,
+    done_chunks   INTEGER     NOT NULL,
+    failed_chunks INTEGER     NOT NULL,
+    created_at    TIMESTAMP   NOT NULL,
+    finished_at   TIMESTAMP,
+    model_variant VARCHAR(64)
+);
+
+CREATE TABLE tb_batch_chunks (
+    id          BIGSERIAL PRIMARY KEY,
+    job_id      VARCHAR(36) NOT NULL,
+    chunk_index INTEGER     NOT NULL,
+    status      VARCHAR(16) NOT NULL,
+    row_count   INTEGER     NOT NULL,
+    payload     BYTEA       NOT NULL,
+    result      BYTEA,
+    attempts    INTEGER     NOT NULL,
+    claimed_by  VARCHAR(128),
+    visible_at  TIMESTAMP,
+    last_error  VARCHAR(500)
+);
+
+CREATE INDEX idx_batch_chunks_status_visible_at ON tb_batch_chunks (status, visible_at, id);
+CREATE UNIQUE INDEX idx_batch_chunks_job_index ON tb_batch_chunks (job_id, chunk_index);
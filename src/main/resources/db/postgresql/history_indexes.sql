@@ -0,0 +1,13 @@
+-- Covering indexes for keyset pagination of /sentiment/history, the bulk export and
+-- the statistics queries (see the Sentiment @Table indexes).
+--
+-- Run once before deploying the version with keyset history (the prod profile
+-- validates the schema, which does not create indexes). CONCURRENTLY builds them
+-- without blocking writes; run each statement on its own, outside a transaction.
+-- Only for a plain tb_sentiments: partition_tb_sentiments.sql already creates both
+-- on the partitioned table, where CONCURRENTLY is not supported.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sentiments_analyzed_at_id
+    ON tb_sentiments (analyzed_at, id, sentiment_result, confidence_score);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sentiments_result_analyzed_at_id
+    ON tb_sentiments (sentiment_result, analyzed_at, id, confidence_score);
@@ -0,0 +1,18 @@
+-- Inference results shared by all replicas (InferenceCache), keyed by the hash of
+-- the normalized text and the model version.
+--
+-- Run once before deploying the version with the shared inference cache (the prod
+-- profile validates the schema). Rows are only inserted; the application deletes
+-- rows older than inference-cache.shared.ttl-days every night, using the created_at
+-- index.
+
+CREATE TABLE tb_inference_cache (
+    text_hash     VARCHAR(64)  NOT NULL,
+    model_version VARCHAR(64)  NOT NULL,
+    label         VARCHAR(16)  NOT NULL,
+    probability   FLOAT(53)    NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (text_hash, model_version)
+);
+
+CREATE INDEX idx_inference_cache_created_at ON tb_inference_cache (created_at);
@@ -0,0 +1,9 @@
+-- Records which model produced each analysis, so stored history can be re-scored
+-- after a model upgrade (POST /models/rescore).
+--
+-- Run once before deploying the version that writes model_version (the prod profile
+-- validates the schema). Existing rows stay NULL ("unknown") and are all picked up
+-- by the first re-scoring run. Adding a nullable column without a default does not
+-- rewrite the table and works on the partitioned table as well.
+
+ALTER TABLE tb_sentiments ADD COLUMN model_version VARCHAR(64);
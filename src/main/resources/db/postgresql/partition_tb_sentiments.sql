@@ -0,0 +1,62 @@
+-- Converts tb_sentiments into a table range-partitioned by month on analyzed_at.
+--
+-- Run once, with the application stopped. Afterwards set partitioning.enabled=true:
+-- PartitionMaintenanceService creates upcoming partitions and applies the retention.
+-- Partitions are named tb_sentiments_pYYYY_MM; the name is what the job uses to
+-- decide which month a partition covers.
+
+BEGIN;
+
+ALTER TABLE tb_sentiments RENAME TO tb_sentiments_legacy;
+ALTER INDEX IF EXISTS idx_sentiments_analyzed_at_id RENAME TO idx_sentiments_legacy_analyzed_at_id;
+ALTER INDEX IF EXISTS idx_sentiments_result_analyzed_at_id RENAME TO idx_sentiments_legacy_result_analyzed_at_id;
+
+CREATE SEQUENCE tb_sentiments_id_seq_p;
+SELECT setval('tb_sentiments_id_seq_p', COALESCE((SELECT MAX(id) FROM tb_sentiments_legacy), 0) + 1, false);
+
+-- The partition key has to be part of the primary key
+CREATE TABLE tb_sentiments (
+    id               BIGINT       NOT NULL DEFAULT nextval('tb_sentiments_id_seq_p'),
+    text_content     VARCHAR(5000) NOT NULL,
+    sentiment_result VARCHAR(255),
+    confidence_score FLOAT(53),
+    analyzed_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, analyzed_at)
+) PARTITION BY RANGE (analyzed_at);
+
+ALTER SEQUENCE tb_sentiments_id_seq_p OWNED BY tb_sentiments.id;
+
+-- Rows are appended in analyzed_at order, so a BRIN index stays tiny and prunes
+-- time ranges almost as well as a B-tree
+CREATE INDEX idx_sentiments_analyzed_at_brin ON tb_sentiments USING brin (analyzed_at) WITH (pages_per_range = 32);
+-- Keyset pagination still needs ordered scans (see Sentiment @Table indexes)
+CREATE INDEX idx_sentiments_analyzed_at_id ON tb_sentiments (analyzed_at, id, sentiment_result, confidence_score);
+CREATE INDEX idx_sentiments_result_analyzed_at_id ON tb_sentiments (sentiment_result, analyzed_at, id, confidence_score);
+
+-- Catches rows outside every monthly partition so inserts never fail. The
+-- maintenance job moves them into their monthly partition when it creates it;
+-- PostgreSQL refuses to attach a partition whose range still has rows here.
+CREATE TABLE tb_sentiments_default PARTITION OF tb_sentiments DEFAULT;
+
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(analyzed_at) FROM tb_sentiments_legacy), now()));
+    last  DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    WHILE month <= last LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF tb_sentiments FOR VALUES FROM (%L) TO (%L)',
+                       'tb_sentiments_p' || to_char(month, 'YYYY_MM'),
+                       month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO tb_sentiments (id, text_content, sentiment_result, confidence_score, analyzed_at)
+SELECT id, text_content, sentiment_result, confidence_score, COALESCE(analyzed_at, now())
+FROM tb_sentiments_legacy;
+
+COMMIT;
+
+ANALYZE tb_sentiments;
+
+-- After checking the row counts: DROP TABLE tb_sentiments_legacy;
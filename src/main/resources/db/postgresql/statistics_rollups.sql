@@ -0,0 +1,18 @@
+-- Hourly and daily statistics rollups (SentimentRollupService). Buckets are in UTC.
+--
+-- Run once before deploying the version with the rollups (the prod profile validates
+-- the schema). The table starts empty; on startup the application rebuilds it from
+-- tb_sentiments (POST /sentiment/statistics/rollups/rebuild does the same on demand).
+
+CREATE TABLE tb_sentiment_rollups (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    granularity             VARCHAR(8)   NOT NULL,
+    bucket_start            TIMESTAMP(6) NOT NULL,
+    positive_count          BIGINT       NOT NULL,
+    negative_count          BIGINT       NOT NULL,
+    total_count             BIGINT       NOT NULL,
+    positive_confidence_sum FLOAT(53)    NOT NULL,
+    negative_confidence_sum FLOAT(53)    NOT NULL,
+    confidence_sum          FLOAT(53)    NOT NULL,
+    CONSTRAINT uk_rollup_granularity_bucket UNIQUE (granularity, bucket_start)
+);
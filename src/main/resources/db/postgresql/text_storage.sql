@@ -0,0 +1,38 @@
+-- Moves analysis texts into tb_analysis_texts, stored once per distinct content
+-- and keyed by its SHA-256; tb_sentiments keeps only text_hash.
+--
+-- Run once, with the application stopped (after partition_tb_sentiments.sql, if used).
+-- Existing texts are copied uncompressed; the application deflates new long texts
+-- (text-storage.compress-threshold).
+
+BEGIN;
+
+CREATE TABLE tb_analysis_texts (
+    hash               VARCHAR(64)  PRIMARY KEY,
+    text_content       VARCHAR(5000),
+    compressed_content BYTEA,
+    text_length        INTEGER      NOT NULL,
+    created_at         TIMESTAMP(6) NOT NULL
+);
+
+ALTER TABLE tb_sentiments ADD COLUMN text_hash VARCHAR(64);
+UPDATE tb_sentiments SET text_hash = encode(sha256(convert_to(text_content, 'UTF8')), 'hex');
+
+INSERT INTO tb_analysis_texts (hash, text_content, text_length, created_at)
+SELECT text_hash, MIN(text_content), MIN(length(text_content)), COALESCE(MIN(analyzed_at), now())
+FROM tb_sentiments
+GROUP BY text_hash;
+
+ALTER TABLE tb_sentiments ALTER COLUMN text_hash SET NOT NULL;
+ALTER TABLE tb_sentiments ADD CONSTRAINT fk_sentiments_text_hash
+    FOREIGN KEY (text_hash) REFERENCES tb_analysis_texts (hash);
+CREATE INDEX idx_sentiments_text_hash ON tb_sentiments (text_hash, analyzed_at);
+
+ALTER TABLE tb_sentiments DROP COLUMN text_content;
+
+COMMIT;
+
+-- DROP COLUMN only marks the column as dropped; rewrite the table to reclaim the space
+-- (VACUUM FULL locks the table; pg_repack avoids that)
+VACUUM FULL tb_sentiments;
+ANALYZE tb_analysis_texts;
@@ -0,0 +1,75 @@
+package com.hackaton_one.sentiment_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CborHttpMessageConverter Unit Tests")
+class CborHttpMessageConverterTest {
+
+    private final CborHttpMessageConverter converter = new CborHttpMessageConverter(new ObjectMapper());
+
+    private String encode(Object value) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, CborHttpMessageConverter.APPLICATION_CBOR, message);
+        return HexFormat.of().formatHex(message.getBodyAsBytes());
+    }
+
+    @Test
+    @DisplayName("Should encode maps and arrays as indefinite-length containers")
+    void shouldEncodeContainers() throws Exception {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("a", 1);
+        value.put("b", List.of(true, false));
+        value.put("c", null);
+
+        assertEquals("bf" + "6161" + "01" + "6162" + "9ff5f4ff" + "6163" + "f6" + "ff", encode(value));
+    }
+
+    @Test
+    @DisplayName("Should encode integers with the shortest head")
+    void shouldEncodeIntegers() throws Exception {
+        assertEquals("17", encode(23));
+        assertEquals("1818", encode(24));
+        assertEquals("1903e8", encode(1000));
+        assertEquals("1a000f4240", encode(1_000_000));
+        assertEquals("1b000000e8d4a51000", encode(1_000_000_000_000L));
+        assertEquals("20", encode(-1));
+        assertEquals("3863", encode(-100));
+        assertEquals("c249010000000000000000", encode(new BigInteger("18446744073709551616")));
+    }
+
+    @Test
+    @DisplayName("Should use float32 only when the value fits without loss")
+    void shouldEncodeFloats() throws Exception {
+        assertEquals("fa3fc00000", encode(1.5));
+        assertEquals("fb3ff199999999999a", encode(1.1));
+    }
+
+    @Test
+    @DisplayName("Should encode strings as UTF-8 text")
+    void shouldEncodeText() throws Exception {
+        assertEquals("6a" + HexFormat.of().formatHex("Péssimo!!".getBytes(StandardCharsets.UTF_8)),
+                encode("Péssimo!!"));
+        assertEquals("7818" + "78".repeat(24), encode("x".repeat(24)));
+    }
+
+    @Test
+    @DisplayName("Should only write, never read")
+    void shouldOnlyWrite() {
+        assertTrue(converter.canWrite(Map.class, MediaType.parseMediaType("application/cbor")));
+        assertFalse(converter.canWrite(Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(Map.class, MediaType.parseMediaType("application/cbor")));
+    }
+}
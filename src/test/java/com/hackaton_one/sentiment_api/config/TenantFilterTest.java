@@ -0,0 +1,52 @@
+package com.hackaton_one.sentiment_api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TenantFilter Unit Tests")
+class TenantFilterTest {
+
+    private TenantFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TenantProperties properties = new TenantProperties();
+        properties.setApiKeys(Map.of("chave-marketing", "marketing"));
+        filter = new TenantFilter(properties);
+    }
+
+    @Test
+    @DisplayName("Should resolve the tenant from a known API key")
+    void shouldResolveTenantFromApiKey() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-API-Key", "chave-marketing");
+
+        assertEquals("marketing", filter.resolveTenant(request));
+    }
+
+    @Test
+    @DisplayName("Should account unknown or missing API keys to the default tenant")
+    void shouldUseDefaultTenantWithoutValidKey() {
+        MockHttpServletRequest unknown = new MockHttpServletRequest();
+        unknown.addHeader("X-API-Key", "chave-inventada");
+
+        assertEquals("anonymous", filter.resolveTenant(unknown));
+        assertEquals("anonymous", filter.resolveTenant(new MockHttpServletRequest()));
+    }
+
+    @Test
+    @DisplayName("Should ignore a tenant id sent by the client")
+    void shouldIgnoreClientSuppliedTenant() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-Id", "marketing");
+        request.addHeader("X-API-Key", "chave-inventada");
+
+        assertEquals("anonymous", filter.resolveTenant(request));
+    }
+}
@@ -0,0 +1,96 @@
+package com.hackaton_one.sentiment_api.integration;
+
+import com.hackaton_one.sentiment_api.model.AnalysisText;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.AnalysisTextRepository;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import com.hackaton_one.sentiment_api.service.AnalysisTextService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Armazenamento de textos sobre um banco real (H2): trava do texto reutilizado,
+ * inserção na transação de quem chamou e carência da limpeza de textos órfãos.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(AnalysisTextService.class)
+@DisplayName("Analysis text storage")
+class AnalysisTextStorageTest {
+
+    @Autowired
+    private AnalysisTextService textService;
+
+    @Autowired
+    private AnalysisTextRepository textRepository;
+
+    @Autowired
+    private SentimentRepository sentimentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        sentimentRepository.deleteAll();
+        textRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should reuse a stored text inside the caller transaction")
+    void shouldReuseStoredTextInCallerTransaction() {
+        textRepository.save(AnalysisText.of(AnalysisTextService.hash("texto antigo"), "texto antigo", 0));
+
+        Sentiment saved = transactionTemplate.execute(status -> {
+            Sentiment sentiment = new Sentiment();
+            sentiment.setTextContent("texto antigo");
+            sentiment.setTextHash(textService.store("texto antigo"));
+            sentiment.setSentimentResult("POSITIVO");
+            sentiment.setConfidenceScore(0.9);
+            return sentimentRepository.save(sentiment);
+        });
+
+        assertNotNull(saved.getId());
+        assertEquals(1, textRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should store a batch inside the caller transaction and roll back with it")
+    void shouldStoreBatchInCallerTransaction() {
+        textRepository.save(AnalysisText.of(AnalysisTextService.hash("texto antigo"), "texto antigo", 0));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            textService.storeAll(List.of("texto novo", "texto antigo", "texto novo", "outro texto"));
+            assertEquals(3, textRepository.count());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, textRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should keep unreferenced texts younger than the grace period")
+    void shouldKeepRecentUnreferencedTexts() {
+        AnalysisText old = AnalysisText.of(AnalysisTextService.hash("texto velho"), "texto velho", 0);
+        old.setCreatedAt(LocalDateTime.now(ZoneOffset.UTC).minusDays(1));
+        textRepository.save(old);
+        textService.store("texto recém-gravado");
+
+        assertEquals(1, textService.purgeUnreferenced());
+        assertTrue(textRepository.existsById(AnalysisTextService.hash("texto recém-gravado")));
+        assertFalse(textRepository.existsById(old.getHash()));
+    }
+}
@@ -0,0 +1,307 @@
+package com.hackaton_one.sentiment_api.integration;
+
+import com.hackaton_one.sentiment_api.api.dto.BatchJobDTO;
+import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
+import com.hackaton_one.sentiment_api.model.BatchChunk;
+import com.hackaton_one.sentiment_api.model.BatchChunkStatus;
+import com.hackaton_one.sentiment_api.repository.BatchChunkRepository;
+import com.hackaton_one.sentiment_api.repository.BatchJobRepository;
+import com.hackaton_one.sentiment_api.service.BatchJobService;
+import com.hackaton_one.sentiment_api.service.BatchJobWorker;
+import com.hackaton_one.sentiment_api.service.BatchService;
+import com.hackaton_one.sentiment_api.service.ModelVariant;
+import com.hackaton_one.sentiment_api.service.ModelVariantRegistry;
+import com.hackaton_one.sentiment_api.service.SentimentPersistenceService;
+import com.hackaton_one.sentiment_api.service.SentimentService;
+import com.hackaton_one.sentiment_api.service.TenantQuotaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Fila de lotes sobre um banco real (H2): reservas concorrentes com
+ * SKIP LOCKED, expiração da reserva e tentativas.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BatchJobService.class, BatchJobWorker.class})
+@TestPropertySource(properties = {
+        "batch.queue.enabled=false",
+        "batch.queue.chunk-size=2",
+        "batch.queue.max-attempts=2",
+        "batch.queue.retry-delay-ms=0"
+})
+@DisplayName("Batch job queue")
+class BatchJobQueueTest {
+
+    @Autowired
+    private BatchJobService jobService;
+
+    @Autowired
+    private BatchJobWorker worker;
+
+    @Autowired
+    private BatchJobRepository jobRepository;
+
+    @Autowired
+    private BatchChunkRepository chunkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private BatchService batchService;
+
+    @MockitoBean
+    private SentimentService sentimentService;
+
+    @MockitoBean
+    private SentimentPersistenceService persistenceService;
+
+    @MockitoBean
+    private TenantQuotaService tenantQuotaService;
+
+    @MockitoBean
+    private ModelVariantRegistry modelVariants;
+
+    @BeforeEach
+    void setUp() {
+        when(modelVariants.resolve(any())).thenAnswer(invocation -> {
+            String requested = invocation.getArgument(0);
+            if ("unknown".equals(requested)) {
+                throw new IllegalArgumentException("Unknown model variant 'unknown'. Available: default, v2");
+            }
+            return new ModelVariant(requested != null ? requested : ModelVariantRegistry.DEFAULT_VARIANT, null, null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        chunkRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    private BatchJobDTO submit(String... texts) {
+        when(batchService.readCSVTexts(any(), any(), anyInt())).thenReturn(List.of(texts));
+        return jobService.submit(null, null);
+    }
+
+    private void givenModelAnswers() {
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<SentimentResultDTO> results = new ArrayList<>();
+            for (String text : texts) {
+                results.add(new SentimentResultDTO(text.contains("bom") ? "positivo" : "negativo", 0.9,
+                        InferenceStage.MODEL));
+            }
+            return results;
+        });
+    }
+
+    @Test
+    @DisplayName("Should split the CSV in chunks and assemble the results in file order")
+    void shouldProcessJobEndToEnd() {
+        givenModelAnswers();
+        TenantContext.set("acme");
+        BatchJobDTO job;
+        try {
+            job = submit("bom 1", "ruim 2", "bom 3", "ruim 4", "bom 5");
+        } finally {
+            TenantContext.clear();
+        }
+        verify(tenantQuotaService).consume("acme", 5);
+        assertEquals("RUNNING", job.status());
+        assertEquals(3, job.totalChunks());
+        assertTrue(jobService.getResults(job.id()).isEmpty());
+
+        assertTrue(worker.processNext("w1"));
+        assertTrue(worker.processNext("w2"));
+        assertTrue(worker.processNext("w1"));
+        assertFalse(worker.processNext("w1"));
+
+        BatchJobDTO finished = jobService.getJob(job.id()).orElseThrow();
+        assertEquals("COMPLETED", finished.status());
+        assertEquals(3, finished.doneChunks());
+        assertEquals(100.0, finished.progressPercent());
+        assertNotNull(finished.finishedAt());
+
+        BatchSentimentResponseDTO results = jobService.getResults(job.id()).orElseThrow();
+        assertEquals(5, results.totalProcessed());
+        assertEquals(List.of("bom 1", "ruim 2", "bom 3", "ruim 4", "bom 5"),
+                results.results().stream().map(SentimentResponseDTO::text).toList());
+        assertEquals("POSITIVO", results.results().get(0).sentiment());
+        assertEquals("NEGATIVO", results.results().get(3).sentiment());
+        verify(persistenceService, times(3)).saveSentiments(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should skip chunks locked by another replica instead of waiting")
+    void shouldSkipLockedChunks() throws Exception {
+        submit("a", "b", "c", "d");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> lockedIds = new ArrayList<>();
+        Thread other = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            lockedIds.addAll(chunkRepository.lockAvailable(LocalDateTime.now(), 1));
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        other.start();
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            BatchJobService.ClaimedChunk claimed = jobService.claim("w1").orElseThrow();
+            assertEquals(1, lockedIds.size());
+            assertNotEquals(lockedIds.get(0), claimed.id());
+            assertEquals(List.of("c", "d"), claimed.texts());
+        } finally {
+            release.countDown();
+            other.join(5000);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand an expired claim to another worker and ignore the late result")
+    void shouldReclaimExpiredChunk() {
+        givenModelAnswers();
+        BatchJobDTO job = submit("bom", "ruim");
+
+        BatchJobService.ClaimedChunk first = jobService.claim("dead-worker").orElseThrow();
+        assertTrue(jobService.claim("w2").isEmpty());
+        // Reserva expirada: o worker que a fez caiu
+        BatchChunk expired = chunkRepository.findById(first.id()).orElseThrow();
+        expired.setVisibleAt(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        chunkRepository.save(expired);
+
+        BatchJobService.ClaimedChunk second = jobService.claim("w2").orElseThrow();
+        assertEquals(first.id(), second.id());
+        assertEquals(2, second.attempts());
+
+        List<SentimentResultDTO> results = sentimentService.analyzeBatch(first.texts());
+        assertFalse(jobService.complete(first, "dead-worker", results));
+        assertTrue(jobService.complete(second, "w2", results));
+        verify(persistenceService, times(1)).saveSentiments(anyList(), anyList());
+        assertEquals("COMPLETED", jobService.getJob(job.id()).orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("Should stamp claim deadlines in UTC whatever the replica time zone")
+    void shouldStampClaimDeadlinesInUtc() {
+        submit("bom", "ruim");
+        TimeZone original = TimeZone.getDefault();
+        LocalDateTime visibleAt;
+        try {
+            // Réplica em UTC+14
+            TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+            BatchJobService.ClaimedChunk claimed = jobService.claim("w1").orElseThrow();
+            visibleAt = chunkRepository.findById(claimed.id()).orElseThrow().getVisibleAt();
+        } finally {
+            TimeZone.setDefault(original);
+        }
+
+        LocalDateTime expected = LocalDateTime.now(ZoneOffset.UTC).plusMinutes(2);
+        assertTrue(Duration.between(visibleAt, expected).abs().toSeconds() < 30,
+                "Claim deadline " + visibleAt + " is not in UTC");
+    }
+
+    @Test
+    @DisplayName("Should retry a failing chunk and fail the job after max attempts")
+    void shouldFailAfterMaxAttempts() {
+        when(sentimentService.analyzeBatch(anyList())).thenThrow(new IllegalStateException("model down"));
+        BatchJobDTO job = submit("bom", "ruim");
+
+        assertTrue(worker.processNext("w1"));
+        BatchChunk retried = chunkRepository.findByJobIdOrderByChunkIndexAsc(job.id()).get(0);
+        assertEquals(BatchChunkStatus.PENDING, retried.getStatus());
+        assertEquals("model down", retried.getLastError());
+
+        assertTrue(worker.processNext("w2"));
+        BatchChunk failed = chunkRepository.findByJobIdOrderByChunkIndexAsc(job.id()).get(0);
+        assertEquals(BatchChunkStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertFalse(worker.processNext("w1"));
+
+        BatchJobDTO finished = jobService.getJob(job.id()).orElseThrow();
+        assertEquals("FAILED", finished.status());
+        assertEquals(1, finished.failedChunks());
+        assertEquals(0, jobService.getResults(job.id()).orElseThrow().totalProcessed());
+        verify(persistenceService, never()).saveSentiments(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should score every chunk with the model variant requested on submit")
+    void shouldScoreWithRequestedVariant() {
+        List<String> variants = new ArrayList<>();
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            variants.add(ModelVariantContext.current());
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new SentimentResultDTO("positivo", 0.9, InferenceStage.MODEL))
+                    .toList();
+        });
+        ModelVariantContext.set("v2");
+        BatchJobDTO job;
+        try {
+            job = submit("bom 1", "bom 2", "bom 3");
+        } finally {
+            ModelVariantContext.clear();
+        }
+        assertEquals("v2", jobRepository.findById(job.id()).orElseThrow().getModelVariant());
+
+        assertTrue(worker.processNext("w1"));
+        assertTrue(worker.processNext("w1"));
+
+        assertEquals(List.of("v2", "v2"), variants);
+        assertNull(ModelVariantContext.current());
+        assertEquals("COMPLETED", jobService.getJob(job.id()).orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown model variant before queueing anything")
+    void shouldRejectUnknownVariant() {
+        ModelVariantContext.set("unknown");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> submit("bom", "ruim"));
+        } finally {
+            ModelVariantContext.clear();
+        }
+        assertEquals(0, jobRepository.count());
+        assertEquals(0, chunkRepository.count());
+        verify(tenantQuotaService, never()).consume(any(), anyInt());
+    }
+}
@@ -54,4 +54,13 @@ class HealthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.modelStatus").value("UNAVAILABLE"));
     }
+
+    @Test
+    void shouldReturnModelStatusDegradedWhenServingFromFallback() throws Exception {
+        when(sentimentService.isDegraded()).thenReturn(true);
+
+        mockMvc.perform(get("/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modelStatus").value("DEGRADED"));
+    }
 }
@@ -0,0 +1,86 @@
+package com.hackaton_one.sentiment_api.integration;
+
+import com.hackaton_one.sentiment_api.api.controller.ModelController;
+import com.hackaton_one.sentiment_api.api.dto.RescoreStatusDTO;
+import com.hackaton_one.sentiment_api.config.AdminKeyVerifier;
+import com.hackaton_one.sentiment_api.service.ModelRescoringService;
+import com.hackaton_one.sentiment_api.service.ModelVariantRegistry;
+import com.hackaton_one.sentiment_api.service.ShadowEvaluator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ModelController.class)
+@Import(AdminKeyVerifier.class)
+@TestPropertySource(properties = "admin.api-key=chave-admin")
+class ModelControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ModelVariantRegistry modelVariants;
+
+    @MockitoBean
+    private ShadowEvaluator shadowEvaluator;
+
+    @MockitoBean
+    private ModelRescoringService rescoringService;
+
+    private static RescoreStatusDTO rescoreStatus(String state) {
+        return new RescoreStatusDTO(state, "model-v2", 0, 0, 0, 0, 0, 0, 0, 0, 1.0, 0, null, null, null);
+    }
+
+    @Test
+    void shouldReturn202WhenStartingRescoreWithAdminKey() throws Exception {
+        when(rescoringService.start()).thenReturn(true);
+        when(rescoringService.getStatus()).thenReturn(rescoreStatus("RUNNING"));
+
+        mockMvc.perform(post("/models/rescore").header("X-Admin-Key", "chave-admin"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        verify(rescoringService).start();
+    }
+
+    @Test
+    void shouldReturn403WhenStartingRescoreWithoutAdminKey() throws Exception {
+        mockMvc.perform(post("/models/rescore"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/models/rescore").header("X-Admin-Key", "errada"))
+                .andExpect(status().isForbidden());
+        verify(rescoringService, never()).start();
+    }
+
+    @Test
+    void shouldPauseAndResumeRescoreWithAdminKey() throws Exception {
+        when(rescoringService.getStatus()).thenReturn(rescoreStatus("PAUSED"));
+
+        mockMvc.perform(post("/models/rescore/pause").header("X-Admin-Key", "chave-admin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("PAUSED"));
+        mockMvc.perform(post("/models/rescore/resume").header("X-Admin-Key", "chave-admin"))
+                .andExpect(status().isOk());
+        verify(rescoringService).pause();
+        verify(rescoringService).resume();
+    }
+
+    @Test
+    void shouldReturn403WhenPausingOrResumingRescoreWithoutAdminKey() throws Exception {
+        mockMvc.perform(post("/models/rescore/pause"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/models/rescore/resume").header("X-Admin-Key", "errada"))
+                .andExpect(status().isForbidden());
+        verify(rescoringService, never()).pause();
+        verify(rescoringService, never()).resume();
+    }
+}
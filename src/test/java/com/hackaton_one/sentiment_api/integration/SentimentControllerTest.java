@@ -2,31 +2,47 @@ package com.hackaton_one.sentiment_api.integration;
 
 import com.hackaton_one.sentiment_api.api.controller.SentimentController;
 import com.hackaton_one.sentiment_api.api.dto.*;
+import com.hackaton_one.sentiment_api.config.AdminKeyVerifier;
 import com.hackaton_one.sentiment_api.service.*;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(SentimentController.class)
+@Import(AdminKeyVerifier.class)
+@TestPropertySource(properties = "admin.api-key=chave-admin")
 public class SentimentControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -46,6 +62,22 @@ public class SentimentControllerTest {
     @MockitoBean
     private SentimentPersistenceService sentimentPersistenceService;
 
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private ModelCascade modelCascade;
+
+    @MockitoBean
+    private BulkAnalysisService bulkAnalysisService;
+
+    @MockitoBean
+    private SentenceAnalysisService sentenceAnalysisService;
+
+    private static <T> VersionedSnapshot<T> snapshot(T value) {
+        return new VersionedSnapshot<>(value, "\"v1\"", Instant.parse("2026-01-07T10:00:00Z"));
+    }
+
     /* Test analyze sentiment single text endpoint */
     @Nested
     @DisplayName("Tests for /sentiment endpoint")
@@ -63,14 +95,15 @@ public class SentimentControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.sentiment").value("POSITIVO"))
                     .andExpect(jsonPath("$.score").isNumber())
-                    .andExpect(jsonPath("$.text").value("muito bom"));
+                    .andExpect(jsonPath("$.text").value("muito bom"))
+                    .andExpect(jsonPath("$.stage").doesNotExist());
 
         }
 
         @Test
         void shouldReturn200WhenSendingPostToAnalyzeWithNegativeSentiment() throws Exception {
             when(sentimentService.analyzeAndSave(anyString()))
-                    .thenReturn(new SentimentResponseDTO("NEGATIVO", 0.95, "muito ruim"));
+                    .thenReturn(new SentimentResponseDTO("NEGATIVO", 0.95, "muito ruim", InferenceStage.LEXICON));
 
             mockMvc.perform(post("/sentiment").contentType(MediaType.APPLICATION_JSON).content("""
                             {
@@ -80,8 +113,31 @@ public class SentimentControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.sentiment").value("NEGATIVO"))
                     .andExpect(jsonPath("$.score").isNumber())
-                    .andExpect(jsonPath("$.text").value("muito ruim"));
+                    .andExpect(jsonPath("$.text").value("muito ruim"))
+                    .andExpect(jsonPath("$.stage").value("LEXICON"));
+
+        }
 
+        @Test
+        void shouldReturnPerSentenceResultsWhenRequested() throws Exception {
+            when(sentenceAnalysisService.analyzeAndSave("Adorei. Mas atrasou."))
+                    .thenReturn(new SentenceAnalysisResponseDTO("POSITIVO", 0.6, "Adorei. Mas atrasou.", null, List.of(
+                            new SentenceSentimentDTO(0, 7, "Adorei.", "POSITIVO", 0.9, InferenceStage.MODEL),
+                            new SentenceSentimentDTO(8, 20, "Mas atrasou.", "NEGATIVO", 0.7, InferenceStage.MODEL))));
+
+            mockMvc.perform(post("/sentiment").param("sentences", "true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {
+                                        "text": "Adorei. Mas atrasou."
+                                    }
+                                    """))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.sentiment").value("POSITIVO"))
+                    .andExpect(jsonPath("$.sentences.length()").value(2))
+                    .andExpect(jsonPath("$.sentences[1].text").value("Mas atrasou."))
+                    .andExpect(jsonPath("$.sentences[1].start").value(8))
+                    .andExpect(jsonPath("$.degraded").doesNotExist());
         }
 
         @Test
@@ -173,6 +229,45 @@ public class SentimentControllerTest {
                     .andExpect(jsonPath("$.totalProcessed").value(2));
         }
 
+        @Test
+        void shouldReturnColumnarLayoutWithoutTexts() throws Exception {
+            MockMultipartFile mockFile = getMockMultipartFile(tempFile);
+            when(batchService.processCSV(mockFile, null)).thenReturn(new BatchSentimentResponseDTO(List.of(
+                    new SentimentResponseDTO("POSITIVO", 0.95, "Eu amo este produto!", InferenceStage.MODEL),
+                    new SentimentResponseDTO("NEGATIVO", 0.85, "Péssimo, odiei.", InferenceStage.FALLBACK)), 2));
+
+            mockMvc.perform(multipart("/sentiment/batch").file(mockFile)
+                            .param("layout", "columnar")
+                            .param("includeText", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.sentiments[0]").value("POSITIVO"))
+                    .andExpect(jsonPath("$.sentiments[1]").value("NEGATIVO"))
+                    .andExpect(jsonPath("$.scores[1]").value(0.85))
+                    .andExpect(jsonPath("$.stages[1]").value("FALLBACK"))
+                    .andExpect(jsonPath("$.texts").doesNotExist())
+                    .andExpect(jsonPath("$.ids").doesNotExist())
+                    .andExpect(jsonPath("$.totalProcessed").value(2));
+        }
+
+        @Test
+        void shouldOmitTextsFromRowsWhenIncludeTextIsFalse() throws Exception {
+            MockMultipartFile mockFile = getMockMultipartFile(tempFile);
+            when(batchService.processCSV(mockFile, null)).thenReturn(new BatchSentimentResponseDTO(List.of(
+                    new SentimentResponseDTO("POSITIVO", 0.95, "Eu amo este produto!")), 1));
+
+            mockMvc.perform(multipart("/sentiment/batch").file(mockFile).param("includeText", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results[0].sentiment").value("POSITIVO"))
+                    .andExpect(jsonPath("$.results[0].text").doesNotExist());
+        }
+
+        @Test
+        void shouldReturn400WhenLayoutIsInvalid() throws Exception {
+            mockMvc.perform(multipart("/sentiment/batch").file(getMockMultipartFile(tempFile))
+                            .param("layout", "xml"))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         void shouldReturn200WhenSendingCsvWithCustomColumn() throws Exception {
             MockMultipartFile mockFile = getMockMultipartFile(customColumnFile);
@@ -330,7 +425,7 @@ public class SentimentControllerTest {
     class StatisticsTests {
         @Test
         void shouldReturn200WhenGettingStatistics() throws Exception {
-            when(statisticsService.getStatistics()).thenReturn(new StatisticsDTO(
+            when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot(new StatisticsDTO(
                     2,
                     1,
                     1,
@@ -344,7 +439,7 @@ public class SentimentControllerTest {
                             new DailyStatisticsDTO(LocalDate.of(2026, 1, 8), 0, 1, 1)
 
                     )
-            ));
+            )));
 
             mockMvc.perform(get("/sentiment/statistics"))
                     .andExpect(status().isOk())
@@ -368,9 +463,22 @@ public class SentimentControllerTest {
                     .andExpect(jsonPath("$.timeline[1].total").value(1));
         }
 
+        @Test
+        void shouldReturnCascadeEscalationRate() throws Exception {
+            when(modelCascade.getStats()).thenReturn(new CascadeStatsDTO(true, 0.9, 75, 25, 0.25));
+
+            mockMvc.perform(get("/sentiment/statistics/cascade"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.enabled").value(true))
+                    .andExpect(jsonPath("$.confidenceThreshold").value(0.9))
+                    .andExpect(jsonPath("$.firstStage").value(75))
+                    .andExpect(jsonPath("$.escalated").value(25))
+                    .andExpect(jsonPath("$.escalationRate").value(0.25));
+        }
+
         @Test
         void shouldReturn500WhenStatisticsServiceThrowsException() throws Exception {
-            when(statisticsService.getStatistics()).thenThrow(new RuntimeException("Database error"));
+            when(statisticsService.getStatisticsSnapshot()).thenThrow(new RuntimeException("Database error"));
 
             mockMvc.perform(get("/sentiment/statistics"))
                     .andExpect(status().isInternalServerError())
@@ -380,7 +488,7 @@ public class SentimentControllerTest {
 
         @Test
         void shouldReturnZeroStatisticsWhenNoDataExists() throws Exception {
-            when(statisticsService.getStatistics()).thenReturn(new StatisticsDTO(
+            when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot(new StatisticsDTO(
                     0,
                     0,
                     0,
@@ -390,7 +498,7 @@ public class SentimentControllerTest {
                     0.0,
                     0.0,
                     List.of()
-            ));
+            )));
 
             mockMvc.perform(get("/sentiment/statistics"))
                     .andExpect(status().isOk())
@@ -407,6 +515,112 @@ public class SentimentControllerTest {
         }
     }
 
+    /* Test conditional GET on polled endpoints */
+    @Nested
+    @DisplayName("Tests for conditional GET on /sentiment/statistics and /sentiment/history")
+    class ConditionalGetTests {
+        @Test
+        void shouldReturnEtagAndLastModifiedWithStatistics() throws Exception {
+            when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot(new StatisticsDTO(
+                    1, 1, 0, 100.0, 0.0, 90.0, 90.0, 0.0, List.of())));
+
+            mockMvc.perform(get("/sentiment/statistics"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"v1-json\""))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andExpect(jsonPath("$.total").value(1));
+        }
+
+        @Test
+        void shouldReturn304WhenStatisticsEtagMatches() throws Exception {
+            when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot(new StatisticsDTO(
+                    1, 1, 0, 100.0, 0.0, 90.0, 90.0, 0.0, List.of())));
+
+            mockMvc.perform(get("/sentiment/statistics").header("If-None-Match", "\"v1-json\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        void shouldNotReturn304ForAnotherRepresentationOfTheSameSnapshot() throws Exception {
+            when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot(new StatisticsDTO(
+                    1, 1, 0, 100.0, 0.0, 90.0, 90.0, 0.0, List.of())));
+
+            mockMvc.perform(get("/sentiment/statistics").accept("application/cbor")
+                            .header("If-None-Match", "\"v1-json\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"v1-cbor\""))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                    .andExpect(content().contentType("application/cbor"));
+            mockMvc.perform(get("/sentiment/statistics").accept("application/cbor")
+                            .header("If-None-Match", "\"v1-cbor\""))
+                    .andExpect(status().isNotModified());
+        }
+
+        @Test
+        void shouldReturn200WhenHistoryEtagIsStale() throws Exception {
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(new HistoryItemListDTO(List.of())));
+
+            mockMvc.perform(get("/sentiment/history").header("If-None-Match", "\"v0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"v1-json\""))
+                    .andExpect(jsonPath("$.historyItemList").isArray());
+        }
+
+        @Test
+        void shouldReturn304WhenHistoryNotModifiedSince() throws Exception {
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(new HistoryItemListDTO(List.of())));
+
+            mockMvc.perform(get("/sentiment/history").header("If-Modified-Since", "Wed, 07 Jan 2026 10:00:00 GMT"))
+                    .andExpect(status().isNotModified());
+        }
+    }
+
+    /* Test statistics timeline endpoint */
+    @Nested
+    @DisplayName("Tests for /sentiment/statistics/timeline endpoint")
+    class TimelineTests {
+        @Test
+        void shouldReturn200WhenGettingTimelineByHour() throws Exception {
+            when(statisticsService.getTimeline(any(), any(), eq(TimelineGranularity.HOUR))).thenReturn(List.of(
+                    new TimelineBucketDTO(LocalDateTime.of(2026, 1, 7, 10, 0), 3, 1, 4, 87.5)
+            ));
+
+            mockMvc.perform(get("/sentiment/statistics/timeline")
+                            .param("from", "2026-01-07T00:00:00")
+                            .param("to", "2026-01-08T00:00:00")
+                            .param("bucket", "hour"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].bucketStart").value("2026-01-07T10:00:00"))
+                    .andExpect(jsonPath("$[0].total").value(4))
+                    .andExpect(jsonPath("$[0].averageConfidence").value(87.5));
+        }
+
+        @Test
+        void shouldReturn400WhenBucketIsInvalid() throws Exception {
+            mockMvc.perform(get("/sentiment/statistics/timeline").param("bucket", "month"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").exists());
+        }
+
+        @Test
+        void shouldReturn204WhenRebuildingRollups() throws Exception {
+            mockMvc.perform(post("/sentiment/statistics/rollups/rebuild").header("X-Admin-Key", "chave-admin"))
+                    .andExpect(status().isNoContent());
+            verify(statisticsService).rebuildRollups();
+        }
+
+        @Test
+        void shouldReturn403WhenRebuildingRollupsWithoutAdminKey() throws Exception {
+            mockMvc.perform(post("/sentiment/statistics/rollups/rebuild"))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post("/sentiment/statistics/rollups/rebuild").header("X-Admin-Key", "errada"))
+                    .andExpect(status().isForbidden());
+            verify(statisticsService, never()).rebuildRollups();
+        }
+    }
+
     /* Test history endpoint */
     @Nested
     @DisplayName("Tests for /sentiment/history endpoint")
@@ -429,9 +643,9 @@ public class SentimentControllerTest {
                     LocalDate.of(2026, 1, 7).atStartOfDay()
             );
 
-            when(historyService.getHistory()).thenReturn(
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(
                     new HistoryItemListDTO(List.of(item1, item2))
-            );
+            ));
 
             mockMvc.perform(get("/sentiment/history"))
                     .andExpect(status().isOk())
@@ -451,9 +665,9 @@ public class SentimentControllerTest {
 
         @Test
         void shouldReturn200WithEmptyListWhenNoHistoryExists() throws Exception {
-            when(historyService.getHistory()).thenReturn(
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(
                     new HistoryItemListDTO(List.of())
-            );
+            ));
 
             mockMvc.perform(get("/sentiment/history"))
                     .andExpect(status().isOk())
@@ -461,9 +675,28 @@ public class SentimentControllerTest {
                     .andExpect(jsonPath("$.historyItemList.length()").value(0));
         }
 
+        @Test
+        void shouldReturnColumnarHistoryWithValidators() throws Exception {
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(new HistoryItemListDTO(List.of(
+                    new HistoryItemDTO(1L, "Texto positivo", "POSITIVO", 0.95, LocalDate.of(2026, 1, 7).atStartOfDay()),
+                    new HistoryItemDTO(2L, "Texto negativo", "NEGATIVO", 0.85, LocalDate.of(2026, 1, 6).atStartOfDay())))));
+
+            mockMvc.perform(get("/sentiment/history").param("layout", "columnar"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"v1-columnar-json\""))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                    .andExpect(jsonPath("$.ids[0]").value(1))
+                    .andExpect(jsonPath("$.ids[1]").value(2))
+                    .andExpect(jsonPath("$.sentimentResults[1]").value("NEGATIVO"))
+                    .andExpect(jsonPath("$.confidenceScores[0]").value(0.95))
+                    .andExpect(jsonPath("$.textContents[0]").value("Texto positivo"))
+                    .andExpect(jsonPath("$.textHashes").doesNotExist())
+                    .andExpect(jsonPath("$.historyItemList").doesNotExist());
+        }
+
         @Test
         void shoulReturn500WhenHistoryIsUnavailable() throws Exception {
-            when(historyService.getHistory()).thenThrow(new RuntimeException("Error retrieving sentiment history"));
+            when(historyService.getHistorySnapshot()).thenThrow(new RuntimeException("Error retrieving sentiment history"));
 
             mockMvc.perform(get("/sentiment/history"))
                     .andExpect(status().isInternalServerError())
@@ -473,7 +706,7 @@ public class SentimentControllerTest {
 
         @Test
         void shouldReturn500WhenHistoryServiceThrowsException() throws Exception {
-            when(historyService.getHistory()).thenThrow(new RuntimeException("Database error"));
+            when(historyService.getHistorySnapshot()).thenThrow(new RuntimeException("Database error"));
 
             mockMvc.perform(get("/sentiment/history"))
                     .andExpect(status().isInternalServerError())
@@ -499,9 +732,9 @@ public class SentimentControllerTest {
                     LocalDate.of(2026, 1, 6).atTime(10, 0)
             );
 
-            when(historyService.getHistory()).thenReturn(
+            when(historyService.getHistorySnapshot()).thenReturn(snapshot(
                     new HistoryItemListDTO(List.of(newerItem, olderItem))
-            );
+            ));
 
             mockMvc.perform(get("/sentiment/history"))
                     .andExpect(status().isOk())
@@ -510,5 +743,135 @@ public class SentimentControllerTest {
                     .andExpect(jsonPath("$.historyItemList[0].id").value(3))
                     .andExpect(jsonPath("$.historyItemList[1].id").value(2));
         }
+
+        @Test
+        void shouldReturnFilteredPageWithoutTextAndNextCursor() throws Exception {
+            HistoryItemDTO item = new HistoryItemDTO(7L, null, "NEGATIVO", 0.72, LocalDate.of(2026, 1, 7).atTime(9, 0));
+            HistoryFilterDTO expected = new HistoryFilterDTO("abc", 1, "NEGATIVO", null, 0.5, null,
+                    LocalDateTime.of(2026, 1, 1, 0, 0), null, false);
+            when(historyService.getHistory(expected)).thenReturn(new HistoryItemListDTO(List.of(item), "next"));
+
+            mockMvc.perform(get("/sentiment/history")
+                            .param("cursor", "abc")
+                            .param("limit", "1")
+                            .param("sentiment", "NEGATIVO")
+                            .param("minConfidence", "0.5")
+                            .param("from", "2026-01-01T00:00:00")
+                            .param("includeText", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"))
+                    .andExpect(jsonPath("$.historyItemList[0].id").value(7))
+                    .andExpect(jsonPath("$.historyItemList[0].textContent").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
+
+        @Test
+        void shouldReturn400WhenHistoryCursorIsInvalid() throws Exception {
+            when(historyService.getHistory(any(HistoryFilterDTO.class)))
+                    .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+            mockMvc.perform(get("/sentiment/history").param("cursor", "???"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        }
+    }
+
+    /* Test export endpoint */
+    @Nested
+    @DisplayName("Tests for /sentiment/export endpoint")
+    class ExportTests {
+        @Test
+        void shouldStreamCsvExport() throws Exception {
+            when(exportService.export(any(), any(), any(), eq(ExportFormat.CSV), eq(false)))
+                    .thenReturn(out -> out.write("id\r\n1\r\n".getBytes()));
+
+            MvcResult result = mockMvc.perform(get("/sentiment/export")
+                            .param("format", "csv")
+                            .param("from", "2026-01-01T00:00:00"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(3_600_000L, result.getRequest().getAsyncContext().getTimeout());
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"sentiments.csv\""))
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(content().string("id\r\n1\r\n"));
+        }
+
+        @Test
+        void shouldSetContentEncodingWhenClientAcceptsGzip() throws Exception {
+            when(exportService.export(any(), any(), any(), eq(ExportFormat.NDJSON), eq(true)))
+                    .thenReturn(out -> { });
+
+            MvcResult result = mockMvc.perform(get("/sentiment/export").header("Accept-Encoding", "gzip, deflate"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+        }
+
+        @Test
+        void shouldReturn400WhenExportFormatIsInvalid() throws Exception {
+            mockMvc.perform(get("/sentiment/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for /sentiment/bulk endpoint")
+    class BulkTests {
+        @Test
+        void shouldReturnResultsInRequestOrder() throws Exception {
+            when(bulkAnalysisService.analyze(any(), eq(true))).thenReturn(new BulkSentimentResponseDTO(List.of(
+                    new BulkSentimentItemDTO("a1", "POSITIVO", 0.9, InferenceStage.MODEL, null),
+                    new BulkSentimentItemDTO(null, "NEGATIVO", 0.7, InferenceStage.FALLBACK, true)), 2));
+
+            mockMvc.perform(post("/sentiment/bulk").param("persist", "true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    [{"id": "a1", "text": "muito bom"}, "muito ruim"]
+                                    """))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalProcessed").value(2))
+                    .andExpect(jsonPath("$.results[0].id").value("a1"))
+                    .andExpect(jsonPath("$.results[0].sentiment").value("POSITIVO"))
+                    .andExpect(jsonPath("$.results[0].degraded").doesNotExist())
+                    .andExpect(jsonPath("$.results[1].id").doesNotExist())
+                    .andExpect(jsonPath("$.results[1].degraded").value(true));
+        }
+
+        @Test
+        void shouldEncodeCborWhenAccepted() throws Exception {
+            when(bulkAnalysisService.analyze(any(), eq(false))).thenReturn(new BulkSentimentResponseDTO(List.of(
+                    new BulkSentimentItemDTO(null, "POSITIVO", 0.5, InferenceStage.MODEL, null)), 1));
+
+            MvcResult result = mockMvc.perform(post("/sentiment/bulk").param("layout", "columnar")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept("application/cbor")
+                            .content("[\"muito bom\"]"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/cbor"))
+                    .andReturn();
+
+            // {"sentiments":["POSITIVO"],"scores":[0.5],"stages":["MODEL"],"totalProcessed":1}
+            byte[] body = result.getResponse().getContentAsByteArray();
+            Assertions.assertEquals((byte) 0xBF, body[0]);
+            Assertions.assertEquals((byte) 0xFF, body[body.length - 1]);
+            Assertions.assertEquals(69, body.length);
+        }
+
+        @Test
+        void shouldReturn400WhenBodyIsInvalid() throws Exception {
+            when(bulkAnalysisService.analyze(any(), eq(false)))
+                    .thenThrow(new IllegalArgumentException("Request body must be a JSON array of texts"));
+
+            mockMvc.perform(post("/sentiment/bulk").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 }
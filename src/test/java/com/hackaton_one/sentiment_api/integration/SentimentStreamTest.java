@@ -0,0 +1,119 @@
+package com.hackaton_one.sentiment_api.integration;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.service.SentimentService;
+import jakarta.websocket.ClientEndpointConfig;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import jakarta.websocket.WebSocketContainer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {"stream.max-in-flight=2", "stream.batch.max-wait-ms=1000"})
+class SentimentStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private SentimentService sentimentService;
+
+    private Session connect(BlockingQueue<String> received) throws Exception {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        return container.connectToServer(new Endpoint() {
+            @Override
+            public void onOpen(Session session, EndpointConfig config) {
+                session.addMessageHandler(String.class, (MessageHandler.Whole<String>) received::add);
+            }
+        }, ClientEndpointConfig.Builder.create().build(), URI.create("ws://localhost:" + port + "/sentiment/stream"));
+    }
+
+    @Test
+    void shouldBatchTextsFromDifferentConnections() throws Exception {
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<SentimentResultDTO> results = new ArrayList<>();
+            for (String text : texts) {
+                results.add(new SentimentResultDTO(text.contains("bom") ? "POSITIVO" : "NEGATIVO", 0.9,
+                        InferenceStage.MODEL));
+            }
+            return results;
+        });
+        BlockingQueue<String> first = new LinkedBlockingQueue<>();
+        BlockingQueue<String> second = new LinkedBlockingQueue<>();
+
+        try (Session a = connect(first); Session b = connect(second)) {
+            a.getBasicRemote().sendText("{\"id\": \"a1\", \"text\": \"muito bom\"}");
+            b.getBasicRemote().sendText("{\"id\": \"b1\", \"text\": \"muito ruim\"}");
+
+            String resultA = first.poll(5, TimeUnit.SECONDS);
+            String resultB = second.poll(5, TimeUnit.SECONDS);
+            assertNotNull(resultA);
+            assertNotNull(resultB);
+            assertTrue(resultA.contains("\"id\":\"a1\"") && resultA.contains("POSITIVO"), resultA);
+            assertTrue(resultB.contains("\"id\":\"b1\"") && resultB.contains("NEGATIVO"), resultB);
+        }
+        verify(sentimentService, times(1)).analyzeBatch(argThat(texts -> texts.size() == 2
+                && texts.containsAll(List.of("muito bom", "muito ruim"))));
+    }
+
+    @Test
+    void shouldRejectMessagesAboveTheInFlightLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(t -> new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.MODEL)).toList();
+        });
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        try (Session session = connect(received)) {
+            session.getBasicRemote().sendText("{\"id\": \"1\", \"text\": \"bom\"}");
+            session.getBasicRemote().sendText("{\"id\": \"2\", \"text\": \"bom\"}");
+            session.getBasicRemote().sendText("{\"id\": \"3\", \"text\": \"bom\"}");
+
+            String rejected = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(rejected);
+            assertTrue(rejected.contains("\"id\":\"3\"") && rejected.contains("error"), rejected);
+
+            release.countDown();
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void shouldAnswerInvalidMessagesWithAnError() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        try (Session session = connect(received)) {
+            session.getBasicRemote().sendText("not json");
+            session.getBasicRemote().sendText("{\"id\": \"x\"}");
+
+            assertTrue(received.poll(5, TimeUnit.SECONDS).contains("Invalid message"));
+            assertTrue(received.poll(5, TimeUnit.SECONDS).contains("'text' is required"));
+        }
+        verifyNoInteractions(sentimentService);
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackaton_one.sentiment_api.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AnalysisText Entity Tests")
+class AnalysisTextTest {
+
+    @Test
+    @DisplayName("Should keep short texts uncompressed")
+    void shouldKeepShortTextsPlain() {
+        AnalysisText text = AnalysisText.of("h", "Texto curto", 1024);
+
+        assertEquals("Texto curto", text.getTextContent());
+        assertNull(text.getCompressedContent());
+        assertEquals("Texto curto", text.getContent());
+    }
+
+    @Test
+    @DisplayName("Should compress long texts and restore them on read")
+    void shouldCompressLongTexts() {
+        String longText = "Produto excelente, entrega rápida e ótimo atendimento. ".repeat(60);
+
+        AnalysisText text = AnalysisText.of("h", longText, 1024);
+
+        assertNull(text.getTextContent());
+        assertNotNull(text.getCompressedContent());
+        assertTrue(text.getCompressedContent().length < longText.length());
+        assertEquals(longText.length(), text.getTextLength());
+        assertEquals(longText, text.getContent());
+    }
+
+    @Test
+    @DisplayName("Should not compress when threshold is disabled")
+    void shouldNotCompressWhenDisabled() {
+        String longText = "a".repeat(2000);
+
+        AnalysisText text = AnalysisText.of("h", longText, 0);
+
+        assertEquals(longText, text.getTextContent());
+        assertNull(text.getCompressedContent());
+    }
+}
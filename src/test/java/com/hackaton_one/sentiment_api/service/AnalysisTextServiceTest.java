@@ -0,0 +1,126 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.model.AnalysisText;
+import com.hackaton_one.sentiment_api.repository.AnalysisTextRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnalysisTextService Unit Tests")
+class AnalysisTextServiceTest {
+
+    @Mock
+    private AnalysisTextRepository textRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AnalysisTextService textService;
+
+    @Test
+    @DisplayName("Should compute SHA-256 hex digest")
+    void shouldComputeSha256() {
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", AnalysisTextService.hash("hello"));
+    }
+
+    @Test
+    @DisplayName("Should not insert text that is already stored")
+    void shouldSkipExistingText() {
+        String hash = AnalysisTextService.hash("Texto repetido");
+        when(textRepository.lockExisting(Set.of(hash))).thenReturn(List.of(hash));
+
+        assertEquals(hash, textService.store("Texto repetido"));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should insert new text keyed by its hash in the caller transaction")
+    void shouldInsertNewText() {
+        when(textRepository.lockExisting(any())).thenReturn(List.of());
+
+        String hash = textService.store("Texto novo");
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("MERGE INTO tb_analysis_texts"), args.capture());
+        assertEquals(hash, ((SqlParameterValue) args.getValue()[0]).getValue());
+        assertEquals("Texto novo", ((SqlParameterValue) args.getValue()[1]).getValue());
+        assertEquals(10, ((SqlParameterValue) args.getValue()[3]).getValue());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should ignore texts stored concurrently on PostgreSQL")
+    void shouldIgnoreConcurrentInsertOnPostgres() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(textRepository.lockExisting(any())).thenReturn(List.of());
+
+        assertEquals(AnalysisTextService.hash("Texto disputado"), textService.store("Texto disputado"));
+
+        verify(jdbcTemplate).update(endsWith("ON CONFLICT (hash) DO NOTHING"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should insert all new texts of a batch in one statement")
+    void shouldInsertBatchInOneStatement() {
+        String existing = AnalysisTextService.hash("Texto antigo");
+        when(textRepository.lockExisting(any())).thenReturn(List.of(existing));
+
+        List<String> hashes = textService.storeAll(List.of("Texto novo", "Texto antigo", "Outro texto", "Texto novo"));
+
+        assertEquals(List.of(AnalysisTextService.hash("Texto novo"), existing,
+                AnalysisTextService.hash("Outro texto"), AnalysisTextService.hash("Texto novo")), hashes);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(anyString(), args.capture());
+        // Dois textos novos distintos, 5 colunas cada
+        assertEquals(10, args.getValue().length);
+    }
+
+    @Test
+    @DisplayName("Should purge only unreferenced texts older than the grace period")
+    void shouldPurgeOnlyAfterGracePeriod() {
+        when(textRepository.deleteUnreferenced(any())).thenReturn(3);
+
+        assertEquals(3, textService.purgeUnreferenced());
+
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(textRepository).deleteUnreferenced(captor.capture());
+        assertTrue(captor.getValue().isBefore(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(59)));
+    }
+
+    @Test
+    @DisplayName("Should leave the purge for the next run when a new analysis references a text")
+    void shouldToleratePurgeConflict() {
+        when(textRepository.deleteUnreferenced(any()))
+                .thenThrow(new DataIntegrityViolationException("fk_sentiments_text_hash"));
+
+        assertEquals(0, textService.purgeUnreferenced());
+    }
+}
@@ -3,6 +3,7 @@ package com.hackaton_one.sentiment_api.service;
 import com.hackaton_one.sentiment_api.api.dto.BatchSentimentResponseDTO;
 import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
 import com.hackaton_one.sentiment_api.exceptions.CsvProcessingException;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,7 +15,10 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -103,17 +107,16 @@ class BatchServiceTest {
                 csvBytes
         );
 
-        when(sentimentService.analyze("Texto positivo"))
-                .thenReturn(new SentimentResultDTO("POSITIVO", 0.95));
-        when(sentimentService.analyze("Texto negativo"))
-                .thenReturn(new SentimentResultDTO("NEGATIVO", 0.85));
+        when(sentimentService.analyzeBatch(List.of("Texto positivo", "Texto negativo")))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.95), new SentimentResultDTO("NEGATIVO", 0.85)));
 
         BatchSentimentResponseDTO result = batchService.processCSV(csvFile, null);
 
         assertNotNull(result);
         assertEquals(2, result.totalProcessed());
         assertEquals(2, result.results().size());
-        verify(sentimentService, times(2)).analyze(anyString());
+        assertEquals("NEGATIVO", result.results().get(1).sentiment());
+        verify(sentimentService, times(1)).analyzeBatch(anyList());
     }
 
     @Test
@@ -141,14 +144,14 @@ class BatchServiceTest {
                 csvContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)
         );
 
-        when(sentimentService.analyze("Texto customizado"))
-                .thenReturn(new SentimentResultDTO("POSITIVO", 0.90));
+        when(sentimentService.analyzeBatch(List.of("Texto customizado")))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.90)));
 
         BatchSentimentResponseDTO result = batchService.processCSV(csvFile, "comentario");
 
         assertNotNull(result);
         assertEquals(1, result.totalProcessed());
-        verify(sentimentService, times(1)).analyze("Texto customizado");
+        verify(sentimentService, times(1)).analyzeBatch(List.of("Texto customizado"));
     }
 
     @Test
@@ -176,12 +179,12 @@ class BatchServiceTest {
                 csvContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)
         );
 
-        when(sentimentService.analyze("Texto de teste"))
-                .thenReturn(new SentimentResultDTO("POSITIVO", 0.95));
+        when(sentimentService.analyzeBatch(List.of("Texto de teste")))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.95)));
 
         doThrow(new RuntimeException("Database error"))
                 .when(persistenceService)
-                .saveSentiment(anyString(), anyString(), anyDouble());
+                .saveSentiment(anyString(), anyString(), anyDouble(), any());
 
         BatchSentimentResponseDTO result = batchService.processCSV(csvFile, null);
 
@@ -200,8 +203,8 @@ class BatchServiceTest {
                 csvContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)
         );
 
-        when(sentimentService.analyze("Texto com vírgula, aqui"))
-                .thenReturn(new SentimentResultDTO("POSITIVO", 0.90));
+        when(sentimentService.analyzeBatch(List.of("Texto com vírgula, aqui")))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.90)));
 
         BatchSentimentResponseDTO result = batchService.processCSV(csvFile, null);
 
@@ -224,13 +227,33 @@ class BatchServiceTest {
                 csvContent.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8)
         );
 
-        when(sentimentService.analyze(anyString()))
-                .thenReturn(new SentimentResultDTO("POSITIVO", 0.90));
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> new SentimentResultDTO("POSITIVO", 0.90)).toList();
+        });
 
         BatchSentimentResponseDTO result = batchService.processCSV(csvFile, null);
 
         assertNotNull(result);
         assertTrue(result.totalProcessed() <= 100); // maxLines configurado como 100
     }
+
+    @Test
+    @DisplayName("Should reject the whole file before saving anything when the tenant quota is exhausted")
+    void shouldChargeQuotaBeforePersisting() {
+        String csvContent = "text\nTexto um\nTexto dois";
+        MultipartFile csvFile = new MockMultipartFile(
+                "file",
+                "test.csv",
+                "text/csv",
+                csvContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)
+        );
+
+        when(sentimentService.analyzeBatch(List.of("Texto um", "Texto dois")))
+                .thenThrow(new RateLimitExceededException("Rate limit exceeded for tenant 'acme'", 1));
+
+        assertThrows(RateLimitExceededException.class, () -> batchService.processCSV(csvFile, null));
+        verifyNoInteractions(persistenceService);
+    }
 }
 
@@ -0,0 +1,108 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.BulkSentimentResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkAnalysisService Unit Tests")
+class BulkAnalysisServiceTest {
+
+    @Mock
+    private SentimentService sentimentService;
+
+    @Mock
+    private SentimentPersistenceService persistenceService;
+
+    @InjectMocks
+    private BulkAnalysisService bulkAnalysisService;
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should analyze strings and objects in one batch, keeping order and ids")
+    void shouldAnalyzeInOrder() {
+        when(sentimentService.analyzeBatch(List.of("muito bom", "muito ruim"))).thenReturn(List.of(
+                new SentimentResultDTO("positivo", 0.9, InferenceStage.MODEL),
+                new SentimentResultDTO("NEGATIVO", 0.6, InferenceStage.FALLBACK)));
+
+        BulkSentimentResponseDTO response = bulkAnalysisService.analyze(
+                json("[{\"id\": 42, \"text\": \"muito bom\", \"extra\": {\"a\": [1]}}, \"muito ruim\"]"), false);
+
+        assertEquals(2, response.totalProcessed());
+        assertEquals("42", response.results().get(0).id());
+        assertEquals("POSITIVO", response.results().get(0).sentiment());
+        assertNull(response.results().get(0).degraded());
+        assertNull(response.results().get(1).id());
+        assertEquals(Boolean.TRUE, response.results().get(1).degraded());
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    @DisplayName("Should persist all analyses in one batch when requested")
+    void shouldPersistWhenRequested() {
+        List<SentimentResultDTO> results = List.of(
+                new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.MODEL),
+                new SentimentResultDTO("NEGATIVO", 0.8, InferenceStage.MODEL));
+        when(sentimentService.analyzeBatch(List.of("muito bom", "muito ruim"))).thenReturn(results);
+        doThrow(new RuntimeException("db down")).when(persistenceService).saveSentiments(anyList(), anyList());
+
+        BulkSentimentResponseDTO response = bulkAnalysisService.analyze(json("[\"muito bom\", \"muito ruim\"]"), true);
+
+        assertEquals(2, response.totalProcessed());
+        verify(persistenceService).saveSentiments(List.of("muito bom", "muito ruim"), results);
+        verify(persistenceService, never()).saveSentiment(anyString(), anyString(), anyDouble(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject texts that cannot be saved before analyzing when persisting")
+    void shouldValidateLengthBeforePersisting() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bulkAnalysisService.analyze(json("[\"muito bom\", \"ok\"]"), true));
+
+        assertTrue(e.getMessage().startsWith("Item 1:"));
+        verifyNoInteractions(sentimentService, persistenceService);
+    }
+
+    @Test
+    @DisplayName("Should reject bodies that are not a non-empty array of texts")
+    void shouldRejectInvalidBodies() {
+        for (String body : List.of("{\"text\": \"bom\"}", "[]", "[\"bom\", 3]", "[{\"id\": \"a\"}]",
+                "[\"  \"]", "[\"bom\"", "[\"bom\"] []")) {
+            assertThrows(IllegalArgumentException.class, () -> bulkAnalysisService.analyze(json(body), false), body);
+        }
+        verifyNoInteractions(sentimentService);
+    }
+
+    @Test
+    @DisplayName("Should stop reading once the text limit is exceeded")
+    void shouldEnforceTextLimit() {
+        ReflectionTestUtils.setField(bulkAnalysisService, "maxTexts", 2);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bulkAnalysisService.analyze(json("[\"a\", \"b\", \"c\"]"), false));
+
+        assertTrue(e.getMessage().contains("At most 2"));
+        verify(persistenceService, never()).saveSentiment(anyString(), anyString(), anyDouble(), any());
+    }
+}
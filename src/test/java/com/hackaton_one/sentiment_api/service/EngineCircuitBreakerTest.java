@@ -0,0 +1,80 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EngineCircuitBreaker Unit Tests")
+class EngineCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final EngineCircuitBreaker breaker = new EngineCircuitBreaker(3, 1000, now::get);
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.recordFailure();
+        }
+    }
+
+    @Test
+    @DisplayName("Should open after consecutive failures")
+    void shouldOpenAfterConsecutiveFailures() {
+        fail(2);
+        assertEquals(EngineCircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(1);
+
+        assertEquals(EngineCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count on success")
+    void shouldResetOnSuccess() {
+        fail(2);
+        breaker.recordSuccess();
+        fail(2);
+
+        assertEquals(EngineCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should let a single trial through after the open duration and close on success")
+    void shouldCloseAfterSuccessfulTrial() {
+        fail(3);
+        advanceMillis(1000);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(EngineCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+
+        assertEquals(EngineCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Should reopen when the trial fails")
+    void shouldReopenAfterFailedTrial() {
+        fail(3);
+        advanceMillis(1000);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+
+        assertEquals(EngineCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        advanceMillis(1000);
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,143 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.ExportFormat;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportService Unit Tests")
+class ExportServiceTest {
+
+    @Mock
+    private SentimentRepository sentimentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2026, 1, 7, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2026, 1, 7, 11, 0);
+
+    private Stream<Sentiment> rows() {
+        return Stream.of(
+                new Sentiment(1L, "muito bom", "POSITIVO", 0.95, T1),
+                new Sentiment(2L, "ruim, \"péssimo\"", "NEGATIVO", 0.8, T2));
+    }
+
+    private String run(ExportFormat format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(null, null, null, format, gzip).writeTo(out);
+        if (!gzip) {
+            return out.toString(StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line with its resume cursor")
+    void shouldWriteNdjson() throws IOException {
+        when(sentimentRepository.streamForExport(isNull(), isNull(), isNull(), isNull(), anyInt())).thenReturn(rows());
+
+        String[] lines = run(ExportFormat.NDJSON, false).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"analyzed_at\":\"2026-01-07T10:00\""));
+        assertTrue(lines[1].contains("\"text\":\"ruim, \\\"péssimo\\\"\""));
+        assertTrue(lines[1].endsWith("\"cursor\":\"" + new AnalysisCursor(T2, 2L).encode() + "\"}"));
+    }
+
+    @Test
+    @DisplayName("Should write CSV with header and quoted fields")
+    void shouldWriteCsv() throws IOException {
+        when(sentimentRepository.streamForExport(isNull(), isNull(), isNull(), isNull(), anyInt())).thenReturn(rows());
+
+        String[] lines = run(ExportFormat.CSV, false).split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("id,analyzed_at,sentiment,confidence,text,cursor", lines[0]);
+        assertEquals("1,2026-01-07T10:00,POSITIVO,0.95,muito bom," + new AnalysisCursor(T1, 1L).encode(), lines[1]);
+        assertTrue(lines[2].startsWith("2,2026-01-07T11:00,NEGATIVO,0.8,\"ruim, \"\"péssimo\"\"\","));
+    }
+
+    @Test
+    @DisplayName("Should neutralize CSV cells that a spreadsheet would run as a formula")
+    void shouldEscapeFormulaCells() throws IOException {
+        when(sentimentRepository.streamForExport(isNull(), isNull(), isNull(), isNull(), anyInt())).thenReturn(Stream.of(
+                new Sentiment(1L, "=HYPERLINK(\"http://x\")", "NEGATIVO", 0.7, T1),
+                new Sentiment(2L, "@SUM(A1:A2), ótimo", "POSITIVO", 0.9, T2)));
+
+        String[] lines = run(ExportFormat.CSV, false).split("\r\n");
+
+        assertTrue(lines[1].startsWith("1,2026-01-07T10:00,NEGATIVO,0.7,\"'=HYPERLINK(\"\"http://x\"\")\","));
+        assertTrue(lines[2].startsWith("2,2026-01-07T11:00,POSITIVO,0.9,\"'@SUM(A1:A2), ótimo\","));
+    }
+
+    @Test
+    @DisplayName("Should compress output when gzip is requested")
+    void shouldCompressWithGzip() throws IOException {
+        when(sentimentRepository.streamForExport(isNull(), isNull(), isNull(), isNull(), anyInt())).thenReturn(rows());
+
+        String content = run(ExportFormat.NDJSON, true);
+
+        assertEquals(2, content.split("\n").length);
+    }
+
+    @Test
+    @DisplayName("Should resume after the position encoded in the cursor")
+    void shouldResumeFromCursor() throws IOException {
+        String cursor = new AnalysisCursor(T1, 1L).encode();
+        when(sentimentRepository.streamForExport(isNull(), isNull(), eq(T1), eq(1L), anyInt())).thenReturn(Stream.empty());
+
+        exportService.export(null, null, cursor, ExportFormat.NDJSON, false).writeTo(new ByteArrayOutputStream());
+
+        verify(sentimentRepository).streamForExport(isNull(), isNull(), eq(T1), eq(1L), eq(1000));
+    }
+
+    @Test
+    @DisplayName("Should close the database stream after exporting")
+    void shouldCloseDatabaseStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(sentimentRepository.streamForExport(isNull(), isNull(), isNull(), isNull(), anyInt()))
+                .thenReturn(rows().onClose(() -> closed.set(true)));
+
+        run(ExportFormat.CSV, false);
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cursor and range before streaming")
+    void shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.export(null, null, "???", ExportFormat.CSV, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.export(T2, T1, null, ExportFormat.CSV, false));
+        verifyNoInteractions(sentimentRepository);
+    }
+}
@@ -0,0 +1,153 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FairInferenceScheduler Unit Tests")
+class FairInferenceSchedulerTest {
+
+    private TenantProperties properties;
+    private FairInferenceScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantProperties();
+        properties.setInferenceConcurrency(1);
+        properties.setMaxQueueWaitMs(5000);
+        scheduler = new FairInferenceScheduler(properties);
+    }
+
+    @Test
+    @DisplayName("Should run task and return its result")
+    void shouldRunTaskAndReturnItsResult() {
+        assertEquals("ok", scheduler.execute("team-a", 1, () -> "ok"));
+        assertEquals("ok", scheduler.execute(null, 1, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Should run low-priority tasks only on a free slot")
+    void shouldRunLowPriorityTaskOnlyOnFreeSlot() {
+        List<String> ran = new ArrayList<>();
+
+        assertTrue(scheduler.tryExecute(() -> ran.add("idle")));
+        scheduler.execute("team-a", 1, () -> {
+            assertFalse(scheduler.tryExecute(() -> ran.add("busy")));
+            return null;
+        });
+        assertTrue(scheduler.tryExecute(() -> ran.add("idle again")));
+
+        assertEquals(List.of("idle", "idle again"), ran);
+    }
+
+    @Test
+    @DisplayName("Should let a light tenant overtake a queued heavy tenant")
+    void shouldLetLightTenantOvertakeQueuedHeavyTenant() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch blockerRunning = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        executor.submit(() -> scheduler.execute("heavy", 1, () -> {
+            blockerRunning.countDown();
+            await(releaseBlocker);
+            return null;
+        }));
+        assertTrue(blockerRunning.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            enqueue(executor, "heavy", order);
+        }
+        enqueue(executor, "light", order);
+
+        releaseBlocker.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(6, order.size());
+        assertTrue(order.indexOf("light") < 2, "light tenant should be served before the heavy backlog: " + order);
+    }
+
+    @Test
+    @DisplayName("Should fail when capacity is not granted in time")
+    void shouldFailWhenCapacityIsNotGrantedInTime() throws Exception {
+        properties.setMaxQueueWaitMs(50);
+        CountDownLatch blockerRunning = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        executor.submit(() -> scheduler.execute("team-a", 1, () -> {
+            blockerRunning.countDown();
+            await(releaseBlocker);
+            return null;
+        }));
+        assertTrue(blockerRunning.await(5, TimeUnit.SECONDS));
+
+        assertThrows(InferenceOverloadedException.class, () -> scheduler.execute("team-b", 1, () -> null));
+        assertEquals(0, scheduler.getQueueDepth());
+
+        releaseBlocker.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("ok", scheduler.execute("team-b", 1, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Should not charge a tenant for requests that timed out in the queue")
+    void shouldNotChargeTenantForTimedOutRequests() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch blockerRunning = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        executor.submit(() -> scheduler.execute("team-a", 1, () -> {
+            blockerRunning.countDown();
+            await(releaseBlocker);
+            return null;
+        }));
+        assertTrue(blockerRunning.await(5, TimeUnit.SECONDS));
+
+        properties.setMaxQueueWaitMs(50);
+        assertThrows(InferenceOverloadedException.class, () -> scheduler.execute("burst", 1000, () -> null));
+        properties.setMaxQueueWaitMs(5000);
+
+        // Com o custo abandonado ainda na etiqueta, "other" passaria à frente
+        enqueue(executor, "burst", order);
+        enqueue(executor, "other", order);
+
+        releaseBlocker.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(List.of("burst", "other"), order);
+    }
+
+    private void enqueue(ExecutorService executor, String tenant, List<String> order) throws InterruptedException {
+        int depth = scheduler.getQueueDepth();
+        executor.submit(() -> scheduler.execute(tenant, 1, () -> order.add(tenant)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getQueueDepth() == depth && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
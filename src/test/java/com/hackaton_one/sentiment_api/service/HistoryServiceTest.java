@@ -1,12 +1,15 @@
 package com.hackaton_one.sentiment_api.service;
 
+import com.hackaton_one.sentiment_api.api.dto.HistoryFilterDTO;
 import com.hackaton_one.sentiment_api.api.dto.HistoryItemDTO;
 import com.hackaton_one.sentiment_api.api.dto.HistoryItemListDTO;
 import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.HistoryQuery;
 import com.hackaton_one.sentiment_api.repository.SentimentRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +29,9 @@ class HistoryServiceTest {
     @Mock
     private SentimentRepository sentimentRepository;
 
+    @Mock
+    private AnalysisChangeTracker changeTracker;
+
     @InjectMocks
     private HistoryService historyService;
 
@@ -55,7 +62,7 @@ class HistoryServiceTest {
     @DisplayName("Should return history with valid data")
     void shouldReturnHistoryWithValidData() {
         List<Sentiment> sentiments = createSampleSentiments();
-        when(sentimentRepository.findTop100ByOrderByAnalyzedAtDesc()).thenReturn(sentiments);
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(sentiments);
 
         HistoryItemListDTO result = historyService.getHistory();
 
@@ -70,26 +77,26 @@ class HistoryServiceTest {
         assertEquals(0.95, first.confidenceScore());
         assertNotNull(first.analyzedAt());
 
-        verify(sentimentRepository, times(1)).findTop100ByOrderByAnalyzedAtDesc();
+        verify(sentimentRepository, times(1)).findHistoryPage(any());
     }
 
     @Test
     @DisplayName("Should return empty list when no history exists")
     void shouldReturnEmptyListWhenNoHistoryExists() {
-        when(sentimentRepository.findTop100ByOrderByAnalyzedAtDesc()).thenReturn(new ArrayList<>());
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(new ArrayList<>());
 
         HistoryItemListDTO result = historyService.getHistory();
 
         assertNotNull(result);
         assertNotNull(result.historyItemList());
         assertTrue(result.historyItemList().isEmpty());
-        verify(sentimentRepository, times(1)).findTop100ByOrderByAnalyzedAtDesc();
+        verify(sentimentRepository, times(1)).findHistoryPage(any());
     }
 
     @Test
     @DisplayName("Should throw exception when repository fails")
     void shouldThrowExceptionWhenRepositoryFails() {
-        when(sentimentRepository.findTop100ByOrderByAnalyzedAtDesc())
+        when(sentimentRepository.findHistoryPage(any()))
                 .thenThrow(new RuntimeException("Database error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> historyService.getHistory());
@@ -107,7 +114,7 @@ class HistoryServiceTest {
         sentiment.setConfidenceScore(0.99);
         sentiment.setAnalyzedAt(LocalDateTime.of(2026, 1, 7, 10, 30));
 
-        when(sentimentRepository.findTop100ByOrderByAnalyzedAtDesc())
+        when(sentimentRepository.findHistoryPage(any()))
                 .thenReturn(List.of(sentiment));
 
         HistoryItemListDTO result = historyService.getHistory();
@@ -134,12 +141,118 @@ class HistoryServiceTest {
             largeSentiments.add(s);
         }
 
-        when(sentimentRepository.findTop100ByOrderByAnalyzedAtDesc()).thenReturn(largeSentiments);
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(largeSentiments);
 
         HistoryItemListDTO result = historyService.getHistory();
 
         assertNotNull(result);
         assertEquals(100, result.historyItemList().size());
     }
-}
 
+    @Test
+    @DisplayName("Should request first page with text and no cursor by default")
+    void shouldRequestDefaultFirstPage() {
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(List.of());
+
+        historyService.getHistory();
+
+        ArgumentCaptor<HistoryQuery> captor = ArgumentCaptor.forClass(HistoryQuery.class);
+        verify(sentimentRepository).findHistoryPage(captor.capture());
+        HistoryQuery query = captor.getValue();
+        assertEquals(101, query.limit());
+        assertTrue(query.includeText());
+        assertNull(query.afterAnalyzedAt());
+        assertNull(query.sentiment());
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when there are more rows than the page size")
+    void shouldReturnNextCursorWhenMoreRowsExist() {
+        List<Sentiment> sentiments = createSampleSentiments();
+        Sentiment extra = new Sentiment(3L, null, "POSITIVO", 0.7, LocalDateTime.of(2026, 1, 1, 0, 0));
+        sentiments.add(extra);
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(sentiments);
+
+        HistoryItemListDTO result = historyService.getHistory(
+                new HistoryFilterDTO(null, 2, null, null, null, null, null, null, null));
+
+        assertEquals(2, result.historyItemList().size());
+        Sentiment last = sentiments.get(1);
+        assertEquals(new AnalysisCursor(last.getAnalyzedAt(), last.getId()).encode(), result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should omit next cursor on the last page")
+    void shouldOmitNextCursorOnLastPage() {
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(createSampleSentiments());
+
+        HistoryItemListDTO result = historyService.getHistory(
+                new HistoryFilterDTO(null, 2, null, null, null, null, null, null, null));
+
+        assertEquals(2, result.historyItemList().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should translate cursor and filters into the keyset query")
+    void shouldTranslateCursorAndFilters() {
+        LocalDateTime position = LocalDateTime.of(2026, 1, 7, 10, 30, 15, 123_456_000);
+        String cursor = new AnalysisCursor(position, 42L).encode();
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(List.of());
+
+        historyService.getHistory(new HistoryFilterDTO(cursor, 50, "positive", null, 0.5, 0.9,
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0), false));
+
+        ArgumentCaptor<HistoryQuery> captor = ArgumentCaptor.forClass(HistoryQuery.class);
+        verify(sentimentRepository).findHistoryPage(captor.capture());
+        HistoryQuery query = captor.getValue();
+        assertEquals(position, query.afterAnalyzedAt());
+        assertEquals(42L, query.afterId());
+        assertEquals("POSITIVO", query.sentiment());
+        assertEquals(0.5, query.minConfidence());
+        assertEquals(0.9, query.maxConfidence());
+        assertEquals(51, query.limit());
+        assertFalse(query.includeText());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cursor")
+    void shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO("not-a-cursor", null, null, null, null, null, null, null, null)));
+        verifyNoInteractions(sentimentRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject out of range parameters")
+    void shouldRejectOutOfRangeParameters() {
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO(null, 0, null, null, null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO(null, 501, null, null, null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO(null, null, null, null, 0.9, 0.5, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO(null, null, "NEUTRO", null, null, null, null, null, null)));
+        verifyNoInteractions(sentimentRepository);
+    }
+
+    @Test
+    @DisplayName("Should filter by text hash and expose it in the items")
+    void shouldFilterByTextHash() {
+        String hash = AnalysisTextService.hash("Texto positivo");
+        Sentiment sentiment = new Sentiment(1L, "Texto positivo", "POSITIVO", 0.9, LocalDateTime.now());
+        sentiment.setTextHash(hash);
+        when(sentimentRepository.findHistoryPage(any())).thenReturn(List.of(sentiment));
+
+        HistoryItemListDTO result = historyService.getHistory(
+                new HistoryFilterDTO(null, null, null, hash.toUpperCase(), null, null, null, null, null));
+
+        ArgumentCaptor<HistoryQuery> captor = ArgumentCaptor.forClass(HistoryQuery.class);
+        verify(sentimentRepository).findHistoryPage(captor.capture());
+        assertEquals(hash, captor.getValue().textHash());
+        assertEquals(hash, result.historyItemList().getFirst().textHash());
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(
+                new HistoryFilterDTO(null, null, null, "abc", null, null, null, null, null)));
+    }
+}
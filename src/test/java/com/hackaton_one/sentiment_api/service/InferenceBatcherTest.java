@@ -0,0 +1,154 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.config.ModelVariantContext;
+import com.hackaton_one.sentiment_api.config.TenantContext;
+import com.hackaton_one.sentiment_api.exceptions.InferenceOverloadedException;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InferenceBatcher Unit Tests")
+class InferenceBatcherTest {
+
+    @Mock
+    private SentimentService sentimentService;
+
+    private InferenceBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new InferenceBatcher(sentimentService);
+        ReflectionTestUtils.setField(batcher, "maxWaitMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    private static List<SentimentResultDTO> echo(List<String> texts) {
+        return texts.stream().map(t -> new SentimentResultDTO(t, 0.9, InferenceStage.MODEL)).toList();
+    }
+
+    @Test
+    @DisplayName("Should analyze texts submitted together in a single batch")
+    void shouldBatchSubmissions() throws Exception {
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(inv -> echo(inv.getArgument(0)));
+        batcher.start();
+
+        CompletableFuture<SentimentResultDTO> a = batcher.submit(null, null, "POSITIVO");
+        CompletableFuture<SentimentResultDTO> b = batcher.submit(null, null, "NEGATIVO");
+
+        assertEquals("POSITIVO", a.get(5, TimeUnit.SECONDS).previsao());
+        assertEquals("NEGATIVO", b.get(5, TimeUnit.SECONDS).previsao());
+        verify(sentimentService).analyzeBatch(List.of("POSITIVO", "NEGATIVO"));
+    }
+
+    @Test
+    @DisplayName("Should split batches by tenant and variant, with each group's context set")
+    void shouldGroupByTenantAndVariant() throws Exception {
+        Map<String, String> contexts = new ConcurrentHashMap<>();
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(inv -> {
+            List<String> texts = inv.getArgument(0);
+            contexts.put(String.join(",", texts), TenantContext.current() + "/" + ModelVariantContext.current());
+            return echo(texts);
+        });
+        batcher.start();
+
+        CompletableFuture<SentimentResultDTO> a = batcher.submit("acme", null, "a");
+        CompletableFuture<SentimentResultDTO> b = batcher.submit("globex", "distilled", "b");
+        CompletableFuture<SentimentResultDTO> c = batcher.submit("acme", null, "c");
+        CompletableFuture.allOf(a, b, c).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of("a,c", "acme/null", "b", "globex/distilled"), contexts);
+    }
+
+    @Test
+    @DisplayName("Should fail every text of a batch that fails")
+    void shouldPropagateFailures() {
+        when(sentimentService.analyzeBatch(anyList())).thenThrow(new RateLimitExceededException("Quota exceeded", 1));
+        batcher.start();
+
+        CompletableFuture<SentimentResultDTO> result = batcher.submit("acme", null, "a");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RateLimitExceededException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should reject texts once stopped")
+    void shouldRejectAfterStop() {
+        batcher.start();
+        batcher.stop();
+
+        assertTrue(batcher.submit(null, null, "a").isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("Should fail texts as overloaded once the queue is full")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        Semaphore started = new Semaphore(0);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sentimentService.analyzeBatch(anyList())).thenAnswer(inv -> {
+            started.release();
+            release.await(5, TimeUnit.SECONDS);
+            return echo(inv.getArgument(0));
+        });
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 1);
+        ReflectionTestUtils.setField(batcher, "maxWaitMs", 0L);
+        ReflectionTestUtils.setField(batcher, "workers", 1);
+        ReflectionTestUtils.setField(batcher, "maxQueued", 1);
+        batcher.start();
+
+        // "a" ocupa o único worker
+        CompletableFuture<SentimentResultDTO> a = batcher.submit(null, null, "a");
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+        // "b" sai da fila do batcher para a fila do pool, que fica cheia
+        CompletableFuture<SentimentResultDTO> b = batcher.submit(null, null, "b");
+        awaitQueueDepth(0);
+        // "c" encontra o pool cheio e é executado pelo próprio despachante, que para de formar lotes
+        CompletableFuture<SentimentResultDTO> c = batcher.submit(null, null, "c");
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+
+        CompletableFuture<SentimentResultDTO> queued = batcher.submit(null, null, "d");
+        assertEquals(1, batcher.getQueueDepth());
+        CompletableFuture<SentimentResultDTO> rejected = batcher.submit(null, null, "e");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InferenceOverloadedException.class, e.getCause());
+
+        release.countDown();
+        CompletableFuture.allOf(a, b, c).get(5, TimeUnit.SECONDS);
+        assertEquals("d", queued.get(5, TimeUnit.SECONDS).previsao());
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batcher.getQueueDepth() != depth) {
+            assertTrue(System.nanoTime() < deadline, "Queue depth never reached " + depth);
+            Thread.sleep(5);
+        }
+    }
+}
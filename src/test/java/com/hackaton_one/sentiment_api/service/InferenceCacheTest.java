@@ -0,0 +1,194 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.model.InferenceCacheEntry;
+import com.hackaton_one.sentiment_api.model.InferenceCacheKey;
+import com.hackaton_one.sentiment_api.repository.InferenceCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InferenceCache Unit Tests")
+class InferenceCacheTest {
+
+    private static final String MODEL = "sha256-0123456789abcdef";
+
+    @Mock
+    private InferenceCacheRepository cacheRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InferenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new InferenceCache(cacheRepository, transactionTemplate, 2, Optional.empty());
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should serve put results from memory without touching the database")
+    void shouldServeFromMemory() {
+        cache.put("muito bom", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+
+        assertEquals(Optional.of(new SentimentResultDTO("POSITIVO", 0.9)), cache.get("muito bom", MODEL));
+        verifyNoInteractions(cacheRepository);
+    }
+
+    @Test
+    @DisplayName("Should ignore whitespace differences in the key")
+    void shouldNormalizeWhitespace() {
+        assertEquals(InferenceCache.key("muito  bom\n", MODEL), InferenceCache.key(" muito bom", MODEL));
+        assertNotEquals(InferenceCache.key("muito bom", MODEL), InferenceCache.key("muito bom", "other"));
+    }
+
+    @Test
+    @DisplayName("Should read through to the shared table on memory miss")
+    void shouldReadThroughToDatabase() {
+        InferenceCacheKey key = InferenceCache.key("texto de outra réplica", MODEL);
+        when(cacheRepository.findById(key)).thenReturn(Optional.of(
+                new InferenceCacheEntry(key, "NEGATIVO", 0.8, LocalDateTime.now())));
+
+        assertEquals(Optional.of(new SentimentResultDTO("NEGATIVO", 0.8)), cache.get("texto de outra réplica", MODEL));
+        assertTrue(cache.get("texto de outra réplica", MODEL).isPresent());
+        verify(cacheRepository, times(1)).findById(key);
+    }
+
+    @Test
+    @DisplayName("Should treat database failures as misses")
+    void shouldTreatDatabaseFailureAsMiss() {
+        when(cacheRepository.findById(any())).thenThrow(new RuntimeException("connection refused"));
+
+        assertTrue(cache.get("qualquer texto", MODEL).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not cache when no model version is known")
+    void shouldSkipWithoutModelVersion() {
+        cache.put("texto", null, new SentimentResultDTO("POSITIVO", 0.9));
+
+        assertTrue(cache.get("texto", null).isEmpty());
+        cache.flush();
+        verifyNoInteractions(cacheRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should write only entries missing from the table on flush")
+    void shouldWriteMissingEntriesOnFlush() {
+        cache.put("já gravado", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        cache.put("novo", MODEL, new SentimentResultDTO("NEGATIVO", 0.7));
+        InferenceCacheKey existing = InferenceCache.key("já gravado", MODEL);
+        when(cacheRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new InferenceCacheEntry(existing, "POSITIVO", 0.9, LocalDateTime.now())));
+
+        cache.flush();
+
+        ArgumentCaptor<List<InferenceCacheEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(cacheRepository).saveAllAndFlush(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(InferenceCache.key("novo", MODEL), captor.getValue().getFirst().getKey());
+
+        cache.flush();
+        verify(cacheRepository, times(1)).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should retry once when another replica inserted the same entries")
+    void shouldRetryAfterConflict() {
+        cache.put("disputado", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        when(cacheRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(cacheRepository.saveAllAndFlush(anyIterable()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(List.of());
+
+        cache.flush();
+
+        verify(cacheRepository, times(2)).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should count results dropped while the write-behind queue is full")
+    void shouldCountDroppedWrites() {
+        ReflectionTestUtils.setField(cache, "maxPending", 1);
+        cache.put("primeiro", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        cache.put("segundo", MODEL, new SentimentResultDTO("NEGATIVO", 0.8));
+        cache.put("primeiro", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+
+        assertEquals(1, cache.getDroppedWrites());
+        assertEquals(Optional.of(new SentimentResultDTO("NEGATIVO", 0.8)), cache.get("segundo", MODEL));
+    }
+
+    @Test
+    @DisplayName("Should delete shared entries older than the TTL")
+    void shouldPurgeExpiredEntries() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cacheRepository.deleteCreatedBefore(any())).thenReturn(5);
+
+        cache.purgeExpired();
+
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cacheRepository).deleteCreatedBefore(captor.capture());
+        assertTrue(captor.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries from memory")
+    void shouldEvictLeastRecentlyUsed() {
+        cache.put("a", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        cache.put("b", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        cache.get("a", MODEL);
+        cache.put("c", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        cache.flush();
+        lenient().when(cacheRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertTrue(cache.get("a", MODEL).isPresent());
+        assertTrue(cache.get("b", MODEL).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should serve results from the local file tier after a restart")
+    void shouldServeFromFileTier(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("cache.bin");
+        try (MappedResultCache fileCache = new MappedResultCache(file, 64 * 1024)) {
+            new InferenceCache(cacheRepository, transactionTemplate, 2, Optional.of(fileCache))
+                    .put("texto aquecido", MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        }
+
+        try (MappedResultCache fileCache = new MappedResultCache(file, 64 * 1024)) {
+            InferenceCache restarted = new InferenceCache(cacheRepository, transactionTemplate, 2, Optional.of(fileCache));
+
+            assertEquals(Optional.of(new SentimentResultDTO("POSITIVO", 0.9)), restarted.get("texto aquecido", MODEL));
+            verify(cacheRepository, never()).findById(any());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MappedResultCache Unit Tests")
+class MappedResultCacheTest {
+
+    private static final String MODEL = "sha256-0123456789abcdef";
+    private static final long SIZE = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private static String hash(String text) {
+        return AnalysisTextService.hash(text);
+    }
+
+    @Test
+    @DisplayName("Should store and read results by text hash and model version")
+    void shouldStoreAndRead() throws IOException {
+        try (MappedResultCache cache = new MappedResultCache(dir.resolve("cache.bin"), SIZE)) {
+            cache.put(hash("muito bom"), MODEL, new SentimentResultDTO("POSITIVO", 0.93));
+
+            assertEquals(new SentimentResultDTO("POSITIVO", 0.93), cache.get(hash("muito bom"), MODEL));
+            assertNull(cache.get(hash("muito bom"), "other-model"));
+            assertNull(cache.get(hash("outro texto"), MODEL));
+        }
+    }
+
+    @Test
+    @DisplayName("Should overwrite the entry of the same text")
+    void shouldOverwriteSameText() throws IOException {
+        try (MappedResultCache cache = new MappedResultCache(dir.resolve("cache.bin"), SIZE)) {
+            cache.put(hash("texto"), MODEL, new SentimentResultDTO("POSITIVO", 0.6));
+            cache.put(hash("texto"), MODEL, new SentimentResultDTO("NEGATIVO", 0.7));
+
+            assertEquals(new SentimentResultDTO("NEGATIVO", 0.7), cache.get(hash("texto"), MODEL));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep entries across reopen")
+    void shouldSurviveReopen() throws IOException {
+        Path file = dir.resolve("cache.bin");
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE)) {
+            cache.put(hash("persistente"), MODEL, new SentimentResultDTO("NEGATIVO", 0.81));
+        }
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE)) {
+            assertEquals(new SentimentResultDTO("NEGATIVO", 0.81), cache.get(hash("persistente"), MODEL));
+        }
+    }
+
+    @Test
+    @DisplayName("Should recreate the file when the layout changes")
+    void shouldRecreateIncompatibleFile() throws IOException {
+        Path file = dir.resolve("cache.bin");
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE)) {
+            cache.put(hash("antigo"), MODEL, new SentimentResultDTO("POSITIVO", 0.9));
+        }
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE * 2)) {
+            assertNull(cache.get(hash("antigo"), MODEL));
+            assertEquals(SIZE * 2 / MappedResultCache.SLOT_SIZE / 2, cache.capacity());
+        }
+        Files.write(file, new byte[]{1, 2, 3});
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE)) {
+            assertNull(cache.get(hash("antigo"), MODEL));
+        }
+    }
+
+    @Test
+    @DisplayName("Should never grow beyond the configured size")
+    void shouldStayWithinSizeBound() throws IOException {
+        Path file = dir.resolve("cache.bin");
+        try (MappedResultCache cache = new MappedResultCache(file, SIZE)) {
+            for (int i = 0; i < 10_000; i++) {
+                cache.put(hash("texto " + i), MODEL, new SentimentResultDTO("POSITIVO", 0.5));
+            }
+            assertEquals(new SentimentResultDTO("POSITIVO", 0.5), cache.get(hash("texto 9999"), MODEL));
+        }
+        assertTrue(Files.size(file) <= SIZE);
+    }
+
+    @Test
+    @DisplayName("Should never return torn results under concurrent writes")
+    void shouldReturnConsistentResultsUnderConcurrency() throws Exception {
+        try (MappedResultCache cache = new MappedResultCache(dir.resolve("cache.bin"), SIZE)) {
+            String key = hash("disputado");
+            AtomicInteger inconsistent = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 2; t++) {
+                pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        boolean positive = i % 2 == 0;
+                        cache.put(key, MODEL, new SentimentResultDTO(positive ? "POSITIVO" : "NEGATIVO", positive ? 0.25 : 0.75));
+                    }
+                });
+                pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        SentimentResultDTO result = cache.get(key, MODEL);
+                        if (result != null && (result.previsao().equals("POSITIVO") != (result.probabilidade() == 0.25))) {
+                            inconsistent.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+            assertEquals(0, inconsistent.get());
+        }
+    }
+}
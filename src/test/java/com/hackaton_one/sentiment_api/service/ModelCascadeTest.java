@@ -0,0 +1,100 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.CascadeStatsDTO;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ModelCascade Unit Tests")
+class ModelCascadeTest {
+
+    private static ModelCascade cascade(double threshold) {
+        return new ModelCascade(true, threshold, new ClassPathResource("lexicon/sentiment-lexicon.txt"));
+    }
+
+    @Test
+    @DisplayName("Should answer obvious texts in the first stage")
+    void shouldAnswerObviousTexts() {
+        ModelCascade cascade = cascade(0.9);
+
+        Optional<SentimentResultDTO> positive = cascade.firstStage("Produto excelente, adorei!");
+        Optional<SentimentResultDTO> negative = cascade.firstStage("Péssimo atendimento, horrível.");
+
+        assertTrue(positive.isPresent());
+        assertEquals("POSITIVO", positive.get().previsao());
+        assertEquals(InferenceStage.LEXICON, positive.get().estagio());
+        assertTrue(negative.isPresent());
+        assertEquals("NEGATIVO", negative.get().previsao());
+    }
+
+    @Test
+    @DisplayName("Should escalate texts without enough evidence")
+    void shouldEscalateUncertainTexts() {
+        ModelCascade cascade = cascade(0.9);
+
+        assertTrue(cascade.firstStage("O pedido chegou na terça-feira.").isEmpty());
+        assertTrue(cascade.firstStage("Bom produto, mas chegou com defeito.").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should invert polarity after a negation")
+    void shouldHandleNegation() {
+        ModelCascade cascade = cascade(0.8);
+
+        Optional<SentimentResultDTO> result = cascade.firstStage("Não gostei, nada bom e muito ruim");
+
+        assertTrue(result.isPresent());
+        assertEquals("NEGATIVO", result.get().previsao());
+    }
+
+    @Test
+    @DisplayName("Should report the escalation rate")
+    void shouldReportEscalationRate() {
+        ModelCascade cascade = cascade(0.9);
+        cascade.firstStage("Excelente, recomendo!");
+        cascade.firstStage("Horrível, odiei.");
+        cascade.firstStage("Chegou ontem.");
+        cascade.firstStage("Recebi a caixa.");
+
+        CascadeStatsDTO stats = cascade.getStats();
+
+        assertTrue(stats.enabled());
+        assertEquals(2, stats.firstStage());
+        assertEquals(2, stats.escalated());
+        assertEquals(0.5, stats.escalationRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should always escalate when disabled")
+    void shouldEscalateWhenDisabled() {
+        ModelCascade cascade = new ModelCascade(false, 0.9, new ClassPathResource("lexicon/sentiment-lexicon.txt"));
+
+        assertTrue(cascade.firstStage("Excelente, adorei!").isEmpty());
+        assertEquals(new CascadeStatsDTO(false, 0.9, 0, 0, 0.0), cascade.getStats());
+    }
+
+    @Test
+    @DisplayName("Should disable the cascade when the lexicon is invalid")
+    void shouldDisableOnInvalidLexicon() {
+        ModelCascade cascade = new ModelCascade(true, 0.9,
+                new ByteArrayResource("bom muito positivo\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(cascade.isEnabled());
+        assertTrue(cascade.firstStage("bom").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject thresholds that would answer every text")
+    void shouldRejectInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ModelCascade(true, 0.5, new ClassPathResource("lexicon/sentiment-lexicon.txt")));
+    }
+}
@@ -0,0 +1,208 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.RescoreStatusDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ModelRescoringService Unit Tests")
+class ModelRescoringServiceTest {
+
+    private static final LocalDateTime ANALYZED_AT = LocalDateTime.of(2026, 1, 7, 10, 0);
+
+    @Mock
+    private SentimentRepository sentimentRepository;
+
+    @Mock
+    private SentimentService sentimentService;
+
+    @Mock
+    private ModelVariantRegistry modelVariants;
+
+    @Mock
+    private SentimentEngine engine;
+
+    @Mock
+    private FairInferenceScheduler inferenceScheduler;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SentimentRollupService rollupService;
+
+    @Mock
+    private StatisticsCounters statisticsCounters;
+
+    @Mock
+    private AnalysisChangeTracker changeTracker;
+
+    private ModelRescoringService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new ModelRescoringService(sentimentRepository, sentimentService, modelVariants, inferenceScheduler,
+                jdbcTemplate, transactionTemplate, rollupService, statisticsCounters, changeTracker);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "cpuBudget", 1.0);
+        ReflectionTestUtils.setField(service, "idleWaitMs", 1L);
+        service.init();
+        lenient().when(modelVariants.resolve(null)).thenReturn(new ModelVariant("default", engine, null));
+        lenient().when(engine.isAvailable()).thenReturn(true);
+        lenient().when(engine.version()).thenReturn("v2");
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static Sentiment row(long id, String text, String sentiment) {
+        Sentiment row = new Sentiment(id, text, sentiment, 0.8, ANALYZED_AT.plusMinutes(id));
+        row.setModelVersion("v1");
+        return row;
+    }
+
+    private static SentimentResultDTO result(String sentiment, InferenceStage stage) {
+        return new SentimentResultDTO(sentiment, 0.9, stage);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should page by id, write batched updates and rebuild the statistics")
+    void shouldRescoreStaleRows() {
+        when(sentimentRepository.countByModelVersionIsNullOrModelVersionNot("v2")).thenReturn(3L);
+        when(sentimentRepository.findStaleModelVersion("v2", 0L, 2))
+                .thenReturn(List.of(row(1, "bom demais", "NEGATIVO"), row(4, "ruim demais", "NEGATIVO")));
+        when(sentimentRepository.findStaleModelVersion("v2", 4L, 2))
+                .thenReturn(List.of(row(9, "produto ok", "POSITIVO")));
+        when(sentimentRepository.findStaleModelVersion("v2", 9L, 2)).thenReturn(List.of());
+        when(sentimentService.analyzeBatch(List.of("bom demais", "ruim demais")))
+                .thenReturn(List.of(result("positivo", InferenceStage.MODEL), result("NEGATIVO", InferenceStage.CACHE)));
+        when(sentimentService.analyzeBatch(List.of("produto ok")))
+                .thenReturn(List.of(result("POSITIVO", InferenceStage.FALLBACK)));
+
+        service.run("v2");
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ModelRescoringService.UPDATE_SQL), captor.capture());
+        assertArrayEquals(new Object[]{"POSITIVO", 0.9, "v2", 1L, ANALYZED_AT.plusMinutes(1)},
+                captor.getValue().get(0));
+        assertArrayEquals(new Object[]{"NEGATIVO", 0.9, "v2", 4L, ANALYZED_AT.plusMinutes(4)},
+                captor.getValue().get(1));
+        verify(rollupService).rebuild();
+        verify(statisticsCounters).reconcile();
+        verify(changeTracker).markChanged();
+
+        RescoreStatusDTO status = service.getStatus();
+        assertEquals(3, status.total());
+        assertEquals(3, status.processed());
+        assertEquals(2, status.updated());
+        assertEquals(1, status.changed());
+        assertEquals(1, status.skipped());
+        assertEquals(9, status.lastId());
+        assertEquals(100.0, status.progressPercent());
+    }
+
+    @Test
+    @DisplayName("Should not rebuild statistics when nothing was updated")
+    void shouldSkipRebuildWhenNothingChanged() {
+        when(sentimentRepository.findStaleModelVersion("v2", 0L, 2)).thenReturn(List.of());
+
+        service.run("v2");
+
+        verifyNoInteractions(jdbcTemplate, rollupService, statisticsCounters);
+    }
+
+    @Test
+    @DisplayName("Should wait while live requests are queued for inference")
+    void shouldYieldToLiveTraffic() {
+        when(inferenceScheduler.getQueueDepth()).thenReturn(3, 1, 0);
+        when(sentimentRepository.findStaleModelVersion("v2", 0L, 2)).thenReturn(List.of());
+
+        service.run("v2");
+
+        verify(inferenceScheduler, times(3)).getQueueDepth();
+        assertEquals("COMPLETED", service.getStatus().state());
+    }
+
+    @Test
+    @DisplayName("Should fail the run and keep the position when inference fails")
+    void shouldFailOnInferenceError() {
+        when(sentimentRepository.findStaleModelVersion("v2", 0L, 2)).thenReturn(List.of(row(5, "texto", "POSITIVO")));
+        when(sentimentService.analyzeBatch(anyList())).thenThrow(new IllegalStateException("model down"));
+
+        service.run("v2");
+
+        RescoreStatusDTO status = service.getStatus();
+        assertEquals("FAILED", status.state());
+        assertEquals("model down", status.error());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a loaded model")
+    void shouldNotStartWithoutModel() {
+        when(engine.isAvailable()).thenReturn(false);
+
+        assertFalse(service.start());
+        assertEquals("FAILED", service.getStatus().state());
+        verify(sentimentRepository, never()).findStaleModelVersion(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should pause between pages and resume to completion")
+    void shouldPauseAndResume() throws Exception {
+        when(sentimentRepository.findStaleModelVersion("v2", 0L, 2)).thenAnswer(invocation -> {
+            service.pause();
+            return List.of(row(1, "bom demais", "POSITIVO"));
+        });
+        when(sentimentRepository.findStaleModelVersion("v2", 1L, 2)).thenReturn(List.of());
+        when(sentimentService.analyzeBatch(anyList())).thenReturn(List.of(result("POSITIVO", InferenceStage.MODEL)));
+
+        assertTrue(service.start());
+        assertFalse(service.start());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.getStatus().processed() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertEquals("PAUSED", service.getStatus().state());
+        verify(sentimentRepository, never()).findStaleModelVersion("v2", 1L, 2);
+
+        service.resume();
+        while (!"COMPLETED".equals(service.getStatus().state()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("COMPLETED", service.getStatus().state());
+        assertEquals(1, service.getStatus().updated());
+        service.shutdown();
+    }
+}
@@ -0,0 +1,132 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.ModelVariantStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ModelVariantRegistry Unit Tests")
+class ModelVariantRegistryTest {
+
+    @Mock
+    private SentimentEngine defaultEngine;
+
+    @Mock
+    private SentimentEngine distilledEngine;
+
+    private ModelVariantRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ModelVariantRegistry(defaultEngine, new EngineCircuitBreaker(5, 30000));
+    }
+
+    @Test
+    @DisplayName("Should resolve the default variant when none is requested")
+    void shouldResolveDefault() {
+        assertSame(defaultEngine, registry.resolve(null).engine());
+        assertSame(defaultEngine, registry.resolve("default").engine());
+    }
+
+    @Test
+    @DisplayName("Should resolve registered variants by name")
+    void shouldResolveRegisteredVariant() {
+        registry.register("distilled", distilledEngine);
+
+        ModelVariant variant = registry.resolve("distilled");
+
+        assertSame(distilledEngine, variant.engine());
+        assertNotSame(registry.getDefaultModel().circuitBreaker(), variant.circuitBreaker());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown variants listing the available ones")
+    void shouldRejectUnknownVariant() {
+        registry.register("distilled", distilledEngine);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> registry.resolve("tiny"));
+
+        assertTrue(e.getMessage().contains("default, distilled"));
+    }
+
+    @Test
+    @DisplayName("Should use the configured default variant")
+    void shouldUseConfiguredDefault() {
+        ReflectionTestUtils.setField(registry, "defaultVariant", "distilled");
+        registry.register("distilled", distilledEngine);
+
+        assertSame(distilledEngine, registry.resolve(null).engine());
+    }
+
+    @Test
+    @DisplayName("Should skip model files that cannot be loaded and fall back to the default variant")
+    void shouldSkipInvalidModels(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("broken.onnx"), "not a model");
+        ReflectionTestUtils.setField(registry, "variantsDir", dir.toString());
+        ReflectionTestUtils.setField(registry, "defaultVariant", "broken");
+
+        registry.loadVariants();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("broken"));
+        assertSame(defaultEngine, registry.resolve(null).engine());
+    }
+
+    @Test
+    @DisplayName("Should report latency, throughput and failures per variant")
+    void shouldReportStats() {
+        when(defaultEngine.version()).thenReturn("sha256-default");
+        when(defaultEngine.isAvailable()).thenReturn(true);
+        when(distilledEngine.version()).thenReturn("sha256-distilled");
+        registry.register("distilled", distilledEngine);
+        ModelVariant variant = registry.resolve("distilled");
+        for (int i = 0; i < 98; i++) {
+            variant.recordInference(TimeUnit.MILLISECONDS.toNanos(2));
+        }
+        variant.recordInference(TimeUnit.MILLISECONDS.toNanos(50));
+        variant.recordInference(TimeUnit.MILLISECONDS.toNanos(50));
+        variant.recordFailure();
+
+        List<ModelVariantStatsDTO> stats = registry.getStats();
+
+        assertEquals(List.of("default", "distilled"), stats.stream().map(ModelVariantStatsDTO::name).toList());
+        ModelVariantStatsDTO distilled = stats.get(1);
+        assertFalse(distilled.isDefault());
+        assertEquals("sha256-distilled", distilled.version());
+        assertEquals("CLOSED", distilled.circuitState());
+        assertEquals(100, distilled.inferences());
+        assertEquals(1, distilled.failures());
+        assertTrue(distilled.inferencesPerSecond() > 0);
+        assertEquals(2.96, distilled.meanLatencyMillis(), 0.01);
+        assertEquals(2.0, distilled.p50LatencyMillis(), 0.5);
+        assertEquals(50.0, distilled.p99LatencyMillis(), 50.0 * 0.25);
+        assertTrue(stats.get(0).isDefault());
+    }
+
+    @Test
+    @DisplayName("Should approximate percentiles within a quarter of the value")
+    void shouldApproximatePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(5.0, histogram.percentileMillis(0.50), 5.0 * 0.25);
+        assertEquals(9.9, histogram.percentileMillis(0.99), 9.9 * 0.25);
+        assertEquals(0.0, new LatencyHistogram().percentileMillis(0.99));
+    }
+}
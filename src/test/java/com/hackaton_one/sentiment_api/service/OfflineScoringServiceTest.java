@@ -0,0 +1,150 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OfflineScoringService Unit Tests")
+class OfflineScoringServiceTest {
+
+    @Mock
+    private SentimentService sentimentService;
+
+    @Mock
+    private SentimentPersistenceService persistenceService;
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OfflineScoringService scoringService;
+
+    @BeforeEach
+    void setUp() {
+        scoringService = new OfflineScoringService(sentimentService, persistenceService, objectMapper);
+        ReflectionTestUtils.setField(scoringService, "batchSize", 3);
+        // Blocos minúsculos para exercitar a divisão do arquivo entre os workers
+        ReflectionTestUtils.setField(scoringService, "chunkBytes", 40L);
+        lenient().when(sentimentService.analyzeBatch(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<SentimentResultDTO> results = new ArrayList<>();
+            for (String text : texts) {
+                results.add(new SentimentResultDTO(text.contains("ruim") ? "negativo" : "POSITIVO", 0.9,
+                        InferenceStage.MODEL));
+            }
+            return results;
+        });
+    }
+
+    private Map<String, JsonNode> readOutput(Path output) throws Exception {
+        Map<String, JsonNode> byId = new HashMap<>();
+        for (String line : Files.readAllLines(output)) {
+            JsonNode node = objectMapper.readTree(line);
+            byId.put(node.path("id").asText(), node);
+        }
+        return byId;
+    }
+
+    @Test
+    @DisplayName("Should score every CSV row across chunks and threads")
+    void shouldScoreCsv() throws Exception {
+        Path input = dir.resolve("reviews.csv");
+        StringBuilder csv = new StringBuilder("\uFEFFid,review\r\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append(i).append(",\"").append(i % 2 == 0 ? "produto bom, recomendo" : "produto ruim").append("\"\r\n");
+        }
+        csv.append("51,\n");
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+        Path output = dir.resolve("scores.ndjson");
+
+        OfflineScoringService.Summary summary = scoringService.score(new OfflineScoringService.Options(
+                input, OfflineScoringService.InputFormat.CSV, "review", "id", output, false, 4));
+
+        assertEquals(50, summary.scored());
+        assertEquals(1, summary.skipped());
+        assertEquals(0, summary.failed());
+        Map<String, JsonNode> byId = readOutput(output);
+        assertEquals(50, byId.size());
+        assertEquals("POSITIVO", byId.get("10").path("sentiment").asText());
+        assertEquals("NEGATIVO", byId.get("11").path("sentiment").asText());
+        long offset = byId.get("0").path("offset").asLong();
+        String line = new String(Files.readAllBytes(input), StandardCharsets.UTF_8)
+                .substring((int) offset - 2); // o BOM ocupa 3 bytes e 1 caractere
+        assertTrue(line.startsWith("0,"));
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON strings and objects and persist each batch")
+    void shouldScoreNdjsonAndPersist() throws Exception {
+        Path input = dir.resolve("reviews.ndjson");
+        Files.writeString(input, """
+                {"id": "a", "text": "muito bom"}
+                "texto sem id, muito ruim"
+
+                {"id": 7, "text": "ótimo"}
+                {"text": ""}
+                não é json
+                """, StandardCharsets.UTF_8);
+
+        OfflineScoringService.Summary summary = scoringService.score(new OfflineScoringService.Options(
+                input, OfflineScoringService.InputFormat.from("", input), null, null, null, true, 2));
+
+        assertEquals(3, summary.scored());
+        assertEquals(3, summary.skipped());
+        verify(persistenceService, atLeastOnce()).saveSentiments(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should count failed batches and keep going")
+    void shouldCountFailures() throws Exception {
+        Path input = dir.resolve("reviews.ndjson");
+        Files.writeString(input, "\"a\"\n\"b\"\n\"c\"\n\"d\"\n", StandardCharsets.UTF_8);
+        when(sentimentService.analyzeBatch(anyList()))
+                .thenThrow(new IllegalStateException("model down"))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.8, InferenceStage.MODEL)));
+        ReflectionTestUtils.setField(scoringService, "chunkBytes", 1L << 20);
+
+        OfflineScoringService.Summary summary = scoringService.score(new OfflineScoringService.Options(
+                input, OfflineScoringService.InputFormat.NDJSON, null, null, dir.resolve("out.ndjson"), false, 1));
+
+        assertEquals(1, summary.scored());
+        assertEquals(3, summary.failed());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown columns, formats and runs without any output")
+    void shouldValidateOptions() throws Exception {
+        Path input = dir.resolve("reviews.csv");
+        Files.writeString(input, "text\nbom\n", StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> scoringService.score(new OfflineScoringService.Options(
+                input, OfflineScoringService.InputFormat.CSV, "missing", null, dir.resolve("o"), false, 1)));
+        assertThrows(IllegalArgumentException.class, () -> scoringService.score(new OfflineScoringService.Options(
+                input, OfflineScoringService.InputFormat.CSV, null, null, null, false, 1)));
+        assertThrows(IllegalArgumentException.class, () -> OfflineScoringService.InputFormat.from("xml", input));
+    }
+}
@@ -0,0 +1,137 @@
+package com.hackaton_one.sentiment_api.service;
+
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxMap;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.exceptions.ModelAnalysisException;
+import com.hackaton_one.sentiment_api.exceptions.ModelInitializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OnnxOutputDecoder Unit Tests")
+class OnnxOutputDecoderTest {
+
+    private static Map<String, NodeInfo> outputs(Object probabilityCarrier) throws OrtException {
+        Map<String, NodeInfo> outputs = new LinkedHashMap<>();
+        outputs.put("output_label", new NodeInfo("output_label", TensorInfo.constructFromJavaArray(new long[1])));
+        outputs.put("output_probability",
+                new NodeInfo("output_probability", TensorInfo.constructFromJavaArray(probabilityCarrier)));
+        return outputs;
+    }
+
+    private static OrtSession.Result result(float[] probabilities, Object labels) throws OrtException {
+        OrtSession.Result result = mock(OrtSession.Result.class);
+        OnnxTensor probabilityTensor = mock(OnnxTensor.class);
+        when(probabilityTensor.getFloatBuffer()).thenReturn(FloatBuffer.wrap(probabilities));
+        when(result.get("output_probability")).thenReturn(Optional.of(probabilityTensor));
+        if (labels != null) {
+            OnnxTensor labelTensor = mock(OnnxTensor.class);
+            when(labelTensor.getValue()).thenReturn(labels);
+            when(result.get("output_label")).thenReturn(Optional.of(labelTensor));
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should pick tensor decoding for float probability outputs")
+    void shouldDetectTensorOutput() throws OrtException {
+        OnnxOutputDecoder decoder = OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of());
+
+        assertInstanceOf(OnnxOutputDecoder.TensorDecoder.class, decoder);
+        assertEquals(Set.of("output_label", "output_probability"), decoder.requestedOutputs());
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported output signatures")
+    void shouldRejectUnsupportedOutputs() throws OrtException {
+        assertThrows(ModelInitializationException.class,
+                () -> OnnxOutputDecoder.detect(outputs(new long[1][2]), List.of()));
+        assertThrows(ModelInitializationException.class,
+                () -> OnnxOutputDecoder.detect(Map.of(), List.of()));
+    }
+
+    @Test
+    @DisplayName("Should decode rows from configured labels without the label output")
+    void shouldDecodeWithConfiguredLabels() throws OrtException {
+        OnnxOutputDecoder decoder = OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of("negative", "positive"));
+
+        List<SentimentResultDTO> decoded = decoder.decode(result(new float[]{0.2f, 0.8f, 0.9f, 0.1f}, null), 2);
+
+        assertEquals(Set.of("output_probability"), decoder.requestedOutputs());
+        assertEquals(new SentimentResultDTO("POSITIVO", 0.8f, InferenceStage.MODEL), decoded.get(0));
+        assertEquals(new SentimentResultDTO("NEGATIVO", 0.9f, InferenceStage.MODEL), decoded.get(1));
+    }
+
+    @Test
+    @DisplayName("Should decode a single row without building a list")
+    void shouldDecodeSingleRow() throws OrtException {
+        OnnxOutputDecoder decoder = OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of("NEGATIVO", "POSITIVO"));
+
+        SentimentResultDTO decoded = decoder.decodeSingle(result(new float[]{0.75f, 0.25f}, null));
+
+        assertEquals(new SentimentResultDTO("NEGATIVO", 0.75f, InferenceStage.MODEL), decoded);
+    }
+
+    @Test
+    @DisplayName("Should learn the label index and then stop requesting the label output")
+    void shouldLearnLabelIndex() throws OrtException {
+        OnnxOutputDecoder.TensorDecoder decoder = (OnnxOutputDecoder.TensorDecoder)
+                OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of());
+
+        decoder.decode(result(new float[]{0.3f, 0.7f}, new String[]{"Positivo"}), 1);
+        assertFalse(decoder.isIndexComplete());
+
+        // Empates não ensinam nada sobre as colunas
+        decoder.decode(result(new float[]{0.5f, 0.5f}, new String[]{"Negativo"}), 1);
+        assertFalse(decoder.isIndexComplete());
+
+        decoder.decode(result(new float[]{0.6f, 0.4f}, new String[]{"Negativo"}), 1);
+        assertTrue(decoder.isIndexComplete());
+        assertEquals(Set.of("output_probability"), decoder.requestedOutputs());
+
+        SentimentResultDTO decoded = decoder.decode(result(new float[]{0.05f, 0.95f}, null), 1).get(0);
+        assertEquals(new SentimentResultDTO("POSITIVO", 0.95f, InferenceStage.MODEL), decoded);
+    }
+
+    @Test
+    @DisplayName("Should reject configured labels that do not match the model classes")
+    void shouldRejectMismatchedLabels() {
+        assertThrows(ModelInitializationException.class,
+                () -> OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of("POSITIVO")));
+        assertThrows(ModelAnalysisException.class,
+                () -> OnnxOutputDecoder.detect(outputs(new float[1][2]), List.of("NEUTRO", "POSITIVO")));
+    }
+
+    @Test
+    @DisplayName("Should keep decoding ZipMap outputs")
+    void shouldDecodeZipMap() throws OrtException {
+        OnnxOutputDecoder decoder = new OnnxOutputDecoder.ZipMapDecoder("output_label", "output_probability");
+        OrtSession.Result result = mock(OrtSession.Result.class);
+        OnnxTensor labels = mock(OnnxTensor.class);
+        when(labels.getValue()).thenReturn(new String[]{"Negativo"});
+        OnnxMap map = mock(OnnxMap.class);
+        doReturn(Map.of("Negativo", 0.85f, "Positivo", 0.15f)).when(map).getValue();
+        OnnxValue sequence = mock(OnnxValue.class);
+        when(sequence.getValue()).thenReturn(List.of(map));
+        when(result.get("output_label")).thenReturn(Optional.of(labels));
+        when(result.get("output_probability")).thenReturn(Optional.of(sequence));
+
+        assertEquals(new SentimentResultDTO("NEGATIVO", 0.85f, InferenceStage.MODEL), decoder.decode(result, 1).get(0));
+    }
+}
@@ -0,0 +1,179 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionMaintenanceService Unit Tests")
+class PartitionMaintenanceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StatisticsCounters statisticsCounters;
+
+    @Mock
+    private AnalysisChangeTracker changeTracker;
+
+    @Mock
+    private AnalysisTextService textService;
+
+    @Mock
+    private SentimentRollupService rollupService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "monthsAhead", 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDatabase(String product, int partitionedTables, List<String> partitions) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+        lenient().when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("tb_sentiments")))
+                .thenReturn(partitionedTables);
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("tb_sentiments")))
+                .thenReturn(partitions);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when partitioning is disabled")
+    void shouldDoNothingWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        service.maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should skip databases without partitioning")
+    void shouldSkipNonPostgresDatabases() {
+        givenDatabase("H2", 0, List.of());
+
+        service.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create missing current and upcoming partitions")
+    void shouldCreateMissingPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        givenDatabase("PostgreSQL", 1, List.of(PartitionMaintenanceService.partitionName(current)));
+
+        service.maintain();
+
+        YearMonth next = current.plusMonths(1);
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + PartitionMaintenanceService.partitionName(next)
+                + " PARTITION OF tb_sentiments FOR VALUES FROM ('" + next.atDay(1) + "') TO ('"
+                + next.plusMonths(1).atDay(1) + "')");
+        verify(jdbcTemplate, times(1)).execute(anyString());
+        verifyNoInteractions(statisticsCounters);
+    }
+
+    @Test
+    @DisplayName("Should move rows out of the default partition before attaching the monthly one")
+    void shouldMoveDefaultRowsIntoNewPartition() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        YearMonth late = current.minusMonths(5);
+        givenDatabase("PostgreSQL", 1, List.of(
+                PartitionMaintenanceService.partitionName(current),
+                PartitionMaintenanceService.partitionName(current.plusMonths(1)),
+                "tb_sentiments_default"));
+        when(jdbcTemplate.queryForList(contains("FROM tb_sentiments_default"), eq(String.class)))
+                .thenReturn(List.of(late.format(DateTimeFormatter.ofPattern("yyyy_MM"))));
+        when(jdbcTemplate.update(startsWith("INSERT INTO"))).thenReturn(4);
+
+        service.maintain();
+
+        String name = PartitionMaintenanceService.partitionName(late);
+        String range = " WHERE analyzed_at >= '" + late.atDay(1) + "' AND analyzed_at < '"
+                + late.plusMonths(1).atDay(1) + "'";
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("CREATE TABLE " + name
+                + " (LIKE tb_sentiments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        inOrder.verify(jdbcTemplate).update("INSERT INTO " + name + " SELECT * FROM tb_sentiments_default" + range);
+        inOrder.verify(jdbcTemplate).update("DELETE FROM tb_sentiments_default" + range);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE tb_sentiments ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + late.atDay(1) + "') TO ('" + late.plusMonths(1).atDay(1) + "')");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Should detach and drop partitions older than the retention")
+    void shouldDropExpiredPartitions() {
+        ReflectionTestUtils.setField(service, "retentionMonths", 2);
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        givenDatabase("PostgreSQL", 1, List.of(
+                PartitionMaintenanceService.partitionName(current.minusMonths(2)),
+                PartitionMaintenanceService.partitionName(current.minusMonths(1)),
+                PartitionMaintenanceService.partitionName(current),
+                PartitionMaintenanceService.partitionName(current.plusMonths(1))));
+
+        service.maintain();
+
+        String expired = PartitionMaintenanceService.partitionName(current.minusMonths(2));
+        verify(jdbcTemplate).execute("ALTER TABLE tb_sentiments DETACH PARTITION " + expired);
+        verify(jdbcTemplate).execute("DROP TABLE " + expired);
+        verify(jdbcTemplate, times(2)).execute(anyString());
+        verify(rollupService).purgeBefore(current.minusMonths(1).atDay(1).atStartOfDay());
+        verify(textService).purgeUnreferenced();
+        verify(statisticsCounters).reconcile();
+        verify(changeTracker).markChanged();
+    }
+
+    @Test
+    @DisplayName("Should keep the current month and the previous ones within the retention")
+    void shouldComputeExpiredPartitions() {
+        YearMonth current = YearMonth.of(2026, 3);
+        List<YearMonth> partitions = List.of(
+                YearMonth.of(2026, 4), YearMonth.of(2026, 3), YearMonth.of(2026, 1),
+                YearMonth.of(2025, 12), YearMonth.of(2025, 11));
+
+        assertEquals(List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12)),
+                PartitionMaintenanceService.expiredPartitions(partitions, current, 3));
+    }
+
+    @Test
+    @DisplayName("Should parse only monthly partition names")
+    void shouldParsePartitionNames() {
+        assertEquals(YearMonth.of(2026, 1), PartitionMaintenanceService.parsePartitionName("tb_sentiments_p2026_01"));
+        assertEquals("tb_sentiments_p2026_01", PartitionMaintenanceService.partitionName(YearMonth.of(2026, 1)));
+        assertNull(PartitionMaintenanceService.parsePartitionName("tb_sentiments_default"));
+        assertNull(PartitionMaintenanceService.parsePartitionName("tb_sentiments_p2026_13"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentenceAnalysisResponseDTO;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SentenceAnalysisService Unit Tests")
+class SentenceAnalysisServiceTest {
+
+    @Mock
+    private SentimentService sentimentService;
+
+    @Mock
+    private SentimentPersistenceService persistenceService;
+
+    @InjectMocks
+    private SentenceAnalysisService sentenceAnalysisService;
+
+    @Test
+    @DisplayName("Should score all sentences in one batch and weight the aggregate by length")
+    void shouldAggregateSentences() {
+        String text = "Entrega péssima e atrasada. Bom.";
+        when(sentimentService.analyzeBatch(List.of("Entrega péssima e atrasada.", "Bom."))).thenReturn(List.of(
+                new SentimentResultDTO("negativo", 0.9, InferenceStage.MODEL),
+                new SentimentResultDTO("POSITIVO", 0.8, InferenceStage.CACHE)));
+
+        SentenceAnalysisResponseDTO response = sentenceAnalysisService.analyzeAndSave(text);
+
+        // P(positivo) = (0.1 * 27 + 0.8 * 4) / 31
+        assertEquals("NEGATIVO", response.sentiment());
+        assertEquals(1 - (0.1 * 27 + 0.8 * 4) / 31, response.score(), 1e-9);
+        assertNull(response.degraded());
+        assertEquals(2, response.sentences().size());
+        assertEquals("NEGATIVO", response.sentences().get(0).sentiment());
+        assertEquals(28, response.sentences().get(1).start());
+        assertEquals(InferenceStage.CACHE, response.sentences().get(1).stage());
+        verify(sentimentService, times(1)).analyzeBatch(anyList());
+        verify(persistenceService).saveSentiment(eq(text), eq("NEGATIVO"), anyDouble(), eq(InferenceStage.CACHE));
+    }
+
+    @Test
+    @DisplayName("Should save the weakest stage used by the sentences")
+    void shouldSaveWeakestStage() {
+        when(sentimentService.analyzeBatch(List.of("Muito bom.", "Gostei."))).thenReturn(List.of(
+                new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.CACHE),
+                new SentimentResultDTO("POSITIVO", 0.8, InferenceStage.LEXICON)));
+
+        sentenceAnalysisService.analyzeAndSave("Muito bom. Gostei.");
+
+        verify(persistenceService).saveSentiment(eq("Muito bom. Gostei."), eq("POSITIVO"), anyDouble(),
+                eq(InferenceStage.LEXICON));
+    }
+
+    @Test
+    @DisplayName("Should honour the segment cap and flag degraded sentences")
+    void shouldCapSegmentsAndFlagDegraded() {
+        ReflectionTestUtils.setField(sentenceAnalysisService, "maxSegments", 2);
+        when(sentimentService.analyzeBatch(List.of("Um.", "Dois. Três."))).thenReturn(List.of(
+                new SentimentResultDTO("POSITIVO", 0.7, InferenceStage.MODEL),
+                new SentimentResultDTO("POSITIVO", 0.6, InferenceStage.FALLBACK)));
+
+        SentenceAnalysisResponseDTO response = sentenceAnalysisService.analyzeAndSave("Um. Dois. Três.");
+
+        assertEquals(2, response.sentences().size());
+        assertEquals(Boolean.TRUE, response.degraded());
+        verify(persistenceService).saveSentiment(anyString(), anyString(), anyDouble(), eq(InferenceStage.FALLBACK));
+    }
+
+    @Test
+    @DisplayName("Should still answer when saving the history fails")
+    void shouldIgnorePersistenceFailures() {
+        when(sentimentService.analyzeBatch(anyList()))
+                .thenReturn(List.of(new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.MODEL)));
+        doThrow(new RuntimeException("db down")).when(persistenceService).saveSentiment(anyString(), anyString(), anyDouble(), any());
+
+        assertEquals("POSITIVO", sentenceAnalysisService.analyzeAndSave("Muito bom").sentiment());
+    }
+}
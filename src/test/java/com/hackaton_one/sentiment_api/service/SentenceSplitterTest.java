@@ -0,0 +1,65 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SentenceSplitter Unit Tests")
+class SentenceSplitterTest {
+
+    private static List<String> split(String text, int maxSegments) {
+        return SentenceSplitter.split(text, maxSegments).stream().map(s -> s.of(text)).toList();
+    }
+
+    @Test
+    @DisplayName("Should split on terminal punctuation and line breaks")
+    void shouldSplitSentences() {
+        assertEquals(List.of("Chegou rápido!", "A qualidade é ótima.", "Recomendo?!", "Sim"),
+                split("  Chegou rápido! A qualidade é ótima.   Recomendo?!\nSim  ", 32));
+    }
+
+    @Test
+    @DisplayName("Should keep closing quotes and parentheses with the sentence")
+    void shouldKeepClosingMarks() {
+        assertEquals(List.of("Ele disse \"perfeito.\"", "(Não era.)", "Pena…"),
+                split("Ele disse \"perfeito.\" (Não era.) Pena…", 32));
+    }
+
+    @Test
+    @DisplayName("Should not split on abbreviations, initials, decimals or lowercase continuations")
+    void shouldNotSplitOnAbbreviations() {
+        assertEquals(List.of("O Sr. Silva e a Dra. Souza avaliaram a nota 4.5 do app.",
+                        "Mr. Smith agreed, e.g. on price vs. quality.",
+                        "J. R. R. Tolkien etc. aprovaria."),
+                split("O Sr. Silva e a Dra. Souza avaliaram a nota 4.5 do app. "
+                        + "Mr. Smith agreed, e.g. on price vs. quality. J. R. R. Tolkien etc. aprovaria.", 32));
+        assertEquals(List.of("Veja em www.loja.com.br o produto."), split("Veja em www.loja.com.br o produto.", 32));
+        assertEquals(List.of("Comprei 2 un. e chegaram bem."), split("Comprei 2 un. e chegaram bem.", 32));
+    }
+
+    @Test
+    @DisplayName("Should skip fragments without letters or digits")
+    void shouldSkipEmptyFragments() {
+        assertEquals(List.of("Bom!!!", "Ruim."), split("Bom!!! ... Ruim.\n\n\n", 32));
+        assertEquals(List.of("!!!"), split(" !!! ", 32));
+    }
+
+    @Test
+    @DisplayName("Should keep the remainder in the last segment when over the cap")
+    void shouldCapSegments() {
+        assertEquals(List.of("Um.", "Dois.", "Três. Quatro. Cinco."), split("Um. Dois. Três. Quatro. Cinco.", 3));
+        assertEquals(List.of("Um. Dois."), split("Um. Dois.", 1));
+    }
+
+    @Test
+    @DisplayName("Should report offsets into the original text")
+    void shouldReportOffsets() {
+        List<SentenceSplitter.Segment> segments = SentenceSplitter.split(" Ótimo. Ruim.", 32);
+
+        assertEquals(new SentenceSplitter.Segment(1, 7), segments.get(0));
+        assertEquals(new SentenceSplitter.Segment(8, 13), segments.get(1));
+    }
+}
@@ -1,5 +1,7 @@
 package com.hackaton_one.sentiment_api.service;
 
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
 import com.hackaton_one.sentiment_api.model.Sentiment;
 import com.hackaton_one.sentiment_api.repository.SentimentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +12,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,11 +28,25 @@ class SentimentPersistenceServiceTest {
     @Mock
     private SentimentRepository sentimentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AnalysisTextService textService;
+
+    @Mock
+    private ModelVariantRegistry modelVariants;
+
+    @Mock
+    private SentimentEngine engine;
+
     @InjectMocks
     private SentimentPersistenceService persistenceService;
 
     @BeforeEach
     void setUp() {
+        lenient().when(modelVariants.resolve(null)).thenReturn(new ModelVariant("default", engine, null));
+        lenient().when(engine.version()).thenReturn("model-v2");
         // Mock padrão para save retornar o objeto com ID e triggering @PrePersist
         lenient().when(sentimentRepository.save(any(Sentiment.class))).thenAnswer(invocation -> {
             Sentiment s = invocation.getArgument(0);
@@ -48,7 +68,8 @@ class SentimentPersistenceServiceTest {
         String sentimentResult = "POSITIVO";
         double confidenceScore = 0.95;
 
-        Sentiment result = persistenceService.saveSentiment(textContent, sentimentResult, confidenceScore);
+        Sentiment result = persistenceService.saveSentiment(textContent, sentimentResult, confidenceScore,
+                InferenceStage.MODEL);
 
         assertNotNull(result);
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
@@ -68,7 +89,7 @@ class SentimentPersistenceServiceTest {
         String sentiment = "POSITIVO";
         double score = 0.98;
 
-        persistenceService.saveSentiment(text, sentiment, score);
+        persistenceService.saveSentiment(text, sentiment, score, InferenceStage.MODEL);
 
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
         verify(sentimentRepository).save(captor.capture());
@@ -85,7 +106,7 @@ class SentimentPersistenceServiceTest {
         String sentiment = "NEGATIVO";
         double score = 0.92;
 
-        persistenceService.saveSentiment(text, sentiment, score);
+        persistenceService.saveSentiment(text, sentiment, score, InferenceStage.MODEL);
 
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
         verify(sentimentRepository).save(captor.capture());
@@ -102,7 +123,7 @@ class SentimentPersistenceServiceTest {
         String sentiment = "POSITIVO";
         double score = 0.85;
 
-        persistenceService.saveSentiment(text, sentiment, score);
+        persistenceService.saveSentiment(text, sentiment, score, InferenceStage.MODEL);
 
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
         verify(sentimentRepository).save(captor.capture());
@@ -118,7 +139,7 @@ class SentimentPersistenceServiceTest {
         String sentiment = "POSITIVO";
         double score = 0.80;
 
-        persistenceService.saveSentiment(longText, sentiment, score);
+        persistenceService.saveSentiment(longText, sentiment, score, InferenceStage.MODEL);
 
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
         verify(sentimentRepository).save(captor.capture());
@@ -130,8 +151,8 @@ class SentimentPersistenceServiceTest {
     @Test
     @DisplayName("Should handle score at boundaries")
     void shouldHandleScoreAtBoundaries() {
-        persistenceService.saveSentiment("text1", "NEGATIVO", 0.0);
-        persistenceService.saveSentiment("text2", "POSITIVO", 1.0);
+        persistenceService.saveSentiment("text1", "NEGATIVO", 0.0, InferenceStage.MODEL);
+        persistenceService.saveSentiment("text2", "POSITIVO", 1.0, InferenceStage.MODEL);
         verify(sentimentRepository, times(2)).save(any(Sentiment.class));
     }
 
@@ -141,7 +162,8 @@ class SentimentPersistenceServiceTest {
         reset(sentimentRepository); // Resetar mock do setUp
         when(sentimentRepository.save(any(Sentiment.class)))
                 .thenThrow(new RuntimeException("Database connection failed"));
-        assertThrows(RuntimeException.class, () -> persistenceService.saveSentiment("text", "POSITIVO", 0.9));
+        assertThrows(RuntimeException.class,
+                () -> persistenceService.saveSentiment("text", "POSITIVO", 0.9, InferenceStage.MODEL));
     }
 
     @Test
@@ -149,8 +171,8 @@ class SentimentPersistenceServiceTest {
     void shouldSaveMultipleSentimentsIndependently() {
         String text1 = "Primeiro texto";
         String text2 = "Segundo texto";
-        persistenceService.saveSentiment(text1, "POSITIVO", 0.9);
-        persistenceService.saveSentiment(text2, "NEGATIVO", 0.8);
+        persistenceService.saveSentiment(text1, "POSITIVO", 0.9, InferenceStage.MODEL);
+        persistenceService.saveSentiment(text2, "NEGATIVO", 0.8, InferenceStage.MODEL);
         verify(sentimentRepository, times(2)).save(any(Sentiment.class));
     }
 
@@ -158,10 +180,76 @@ class SentimentPersistenceServiceTest {
     @DisplayName("Should handle special characters in text")
     void shouldHandleSpecialCharactersInText() {
         String textWithSpecialChars = "Texto com @#$%&*() caracteres especiais!";
-        persistenceService.saveSentiment(textWithSpecialChars, "POSITIVO", 0.85);
+        persistenceService.saveSentiment(textWithSpecialChars, "POSITIVO", 0.85, InferenceStage.MODEL);
         ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
         verify(sentimentRepository).save(captor.capture());
         Sentiment saved = captor.getValue();
         assertEquals(textWithSpecialChars, saved.getTextContent());
     }
+
+    @Test
+    @DisplayName("Should publish saved event after saving")
+    void shouldPublishSavedEventAfterSaving() {
+        Sentiment result = persistenceService.saveSentiment("Texto de teste", "POSITIVO", 0.9, InferenceStage.MODEL);
+
+        ArgumentCaptor<SentimentSavedEvent> captor = ArgumentCaptor.forClass(SentimentSavedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertSame(result, captor.getValue().sentiment());
+    }
+
+    @Test
+    @DisplayName("Should store text once and reference it by hash")
+    void shouldReferenceStoredTextByHash() {
+        when(textService.store("Texto repetido")).thenReturn("abc123");
+
+        persistenceService.saveSentiment("Texto repetido", "POSITIVO", 0.9, InferenceStage.MODEL);
+
+        ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
+        verify(sentimentRepository).save(captor.capture());
+        assertEquals("abc123", captor.getValue().getTextHash());
+        verify(textService).store("Texto repetido");
+    }
+
+    @Test
+    @DisplayName("Should record the model version that produced the analysis")
+    void shouldRecordModelVersion() {
+        persistenceService.saveSentiment("Texto de teste", "POSITIVO", 0.9, InferenceStage.MODEL);
+
+        ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
+        verify(sentimentRepository).save(captor.capture());
+        assertEquals("model-v2", captor.getValue().getModelVersion());
+    }
+
+    @Test
+    @DisplayName("Should leave a fallback answer without a model version so it gets re-scored")
+    void shouldSaveFallbackWithoutModelVersion() {
+        persistenceService.saveSentiment("Texto de teste", "POSITIVO", 0.6, InferenceStage.FALLBACK);
+
+        ArgumentCaptor<Sentiment> captor = ArgumentCaptor.forClass(Sentiment.class);
+        verify(sentimentRepository).save(captor.capture());
+        assertNull(captor.getValue().getModelVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should save batches in one call and leave fallback answers without a model version")
+    void shouldSaveBatchWithoutVersionForFallback() {
+        when(sentimentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(textService.storeAll(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                .stream().map(AnalysisTextService::hash).toList());
+
+        int saved = persistenceService.saveSentiments(List.of("Muito bom mesmo", "Ruim demais", "ok"), List.of(
+                new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.MODEL),
+                new SentimentResultDTO("NEGATIVO", 0.7, InferenceStage.FALLBACK),
+                new SentimentResultDTO("POSITIVO", 0.6, InferenceStage.MODEL)));
+
+        assertEquals(2, saved);
+        ArgumentCaptor<List<Sentiment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sentimentRepository).saveAll(captor.capture());
+        assertEquals("model-v2", captor.getValue().get(0).getModelVersion());
+        assertNull(captor.getValue().get(1).getModelVersion());
+        assertEquals(AnalysisTextService.hash("Ruim demais"), captor.getValue().get(1).getTextHash());
+        verify(textService).storeAll(List.of("Muito bom mesmo", "Ruim demais"));
+        verify(eventPublisher, times(2)).publishEvent(any(SentimentSavedEvent.class));
+    }
 }
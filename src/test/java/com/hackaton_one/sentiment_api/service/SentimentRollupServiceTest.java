@@ -0,0 +1,211 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.TimelineBucketDTO;
+import com.hackaton_one.sentiment_api.api.dto.TimelineGranularity;
+import com.hackaton_one.sentiment_api.model.RollupGranularity;
+import com.hackaton_one.sentiment_api.model.SentimentRollup;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import com.hackaton_one.sentiment_api.repository.SentimentRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SentimentRollupService Unit Tests")
+class SentimentRollupServiceTest {
+
+    private static final LocalDateTime MONDAY_10H = LocalDateTime.of(2026, 1, 5, 10, 15);
+
+    @Mock
+    private SentimentRollupRepository rollupRepository;
+
+    @Mock
+    private SentimentRepository sentimentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SentimentRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should include pending deltas in timeline before flush")
+    void shouldIncludePendingDeltasInTimelineBeforeFlush() {
+        rollupService.record(MONDAY_10H, "POSITIVO", 0.9);
+        rollupService.record(MONDAY_10H.plusMinutes(5), "NEGATIVO", 0.7);
+
+        List<TimelineBucketDTO> timeline = rollupService.getTimeline(
+                MONDAY_10H.minusDays(1), MONDAY_10H.plusDays(1), TimelineGranularity.HOUR);
+
+        assertEquals(1, timeline.size());
+        TimelineBucketDTO bucket = timeline.getFirst();
+        assertEquals(LocalDateTime.of(2026, 1, 5, 10, 0), bucket.bucketStart());
+        assertEquals(1, bucket.positive());
+        assertEquals(1, bucket.negative());
+        assertEquals(2, bucket.total());
+        assertEquals(80.0, bucket.averageConfidence(), 0.00001);
+    }
+
+    @Test
+    @DisplayName("Should insert hour and day buckets when they do not exist")
+    void shouldInsertHourAndDayBucketsWhenTheyDoNotExist() {
+        when(rollupRepository.increment(any(), any(), anyLong(), anyLong(), anyLong(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(0);
+        rollupService.record(MONDAY_10H, "POSITIVO", 0.9);
+
+        rollupService.flush();
+
+        ArgumentCaptor<SentimentRollup> captor = ArgumentCaptor.forClass(SentimentRollup.class);
+        verify(rollupRepository, times(2)).saveAndFlush(captor.capture());
+        assertTrue(captor.getAllValues().stream().anyMatch(r ->
+                r.getGranularity() == RollupGranularity.HOUR && r.getBucketStart().equals(LocalDateTime.of(2026, 1, 5, 10, 0))));
+        assertTrue(captor.getAllValues().stream().anyMatch(r ->
+                r.getGranularity() == RollupGranularity.DAY && r.getBucketStart().equals(LocalDateTime.of(2026, 1, 5, 0, 0))));
+        assertTrue(captor.getAllValues().stream().allMatch(r -> r.getPositiveCount() == 1 && r.getTotalCount() == 1));
+    }
+
+    @Test
+    @DisplayName("Should increment existing buckets without inserting")
+    void shouldIncrementExistingBucketsWithoutInserting() {
+        when(rollupRepository.increment(any(), any(), anyLong(), anyLong(), anyLong(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(1);
+        rollupService.record(MONDAY_10H, "NEGATIVO", 0.6);
+        rollupService.record(MONDAY_10H, "NEGATIVO", 0.8);
+
+        rollupService.flush();
+
+        verify(rollupRepository).increment(eq(RollupGranularity.HOUR), eq(LocalDateTime.of(2026, 1, 5, 10, 0)),
+                eq(0L), eq(2L), eq(2L), eq(0.0), AdditionalMatchers.eq(1.4, 0.00001), AdditionalMatchers.eq(1.4, 0.00001));
+        verify(rollupRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should keep deltas pending when flush fails")
+    void shouldKeepDeltasPendingWhenFlushFails() {
+        when(rollupRepository.increment(any(), any(), anyLong(), anyLong(), anyLong(), anyDouble(), anyDouble(), anyDouble()))
+                .thenThrow(new RuntimeException("Database error"));
+        rollupService.record(MONDAY_10H, "POSITIVO", 0.9);
+
+        rollupService.flush();
+
+        List<TimelineBucketDTO> timeline = rollupService.getTimeline(
+                MONDAY_10H.minusDays(1), MONDAY_10H.plusDays(1), TimelineGranularity.DAY);
+        assertEquals(1, timeline.getFirst().total());
+    }
+
+    @Test
+    @DisplayName("Should sum daily rollups into weeks starting on monday")
+    void shouldSumDailyRollupsIntoWeeksStartingOnMonday() {
+        LocalDateTime monday = LocalDateTime.of(2026, 1, 5, 0, 0);
+        List<SentimentRollup> days = List.of(
+                new SentimentRollup(1L, RollupGranularity.DAY, monday, 2, 1, 3, 1.8, 0.9, 2.7),
+                new SentimentRollup(2L, RollupGranularity.DAY, monday.plusDays(3), 1, 0, 1, 0.9, 0, 0.9),
+                new SentimentRollup(3L, RollupGranularity.DAY, monday.plusDays(7), 0, 1, 1, 0, 0.5, 0.5));
+        when(rollupRepository.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                eq(RollupGranularity.DAY), any(), any())).thenReturn(days);
+
+        List<TimelineBucketDTO> timeline = rollupService.getTimeline(
+                monday, monday.plusDays(14), TimelineGranularity.WEEK);
+
+        assertEquals(2, timeline.size());
+        assertEquals(monday, timeline.get(0).bucketStart());
+        assertEquals(4, timeline.get(0).total());
+        assertEquals(3, timeline.get(0).positive());
+        assertEquals(monday.plusDays(7), timeline.get(1).bucketStart());
+        assertEquals(1, timeline.get(1).negative());
+    }
+
+    @Test
+    @DisplayName("Should widen a mid-week range to the ISO monday so the first week is complete")
+    void shouldAlignWeekRangeToMonday() {
+        LocalDateTime monday = LocalDateTime.of(2026, 1, 5, 0, 0);
+        when(rollupRepository.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                eq(RollupGranularity.DAY), eq(monday), any())).thenReturn(List.of(
+                new SentimentRollup(1L, RollupGranularity.DAY, monday.plusDays(1), 1, 0, 1, 0.9, 0, 0.9)));
+
+        List<TimelineBucketDTO> timeline = rollupService.getTimeline(
+                monday.plusDays(3).plusHours(15), monday.plusDays(10), TimelineGranularity.WEEK);
+
+        assertEquals(1, timeline.size());
+        assertEquals(monday, timeline.getFirst().bucketStart());
+        assertEquals(1, timeline.getFirst().total());
+    }
+
+    @Test
+    @DisplayName("Should purge stored and pending buckets before the retention cutoff")
+    void shouldPurgeBucketsBeforeCutoff() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        LocalDateTime cutoff = LocalDateTime.of(2026, 1, 6, 0, 0);
+        rollupService.record(MONDAY_10H, "POSITIVO", 0.9);
+        rollupService.record(cutoff.plusHours(3), "NEGATIVO", 0.7);
+
+        rollupService.purgeBefore(cutoff);
+
+        verify(rollupRepository).deleteByBucketStartBefore(cutoff);
+        List<TimelineBucketDTO> timeline = rollupService.getTimeline(
+                MONDAY_10H.minusDays(1), cutoff.plusDays(1), TimelineGranularity.DAY);
+        assertEquals(1, timeline.size());
+        assertEquals(cutoff, timeline.getFirst().bucketStart());
+        assertEquals(1, timeline.getFirst().negative());
+    }
+
+    @Test
+    @DisplayName("Should rebuild hour and day buckets from raw aggregates")
+    void shouldRebuildHourAndDayBucketsFromRawAggregates() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{2026, 1, 5, 10, "POSITIVO", 3L, 2.7});
+        rows.add(new Object[]{2026, 1, 5, 11, "NEGATIVO", 2L, 1.6});
+        when(sentimentRepository.aggregateByHour()).thenReturn(rows);
+
+        rollupService.rebuild();
+
+        verify(rollupRepository).deleteAllInBatch();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SentimentRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        List<SentimentRollup> saved = captor.getValue();
+        assertEquals(3, saved.size());
+        SentimentRollup day = saved.stream()
+                .filter(r -> r.getGranularity() == RollupGranularity.DAY)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(5, day.getTotalCount());
+        assertEquals(3, day.getPositiveCount());
+        assertEquals(2, day.getNegativeCount());
+    }
+
+    @Test
+    @DisplayName("Should reject empty ranges")
+    void shouldRejectEmptyRanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> rollupService.getTimeline(MONDAY_10H, MONDAY_10H, TimelineGranularity.DAY));
+    }
+}
@@ -0,0 +1,154 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.InferenceStage;
+import com.hackaton_one.sentiment_api.api.dto.SentimentResultDTO;
+import com.hackaton_one.sentiment_api.api.dto.ShadowStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShadowEvaluator Unit Tests")
+class ShadowEvaluatorTest {
+
+    private static final SentimentResultDTO PRIMARY_POSITIVE =
+            new SentimentResultDTO("POSITIVO", 0.9, InferenceStage.MODEL);
+
+    @Mock
+    private ModelVariantRegistry modelVariants;
+
+    @Mock
+    private FairInferenceScheduler inferenceScheduler;
+
+    @Mock
+    private SentimentEngine primaryEngine;
+
+    @Mock
+    private SentimentEngine candidateEngine;
+
+    private ModelVariant primary;
+    private ModelVariant candidate;
+    private ShadowEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        primary = new ModelVariant("default", primaryEngine, new EngineCircuitBreaker(5, 30000));
+        candidate = new ModelVariant("distilled", candidateEngine, new EngineCircuitBreaker(5, 30000));
+        evaluator = new ShadowEvaluator(modelVariants, inferenceScheduler);
+        ReflectionTestUtils.setField(evaluator, "enabled", true);
+        ReflectionTestUtils.setField(evaluator, "candidateVariant", "distilled");
+        ReflectionTestUtils.setField(evaluator, "sampleRate", 1.0);
+    }
+
+    private void start() {
+        when(modelVariants.resolve("distilled")).thenReturn(candidate);
+        lenient().when(inferenceScheduler.tryExecute(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        evaluator.init();
+    }
+
+    @Test
+    @DisplayName("Should track disagreement and latency delta against the primary answer")
+    void shouldCompareWithPrimary() {
+        start();
+        when(candidateEngine.isAvailable()).thenReturn(true);
+        when(candidateEngine.analyze("bom")).thenReturn(new SentimentResultDTO("POSITIVO", 0.8, InferenceStage.MODEL));
+        when(candidateEngine.analyze("ruim")).thenReturn(new SentimentResultDTO("NEGATIVO", 0.8, InferenceStage.MODEL));
+
+        evaluator.offer("bom", primary, PRIMARY_POSITIVE, TimeUnit.SECONDS.toNanos(1));
+        evaluator.offer("ruim", primary, PRIMARY_POSITIVE, -1);
+        evaluator.close();
+
+        ShadowStatsDTO stats = evaluator.getStats();
+        assertEquals(2, stats.sampled());
+        assertEquals(2, stats.compared());
+        assertEquals(1, stats.disagreements());
+        assertEquals(0.5, stats.disagreementRate());
+        assertEquals(1000.0, stats.primaryMeanLatencyMillis(), 1.0);
+        assertTrue(stats.meanLatencyDeltaMillis() < 0);
+        assertEquals(0, candidate.latency().count());
+    }
+
+    @Test
+    @DisplayName("Should shed shadow work while inference requests are waiting")
+    void shouldShedUnderLoad() {
+        start();
+        when(inferenceScheduler.getQueueDepth()).thenReturn(3);
+
+        evaluator.offer("bom", primary, PRIMARY_POSITIVE, 1000);
+        evaluator.close();
+
+        ShadowStatsDTO stats = evaluator.getStats();
+        assertEquals(1, stats.sampled());
+        assertEquals(1, stats.shed());
+        assertEquals(0, stats.compared());
+        verify(candidateEngine, never()).analyze(anyString());
+    }
+
+    @Test
+    @DisplayName("Should count candidate failures without propagating them")
+    void shouldCountFailures() {
+        start();
+        when(candidateEngine.isAvailable()).thenReturn(true);
+        when(candidateEngine.analyze("bom")).thenThrow(new IllegalStateException("ORT error"));
+
+        for (int i = 0; i < 6; i++) {
+            evaluator.offer("bom", primary, PRIMARY_POSITIVE, 1000);
+        }
+        evaluator.close();
+
+        // O circuito da sombra abriu após 5 falhas; o da variante no tráfego real segue fechado
+        assertEquals(5, evaluator.getStats().failures());
+        assertEquals(1, evaluator.getStats().shed());
+        assertEquals(0, candidate.failures());
+        assertEquals(EngineCircuitBreaker.State.CLOSED, candidate.circuitBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("Should shed shadow work when no inference slot is free")
+    void shouldShedWithoutFreeSlot() {
+        start();
+        when(candidateEngine.isAvailable()).thenReturn(true);
+        doReturn(false).when(inferenceScheduler).tryExecute(any());
+
+        evaluator.offer("bom", primary, PRIMARY_POSITIVE, 1000);
+        evaluator.close();
+
+        assertEquals(1, evaluator.getStats().shed());
+        verify(candidateEngine, never()).analyze(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not shadow requests already served by the candidate")
+    void shouldSkipCandidateTraffic() {
+        start();
+
+        evaluator.offer("bom", candidate, PRIMARY_POSITIVE, 1000);
+
+        assertEquals(0, evaluator.getStats().sampled());
+    }
+
+    @Test
+    @DisplayName("Should disable itself when the candidate variant does not exist")
+    void shouldDisableWithUnknownCandidate() {
+        when(modelVariants.resolve("distilled")).thenThrow(new IllegalArgumentException("Unknown model variant"));
+
+        evaluator.init();
+        evaluator.offer("bom", primary, PRIMARY_POSITIVE, 1000);
+
+        assertFalse(evaluator.getStats().enabled());
+        assertEquals(0, evaluator.getStats().sampled());
+    }
+}
@@ -0,0 +1,88 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnapshotCache Unit Tests")
+class SnapshotCacheTest {
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<String> content = new AtomicReference<>("a");
+
+    private SnapshotCache<String> newCache(long refreshIntervalMs) {
+        return new SnapshotCache<>("test", () -> {
+            loads.incrementAndGet();
+            return content.get();
+        }, version::get, refreshIntervalMs, value -> value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should not reload while version is unchanged")
+    void shouldNotReloadWhileVersionIsUnchanged() {
+        SnapshotCache<String> cache = newCache(60_000);
+
+        VersionedSnapshot<String> first = cache.get();
+        VersionedSnapshot<String> second = cache.get();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should change etag when new data changes the content")
+    void shouldChangeEtagWhenNewDataChangesTheContent() {
+        SnapshotCache<String> cache = newCache(60_000);
+        VersionedSnapshot<String> first = cache.get();
+
+        content.set("b");
+        version.incrementAndGet();
+        VersionedSnapshot<String> second = cache.get();
+
+        assertEquals("b", second.value());
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should keep etag when reload produces the same content")
+    void shouldKeepEtagWhenReloadProducesTheSameContent() {
+        SnapshotCache<String> cache = newCache(0);
+        VersionedSnapshot<String> first = cache.get();
+
+        VersionedSnapshot<String> second = cache.get();
+
+        assertEquals(2, loads.get());
+        assertEquals(first.etag(), second.etag());
+        assertEquals(first.lastModified(), second.lastModified());
+    }
+
+    @Test
+    @DisplayName("Should derive the same etag from the same content in another process")
+    void shouldDeriveEtagFromContent() {
+        VersionedSnapshot<String> replicaA = newCache(60_000).get();
+        VersionedSnapshot<String> replicaB = newCache(60_000).get();
+
+        assertEquals(replicaA.etag(), replicaB.etag());
+        assertTrue(replicaA.etag().startsWith("\"test-"));
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidate")
+    void shouldReloadAfterInvalidate() {
+        SnapshotCache<String> cache = newCache(60_000);
+        cache.get();
+
+        cache.invalidate();
+        cache.get();
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.model.Sentiment;
+import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatisticsCounters Unit Tests")
+class StatisticsCountersTest {
+
+    @Mock
+    private SentimentRepository sentimentRepository;
+
+    @InjectMocks
+    private StatisticsCounters statisticsCounters;
+
+    @Test
+    @DisplayName("Should seed totals from a single aggregate query")
+    void shouldSeedTotalsFromSingleAggregateQuery() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"POSITIVO", 6L, 5.4});
+        rows.add(new Object[]{"NEGATIVO", 4L, 3.2});
+        when(sentimentRepository.aggregateBySentiment()).thenReturn(rows);
+
+        statisticsCounters.seed();
+        StatisticsCounters.Snapshot snapshot = statisticsCounters.snapshot();
+
+        assertEquals(10, snapshot.total());
+        assertEquals(6, snapshot.positive());
+        assertEquals(4, snapshot.negative());
+        assertEquals(8.6, snapshot.confidenceSum(), 0.00001);
+        verify(sentimentRepository, times(1)).aggregateBySentiment();
+    }
+
+    @Test
+    @DisplayName("Should start empty when seeding fails")
+    void shouldStartEmptyWhenSeedingFails() {
+        when(sentimentRepository.aggregateBySentiment()).thenThrow(new RuntimeException("Database error"));
+
+        assertDoesNotThrow(() -> statisticsCounters.seed());
+        assertEquals(0, statisticsCounters.snapshot().total());
+    }
+
+    @Test
+    @DisplayName("Should increment counters when sentiment is saved")
+    void shouldIncrementCountersWhenSentimentIsSaved() {
+        Sentiment sentiment = new Sentiment();
+        sentiment.setSentimentResult("NEGATIVO");
+        sentiment.setConfidenceScore(0.75);
+
+        statisticsCounters.onSentimentSaved(new SentimentSavedEvent(sentiment));
+        statisticsCounters.record("POSITIVO", 0.9);
+
+        StatisticsCounters.Snapshot snapshot = statisticsCounters.snapshot();
+        assertEquals(2, snapshot.total());
+        assertEquals(1, snapshot.negative());
+        assertEquals(0.75, snapshot.negativeConfidenceSum(), 0.00001);
+        assertEquals(0.9, snapshot.positiveConfidenceSum(), 0.00001);
+    }
+
+    @Test
+    @DisplayName("Should replace local increments with database totals on reconcile")
+    void shouldReplaceLocalIncrementsWithDatabaseTotalsOnReconcile() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"POSITIVO", 100L, 90.0});
+        when(sentimentRepository.aggregateBySentiment()).thenReturn(rows);
+        statisticsCounters.record("POSITIVO", 0.9);
+
+        statisticsCounters.reconcile();
+
+        assertEquals(100, statisticsCounters.snapshot().total());
+    }
+}
@@ -2,7 +2,8 @@ package com.hackaton_one.sentiment_api.service;
 
 import com.hackaton_one.sentiment_api.api.dto.DailyStatisticsDTO;
 import com.hackaton_one.sentiment_api.api.dto.StatisticsDTO;
-import com.hackaton_one.sentiment_api.repository.SentimentRepository;
+import com.hackaton_one.sentiment_api.api.dto.TimelineBucketDTO;
+import com.hackaton_one.sentiment_api.api.dto.TimelineGranularity;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,7 +18,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,7 +26,13 @@ import static org.mockito.Mockito.*;
 class StatisticsServiceTest {
 
     @Mock
-    private SentimentRepository sentimentRepository;
+    private StatisticsCounters statisticsCounters;
+
+    @Mock
+    private SentimentRollupService rollupService;
+
+    @Mock
+    private AnalysisChangeTracker changeTracker;
 
     @InjectMocks
     private StatisticsService statisticsService;
@@ -33,13 +40,7 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should calculate statistics correctly with balanced data")
     void shouldCalculateStatisticsCorrectlyWithBalancedData() {
-        when(sentimentRepository.count()).thenReturn(10L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(5L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(5L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.85);
-        when(sentimentRepository.averageConfidenceBySentiment("POSITIVO")).thenReturn(0.90);
-        when(sentimentRepository.averageConfidenceBySentiment("NEGATIVO")).thenReturn(0.80);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(5, 5, 0.90, 0.80);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -49,19 +50,16 @@ class StatisticsServiceTest {
         assertEquals(5, result.negative());
         assertEquals(50.0, result.positivePercentage());
         assertEquals(50.0, result.negativePercentage());
-        assertEquals(85.0, result.averageConfidence());
+        assertEquals(85.0, result.averageConfidence(), 0.00001);
+        assertEquals(90.0, result.positiveAverageConfidence(), 0.00001);
+        assertEquals(80.0, result.negativeAverageConfidence(), 0.00001);
         assertNotNull(result.timeline());
     }
 
     @Test
     @DisplayName("Should return zero statistics when no data exists")
     void shouldReturnZeroStatisticsWhenNoDataExists() {
-        when(sentimentRepository.count()).thenReturn(0L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(0L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(0L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.0);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.0);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(0, 0, 0.0, 0.0);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -77,12 +75,7 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should calculate percentages correctly with unbalanced data")
     void shouldCalculatePercentagesCorrectlyWithUnbalancedData() {
-        when(sentimentRepository.count()).thenReturn(100L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(75L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(25L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.90);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.85);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(75, 25, 0.90, 0.90);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -91,18 +84,13 @@ class StatisticsServiceTest {
         assertEquals(25, result.negative());
         assertEquals(75.0, result.positivePercentage());
         assertEquals(25.0, result.negativePercentage());
-        assertEquals(90.0, result.averageConfidence());
+        assertEquals(90.0, result.averageConfidence(), 0.00001);
     }
 
     @Test
     @DisplayName("Should handle only positive sentiments")
     void shouldHandleOnlyPositiveSentiments() {
-        when(sentimentRepository.count()).thenReturn(20L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(20L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(0L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.95);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.95);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(20, 0, 0.95, 0.0);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -116,12 +104,7 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should handle only negative sentiments")
     void shouldHandleOnlyNegativeSentiments() {
-        when(sentimentRepository.count()).thenReturn(15L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(0L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(15L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.88);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.88);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(0, 15, 0.0, 0.88);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -135,7 +118,9 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should throw exception when repository fails")
     void shouldThrowExceptionWhenRepositoryFails() {
-        when(sentimentRepository.count()).thenThrow(new RuntimeException("Database error"));
+        stubCounters(1, 0, 0.9, 0.0);
+        when(rollupService.getTimeline(any(LocalDateTime.class), any(LocalDateTime.class), eq(TimelineGranularity.DAY)))
+                .thenThrow(new RuntimeException("Database error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> statisticsService.getStatistics());
 
@@ -145,19 +130,14 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should include daily statistics in timeline")
     void shouldIncludeDailyStatisticsInTimeline() {
-        when(sentimentRepository.count()).thenReturn(10L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(6L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(4L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.85);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.85);
+        stubCounters(6, 4, 0.85, 0.85);
 
-        List<Object[]> dailyData = new ArrayList<>();
-        Object[] day1 = {java.sql.Date.valueOf("2026-01-07"), 5L, 3L, 8L};
-        Object[] day2 = {java.sql.Date.valueOf("2026-01-06"), 1L, 1L, 2L};
-        dailyData.add(day1);
-        dailyData.add(day2);
+        List<TimelineBucketDTO> dailyData = new ArrayList<>();
+        dailyData.add(new TimelineBucketDTO(LocalDate.of(2026, 1, 6).atStartOfDay(), 1L, 1L, 2L, 85.0));
+        dailyData.add(new TimelineBucketDTO(LocalDate.of(2026, 1, 7).atStartOfDay(), 5L, 3L, 8L, 85.0));
 
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(dailyData);
+        when(rollupService.getTimeline(any(LocalDateTime.class), any(LocalDateTime.class), eq(TimelineGranularity.DAY)))
+                .thenReturn(dailyData);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -172,14 +152,9 @@ class StatisticsServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle null average confidence")
-    void shouldHandleNullAverageConfidence() {
-        when(sentimentRepository.count()).thenReturn(5L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(3L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(2L);
-        when(sentimentRepository.averageConfidence()).thenReturn(null);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(null);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+    @DisplayName("Should handle missing confidence scores")
+    void shouldHandleMissingConfidenceScores() {
+        stubCounters(3, 2, 0.0, 0.0);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -190,12 +165,7 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should calculate percentages with decimal precision")
     void shouldCalculatePercentagesWithDecimalPrecision() {
-        when(sentimentRepository.count()).thenReturn(3L);
-        when(sentimentRepository.countBySentimentResult("POSITIVO")).thenReturn(2L);
-        when(sentimentRepository.countBySentimentResult("NEGATIVO")).thenReturn(1L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.85);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.85);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(2, 1, 0.85, 0.85);
 
         StatisticsDTO result = statisticsService.getStatistics();
 
@@ -206,15 +176,26 @@ class StatisticsServiceTest {
     @Test
     @DisplayName("Should fetch statistics for last 7 days")
     void shouldFetchStatisticsForLast7Days() {
-        when(sentimentRepository.count()).thenReturn(10L);
-        when(sentimentRepository.countBySentimentResult(anyString())).thenReturn(5L);
-        when(sentimentRepository.averageConfidence()).thenReturn(0.85);
-        when(sentimentRepository.averageConfidenceBySentiment(anyString())).thenReturn(0.85);
-        when(sentimentRepository.findDailyStatistics(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        stubCounters(5, 5, 0.85, 0.85);
 
         statisticsService.getStatistics();
 
-        verify(sentimentRepository).findDailyStatistics(any(LocalDateTime.class));
+        verify(rollupService).getTimeline(any(LocalDateTime.class), any(LocalDateTime.class), eq(TimelineGranularity.DAY));
     }
-}
 
+    @Test
+    @DisplayName("Should delegate timeline queries to rollups")
+    void shouldDelegateTimelineQueriesToRollups() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        List<TimelineBucketDTO> weeks = List.of(new TimelineBucketDTO(from, 3L, 1L, 4L, 90.0));
+        when(rollupService.getTimeline(from, to, TimelineGranularity.WEEK)).thenReturn(weeks);
+
+        assertSame(weeks, statisticsService.getTimeline(from, to, TimelineGranularity.WEEK));
+    }
+
+    private void stubCounters(long positive, long negative, double positiveAvg, double negativeAvg) {
+        when(statisticsCounters.snapshot()).thenReturn(new StatisticsCounters.Snapshot(
+                positive, negative, 0, positive * positiveAvg, negative * negativeAvg, 0));
+    }
+}
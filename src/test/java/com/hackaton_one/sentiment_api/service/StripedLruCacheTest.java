@@ -0,0 +1,66 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripedLruCache Unit Tests")
+class StripedLruCacheTest {
+
+    @Test
+    @DisplayName("Should use a single stripe with exact LRU for small capacities")
+    void shouldUseExactLruForSmallCapacity() {
+        StripedLruCache<String, Integer> cache = new StripedLruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.stripeCount());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    @DisplayName("Should split large capacities in stripes without exceeding the total")
+    void shouldBoundEntriesAcrossStripes() throws Exception {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(10_000);
+        assertTrue(cache.stripeCount() > 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 10_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int present = 0;
+        for (int key = 0; key < 40_000; key++) {
+            if (cache.get(key) != null) {
+                present++;
+            }
+        }
+        assertTrue(present <= 10_000, "cache holds " + present + " entries");
+        assertTrue(present >= 9_000, "cache holds " + present + " entries");
+    }
+}
@@ -0,0 +1,138 @@
+package com.hackaton_one.sentiment_api.service;
+
+import com.hackaton_one.sentiment_api.api.dto.TenantUsageDTO;
+import com.hackaton_one.sentiment_api.config.TenantProperties;
+import com.hackaton_one.sentiment_api.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TenantQuotaService Unit Tests")
+class TenantQuotaServiceTest {
+
+    private TenantProperties properties;
+    private TenantQuotaService tenantQuotaService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantProperties();
+        properties.getDefaults().setRequestsPerSecond(1);
+        properties.getDefaults().setBurst(5);
+        tenantQuotaService = new TenantQuotaService(properties);
+    }
+
+    @Test
+    @DisplayName("Should reject requests after burst is exhausted")
+    void shouldRejectRequestsAfterBurstIsExhausted() {
+        for (int i = 0; i < 5; i++) {
+            tenantQuotaService.consume("team-a", 1);
+        }
+
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> tenantQuotaService.consume("team-a", 1));
+
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should keep buckets independent per tenant")
+    void shouldKeepBucketsIndependentPerTenant() {
+        for (int i = 0; i < 5; i++) {
+            tenantQuotaService.consume("team-a", 1);
+        }
+
+        assertDoesNotThrow(() -> tenantQuotaService.consume("team-b", 1));
+    }
+
+    @Test
+    @DisplayName("Should not limit tenants with unlimited quota")
+    void shouldNotLimitTenantsWithUnlimitedQuota() {
+        TenantProperties.Quota unlimited = new TenantProperties.Quota();
+        unlimited.setRequestsPerSecond(0);
+        properties.getQuotas().put("backfill", unlimited);
+
+        assertDoesNotThrow(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                tenantQuotaService.consume("backfill", 1);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should grant exactly the burst under concurrency")
+    void shouldGrantExactlyTheBurstUnderConcurrency() throws Exception {
+        properties.getDefaults().setRequestsPerSecond(0.001);
+        properties.getDefaults().setBurst(100);
+        AtomicInteger granted = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                try {
+                    tenantQuotaService.consume("team-a", 1);
+                    granted.incrementAndGet();
+                } catch (RateLimitExceededException ignored) {
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    @DisplayName("Should admit a request larger than the burst on a full bucket and delay the next ones")
+    void shouldAdmitOversizedRequestOnFullBucket() {
+        properties.getDefaults().setRequestsPerSecond(10);
+        properties.getDefaults().setBurst(5);
+
+        assertDoesNotThrow(() -> tenantQuotaService.consume("team-a", 20));
+
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> tenantQuotaService.consume("team-a", 1));
+        // 20 textos a 10/s custam 2 s; descontada a rajada (0,5 s), o próximo texto espera 1,6 s
+        assertEquals(2, exception.getRetryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("Should make an oversized request wait only until the bucket is full")
+    void shouldRetryOversizedRequestOnceBucketIsFull() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TenantQuotaService.TokenBucket bucket = new TenantQuotaService.TokenBucket(10, 5);
+        long start = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(3, start));
+        long wait = bucket.tryAcquire(20, start);
+        assertEquals(3 * second / 10, wait);
+        assertTrue(bucket.tryAcquire(20, start + wait / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(20, start + wait));
+        assertEquals(2 * second - second / 2 + second / 10, bucket.tryAcquire(1, start + wait));
+    }
+
+    @Test
+    @DisplayName("Should report usage counters per tenant")
+    void shouldReportUsageCountersPerTenant() {
+        tenantQuotaService.consume("team-a", 3);
+        tenantQuotaService.recordInference("team-a", 3, TimeUnit.MILLISECONDS.toNanos(15));
+        assertThrows(RateLimitExceededException.class, () -> tenantQuotaService.consume("team-a", 5));
+
+        List<TenantUsageDTO> usage = tenantQuotaService.getUsage();
+
+        assertEquals(1, usage.size());
+        TenantUsageDTO teamA = usage.getFirst();
+        assertEquals("team-a", teamA.tenant());
+        assertEquals(3, teamA.accepted());
+        assertEquals(5, teamA.rejected());
+        assertEquals(3, teamA.inferences());
+        assertEquals(15, teamA.inferenceMillis());
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackaton_one.sentiment_api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TextNormalizer Unit Tests")
+class TextNormalizerTest {
+
+    private final TextNormalizer normalizer = new TextNormalizer();
+
+    @Test
+    @DisplayName("Should collapse whitespace and drop control and format characters")
+    void shouldCollapseWhitespace() {
+        assertEquals("Muito bom, recomendo!", normalizer.normalize("  Muito\u00A0\u200Bbom,\t\n recomendo!\u0007  "));
+    }
+
+    @Test
+    @DisplayName("Should apply NFKC so compatibility forms match the plain text")
+    void shouldApplyNfkc() {
+        assertEquals("otimo produto", normalizer.normalize("ｏｔｉｍｏ produto"));
+        assertEquals("\u00F3timo", normalizer.normalize("o\u0301timo"));
+    }
+
+    @Test
+    @DisplayName("Should strip markup and decode common entities")
+    void shouldStripMarkup() {
+        assertEquals("Produto bom & barato <3", normalizer.normalize(
+                "<div class=\"review\"><b>Produto</b> bom &amp; barato &lt;3</div><!-- x -->"));
+        assertEquals("a < b e c>d", normalizer.normalize("a < b e c>d"));
+        assertEquals("café", normalizer.normalize("caf&#233;"));
+        assertEquals("&naoexiste; ok", normalizer.normalize("&naoexiste; ok"));
+    }
+
+    @Test
+    @DisplayName("Should remove URLs and overlong tokens")
+    void shouldRemoveUrlsAndBlobs() {
+        String blob = "QUJD".repeat(100);
+        assertEquals("veja aqui depois", normalizer.normalize("veja https://loja.com/p?id=1 aqui WWW.loja.com " + blob + " depois"));
+    }
+
+    @Test
+    @DisplayName("Should cap runs of the same character, emoji included")
+    void shouldCapRepeats() {
+        assertEquals("ótimooo 😍😍😍", normalizer.normalize("ótimooooooooo " + "😍".repeat(100_000)));
+    }
+
+    @Test
+    @DisplayName("Should truncate to the token and character budgets at word boundaries")
+    void shouldTruncate() {
+        ReflectionTestUtils.setField(normalizer, "maxTokens", 3);
+        assertEquals("um dois três", normalizer.normalize("um dois três quatro cinco"));
+
+        ReflectionTestUtils.setField(normalizer, "maxTokens", 400);
+        ReflectionTestUtils.setField(normalizer, "maxChars", 11);
+        assertEquals("um dois", normalizer.normalize("um dois três quatro"));
+    }
+
+    @Test
+    @DisplayName("Should bound the work on huge inputs")
+    void shouldBoundHugeInputs() {
+        String huge = "<a".repeat(2_000_000) + " bom";
+
+        String normalized = normalizer.normalize(huge);
+
+        assertTrue(normalized.length() <= 2000);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the collapsed text when nothing is left")
+    void shouldFallBackWhenEmpty() {
+        assertEquals("https://loja.com/p/1", normalizer.normalize("  https://loja.com/p/1 "));
+    }
+
+    @Test
+    @DisplayName("Should leave texts untouched when disabled")
+    void shouldBypassWhenDisabled() {
+        ReflectionTestUtils.setField(normalizer, "enabled", false);
+
+        assertEquals("  <b>x</b> ", normalizer.normalize("  <b>x</b> "));
+    }
+
+    @Test
+    @DisplayName("Should collapse whitespace exactly like strip and \\s+")
+    void shouldCollapseLikeRegex() {
+        String text = "  a \t\n b\u000B\fc\r\n d  ";
+
+        assertEquals(text.strip().replaceAll("\\s+", " "), TextNormalizer.collapseWhitespace(text));
+    }
+}